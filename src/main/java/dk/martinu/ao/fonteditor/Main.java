@@ -2,30 +2,99 @@ package dk.martinu.ao.fonteditor;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 import javax.swing.SwingUtilities;
 
+import dk.martinu.ao.client.text.FontCodec;
 import dk.martinu.ao.fonteditor.swing.EditorFrame;
+import dk.martinu.ao.fonteditor.util.CoverageAnalyzer;
+import dk.martinu.ao.fonteditor.util.Log;
+import dk.martinu.ao.fonteditor.util.PhaseTimer;
 
 /**
  * Main class for starting a font editor application.
+ * <p>
+ * If the first argument is {@code --coverage}, then the coverage report of
+ * a font file is printed without starting the editor:
+ * <pre>
+ *     --coverage &lt;font file&gt; [language tag...]
+ * </pre>
+ * If no language tags are given, then missing characters are reported for
+ * all supported languages.
+ * <p>
+ * When the editor is started, the time spent in each phase of startup is
+ * logged once the frame has been shown.
  *
  * @author Adam Martinu
+ * @see CoverageAnalyzer
  * @since 1.0
  */
 public class Main {
 
     public static void main(@NotNull String[] args) {
+        if (args.length > 0 && args[0].equals("--coverage")) {
+            System.exit(printCoverage(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        final PhaseTimer timer = PhaseTimer.sinceProcessStart();
+        timer.mark("start JVM");
         try {
             SwingUtilities.invokeAndWait(() -> {
-                final EditorFrame editor = new EditorFrame();
+                timer.mark("start event dispatch thread");
+                final EditorFrame editor = new EditorFrame(timer);
                 editor.setVisible(true);
+                timer.mark("show frame");
+                // report after the events posted while showing the frame are processed
+                SwingUtilities.invokeLater(() -> {
+                    timer.mark("first layout and paint");
+                    Log.i("startup timing:\n" + timer.format());
+                });
             });
         }
         catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Prints the coverage report of the font file in {@code args[0]}, for
+     * the languages in the remaining arguments.
+     *
+     * @param args the font file followed by language tags
+     * @return the exit status
+     */
+    private static int printCoverage(@NotNull final String[] args) {
+        Objects.requireNonNull(args, "args is null");
+        if (args.length == 0) {
+            System.err.println("usage: --coverage <font file> [language tag...]");
+            return 2;
+        }
+        final MutableFont font;
+        try {
+            final File file = new File(args[0]);
+            font = new MutableFont(FontCodec.readFile(file), file);
+        }
+        catch (IOException e) {
+            System.err.println("could not read font file {" + args[0] + "}: " + e.getMessage());
+            return 1;
+        }
+        final List<Locale> locales;
+        if (args.length > 1) {
+            locales = new ArrayList<>(args.length - 1);
+            for (int i = 1; i < args.length; i++) {
+                locales.add(Locale.forLanguageTag(args[i]));
+            }
+        }
+        else {
+            locales = CoverageAnalyzer.getLocales();
+        }
+        System.out.println(CoverageAnalyzer.analyze(font.glyphList).format(locales));
+        return 0;
+    }
 }
@@ -8,6 +8,7 @@ import java.util.Objects;
 
 import dk.martinu.ao.client.text.Font;
 import dk.martinu.ao.client.text.Glyph;
+import dk.martinu.ao.fonteditor.edit.EditQueue;
 
 /**
  * Implementation of a mutable {@link Font}.
@@ -41,6 +42,11 @@ public class MutableFont {
      * last saved, otherwise {@code false}.
      */
     public boolean isDirty = false;
+    /**
+     * The edit queue for storing mutations made to many glyphs of this font
+     * at once.
+     */
+    public final EditQueue<MutableFont> editQueue = new EditQueue<>();
 
     /**
      * Constructs a new mutable font with the specified name and line height.
@@ -87,6 +93,24 @@ public class MutableFont {
         return new Font(name, height, glyphs);
     }
 
+    /**
+     * Returns a deep copy of this font. The copy does not share glyphs or
+     * arrays with this font, so it can be read on a background thread while
+     * this font is edited. Edit queues are not copied.
+     *
+     * @return a new copy of this font
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public MutableFont copy() {
+        final MutableFont copy = new MutableFont(name, height);
+        copy.file = file;
+        for (MutableGlyph glyph : glyphList)
+            copy.glyphList.add(new MutableGlyph(glyph.value, glyph.width, glyph.height, glyph.isWhitespace,
+                    glyph.offsetY, glyph.offsetX.clone(), glyph.getData().clone()));
+        return copy;
+    }
+
     /**
      * Returns {@code true} if the specified obj is equal to this font.
      *
@@ -2,13 +2,13 @@ package dk.martinu.ao.fonteditor;
 
 import dk.martinu.ao.client.text.Glyph;
 import dk.martinu.ao.fonteditor.edit.EditQueue;
+import dk.martinu.ao.fonteditor.util.AlphaExtractor;
+import dk.martinu.ao.fonteditor.util.RunLength;
 import org.jetbrains.annotations.*;
 
 import java.awt.image.BufferedImage;
 import java.util.*;
 
-import static java.awt.image.BufferedImage.*;
-
 /**
  * Implementation of a mutable {@link Glyph}.
  *
@@ -57,8 +57,14 @@ public class MutableGlyph {
      */
     public int[] offsetX;
     /**
-     * The image data (alpha values) of the glyph.
+     * The image data (alpha values) of the glyph, or {@code null} if the
+     * glyph is compressed. Code that may see compressed glyphs must read the
+     * data with {@link #getData()}, and call {@link #decompress()} before
+     * writing to it.
+     *
+     * @see #compress()
      */
+    @Nullable
     public byte[] data;
     /**
      * Flag set to {@code true} if changes has been made to this glyph since
@@ -89,6 +95,14 @@ public class MutableGlyph {
      * The edit queue for storing mutations made to this glyph.
      */
     public final EditQueue<MutableGlyph> editQueue = new EditQueue<>();
+    /**
+     * The run-length encoded image data of the glyph, or {@code null} if the
+     * glyph is not compressed.
+     *
+     * @see RunLength
+     */
+    @Nullable
+    protected byte[] rle = null;
 
     /**
      * Constructs a new mutable glyph that copies all fields from the specified
@@ -117,65 +131,37 @@ public class MutableGlyph {
     }
 
     /**
-     * Constructs a new mutable glyph with properties imported from the
-     * specified image.
+     * Constructs a new mutable glyph for the character {@code 'A'}, with
+     * properties imported from the specified image.
      *
      * @param image the image to import as a glyph
      * @throws NullPointerException if {@code image} is {@code null}
+     * @see #MutableGlyph(char, BufferedImage)
      */
     public MutableGlyph(@NotNull BufferedImage image) {
+        this('A', image);
+    }
+
+    /**
+     * Constructs a new mutable glyph for the specified character, with
+     * properties imported from the specified image. Images of any type are
+     * supported, see {@link AlphaExtractor} for how alpha values are
+     * computed.
+     *
+     * @param value the character value
+     * @param image the image to import as a glyph
+     * @throws NullPointerException if {@code image} is {@code null}
+     */
+    public MutableGlyph(char value, @NotNull BufferedImage image) {
         Objects.requireNonNull(image, "image is null");
-        value = 'A';
+        this.value = value;
         width = image.getWidth();
         height = image.getHeight();
         isWhitespace = false;
         offsetY = 0;
         offsetX = new int[0];
 
-        int len = width * height;
-        data = new byte[len];
-        switch (image.getType()) {
-            // 4 components, rgb + alpha
-            // transfer alpha samples directly into glyph data
-            case TYPE_INT_ARGB,
-                    TYPE_4BYTE_ABGR -> {
-                int[] samples = new int[len];
-                image.getRaster().getSamples(0, 0, width, height, 3, samples);
-                for (int i = 0; i < len; i++) {
-                    data[i] = (byte) samples[i];
-                }
-            }
-            // 3 components, no alpha
-            // compute alpha as average distance from white (#FFFFFF) to pixel rgb
-            case TYPE_INT_RGB,
-                    TYPE_INT_BGR,
-                    TYPE_3BYTE_BGR -> {
-                int[] pixels = new int[len * 3];
-                image.getRaster().getPixels(0, 0, width, height, pixels);
-                for (int i = 0, pi; i < len; i++) {
-                    // pixel index
-                    pi = i * 3;
-                    int rgb = pixels[pi] + pixels[pi + 1] + pixels[pi + 2];
-                    data[i] = (byte) ((765 - rgb) / 3);
-                }
-            }
-            // TESTME 4 components, pre-multiplied alpha
-            // same process as 3 component images, but ignore alpha channel
-            case TYPE_INT_ARGB_PRE,
-                    TYPE_4BYTE_ABGR_PRE -> {
-                int[] pixels = new int[len * 4];
-                image.getRaster().getPixels(0, 0, width, height, pixels);
-                for (int i = 0, pi; i < len; i++) {
-                    // pixel index
-                    pi = i * 4;
-                    int rgb = pixels[pi] + pixels[pi + 1] + pixels[pi + 2];
-                    data[i] = (byte) ((765 - rgb) / 3);
-                }
-            }
-            // TODO implement solutions for remaining image types
-            default ->
-                    throw new IllegalArgumentException("unsupported image type {" + image.getType() + "}");
-        }
+        data = AlphaExtractor.extract(image);
 
         name = createName(value);
     }
@@ -191,8 +177,10 @@ public class MutableGlyph {
      * @param offsetY      the vertical offset
      * @param offsetX      the horizontal offsets
      * @param data         the alpha data array
+     * @throws NullPointerException if {@code offsetX} or {@code data} is
+     *                              {@code null}
      */
-    private MutableGlyph(
+    public MutableGlyph(
             char value,
             int width,
             int height,
@@ -218,7 +206,121 @@ public class MutableGlyph {
     @Contract(value = "-> new", pure = true)
     @NotNull
     public Glyph convertToGlyph() {
-        return new Glyph(isWhitespace, width, height, value, offsetY, offsetX, data);
+        return new Glyph(isWhitespace, width, height, value, offsetY, offsetX, getData());
+    }
+
+    /**
+     * Compresses the image data of this glyph with run-length encoding, if
+     * the encoded data is smaller. Compressed glyphs must not be edited in a
+     * canvas until they are decompressed.
+     *
+     * @return {@code true} if the glyph is compressed, otherwise
+     * {@code false}
+     * @see #decompress()
+     */
+    @Contract(mutates = "this")
+    public synchronized boolean compress() {
+        if (data != null) {
+            final byte[] encoded = RunLength.encode(data);
+            if (encoded.length < data.length) {
+                rle = encoded;
+                data = null;
+            }
+        }
+        return data == null;
+    }
+
+    /**
+     * Decompresses the image data of this glyph. Does nothing if the glyph is
+     * not compressed.
+     *
+     * @see #compress()
+     */
+    @Contract(mutates = "this")
+    public synchronized void decompress() {
+        if (data == null) {
+            data = RunLength.decode(Objects.requireNonNull(rle, "rle is null"), width * height);
+            rle = null;
+        }
+    }
+
+    /**
+     * Returns the image data of this glyph. If the glyph is compressed, then
+     * a new decoded array is returned and the glyph remains compressed;
+     * changes to the returned array are not reflected in the glyph.
+     *
+     * @return the image data
+     * @see #decompress()
+     */
+    @Contract(pure = true)
+    @NotNull
+    public synchronized byte[] getData() {
+        if (data != null) {
+            return data;
+        }
+        return RunLength.decode(Objects.requireNonNull(rle, "rle is null"), width * height);
+    }
+
+    /**
+     * Returns the number of bytes used to store the image data of this glyph
+     * in memory, which is smaller than {@code width * height} if the glyph is
+     * compressed.
+     */
+    @Contract(pure = true)
+    public synchronized int getDataSize() {
+        return data != null ? data.length : rle != null ? rle.length : 0;
+    }
+
+    /**
+     * Returns {@code true} if the image data of this glyph is compressed,
+     * otherwise {@code false}.
+     *
+     * @see #compress()
+     */
+    @Contract(pure = true)
+    public synchronized boolean isCompressed() {
+        return data == null;
+    }
+
+    /**
+     * Sets the image data of this glyph, replacing any compressed data.
+     *
+     * @param data the new image data
+     * @throws NullPointerException if {@code data} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public synchronized void setData(@NotNull final byte[] data) {
+        this.data = Objects.requireNonNull(data, "data is null");
+        rle = null;
+    }
+
+    /**
+     * Replaces the compressed data of this glyph with the compressed data of
+     * the specified glyph, such that the data is only stored once. Data is
+     * only shared if both glyphs are compressed and their compressed data is
+     * equal. Shared data is never modified, as glyphs are decompressed into
+     * a new array before they are edited.
+     *
+     * @param glyph the glyph to share data with
+     * @return {@code true} if the data is shared, otherwise {@code false}
+     * @throws NullPointerException if {@code glyph} is {@code null}
+     * @see #compress()
+     */
+    @Contract(mutates = "this")
+    public boolean shareData(@NotNull final MutableGlyph glyph) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        final byte[] shared;
+        synchronized (glyph) {
+            shared = glyph.rle;
+        }
+        synchronized (this) {
+            if (shared == null || rle == null || rle == shared || width != glyph.width || height != glyph.height
+                    || !Arrays.equals(rle, shared)) {
+                return false;
+            }
+            rle = shared;
+            return true;
+        }
     }
 
     /**
@@ -241,7 +343,7 @@ public class MutableGlyph {
                     && mGlyph.value == value
                     && mGlyph.offsetY == offsetY
                     && Arrays.equals(mGlyph.offsetX, offsetX)
-                    && Arrays.equals(mGlyph.data, data);
+                    && Arrays.equals(mGlyph.getData(), getData());
         }
         else {
             return false;
@@ -0,0 +1,163 @@
+package dk.martinu.ao.fonteditor.edit;
+
+import org.jetbrains.annotations.*;
+
+import java.util.Objects;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * An {@link Edit} that changes the alpha values of a rectangular region of a
+ * glyph's data. Only the values inside the region are stored, both before and
+ * after the edit, which keeps the edit compact when only a small part of a
+ * large glyph has changed.
+ *
+ * @author Adam Martinu
+ * @see #create(MutableGlyph, byte[], int, int, int, int)
+ * @since 1.0
+ */
+public class DataEdit extends AbstractEdit<MutableGlyph> {
+
+    /**
+     * Creates a new edit for the specified region of a glyph, where
+     * {@code oldData} holds the alpha values of the entire glyph before it
+     * was changed, and the glyph data holds the current (new) values. The
+     * region values are copied from both arrays.
+     *
+     * @param glyph   the glyph that was changed
+     * @param oldData the glyph data before it was changed
+     * @param x       horizontal coordinate of the changed region
+     * @param y       vertical coordinate of the changed region
+     * @param width   width of the changed region
+     * @param height  height of the changed region
+     * @return a new edit
+     * @throws NullPointerException     if {@code glyph} or {@code oldData} is
+     *                                  {@code null}
+     * @throws IllegalArgumentException if {@code oldData} is not the same
+     *                                  length as the glyph data
+     */
+    @Contract(value = "_, _, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static DataEdit create(@NotNull final MutableGlyph glyph, @NotNull final byte[] oldData, final int x,
+            final int y, final int width, final int height) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        Objects.requireNonNull(oldData, "oldData is null");
+        final byte[] data = glyph.getData();
+        if (oldData.length != data.length) {
+            throw new IllegalArgumentException("oldData length does not match glyph data");
+        }
+        return new DataEdit(glyph, x, y, width, height,
+                copyRegion(oldData, glyph.width, x, y, width, height),
+                copyRegion(data, glyph.width, x, y, width, height));
+    }
+
+    /**
+     * Returns a new array containing the values of the specified region of
+     * an array of alpha values.
+     *
+     * @param data   the array of alpha values
+     * @param stride the width of the pixel grid in {@code data}
+     * @param x      horizontal coordinate of the region
+     * @param y      vertical coordinate of the region
+     * @param width  width of the region
+     * @param height height of the region
+     * @return a new array of the region values
+     */
+    @Contract(value = "_, _, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static byte[] copyRegion(@NotNull final byte[] data, final int stride, final int x, final int y,
+            final int width, final int height) {
+        final byte[] region = new byte[width * height];
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(data, x + (y + row) * stride, region, row * width, width);
+        }
+        return region;
+    }
+
+    /**
+     * Horizontal coordinate of the region.
+     */
+    public final int x;
+    /**
+     * Vertical coordinate of the region.
+     */
+    public final int y;
+    /**
+     * Width of the region.
+     */
+    public final int width;
+    /**
+     * Height of the region.
+     */
+    public final int height;
+    /**
+     * Alpha values of the region before the edit.
+     */
+    @NotNull
+    protected final byte[] oldValues;
+    /**
+     * Alpha values of the region after the edit.
+     */
+    @NotNull
+    protected final byte[] newValues;
+
+    /**
+     * Constructs a new edit.
+     *
+     * @param glyph     the glyph that was changed
+     * @param x         horizontal coordinate of the region
+     * @param y         vertical coordinate of the region
+     * @param width     width of the region
+     * @param height    height of the region
+     * @param oldValues alpha values of the region before the edit
+     * @param newValues alpha values of the region after the edit
+     * @throws NullPointerException if {@code glyph}, {@code oldValues} or
+     *                              {@code newValues} is {@code null}
+     */
+    public DataEdit(@NotNull final MutableGlyph glyph, final int x, final int y, final int width,
+            final int height, @NotNull final byte[] oldValues, @NotNull final byte[] newValues) {
+        super(Objects.requireNonNull(glyph, "glyph is null"));
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.oldValues = Objects.requireNonNull(oldValues, "oldValues is null");
+        this.newValues = Objects.requireNonNull(newValues, "newValues is null");
+    }
+
+    /**
+     * Writes the new values of the region to the glyph data.
+     */
+    @Override
+    public void redo() {
+        write(newValues);
+    }
+
+    /**
+     * Writes the old values of the region to the glyph data.
+     */
+    @Override
+    public void undo() {
+        write(oldValues);
+    }
+
+    /**
+     * Writes the specified region values to the glyph data.
+     *
+     * @throws IllegalStateException if the region is not within the bounds
+     *                               of the glyph, or the size of the glyph
+     *                               data does not match its width and height
+     */
+    @Contract(mutates = "this")
+    protected void write(@NotNull final byte[] values) {
+        parent.decompress();
+        if (x + width > parent.width || y + height > parent.height
+                || parent.data.length != parent.width * parent.height) {
+            throw new IllegalStateException("region is not within glyph bounds");
+        }
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(values, row * width, parent.data, x + (y + row) * parent.width, width);
+        }
+        parent.isDirty = true;
+    }
+}
@@ -6,8 +6,8 @@ import java.util.Objects;
 
 /**
  * An event which indicates a structural change made to an {@link EditQueue}.
- * The queue was changed either by appending or inserting an edit, or by
- * undoing or redoing an edit already in the queue.
+ * The queue was changed either by appending or inserting an edit, by
+ * undoing or redoing an edit already in the queue, or by clearing the queue.
  *
  * @param type     the type of event
  * @param edit     the edit
@@ -43,6 +43,12 @@ public record EditEvent<T>(@NotNull Type type, @NotNull Edit<T> edit, int positi
          * @see EditQueue#add(Edit)
          */
         APPEND,
+        /**
+         * All edits were removed from the queue.
+         *
+         * @see EditQueue#clear()
+         */
+        CLEAR,
         /**
          * The edit was inserted into the queue.
          *
@@ -63,6 +63,40 @@ public class EditQueue<T> {
         listeners.add(Objects.requireNonNull(listener, "listener is null"));
     }
 
+    /**
+     * Removes all edits from the queue and notifies all event listeners that
+     * the queue has changed. The edits can no longer be undone or redone.
+     * The event type is {@code CLEAR}.
+     */
+    @Contract(mutates = "this")
+    public void clear() {
+        cursor = new Node<>(new RootEdit<>());
+        final EditEvent<T> event = new EditEvent<>(CLEAR, cursor.edit, cursor.position);
+        listeners.forEach(listener -> listener.queueChanged(event));
+    }
+
+    /**
+     * Returns {@code true} if there is an edit in the queue that can be
+     * redone, otherwise {@code false}.
+     *
+     * @see #redo()
+     */
+    @Contract(pure = true)
+    public boolean canRedo() {
+        return cursor.next != null;
+    }
+
+    /**
+     * Returns {@code true} if there is an edit in the queue that can be
+     * undone, otherwise {@code false}.
+     *
+     * @see #undo()
+     */
+    @Contract(pure = true)
+    public boolean canUndo() {
+        return cursor.previous != null;
+    }
+
     /**
      * Returns the current cursor position in the queue. If the queue is empty
      * or all edits have been undone, then the returned value is {@code -1}.
@@ -0,0 +1,61 @@
+package dk.martinu.ao.fonteditor.edit;
+
+import org.jetbrains.annotations.*;
+
+import java.util.List;
+import java.util.Objects;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * An {@link Edit} of a font that groups edits of many of its glyphs, such
+ * that a font-wide operation can be undone and redone as a single edit.
+ * Glyph edits are redone in order and undone in reverse order.
+ *
+ * @author Adam Martinu
+ * @since 1.0
+ */
+public class FontEdit extends AbstractEdit<MutableFont> {
+
+    /**
+     * The edits of the glyphs that were changed.
+     */
+    @NotNull
+    public final List<Edit<MutableGlyph>> edits;
+
+    /**
+     * Constructs a new edit.
+     *
+     * @param font  the font that was changed
+     * @param edits the edits of the glyphs that were changed
+     * @throws NullPointerException if {@code font} or {@code edits} is
+     *                              {@code null}
+     */
+    public FontEdit(@NotNull final MutableFont font, @NotNull final List<Edit<MutableGlyph>> edits) {
+        super(Objects.requireNonNull(font, "font is null"));
+        this.edits = List.copyOf(Objects.requireNonNull(edits, "edits is null"));
+    }
+
+    /**
+     * Redoes all glyph edits in order.
+     */
+    @Override
+    public void redo() {
+        for (Edit<MutableGlyph> edit : edits) {
+            edit.redo();
+        }
+        parent.isDirty = true;
+    }
+
+    /**
+     * Undoes all glyph edits in reverse order.
+     */
+    @Override
+    public void undo() {
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            edits.get(i).undo();
+        }
+        parent.isDirty = true;
+    }
+}
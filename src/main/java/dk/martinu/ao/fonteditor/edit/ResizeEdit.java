@@ -0,0 +1,168 @@
+package dk.martinu.ao.fonteditor.edit;
+
+import org.jetbrains.annotations.*;
+
+import java.awt.Rectangle;
+import java.util.Objects;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.AlphaView;
+
+/**
+ * An {@link Edit} that replaces the size, vertical offset and data of a
+ * glyph. Both the old and new data arrays are stored, so the edit is best
+ * suited for changes that affect the entire glyph, such as trimming empty
+ * borders.
+ *
+ * @author Adam Martinu
+ * @see #trim(MutableGlyph, boolean)
+ * @since 1.0
+ */
+public class ResizeEdit extends AbstractEdit<MutableGlyph> {
+
+    /**
+     * Removes empty (fully transparent) rows along the top and bottom of the
+     * specified glyph, and optionally empty columns along the left and right,
+     * and returns an edit of the change. The vertical offset of the glyph is
+     * increased by the number of rows removed from the top, such that the
+     * glyph is drawn at the same position. The glyph is not changed if it is
+     * whitespace, completely empty or has no empty borders.
+     * <p>
+     * <b>NOTE:</b> the width of a glyph is also its advance, so removing
+     * columns changes the spacing of the glyph when drawn in text.
+     *
+     * @param glyph      the glyph to trim
+     * @param horizontal {@code true} if empty columns should also be removed,
+     *                   otherwise {@code false}
+     * @return an edit of the trimmed glyph, or {@code null} if the glyph was
+     * not changed
+     * @throws NullPointerException if {@code glyph} is {@code null}
+     */
+    @Contract(mutates = "param1")
+    @Nullable
+    public static ResizeEdit trim(@NotNull final MutableGlyph glyph, final boolean horizontal) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        if (glyph.isWhitespace) {
+            return null;
+        }
+        final byte[] data = glyph.getData();
+        if (data.length != glyph.width * glyph.height) {
+            return null;
+        }
+        final AlphaView view = new AlphaView(data, 0, glyph.width, glyph.width, glyph.height);
+        final Rectangle bounds = view.getContentBounds();
+        if (bounds.isEmpty()) {
+            return null;
+        }
+        if (!horizontal) {
+            bounds.x = 0;
+            bounds.width = glyph.width;
+        }
+        if (bounds.width == glyph.width && bounds.height == glyph.height) {
+            return null;
+        }
+        final ResizeEdit edit = new ResizeEdit(glyph,
+                glyph.width, glyph.height, glyph.offsetY, data,
+                bounds.width, bounds.height, glyph.offsetY + bounds.y,
+                view.region(bounds.x, bounds.y, bounds.width, bounds.height).copy().buffer());
+        edit.redo();
+        return edit;
+    }
+
+    /**
+     * Width of the glyph before the edit.
+     */
+    public final int oldWidth;
+    /**
+     * Height of the glyph before the edit.
+     */
+    public final int oldHeight;
+    /**
+     * Vertical offset of the glyph before the edit.
+     */
+    public final int oldOffsetY;
+    /**
+     * Width of the glyph after the edit.
+     */
+    public final int newWidth;
+    /**
+     * Height of the glyph after the edit.
+     */
+    public final int newHeight;
+    /**
+     * Vertical offset of the glyph after the edit.
+     */
+    public final int newOffsetY;
+    /**
+     * Data of the glyph before the edit.
+     */
+    @NotNull
+    protected final byte[] oldData;
+    /**
+     * Data of the glyph after the edit.
+     */
+    @NotNull
+    protected final byte[] newData;
+
+    /**
+     * Constructs a new edit.
+     *
+     * @param glyph      the glyph that was changed
+     * @param oldWidth   width of the glyph before the edit
+     * @param oldHeight  height of the glyph before the edit
+     * @param oldOffsetY vertical offset of the glyph before the edit
+     * @param oldData    data of the glyph before the edit
+     * @param newWidth   width of the glyph after the edit
+     * @param newHeight  height of the glyph after the edit
+     * @param newOffsetY vertical offset of the glyph after the edit
+     * @param newData    data of the glyph after the edit
+     * @throws NullPointerException if {@code glyph}, {@code oldData} or
+     *                              {@code newData} is {@code null}
+     */
+    public ResizeEdit(@NotNull final MutableGlyph glyph, final int oldWidth, final int oldHeight,
+            final int oldOffsetY, @NotNull final byte[] oldData, final int newWidth, final int newHeight,
+            final int newOffsetY, @NotNull final byte[] newData) {
+        super(Objects.requireNonNull(glyph, "glyph is null"));
+        this.oldWidth = oldWidth;
+        this.oldHeight = oldHeight;
+        this.oldOffsetY = oldOffsetY;
+        this.oldData = Objects.requireNonNull(oldData, "oldData is null");
+        this.newWidth = newWidth;
+        this.newHeight = newHeight;
+        this.newOffsetY = newOffsetY;
+        this.newData = Objects.requireNonNull(newData, "newData is null");
+    }
+
+    /**
+     * Returns the number of bytes of glyph data removed by this edit, or a
+     * negative number if data was added.
+     */
+    @Contract(pure = true)
+    public int getBytesReclaimed() {
+        return oldData.length - newData.length;
+    }
+
+    /**
+     * Sets the new size, vertical offset and data of the glyph.
+     */
+    @Override
+    public void redo() {
+        parent.width = newWidth;
+        parent.height = newHeight;
+        parent.offsetY = newOffsetY;
+        parent.setData(newData);
+        parent.isDirty = true;
+    }
+
+    /**
+     * Sets the old size, vertical offset and data of the glyph.
+     */
+    @Override
+    public void undo() {
+        parent.width = oldWidth;
+        parent.height = oldHeight;
+        parent.offsetY = oldOffsetY;
+        parent.setData(oldData);
+        parent.isDirty = true;
+    }
+}
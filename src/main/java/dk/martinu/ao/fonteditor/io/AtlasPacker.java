@@ -0,0 +1,435 @@
+package dk.martinu.ao.fonteditor.io;
+
+import org.jetbrains.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.*;
+import java.util.*;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.AlphaView;
+
+/**
+ * Packs the data of many glyphs into one or more texture atlas pages, such
+ * that a renderer can upload a few textures instead of a texture for each
+ * glyph. Glyphs are placed with a skyline bottom-left packer, tallest glyphs
+ * first. Each page is a square of the maximum page size while packing, and
+ * is shrunk to the smallest power-of-two size that contains its glyphs when
+ * done.
+ * <p>
+ * Whitespace glyphs, and glyphs without data, are not packed.
+ *
+ * @author Adam Martinu
+ * @see #pack(List)
+ * @see #write(Atlas, File)
+ * @since 1.0
+ */
+public class AtlasPacker {
+
+    /**
+     * The default maximum page size.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    /**
+     * The default padding between glyphs.
+     */
+    public static final int DEFAULT_PADDING = 1;
+    /**
+     * Magic number at the start of UV table files, {@code "AOUV"}.
+     */
+    public static final int UV_MAGIC = 0x414F5556;
+    /**
+     * Version of the UV table file format.
+     */
+    public static final int UV_VERSION = 1;
+
+    /**
+     * Writes the pages of the specified atlas as grayscale PNG images, where
+     * the gray level of each pixel is its alpha value, and the UV table of
+     * the atlas to the specified file. Page images are written next to the
+     * UV table file and named after it with the page index appended, for
+     * example {@code font.uv} is written with pages {@code font_0.png},
+     * {@code font_1.png} and so on.
+     * <p>
+     * The UV table is written in big-endian byte order as:
+     * <pre>
+     *     int   magic ("AOUV")
+     *     short version
+     *     short page count
+     *     page count * (short width, short height)
+     *     int   region count
+     *     region count * (char value, short page, short x, short y, short width, short height)
+     * </pre>
+     *
+     * @param atlas the atlas to write
+     * @param file  the UV table file to write
+     * @throws NullPointerException if {@code atlas} or {@code file} is
+     *                              {@code null}
+     * @throws IOException          if an I/O error occurs
+     */
+    public static void write(@NotNull final Atlas atlas, @NotNull final File file) throws IOException {
+        Objects.requireNonNull(atlas, "atlas is null");
+        Objects.requireNonNull(file, "file is null");
+        final String name = file.getName();
+        final int index = name.lastIndexOf('.');
+        final String baseName = index != -1 ? name.substring(0, index) : name;
+        final File dir = file.getAbsoluteFile().getParentFile();
+
+        for (int i = 0; i < atlas.pages().size(); i++) {
+            final Page page = atlas.pages().get(i);
+            final BufferedImage image = new BufferedImage(page.width(), page.height(),
+                    BufferedImage.TYPE_BYTE_GRAY);
+            final byte[] buffer = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            System.arraycopy(page.data(), 0, buffer, 0, page.data().length);
+            if (!ImageIO.write(image, "png", new File(dir, baseName + "_" + i + ".png"))) {
+                throw new IOException("no PNG image writer available");
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(UV_MAGIC);
+            out.writeShort(UV_VERSION);
+            out.writeShort(atlas.pages().size());
+            for (Page page : atlas.pages()) {
+                out.writeShort(page.width());
+                out.writeShort(page.height());
+            }
+            out.writeInt(atlas.regions().size());
+            for (Region region : atlas.regions()) {
+                out.writeChar(region.value());
+                out.writeShort(region.page());
+                out.writeShort(region.x());
+                out.writeShort(region.y());
+                out.writeShort(region.width());
+                out.writeShort(region.height());
+            }
+        }
+    }
+
+    /**
+     * The maximum width and height of a page.
+     */
+    public final int pageSize;
+    /**
+     * The number of empty pixels between glyphs.
+     */
+    public final int padding;
+
+    /**
+     * Constructs a new packer.
+     *
+     * @param pageSize the maximum width and height of a page, must be a
+     *                 power of two no larger than {@code 32768}
+     * @param padding  the number of empty pixels between glyphs
+     * @throws IllegalArgumentException if {@code pageSize} is not a power of
+     *                                  two, or is too large, or
+     *                                  {@code padding} is negative
+     */
+    public AtlasPacker(final int pageSize, final int padding) {
+        if (pageSize < 1 || pageSize > 32768 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("page size is not a power of two {" + pageSize + "}");
+        }
+        if (padding < 0) {
+            throw new IllegalArgumentException("padding is negative");
+        }
+        this.pageSize = pageSize;
+        this.padding = padding;
+    }
+
+    /**
+     * Packs the specified glyphs into an atlas. The regions of the atlas are
+     * in the same order as the packed glyphs in {@code glyphs}.
+     *
+     * @param glyphs the glyphs to pack
+     * @return a new atlas
+     * @throws NullPointerException     if {@code glyphs} is {@code null}
+     * @throws IllegalArgumentException if a glyph does not fit on a page
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public Atlas pack(@NotNull final List<MutableGlyph> glyphs) {
+        Objects.requireNonNull(glyphs, "glyphs is null");
+        // glyphs with data to pack
+        final ArrayList<MutableGlyph> packed = new ArrayList<>(glyphs.size());
+        for (MutableGlyph glyph : glyphs) {
+            if (!glyph.isWhitespace && glyph.width > 0 && glyph.height > 0
+                    && glyph.getData().length == glyph.width * glyph.height) {
+                if (glyph.width + padding > pageSize || glyph.height + padding > pageSize) {
+                    throw new IllegalArgumentException("glyph does not fit on a page {" + glyph.name + "}");
+                }
+                packed.add(glyph);
+            }
+        }
+        // indices of glyphs in packing order, tallest first
+        final Integer[] order = new Integer[packed.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            final MutableGlyph ga = packed.get(a);
+            final MutableGlyph gb = packed.get(b);
+            return ga.height != gb.height ? gb.height - ga.height : gb.width - ga.width;
+        });
+
+        // position of each glyph as [page, x, y]
+        final int[] positions = new int[order.length * 3];
+        final ArrayList<Skyline> skylines = new ArrayList<>();
+        Skyline skyline = null;
+        for (int i : order) {
+            final MutableGlyph glyph = packed.get(i);
+            // pad right and bottom edges only, page borders need no padding
+            final int w = glyph.width + padding;
+            final int h = glyph.height + padding;
+            if (skyline == null || !skyline.insert(w, h, positions, i * 3 + 1)) {
+                skyline = new Skyline(pageSize);
+                skylines.add(skyline);
+                skyline.insert(w, h, positions, i * 3 + 1);
+            }
+            positions[i * 3] = skylines.size() - 1;
+            skyline.usedWidth = Math.max(skyline.usedWidth, positions[i * 3 + 1] + glyph.width);
+            skyline.usedHeight = Math.max(skyline.usedHeight, positions[i * 3 + 2] + glyph.height);
+        }
+
+        // copy glyph data into pages of the smallest power-of-two size
+        final ArrayList<Page> pages = new ArrayList<>(skylines.size());
+        for (Skyline s : skylines) {
+            final int width = nextPowerOfTwo(s.usedWidth);
+            final int height = nextPowerOfTwo(s.usedHeight);
+            pages.add(new Page(width, height, new byte[width * height]));
+        }
+        final ArrayList<Region> regions = new ArrayList<>(packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            final MutableGlyph glyph = packed.get(i);
+            final Page page = pages.get(positions[i * 3]);
+            final int x = positions[i * 3 + 1];
+            final int y = positions[i * 3 + 2];
+            new AlphaView(glyph.getData(), 0, glyph.width, glyph.width, glyph.height)
+                    .copyTo(page.data(), page.width(), page.height(), x, y);
+            regions.add(new Region(glyph.value, positions[i * 3], x, y, glyph.width, glyph.height));
+        }
+        return new Atlas(pages, regions);
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to
+     * {@code n}, or {@code 1} if {@code n} is less than {@code 1}.
+     */
+    @Contract(pure = true)
+    private static int nextPowerOfTwo(final int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * A packed atlas.
+     *
+     * @param pages   the pages of the atlas
+     * @param regions the region of each packed glyph
+     */
+    public record Atlas(@NotNull List<Page> pages, @NotNull List<Region> regions) {
+
+        /**
+         * Returns the fraction of page pixels that are covered by glyphs, in
+         * range 0.0-1.0 inclusive, or {@code 0.0} if the atlas has no pages.
+         */
+        @Contract(pure = true)
+        public double getOccupancy() {
+            long area = 0L;
+            for (Page page : pages) {
+                area += (long) page.width() * page.height();
+            }
+            if (area == 0L) {
+                return 0.0d;
+            }
+            long used = 0L;
+            for (Region region : regions) {
+                used += (long) region.width() * region.height();
+            }
+            return (double) used / area;
+        }
+
+        /**
+         * Returns the fraction of pixels of the specified page that are
+         * covered by glyphs, in range 0.0-1.0 inclusive.
+         *
+         * @param index the page index
+         * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+         */
+        @Contract(pure = true)
+        public double getOccupancy(final int index) {
+            final Page page = pages.get(index);
+            long used = 0L;
+            for (Region region : regions) {
+                if (region.page() == index) {
+                    used += (long) region.width() * region.height();
+                }
+            }
+            return (double) used / ((long) page.width() * page.height());
+        }
+    }
+
+    /**
+     * A page of an atlas.
+     *
+     * @param width  the width of the page
+     * @param height the height of the page
+     * @param data   the alpha values of the page
+     */
+    public record Page(int width, int height, @NotNull byte[] data) { }
+
+    /**
+     * The region of a glyph in an atlas.
+     *
+     * @param value  the character value of the glyph
+     * @param page   the index of the page that contains the glyph
+     * @param x      horizontal coordinate of the glyph in the page
+     * @param y      vertical coordinate of the glyph in the page
+     * @param width  width of the glyph
+     * @param height height of the glyph
+     */
+    public record Region(char value, int page, int x, int y, int width, int height) { }
+
+    /**
+     * Skyline of a single page, stored as segments ordered from left to
+     * right. Each segment has a horizontal position, a width and the height
+     * of the skyline above it.
+     */
+    private static class Skyline {
+
+        /**
+         * The width and height of the page.
+         */
+        private final int size;
+        /**
+         * Horizontal position of each segment.
+         */
+        private int[] x = new int[16];
+        /**
+         * Skyline height of each segment.
+         */
+        private int[] y = new int[16];
+        /**
+         * Width of each segment.
+         */
+        private int[] w = new int[16];
+        /**
+         * Number of segments.
+         */
+        private int count = 1;
+        /**
+         * The largest right edge of all glyphs on the page, excluding
+         * padding.
+         */
+        private int usedWidth = 0;
+        /**
+         * The largest bottom edge of all glyphs on the page, excluding
+         * padding.
+         */
+        private int usedHeight = 0;
+
+        /**
+         * Constructs a new skyline for an empty page.
+         */
+        private Skyline(final int size) {
+            this.size = size;
+            w[0] = size;
+        }
+
+        /**
+         * Inserts a rectangle of the specified size at the lowest position,
+         * then leftmost, and stores its position in {@code dst}. Returns
+         * {@code false} if the rectangle does not fit.
+         */
+        private boolean insert(final int width, final int height, @NotNull final int[] dst, final int dstIndex) {
+            int bestIndex = -1;
+            int bestY = Integer.MAX_VALUE;
+            int bestBottom = Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                if (x[i] + width > size) {
+                    break;
+                }
+                // height of the skyline under the rectangle
+                int top = 0;
+                for (int j = i, remaining = width; remaining > 0; j++) {
+                    top = Math.max(top, y[j]);
+                    remaining -= w[j];
+                }
+                if (top + height <= size && top + height < bestBottom) {
+                    bestIndex = i;
+                    bestY = top;
+                    bestBottom = top + height;
+                }
+            }
+            if (bestIndex == -1) {
+                return false;
+            }
+            final int left = x[bestIndex];
+            dst[dstIndex] = left;
+            dst[dstIndex + 1] = bestY;
+
+            // remove segments covered by the rectangle
+            int end = bestIndex;
+            while (end < count && x[end] + w[end] <= left + width) {
+                end++;
+            }
+            if (end < count && x[end] < left + width) {
+                // shorten partially covered segment
+                w[end] -= left + width - x[end];
+                x[end] = left + width;
+            }
+            // replace covered segments with new segment
+            final int removed = end - bestIndex;
+            if (removed == 0) {
+                ensureCapacity(count + 1);
+                System.arraycopy(x, bestIndex, x, bestIndex + 1, count - bestIndex);
+                System.arraycopy(y, bestIndex, y, bestIndex + 1, count - bestIndex);
+                System.arraycopy(w, bestIndex, w, bestIndex + 1, count - bestIndex);
+                count++;
+            }
+            else if (removed > 1) {
+                System.arraycopy(x, end, x, bestIndex + 1, count - end);
+                System.arraycopy(y, end, y, bestIndex + 1, count - end);
+                System.arraycopy(w, end, w, bestIndex + 1, count - end);
+                count -= removed - 1;
+            }
+            x[bestIndex] = left;
+            y[bestIndex] = bestBottom;
+            w[bestIndex] = width;
+
+            // merge with neighbours of equal height
+            if (bestIndex + 1 < count && y[bestIndex + 1] == bestBottom) {
+                w[bestIndex] += w[bestIndex + 1];
+                remove(bestIndex + 1);
+            }
+            if (bestIndex > 0 && y[bestIndex - 1] == bestBottom) {
+                w[bestIndex - 1] += w[bestIndex];
+                remove(bestIndex);
+            }
+            return true;
+        }
+
+        /**
+         * Ensures the segment arrays can hold at least {@code capacity}
+         * segments.
+         */
+        private void ensureCapacity(final int capacity) {
+            if (x.length < capacity) {
+                final int length = Math.max(capacity, x.length * 2);
+                x = Arrays.copyOf(x, length);
+                y = Arrays.copyOf(y, length);
+                w = Arrays.copyOf(w, length);
+            }
+        }
+
+        /**
+         * Removes the segment at the specified index.
+         */
+        private void remove(final int index) {
+            System.arraycopy(x, index + 1, x, index, count - index - 1);
+            System.arraycopy(y, index + 1, y, index, count - index - 1);
+            System.arraycopy(w, index + 1, w, index, count - index - 1);
+            count--;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package dk.martinu.ao.fonteditor.io;
+
+import org.jetbrains.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Utility class for converting glyphs to signed distance fields (SDF). The
+ * data of a distance field glyph stores the distance from each pixel to the
+ * outline of the glyph instead of its coverage, which allows a single font
+ * to be scaled to any size with sharp edges when rendered with an alpha
+ * threshold.
+ * <p>
+ * Distances are computed with the linear-time Euclidean distance transform
+ * by Felzenszwalb and Huttenlocher, and are encoded such that the outline is
+ * at {@code 128}, values inside the glyph increase towards {@code 255} and
+ * values outside decrease towards {@code 0}. Distances beyond the spread are
+ * clamped.
+ * <p>
+ * Each glyph is padded with the spread on every side, so that the field can
+ * extend outside the ink of the glyph. The line height of the font is
+ * increased by twice the spread, and horizontal offsets are not changed.
+ * Renderers of distance field fonts must subtract twice the spread from the
+ * width of each glyph when advancing, such that both kerned and unkerned
+ * pairs keep their distance.
+ *
+ * @author Adam Martinu
+ * @see #generate(MutableFont, int)
+ * @since 1.0
+ */
+public class DistanceFieldGenerator {
+
+    /**
+     * The default spread in pixels.
+     */
+    public static final int DEFAULT_SPREAD = 4;
+    /**
+     * Squared distance used for pixels without a feature.
+     */
+    private static final float INF = 1e20f;
+
+    /**
+     * Returns a new font with a distance field glyph for each glyph in the
+     * specified font. Glyphs are converted in parallel, using at most one
+     * thread for each available processor. The specified font is not
+     * modified.
+     * <p>
+     * This method blocks until all glyphs have been converted and must not be
+     * called on the event dispatch thread.
+     *
+     * @param font   the font to convert
+     * @param spread the distance in pixels covered by the field on each side
+     *               of the outline
+     * @return a new distance field font
+     * @throws NullPointerException     if {@code font} is {@code null}
+     * @throws IllegalArgumentException if {@code spread} is less than 1
+     * @throws InterruptedException     if the current thread was interrupted
+     *                                  while waiting for the conversion to
+     *                                  finish
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    @NotNull
+    public static MutableFont generate(@NotNull final MutableFont font, final int spread) throws
+            InterruptedException {
+        Objects.requireNonNull(font, "font is null");
+        if (spread < 1) {
+            throw new IllegalArgumentException("spread is less than 1");
+        }
+        final MutableGlyph[] glyphs = font.glyphList.toArray(new MutableGlyph[0]);
+        final MutableGlyph[] fields = new MutableGlyph[glyphs.length];
+        final MutableFont sdf = new MutableFont(font.name, font.height + spread * 2);
+        if (glyphs.length == 0) {
+            return sdf;
+        }
+        final int threads = Math.min(glyphs.length, Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final ArrayList<Callable<Void>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int start = t;
+                tasks.add(() -> {
+                    final Transform transform = new Transform();
+                    for (int i = start; i < glyphs.length; i += threads) {
+                        fields[i] = generate(glyphs[i], spread, transform);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("could not generate distance field", e.getCause());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        sdf.glyphList.addAll(Arrays.asList(fields));
+        return sdf;
+    }
+
+    /**
+     * Returns the distance field of the specified alpha values. Pixels with
+     * an alpha value of {@code 128} or more are inside the glyph. The
+     * returned field is padded with {@code spread} pixels on every side, and
+     * has a width of {@code width + spread * 2} and a height of
+     * {@code height + spread * 2}.
+     *
+     * @param data   the alpha values
+     * @param width  the width of the pixel grid in {@code data}
+     * @param height the height of the pixel grid in {@code data}
+     * @param spread the distance in pixels covered by the field on each side
+     *               of the outline
+     * @return a new array of distance values
+     * @throws NullPointerException     if {@code data} is {@code null}
+     * @throws IllegalArgumentException if {@code spread} is less than 1, or
+     *                                  the length of {@code data} is not
+     *                                  {@code width * height}
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    @NotNull
+    public static byte[] generate(@NotNull final byte[] data, final int width, final int height,
+            final int spread) {
+        Objects.requireNonNull(data, "data is null");
+        if (spread < 1) {
+            throw new IllegalArgumentException("spread is less than 1");
+        }
+        if (width < 0 || height < 0 || data.length != width * height) {
+            throw new IllegalArgumentException("data length does not match size");
+        }
+        return generate(data, width, height, spread, new Transform());
+    }
+
+    /**
+     * Returns a new distance field glyph of the specified glyph.
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    @NotNull
+    private static MutableGlyph generate(@NotNull final MutableGlyph glyph, final int spread,
+            @NotNull final Transform transform) {
+        final int width = glyph.width + spread * 2;
+        final int height = glyph.height + spread * 2;
+        final byte[] glyphData = glyph.getData();
+        final byte[] data = glyph.isWhitespace || glyphData.length != glyph.width * glyph.height ?
+                new byte[width * height] :
+                generate(glyphData, glyph.width, glyph.height, spread, transform);
+        return new MutableGlyph(glyph.value, width, height, glyph.isWhitespace, glyph.offsetY,
+                glyph.offsetX.clone(), data);
+    }
+
+    /**
+     * Returns the distance field of the specified alpha values, using the
+     * buffers of {@code transform}.
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    @NotNull
+    private static byte[] generate(@NotNull final byte[] data, final int width, final int height,
+            final int spread, @NotNull final Transform transform) {
+        final int w = width + spread * 2;
+        final int h = height + spread * 2;
+        final float[] outside = transform.outside(w * h);
+        final float[] inside = transform.inside(w * h);
+        // outside: distance to nearest ink, inside: distance to nearest blank
+        Arrays.fill(outside, 0, w * h, INF);
+        Arrays.fill(inside, 0, w * h, 0.0f);
+        for (int y = 0; y < height; y++) {
+            final int row = (y + spread) * w + spread;
+            for (int x = 0; x < width; x++) {
+                if ((data[x + y * width] & 0xFF) >= 128) {
+                    outside[row + x] = 0.0f;
+                    inside[row + x] = INF;
+                }
+            }
+        }
+        transform.transform(outside, w, h);
+        transform.transform(inside, w, h);
+
+        final byte[] field = new byte[w * h];
+        final float scale = 127.0f / spread;
+        for (int i = 0; i < field.length; i++) {
+            // distance from pixel center to the outline between pixels
+            final float d = inside[i] > 0.0f ?
+                    (float) Math.sqrt(inside[i]) - 0.5f :
+                    0.5f - (float) Math.sqrt(outside[i]);
+            field[i] = (byte) Math.max(0, Math.min(255, Math.round(128.0f + d * scale)));
+        }
+        return field;
+    }
+
+    /**
+     * Scratch buffers for computing distance transforms. Each thread uses its
+     * own instance, and buffers are reused between glyphs.
+     */
+    private static class Transform {
+
+        /**
+         * Squared distances to the nearest ink.
+         */
+        private float[] outside = new float[0];
+        /**
+         * Squared distances to the nearest blank pixel.
+         */
+        private float[] inside = new float[0];
+        /**
+         * Input values of a single row or column.
+         */
+        private float[] f = new float[0];
+        /**
+         * Output values of a single row or column.
+         */
+        private float[] d = new float[0];
+        /**
+         * Locations of the parabolas in the lower envelope.
+         */
+        private int[] v = new int[0];
+        /**
+         * Boundaries between the parabolas in the lower envelope.
+         */
+        private float[] z = new float[0];
+
+        /**
+         * Returns a buffer for the squared distances to the nearest blank
+         * pixel with at least the specified length.
+         */
+        @NotNull
+        private float[] inside(final int length) {
+            if (inside.length < length) {
+                inside = new float[length];
+            }
+            return inside;
+        }
+
+        /**
+         * Returns a buffer for the squared distances to the nearest ink with
+         * at least the specified length.
+         */
+        @NotNull
+        private float[] outside(final int length) {
+            if (outside.length < length) {
+                outside = new float[length];
+            }
+            return outside;
+        }
+
+        /**
+         * Computes the 2D squared Euclidean distance transform of the
+         * specified grid in place, by transforming each column and then each
+         * row.
+         */
+        private void transform(@NotNull final float[] grid, final int width, final int height) {
+            final int n = Math.max(width, height);
+            if (f.length < n) {
+                f = new float[n];
+                d = new float[n];
+                v = new int[n];
+                z = new float[n + 1];
+            }
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    f[y] = grid[x + y * width];
+                }
+                transform(height);
+                for (int y = 0; y < height; y++) {
+                    grid[x + y * width] = d[y];
+                }
+            }
+            for (int y = 0; y < height; y++) {
+                System.arraycopy(grid, y * width, f, 0, width);
+                transform(width);
+                System.arraycopy(d, 0, grid, y * width, width);
+            }
+        }
+
+        /**
+         * Computes the 1D squared distance transform of the first {@code n}
+         * values in {@code f} and stores the result in {@code d}.
+         */
+        private void transform(final int n) {
+            int k = 0;
+            v[0] = 0;
+            z[0] = -INF;
+            z[1] = INF;
+            for (int q = 1; q < n; q++) {
+                float s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+                while (s <= z[k]) {
+                    k--;
+                    s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+                }
+                k++;
+                v[k] = q;
+                z[k] = s;
+                z[k + 1] = INF;
+            }
+            k = 0;
+            for (int q = 0; q < n; q++) {
+                while (z[k + 1] < q) {
+                    k++;
+                }
+                final int dq = q - v[k];
+                d[q] = dq * dq + f[v[k]];
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package dk.martinu.ao.fonteditor.io;
+
+import org.jetbrains.annotations.*;
+
+import java.awt.*;
+import java.awt.font.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.AlphaView;
+
+/**
+ * Creates a {@link MutableFont} by rendering characters of a
+ * {@link java.awt.Font}, such as a system font or a font loaded from a
+ * TrueType file. Each character is rendered on a grayscale scratch image, and
+ * the ink of the character is stored as the glyph data. The vertical offset
+ * of each glyph places its ink relative to the ascent of the font, and
+ * horizontal offsets are derived from the kerning of the font.
+ * <p>
+ * Characters are rendered in parallel, using at most one thread for each
+ * available processor. Each thread renders to its own scratch image with its
+ * own {@code Graphics2D} instance.
+ *
+ * @author Adam Martinu
+ * @see #rasterize()
+ * @since 1.0
+ */
+public class FontRasterizer {
+
+    /**
+     * Padding in pixels around the pen position on the scratch images, to
+     * capture ink that extends beyond the advance or ascent of a character.
+     */
+    private static final int PADDING = 4;
+
+    /**
+     * Returns a string of all characters in the specified ranges. Ranges are
+     * separated by commas, and each range is either a single code point or
+     * two code points separated by {@code '-'}, written as hexadecimal
+     * numbers. For example, {@code "0020-007E, 00A0-00FF, 20AC"} returns
+     * the printable ASCII characters, the Latin-1 supplement and the Euro
+     * sign.
+     *
+     * @param ranges the ranges to parse
+     * @return a string of all characters in the ranges
+     * @throws NullPointerException     if {@code ranges} is {@code null}
+     * @throws IllegalArgumentException if a range is malformed or outside
+     *                                  the Basic Multilingual Plane
+     */
+    @Contract(pure = true)
+    @NotNull
+    public static String parseRanges(@NotNull final String ranges) {
+        Objects.requireNonNull(ranges, "ranges is null");
+        final StringBuilder sb = new StringBuilder();
+        for (String range : ranges.split(",")) {
+            range = range.strip();
+            if (range.isEmpty()) {
+                continue;
+            }
+            final int index = range.indexOf('-');
+            final int first;
+            final int last;
+            try {
+                first = Integer.parseInt(index != -1 ? range.substring(0, index).strip() : range, 16);
+                last = index != -1 ? Integer.parseInt(range.substring(index + 1).strip(), 16) : first;
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException("malformed range {" + range + "}", e);
+            }
+            if (first < 0 || last > Character.MAX_VALUE || first > last) {
+                throw new IllegalArgumentException("invalid range {" + range + "}");
+            }
+            for (int c = first; c <= last; c++) {
+                sb.append((char) c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns {@code true} if kerning between the specified scripts should
+     * be measured. Kerning is only measured between characters of the same
+     * script, or where one of the characters is common to all scripts, such
+     * as punctuation and digits.
+     */
+    @Contract(pure = true)
+    private static boolean isKerningScript(final Character.UnicodeScript left,
+            final Character.UnicodeScript right) {
+        return left == right || left == Character.UnicodeScript.COMMON || right == Character.UnicodeScript.COMMON;
+    }
+
+    /**
+     * The font to render characters from.
+     */
+    @NotNull
+    public final Font font;
+    /**
+     * The characters to render, in the order they are added to the font.
+     */
+    @NotNull
+    public final String chars;
+    /**
+     * {@code true} if characters are rendered with antialiasing, otherwise
+     * {@code false}.
+     */
+    public final boolean antialias;
+    /**
+     * {@code true} if horizontal offsets are derived from the kerning of the
+     * font, otherwise {@code false}.
+     */
+    public final boolean kerning;
+
+    /**
+     * Constructs a new rasterizer.
+     *
+     * @param font      the font to render characters from
+     * @param chars     the characters to render
+     * @param antialias {@code true} if characters should be rendered with
+     *                  antialiasing, otherwise {@code false}
+     * @param kerning   {@code true} if horizontal offsets should be derived
+     *                  from the kerning of the font, otherwise {@code false}
+     * @throws NullPointerException if {@code font} or {@code chars} is
+     *                              {@code null}
+     * @see #parseRanges(String)
+     */
+    public FontRasterizer(@NotNull final Font font, @NotNull final String chars, final boolean antialias,
+            final boolean kerning) {
+        this.font = Objects.requireNonNull(font, "font is null");
+        this.chars = Objects.requireNonNull(chars, "chars is null");
+        this.antialias = antialias;
+        this.kerning = kerning;
+    }
+
+    /**
+     * Renders the characters and returns a new font containing a glyph for
+     * each character. Characters that the font cannot display, and
+     * duplicate characters, are skipped. The height of the returned font is
+     * the line height of the rendered font.
+     * <p>
+     * This method blocks until all characters have been rendered and must not
+     * be called on the event dispatch thread.
+     *
+     * @return a new font
+     * @throws InterruptedException if the current thread was interrupted
+     *                              while waiting for rendering to finish
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public MutableFont rasterize() throws InterruptedException {
+        // characters to render, without duplicates
+        final StringBuilder sb = new StringBuilder(chars.length());
+        final BitSet added = new BitSet(Character.MAX_VALUE + 1);
+        for (int i = 0; i < chars.length(); i++) {
+            final char c = chars.charAt(i);
+            if (!added.get(c) && font.canDisplay(c)) {
+                added.set(c);
+                sb.append(c);
+            }
+        }
+        final char[] values = sb.toString().toCharArray();
+
+        final FontRenderContext frc = new FontRenderContext(null, antialias, true);
+        final LineMetrics metrics = font.getLineMetrics("Hg", frc);
+        final int ascent = (int) Math.ceil(metrics.getAscent());
+        final int height = (int) Math.ceil(metrics.getAscent() + metrics.getDescent() + metrics.getLeading());
+        final MutableFont mFont = new MutableFont(font.getFontName(Locale.ROOT) + " " + font.getSize(), height);
+        if (values.length == 0) {
+            return mFont;
+        }
+
+        // unkerned advance of each character
+        final double[] advances = new double[values.length];
+        final MutableGlyph[] glyphs = new MutableGlyph[values.length];
+        final int threads = Math.min(values.length, Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final ArrayList<Callable<Void>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int start = t;
+                tasks.add(() -> {
+                    render(values, start, threads, frc, ascent, advances, glyphs);
+                    return null;
+                });
+            }
+            invokeAll(executor, tasks);
+            mFont.glyphList.addAll(Arrays.asList(glyphs));
+
+            if (kerning) {
+                @SuppressWarnings("unchecked") final List<int[]>[] pairs = new List[threads];
+                tasks.clear();
+                for (int t = 0; t < threads; t++) {
+                    final int start = t;
+                    pairs[t] = new ArrayList<>();
+                    tasks.add(() -> {
+                        measureKerning(values, start, threads, frc, advances, glyphs, pairs[start]);
+                        return null;
+                    });
+                }
+                invokeAll(executor, tasks);
+                applyKerning(glyphs, pairs);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return mFont;
+    }
+
+    /**
+     * Stores the kerning pairs measured by each thread in the horizontal
+     * offsets of the glyphs. Each pair is stored as
+     * {@code [rightIndex, leftIndex, offset]}.
+     */
+    private void applyKerning(@NotNull final MutableGlyph[] glyphs, @NotNull final List<int[]>[] pairs) {
+        final int[] counts = new int[glyphs.length];
+        for (List<int[]> list : pairs) {
+            for (int[] pair : list) {
+                counts[pair[0]]++;
+            }
+        }
+        for (int i = 0; i < glyphs.length; i++) {
+            glyphs[i].offsetX = new int[counts[i] * 2];
+            counts[i] = 0;
+        }
+        for (List<int[]> list : pairs) {
+            for (int[] pair : list) {
+                final int[] offsetX = glyphs[pair[0]].offsetX;
+                offsetX[counts[pair[0]]++] = pair[1];
+                offsetX[counts[pair[0]]++] = pair[2];
+            }
+        }
+    }
+
+    /**
+     * Invokes all the specified tasks and waits for them to complete.
+     *
+     * @throws InterruptedException if the current thread was interrupted
+     * @throws IllegalStateException if a task failed
+     */
+    private void invokeAll(@NotNull final ExecutorService executor, @NotNull final List<Callable<Void>> tasks)
+            throws InterruptedException {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException("could not rasterize font", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Measures the kerning between characters and adds a pair for each
+     * kerned pair of characters where the right character index is
+     * {@code start + k * step}. The kerning of all left characters against a
+     * right character is measured from a single glyph layout of the string
+     * {@code "l0 r l1 r l2 r ..."}.
+     */
+    private void measureKerning(@NotNull final char[] values, final int start, final int step,
+            @NotNull final FontRenderContext frc, @NotNull final double[] advances,
+            @NotNull final MutableGlyph[] glyphs, @NotNull final List<int[]> pairs) {
+        final Font kernFont = font.deriveFont(Map.of(TextAttribute.KERNING, TextAttribute.KERNING_ON));
+        final Character.UnicodeScript[] scripts = new Character.UnicodeScript[values.length];
+        for (int i = 0; i < values.length; i++) {
+            scripts[i] = Character.UnicodeScript.of(values[i]);
+        }
+        final char[] text = new char[values.length * 2];
+        final int[] lefts = new int[values.length];
+        float[] positions = null;
+        for (int right = start; right < values.length; right += step) {
+            if (glyphs[right].isWhitespace) {
+                continue;
+            }
+            // string of left characters paired with the right character
+            int count = 0;
+            for (int left = 0; left < values.length; left++) {
+                if (!glyphs[left].isWhitespace && isKerningScript(scripts[left], scripts[right])) {
+                    text[count * 2] = values[left];
+                    text[count * 2 + 1] = values[right];
+                    lefts[count++] = left;
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            final GlyphVector gv = kernFont.layoutGlyphVector(frc, text, 0, count * 2,
+                    Font.LAYOUT_LEFT_TO_RIGHT);
+            // skip if characters were combined or reordered
+            if (gv.getNumGlyphs() != count * 2) {
+                continue;
+            }
+            positions = gv.getGlyphPositions(0, count * 2, positions);
+            for (int k = 0; k < count; k++) {
+                final int left = lefts[k];
+                final double kern = positions[k * 4 + 2] - positions[k * 4] - advances[left];
+                if (Math.abs(kern) >= 0.5d) {
+                    // offset is relative to the width of the left glyph
+                    final int offset = (int) Math.round(advances[left] + kern) - glyphs[left].width;
+                    if (offset != 0) {
+                        pairs.add(new int[] {right, left, offset});
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders every character at index {@code start + k * step} and stores
+     * its glyph and unkerned advance.
+     */
+    private void render(@NotNull final char[] values, final int start, final int step,
+            @NotNull final FontRenderContext frc, final int ascent, @NotNull final double[] advances,
+            @NotNull final MutableGlyph[] glyphs) {
+        final Rectangle maxBounds = font.getMaxCharBounds(frc).getBounds();
+        final int scratchWidth = Math.max(maxBounds.x + maxBounds.width, (int) Math.ceil(font.getSize2D() * 2))
+                + PADDING * 2;
+        final int scratchHeight = Math.max(maxBounds.height, ascent * 2) + PADDING * 2;
+        // scratch surface of this thread
+        final BufferedImage scratch = new BufferedImage(scratchWidth, scratchHeight, BufferedImage.TYPE_BYTE_GRAY);
+        final byte[] buffer = ((DataBufferByte) scratch.getRaster().getDataBuffer()).getData();
+        final AlphaView view = new AlphaView(buffer, 0, scratchWidth, scratchWidth, scratchHeight);
+        final Graphics2D g = scratch.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, antialias ?
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g.setFont(font);
+        g.setColor(Color.WHITE);
+        final int baseline = PADDING + ascent;
+        final char[] text = new char[1];
+        try {
+            for (int i = start; i < values.length; i += step) {
+                text[0] = values[i];
+                final double advance = font.createGlyphVector(frc, text).getGlyphMetrics(0).getAdvanceX();
+                Arrays.fill(buffer, (byte) 0);
+                g.drawChars(text, 0, 1, PADDING, baseline);
+                final Rectangle ink = view.getContentBounds();
+                // ink outside the line or left of the pen is clipped
+                final int top = Math.max(ink.y, PADDING);
+                final int bottom = ink.y + ink.height;
+                final int right = Math.min(ink.x + ink.width, scratchWidth);
+                final int width = Math.max(Math.max((int) Math.round(advance), right - PADDING), 1);
+                advances[i] = advance;
+                if (ink.isEmpty() || top >= bottom || right <= PADDING) {
+                    glyphs[i] = new MutableGlyph(values[i], width, 1, true, 0);
+                }
+                else {
+                    final int glyphWidth = Math.min(width, scratchWidth - PADDING);
+                    glyphs[i] = new MutableGlyph(values[i], glyphWidth, bottom - top, false, top - PADDING,
+                            new int[0], view.region(PADDING, top, glyphWidth, bottom - top).copy().buffer());
+                }
+            }
+        }
+        finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package dk.martinu.ao.fonteditor.io;
+
+import org.jetbrains.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.Log;
+
+/**
+ * Utility class for importing many glyphs from image files at once. The
+ * images to import, and the character of each glyph, are listed either from
+ * a directory or from a mapping file. Images are then decoded in parallel by
+ * {@link #importGlyphs(List)}.
+ * <p>
+ * A character is written as the character itself, as its code point in
+ * hexadecimal with a {@code U+} or {@code 0x} prefix, or as exactly four
+ * hexadecimal digits, for example {@code A}, {@code U+41}, {@code 0x41} or
+ * {@code 0041}. Four digits without a prefix must include at least one
+ * decimal digit, so words such as {@code face} are not read as hexadecimal.
+ * Only characters in the Basic Multilingual Plane are supported.
+ *
+ * @author Adam Martinu
+ * @see #listDirectory(File)
+ * @see #readMapping(File)
+ * @since 1.0
+ */
+public class GlyphImporter {
+
+    /**
+     * Returns a list of sources for all image files in the specified
+     * directory, sorted by character. The character of each glyph is parsed
+     * from the name of the image file without its suffix, for example
+     * {@code A.png} or {@code U+0041.png}. Files with a name that cannot be
+     * parsed as a character are skipped.
+     *
+     * @param dir the directory to list image files from
+     * @return a new list of sources
+     * @throws NullPointerException if {@code dir} is {@code null}
+     * @throws IOException          if {@code dir} is not a directory or an
+     *                              I/O error occurs
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static List<Source> listDirectory(@NotNull final File dir) throws IOException {
+        Objects.requireNonNull(dir, "dir is null");
+        final File[] files = dir.listFiles(File::isFile);
+        if (files == null) {
+            throw new IOException("could not list files in {" + dir + "}");
+        }
+        final Set<String> suffixes = Set.of(ImageIO.getReaderFileSuffixes());
+        final ArrayList<Source> list = new ArrayList<>(files.length);
+        for (File file : files) {
+            final String name = file.getName();
+            final int index = name.lastIndexOf('.');
+            if (index == -1 || !suffixes.contains(name.substring(index + 1).toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            final int value = parseChar(name.substring(0, index));
+            if (value != -1) {
+                list.add(new Source(file, (char) value));
+            }
+            else {
+                Log.i("skipped file with unknown character {" + name + "}");
+            }
+        }
+        list.sort(Comparator.comparingInt(Source::value));
+        return list;
+    }
+
+    /**
+     * Returns a list of sources read from the specified mapping file, in the
+     * order they are listed. Each line in the file maps an image file to a
+     * character, separated by {@code '='}:
+     * <pre>
+     *     a_lower.png = a
+     *     A_upper.png = U+0041
+     * </pre>
+     * Relative paths are resolved against the directory of the mapping file.
+     * Blank lines and lines starting with {@code '#'} are ignored.
+     *
+     * @param file the mapping file to read
+     * @return a new list of sources
+     * @throws NullPointerException if {@code file} is {@code null}
+     * @throws IOException          if an I/O error occurs or a line in the
+     *                              file is malformed
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static List<Source> readMapping(@NotNull final File file) throws IOException {
+        Objects.requireNonNull(file, "file is null");
+        final File dir = file.getAbsoluteFile().getParentFile();
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        final ArrayList<Source> list = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            // split at last separator, the character itself can be '='
+            final int index = line.lastIndexOf('=', line.length() - 2);
+            final int value = index > 0 ? parseChar(line.substring(index + 1).strip()) : -1;
+            if (value == -1) {
+                throw new IOException("malformed mapping at line " + (i + 1) + " {" + line + "}");
+            }
+            File image = new File(line.substring(0, index).strip());
+            if (!image.isAbsolute()) {
+                image = new File(dir, image.getPath());
+            }
+            list.add(new Source(image, (char) value));
+        }
+        return list;
+    }
+
+    /**
+     * Imports a glyph for each of the specified sources. Images are decoded
+     * and converted to glyphs in parallel, using at most one thread for each
+     * available processor. The returned glyphs are in the same order as the
+     * sources. Sources that could not be imported are skipped and included
+     * in the result.
+     * <p>
+     * This method blocks until all sources have been imported and must not
+     * be called on the event dispatch thread.
+     *
+     * @param sources the sources to import
+     * @return the result of the import
+     * @throws NullPointerException if {@code sources} is {@code null}
+     * @throws InterruptedException if the current thread was interrupted
+     *                              while waiting for the import to finish
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static Result importGlyphs(@NotNull final List<Source> sources) throws InterruptedException {
+        Objects.requireNonNull(sources, "sources is null");
+        final ArrayList<MutableGlyph> glyphs = new ArrayList<>(sources.size());
+        final ArrayList<Source> failed = new ArrayList<>();
+        if (sources.isEmpty()) {
+            return new Result(glyphs, failed);
+        }
+        final int threads = Math.min(sources.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final ArrayList<Future<MutableGlyph>> futures = new ArrayList<>(sources.size());
+            for (Source source : sources) {
+                futures.add(executor.submit(() -> importGlyph(source)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    glyphs.add(futures.get(i).get());
+                }
+                catch (ExecutionException e) {
+                    Log.e("could not import glyph from {" + sources.get(i).file() + "}", e.getCause());
+                    failed.add(sources.get(i));
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return new Result(glyphs, failed);
+    }
+
+    /**
+     * Decodes the image of the specified source and returns a new glyph.
+     *
+     * @throws IOException if the image could not be read
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    private static MutableGlyph importGlyph(@NotNull final Source source) throws IOException {
+        final BufferedImage image = ImageIO.read(source.file());
+        if (image == null) {
+            throw new IOException("unsupported image format");
+        }
+        return new MutableGlyph(source.value(), image);
+    }
+
+    /**
+     * Parses the specified string as a character. Returns the character
+     * value, or {@code -1} if the string is not a valid character.
+     */
+    @Contract(pure = true)
+    static int parseChar(@NotNull final String s) {
+        if (s.length() == 1) {
+            return s.charAt(0);
+        }
+        final String hex;
+        if (s.regionMatches(true, 0, "U+", 0, 2) || s.regionMatches(true, 0, "0x", 0, 2)) {
+            hex = s.substring(2);
+        }
+        else if (s.length() == 4 && s.chars().anyMatch(c -> c >= '0' && c <= '9')) {
+            hex = s;
+        }
+        else {
+            return -1;
+        }
+        if (hex.isEmpty() || hex.length() > 4 || hex.charAt(0) == '+' || hex.charAt(0) == '-') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hex, 16);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * An image file to import as a glyph, and the character of the glyph.
+     *
+     * @param file  the image file
+     * @param value the character value of the glyph
+     */
+    public record Source(@NotNull File file, char value) {
+
+        /**
+         * Constructs a new source.
+         *
+         * @throws NullPointerException if {@code file} is {@code null}
+         */
+        public Source {
+            Objects.requireNonNull(file, "file is null");
+        }
+    }
+
+    /**
+     * The result of importing glyphs.
+     *
+     * @param glyphs the imported glyphs
+     * @param failed the sources that could not be imported
+     * @see #importGlyphs(List)
+     */
+    public record Result(@NotNull List<MutableGlyph> glyphs, @NotNull List<Source> failed) { }
+}
@@ -0,0 +1,202 @@
+package dk.martinu.ao.fonteditor.io;
+
+import org.jetbrains.annotations.*;
+
+import java.io.*;
+import java.util.Objects;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.AlphaQuantizer;
+import dk.martinu.ao.fonteditor.util.RunLength;
+
+/**
+ * Reads and writes fonts in a packed format, where the alpha values of each
+ * glyph are stored with 1, 2 or 4 bits per pixel instead of 8. Values are
+ * rounded to the nearest level when written, so fonts should be quantized
+ * first to control how values are reduced. Fonts can also be written with 8
+ * bits per pixel to store the alpha values unchanged.
+ * <p>
+ * The packed data of each glyph can optionally be run-length encoded, which
+ * further reduces the size of glyphs with large empty or solid areas.
+ * <p>
+ * The format is written in big-endian byte order as:
+ * <pre>
+ *     int     magic ("AOPF")
+ *     short   version
+ *     byte    bits per pixel
+ *     byte    encoding (0 = none, 1 = run-length)
+ *     UTF     name
+ *     int     line height
+ *     int     glyph count
+ *     glyph count * {
+ *         char    value
+ *         boolean isWhitespace
+ *         int     width
+ *         int     height
+ *         int     offsetY
+ *         int     offsetX length
+ *         int[]   offsetX
+ *         byte[]  packed data, (width * height * bits + 7) / 8 bytes
+ *     }
+ * </pre>
+ * If the data is run-length encoded, then the packed data of each glyph is
+ * instead written as an {@code int} length followed by the encoded bytes.
+ * Whitespace glyphs are written without data.
+ *
+ * @author Adam Martinu
+ * @see AlphaQuantizer
+ * @see RunLength
+ * @since 1.0
+ */
+public class PackedFontCodec {
+
+    /**
+     * Magic number at the start of packed font files, {@code "AOPF"}.
+     */
+    public static final int MAGIC = 0x414F5046;
+    /**
+     * Version of the packed font file format.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Encoding of packed data that is not encoded.
+     */
+    public static final int ENCODING_NONE = 0;
+    /**
+     * Encoding of packed data that is run-length encoded.
+     */
+    public static final int ENCODING_RLE = 1;
+
+    /**
+     * Reads a packed font from the specified file. The alpha values of the
+     * returned font are expanded to 8 bits per pixel.
+     *
+     * @param file the file to read
+     * @return a new font
+     * @throws NullPointerException if {@code file} is {@code null}
+     * @throws IOException          if an I/O error occurs or the file is not
+     *                              a packed font file
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static MutableFont read(@NotNull final File file) throws IOException {
+        Objects.requireNonNull(file, "file is null");
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a packed font file {" + file + "}");
+            }
+            final int version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("unsupported packed font version {" + version + "}");
+            }
+            final int bits = in.readByte();
+            if (bits != 1 && bits != 2 && bits != 4 && bits != 8) {
+                throw new IOException("invalid bits per pixel {" + bits + "}");
+            }
+            final int encoding = in.readByte();
+            if (encoding != ENCODING_NONE && encoding != ENCODING_RLE) {
+                throw new IOException("invalid encoding {" + encoding + "}");
+            }
+            final MutableFont font = new MutableFont(in.readUTF(), in.readInt());
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final char value = in.readChar();
+                final boolean isWhitespace = in.readBoolean();
+                final int width = in.readInt();
+                final int height = in.readInt();
+                final int offsetY = in.readInt();
+                if (width < 0 || height < 0) {
+                    throw new IOException("invalid glyph size at index " + i);
+                }
+                final int[] offsetX = new int[in.readInt()];
+                for (int j = 0; j < offsetX.length; j++) {
+                    offsetX[j] = in.readInt();
+                }
+                final byte[] data;
+                if (isWhitespace) {
+                    data = new byte[width * height];
+                }
+                else {
+                    final int length = (int) (((long) width * height * bits + 7) / 8);
+                    final byte[] packed;
+                    if (encoding == ENCODING_RLE) {
+                        final byte[] encoded = new byte[in.readInt()];
+                        in.readFully(encoded);
+                        try {
+                            packed = RunLength.decode(encoded, length);
+                        }
+                        catch (IllegalArgumentException e) {
+                            throw new IOException("invalid glyph data at index " + i, e);
+                        }
+                    }
+                    else {
+                        packed = new byte[length];
+                        in.readFully(packed);
+                    }
+                    data = bits == 8 ? packed :
+                            AlphaQuantizer.fromLevels(AlphaQuantizer.unpack(packed, width * height, bits), bits);
+                }
+                font.glyphList.add(new MutableGlyph(value, width, height, isWhitespace, offsetY, offsetX, data));
+            }
+            return font;
+        }
+    }
+
+    /**
+     * Writes the specified font to a file in the packed format, with
+     * {@code bits} bits per pixel. Alpha values are rounded to the nearest
+     * level, unless {@code bits} is 8.
+     *
+     * @param font the font to write
+     * @param bits the number of bits per pixel, 1, 2, 4 or 8
+     * @param rle  {@code true} if the packed data should be run-length
+     *             encoded, otherwise {@code false}
+     * @param file the file to write to
+     * @throws NullPointerException     if {@code font} or {@code file} is
+     *                                  {@code null}
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2, 4 or 8
+     * @throws IOException              if an I/O error occurs
+     */
+    public static void write(@NotNull final MutableFont font, final int bits, final boolean rle,
+            @NotNull final File file) throws IOException {
+        Objects.requireNonNull(font, "font is null");
+        Objects.requireNonNull(file, "file is null");
+        if (bits != 1 && bits != 2 && bits != 4 && bits != 8) {
+            throw new IllegalArgumentException("bits is not 1, 2, 4 or 8 {" + bits + "}");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(bits);
+            out.writeByte(rle ? ENCODING_RLE : ENCODING_NONE);
+            out.writeUTF(font.name);
+            out.writeInt(font.height);
+            out.writeInt(font.glyphList.size());
+            for (MutableGlyph glyph : font.glyphList) {
+                out.writeChar(glyph.value);
+                out.writeBoolean(glyph.isWhitespace);
+                out.writeInt(glyph.width);
+                out.writeInt(glyph.height);
+                out.writeInt(glyph.offsetY);
+                out.writeInt(glyph.offsetX.length);
+                for (int offset : glyph.offsetX) {
+                    out.writeInt(offset);
+                }
+                if (!glyph.isWhitespace) {
+                    final byte[] packed = bits == 8 ? glyph.getData() :
+                            AlphaQuantizer.pack(AlphaQuantizer.toLevels(glyph.getData(), glyph.width, glyph.height,
+                                    bits, false), bits);
+                    if (rle) {
+                        final byte[] encoded = RunLength.encode(packed);
+                        out.writeInt(encoded.length);
+                        out.write(encoded);
+                    }
+                    else {
+                        out.write(packed);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package dk.martinu.ao.fonteditor.io;
+
+import org.jetbrains.annotations.*;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.AlphaExtractor;
+import dk.martinu.ao.fonteditor.util.AlphaView;
+
+/**
+ * Utility class for importing glyphs from a sprite sheet, a single image that
+ * contains many glyphs arranged in cells. The cells are described either by
+ * a regular grid or by a metadata file, and each cell has a baseline which is
+ * used to compute the vertical offset of its glyph.
+ * <p>
+ * Cells are read through child rasters of the sheet, which share the pixel
+ * data of the sheet; no pixels are copied before the alpha values of a cell
+ * are extracted.
+ *
+ * @author Adam Martinu
+ * @see #gridCells(int, int, int, int, String, int)
+ * @see #readMetadata(File)
+ * @see #slice(BufferedImage, List, boolean)
+ * @since 1.0
+ */
+public class SpriteSheetSlicer {
+
+    /**
+     * Returns a list of cells in a regular grid of the specified size. The
+     * characters are assigned to cells row by row, starting from the top
+     * left corner of the sheet. If there are more characters than cells,
+     * then the remaining characters are ignored.
+     *
+     * @param sheetWidth  the width of the sheet
+     * @param sheetHeight the height of the sheet
+     * @param cellWidth   the width of each cell
+     * @param cellHeight  the height of each cell
+     * @param chars       the characters of the cells
+     * @param baseline    the distance from the top of each cell to the
+     *                    baseline
+     * @return a new list of cells
+     * @throws NullPointerException     if {@code chars} is {@code null}
+     * @throws IllegalArgumentException if {@code cellWidth} or
+     *                                  {@code cellHeight} is less than 1
+     */
+    @Contract(value = "_, _, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static List<Cell> gridCells(final int sheetWidth, final int sheetHeight, final int cellWidth,
+            final int cellHeight, @NotNull final String chars, final int baseline) {
+        Objects.requireNonNull(chars, "chars is null");
+        if (cellWidth < 1 || cellHeight < 1) {
+            throw new IllegalArgumentException("cell size is less than 1");
+        }
+        final int columns = sheetWidth / cellWidth;
+        final int rows = sheetHeight / cellHeight;
+        final int count = Math.min(chars.length(), columns * rows);
+        final ArrayList<Cell> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new Cell(chars.charAt(i), i % columns * cellWidth, i / columns * cellHeight,
+                    cellWidth, cellHeight, baseline));
+        }
+        return list;
+    }
+
+    /**
+     * Returns a list of cells read from the specified metadata file, in the
+     * order they are listed. Each line in the file describes a cell as its
+     * character, bounds and baseline, separated by whitespace:
+     * <pre>
+     *     # char x y width height baseline
+     *     A 0 0 12 16 13
+     *     U+0020 12 0 6 16 13
+     * </pre>
+     * The baseline is the distance from the top of the cell to the baseline,
+     * and can be omitted if it is equal to the cell height. Characters are
+     * written as described in {@link GlyphImporter}. Blank lines and lines
+     * starting with {@code '#'} are ignored.
+     *
+     * @param file the metadata file to read
+     * @return a new list of cells
+     * @throws NullPointerException if {@code file} is {@code null}
+     * @throws IOException          if an I/O error occurs or a line in the
+     *                              file is malformed
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static List<Cell> readMetadata(@NotNull final File file) throws IOException {
+        Objects.requireNonNull(file, "file is null");
+        final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        final ArrayList<Cell> list = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] tokens = line.split("\\s+");
+            final int value = tokens.length == 5 || tokens.length == 6 ? GlyphImporter.parseChar(tokens[0]) : -1;
+            if (value == -1) {
+                throw new IOException("malformed cell at line " + (i + 1) + " {" + line + "}");
+            }
+            final Cell cell;
+            try {
+                final int height = Integer.parseInt(tokens[4]);
+                cell = new Cell((char) value,
+                        Integer.parseInt(tokens[1]),
+                        Integer.parseInt(tokens[2]),
+                        Integer.parseInt(tokens[3]),
+                        height,
+                        tokens.length == 6 ? Integer.parseInt(tokens[5]) : height);
+            }
+            catch (NumberFormatException e) {
+                throw new IOException("malformed cell at line " + (i + 1) + " {" + line + "}", e);
+            }
+            if (cell.width() < 1 || cell.height() < 1) {
+                throw new IOException("empty cell at line " + (i + 1) + " {" + line + "}");
+            }
+            list.add(cell);
+        }
+        return list;
+    }
+
+    /**
+     * Slices the specified sheet into a glyph for each of the specified
+     * cells. The vertical offset of each glyph is computed such that the
+     * baselines of all cells are aligned, with the highest baseline at the
+     * top of the line.
+     * <p>
+     * If {@code trim} is {@code true}, then empty (fully transparent) rows
+     * and columns along the borders of each cell are removed, and the
+     * vertical offset is adjusted accordingly. Cells that are completely
+     * empty are imported as whitespace glyphs with the size of the cell.
+     *
+     * @param sheet the sprite sheet image
+     * @param cells the cells to slice
+     * @param trim  {@code true} if empty borders should be removed,
+     *              otherwise {@code false}
+     * @return a new list of glyphs, in the same order as {@code cells}
+     * @throws NullPointerException      if {@code sheet} or {@code cells} is
+     *                                   {@code null}
+     * @throws IndexOutOfBoundsException if a cell is outside the sheet
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    @NotNull
+    public static List<MutableGlyph> slice(@NotNull final BufferedImage sheet, @NotNull final List<Cell> cells,
+            final boolean trim) {
+        Objects.requireNonNull(sheet, "sheet is null");
+        Objects.requireNonNull(cells, "cells is null");
+        int ascent = 0;
+        for (Cell cell : cells) {
+            ascent = Math.max(ascent, cell.baseline());
+        }
+        final WritableRaster raster = sheet.getRaster();
+        final ArrayList<MutableGlyph> glyphs = new ArrayList<>(cells.size());
+        for (Cell cell : cells) {
+            Objects.checkFromIndexSize(cell.x(), cell.width(), sheet.getWidth());
+            Objects.checkFromIndexSize(cell.y(), cell.height(), sheet.getHeight());
+            // image view of the cell that shares the data buffer of the sheet
+            final BufferedImage image = new BufferedImage(sheet.getColorModel(),
+                    raster.createWritableChild(cell.x(), cell.y(), cell.width(), cell.height(), 0, 0, null),
+                    sheet.isAlphaPremultiplied(), null);
+            final byte[] data = AlphaExtractor.extract(image);
+            final int offsetY = ascent - cell.baseline();
+
+            final AlphaView view = new AlphaView(data, 0, cell.width(), cell.width(), cell.height());
+            final Rectangle bounds = trim ? view.getContentBounds() : new Rectangle(cell.width(), cell.height());
+            final MutableGlyph glyph;
+            if (bounds.isEmpty()) {
+                glyph = new MutableGlyph(cell.value(), cell.width(), cell.height(), true, offsetY);
+            }
+            else {
+                final byte[] glyphData = bounds.width == cell.width() && bounds.height == cell.height() ? data :
+                        view.region(bounds.x, bounds.y, bounds.width, bounds.height).copy().buffer();
+                glyph = new MutableGlyph(cell.value(), bounds.width, bounds.height, false, offsetY + bounds.y,
+                        new int[0], glyphData);
+            }
+            glyphs.add(glyph);
+        }
+        return glyphs;
+    }
+
+    /**
+     * A cell in a sprite sheet that contains a single glyph.
+     *
+     * @param value    the character value of the glyph
+     * @param x        horizontal coordinate of the cell
+     * @param y        vertical coordinate of the cell
+     * @param width    width of the cell
+     * @param height   height of the cell
+     * @param baseline distance from the top of the cell to the baseline
+     */
+    public record Cell(char value, int x, int y, int width, int height, int baseline) { }
+}
@@ -0,0 +1,7 @@
+/**
+ * Package containing classes for importing glyphs from, and exporting fonts
+ * to, formats other than the font file format.
+ *
+ * @since 1.0
+ */
+package dk.martinu.ao.fonteditor.io;
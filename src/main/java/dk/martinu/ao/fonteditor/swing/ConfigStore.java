@@ -0,0 +1,402 @@
+package dk.martinu.ao.fonteditor.swing;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import dk.martinu.ao.fonteditor.util.Log;
+import dk.martinu.kofi.Document;
+import dk.martinu.kofi.DocumentIO;
+import dk.martinu.kofi.KofiObject;
+import dk.martinu.kofi.codecs.KofiCodec;
+
+/**
+ * Configuration document that is read and written on a background thread.
+ * The file is read as soon as the store is constructed, and the first call
+ * that accesses a property waits for it to be read, so the file can be read
+ * while the editor is constructed.
+ * <p>
+ * Changes to properties are written after a short delay, so a burst of
+ * changes is written once, and setting a property to its current value
+ * does not cause a write. Files are written atomically, by writing to a
+ * temporary file in the same directory that then replaces the file, so the
+ * file is never left partially written.
+ * <p>
+ * This implementation is threadsafe.
+ *
+ * @author Adam Martinu
+ * @see #close()
+ * @since 1.0
+ */
+public class ConfigStore {
+
+    /**
+     * The delay in milliseconds from a property is changed until the file is
+     * written.
+     */
+    public static final long WRITE_DELAY = 1000L;
+
+    /**
+     * Reads the specified configuration file and returns a new document
+     * containing all its properties. If the file does not exist, then an
+     * empty document is returned.
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    private static Document read(@NotNull final Path path) {
+        if (Files.exists(path)) {
+            final Document doc;
+            try {
+                doc = KofiCodec.provider().readFile(path);
+            }
+            catch (IOException e) {
+                Log.e("could not read configuration file", e);
+                throw new UncheckedIOException(e);
+            }
+            Log.i("successfully read configuration file");
+            return doc;
+        }
+        else {
+            Log.i("creating default configuration file");
+            return new Document();
+        }
+    }
+
+    /**
+     * The path of the configuration file.
+     */
+    @NotNull
+    public final Path path;
+    /**
+     * Future of the document while it is read, and the document after.
+     */
+    @NotNull
+    protected final CompletableFuture<Document> document;
+    /**
+     * Values of properties that were read or changed, keyed by section and
+     * property name. Used to ignore changes that do not change a value.
+     */
+    protected final HashMap<String, Object> values = new HashMap<>();
+    /**
+     * Executor of the thread that reads and writes the file.
+     */
+    @NotNull
+    protected final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "config-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * The scheduled write, or {@code null}.
+     */
+    @Nullable
+    protected ScheduledFuture<?> pendingWrite = null;
+    /**
+     * {@code true} if properties have changed since the file was last
+     * written, otherwise {@code false}.
+     */
+    protected boolean isDirty = false;
+    /**
+     * {@code true} if the store is closed, otherwise {@code false}.
+     */
+    protected boolean isClosed = false;
+
+    /**
+     * Constructs a new store and starts reading the specified configuration
+     * file on a background thread.
+     *
+     * @param path the path of the configuration file
+     * @throws NullPointerException if {@code path} is {@code null}
+     */
+    public ConfigStore(@NotNull final Path path) {
+        this.path = Objects.requireNonNull(path, "path is null");
+        document = CompletableFuture.supplyAsync(() -> read(path), executor);
+    }
+
+    /**
+     * Passes the value of the specified object property to
+     * {@code consumer}, if the document contains the property.
+     *
+     * @see Document#acceptObject(String, String, Consumer)
+     */
+    public void acceptObject(@Nullable final String section, @NotNull final String name,
+            @NotNull final Consumer<KofiObject> consumer) {
+        Objects.requireNonNull(consumer, "consumer is null");
+        getDocument().acceptObject(section, name, value -> {
+            synchronized (this) {
+                values.put(key(section, name), value);
+            }
+            consumer.accept(value);
+        });
+    }
+
+    /**
+     * Passes the value of the specified int property to {@code consumer},
+     * if the document contains the property.
+     *
+     * @see Document#acceptInt(String, String, IntConsumer)
+     */
+    public void acceptInt(@Nullable final String section, @NotNull final String name,
+            @NotNull final IntConsumer consumer) {
+        Objects.requireNonNull(consumer, "consumer is null");
+        getDocument().acceptInt(section, name, value -> {
+            synchronized (this) {
+                values.put(key(section, name), value);
+            }
+            consumer.accept(value);
+        });
+    }
+
+    /**
+     * Passes the value of the specified string property to
+     * {@code consumer}, if the document contains the property.
+     *
+     * @see Document#acceptString(String, String, Consumer)
+     */
+    public void acceptString(@Nullable final String section, @NotNull final String name,
+            @NotNull final Consumer<String> consumer) {
+        Objects.requireNonNull(consumer, "consumer is null");
+        getDocument().acceptString(section, name, value -> {
+            synchronized (this) {
+                values.put(key(section, name), value);
+            }
+            consumer.accept(value);
+        });
+    }
+
+    /**
+     * Sets the value of the specified int property, and schedules a write if
+     * the value changed.
+     *
+     * @see Document#addInt(String, String, int)
+     */
+    public void addInt(@Nullable final String section, @NotNull final String name, final int value) {
+        final Document doc = getDocument();
+        synchronized (this) {
+            if (changed(section, name, value)) {
+                doc.addInt(section, name, value);
+                scheduleWrite();
+            }
+        }
+    }
+
+    /**
+     * Sets the value of the specified object property, and schedules a
+     * write if the value changed.
+     *
+     * @see Document#addObject(String, String, KofiObject)
+     */
+    public void addObject(@Nullable final String section, @NotNull final String name,
+            @NotNull final KofiObject value) {
+        final Document doc = getDocument();
+        synchronized (this) {
+            if (changed(section, name, value)) {
+                doc.addObject(section, name, value);
+                scheduleWrite();
+            }
+        }
+    }
+
+    /**
+     * Sets the value of the specified string property, and schedules a
+     * write if the value changed.
+     *
+     * @see Document#addString(String, String, String)
+     */
+    public void addString(@Nullable final String section, @NotNull final String name,
+            @NotNull final String value) {
+        final Document doc = getDocument();
+        synchronized (this) {
+            if (changed(section, name, value)) {
+                doc.addString(section, name, value);
+                scheduleWrite();
+            }
+        }
+    }
+
+    /**
+     * Cancels any scheduled write and writes pending changes on a new
+     * thread. The thread is not a daemon thread, so the application does not
+     * exit before the file has been written. Changes made after the store is
+     * closed are not written.
+     */
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        if (pendingWrite != null) {
+            pendingWrite.cancel(false);
+            pendingWrite = null;
+        }
+        executor.shutdown();
+        final Thread thread = new Thread(() -> {
+            try {
+                // wait for a write that is in progress
+                executor.awaitTermination(1L, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write();
+        }, "config-writer");
+        thread.start();
+    }
+
+    /**
+     * Returns the document, waiting for it to be read if needed.
+     *
+     * @throws UncheckedIOException if the file could not be read
+     */
+    @NotNull
+    public Document getDocument() {
+        try {
+            return document.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a future of the document, which is completed when the file
+     * has been read. Dependent actions of the future run on the background
+     * thread of this store if the file has not been read yet.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public CompletableFuture<Document> getFuture() {
+        return document;
+    }
+
+    /**
+     * Removes the specified property, and schedules a write if the document
+     * could contain the property.
+     *
+     * @see Document#removeProperty(String, String)
+     */
+    public void removeProperty(@Nullable final String section, @NotNull final String name) {
+        final Document doc = getDocument();
+        synchronized (this) {
+            final String key = key(section, name);
+            // removed properties are stored as null
+            if (!values.containsKey(key) || values.get(key) != null) {
+                values.put(key, null);
+                doc.removeProperty(section, name);
+                scheduleWrite();
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the specified value differs from the last
+     * known value of the property, and stores it as the last known value.
+     * Must be called while holding the lock of this store.
+     */
+    @Contract(mutates = "this")
+    protected boolean changed(@Nullable final String section, @NotNull final String name,
+            @NotNull final Object value) {
+        final String key = key(section, name);
+        final boolean isKnown = values.containsKey(key);
+        final Object old = values.put(key, value);
+        return !isKnown || !Objects.equals(old, value);
+    }
+
+    /**
+     * Deletes the specified temporary file, logging any error.
+     */
+    protected void deleteTemp(@NotNull final Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        }
+        catch (IOException e) {
+            Log.e("could not delete temporary configuration file", e);
+        }
+    }
+
+    /**
+     * Returns the key of the specified property in {@link #values}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    protected String key(@Nullable final String section, @NotNull final String name) {
+        Objects.requireNonNull(name, "name is null");
+        return section != null ? section + '.' + name : name;
+    }
+
+    /**
+     * Marks the store as dirty and schedules a write after
+     * {@link #WRITE_DELAY}, replacing any write that is already scheduled.
+     * Must be called while holding the lock of this store.
+     */
+    protected void scheduleWrite() {
+        isDirty = true;
+        if (isClosed) {
+            return;
+        }
+        if (pendingWrite != null) {
+            pendingWrite.cancel(false);
+        }
+        pendingWrite = executor.schedule(this::write, WRITE_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the document to a temporary file, and moves it to replace the
+     * configuration file if the document has changed since it was last
+     * written.
+     */
+    protected void write() {
+        final Path dir = path.toAbsolutePath().getParent();
+        final Path temp;
+        synchronized (this) {
+            pendingWrite = null;
+            if (!isDirty) {
+                return;
+            }
+            try {
+                temp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            }
+            catch (IOException e) {
+                Log.e("could not create temporary configuration file", e);
+                return;
+            }
+            try {
+                DocumentIO.writeFile(temp, getDocument());
+            }
+            catch (Exception e) {
+                Log.e("could not write configuration file", e);
+                deleteTemp(temp);
+                return;
+            }
+            isDirty = false;
+        }
+        try {
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Log.i("successfully wrote configuration file");
+        }
+        catch (IOException e) {
+            Log.e("could not replace configuration file", e);
+            synchronized (this) {
+                isDirty = true;
+            }
+            deleteTemp(temp);
+        }
+    }
+}
@@ -4,15 +4,31 @@ import dk.martinu.ao.client.text.Font;
 import dk.martinu.ao.client.text.FontCodec;
 import dk.martinu.ao.fonteditor.MutableFont;
 import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.edit.*;
+import dk.martinu.ao.fonteditor.io.AtlasPacker;
+import dk.martinu.ao.fonteditor.io.DistanceFieldGenerator;
+import dk.martinu.ao.fonteditor.io.FontRasterizer;
+import dk.martinu.ao.fonteditor.io.GlyphImporter;
+import dk.martinu.ao.fonteditor.io.PackedFontCodec;
 import dk.martinu.ao.fonteditor.swing.EditorWizard.Option;
+import dk.martinu.ao.fonteditor.util.AlphaQuantizer;
+import dk.martinu.ao.fonteditor.util.AlphaView;
+import dk.martinu.ao.fonteditor.util.AutoKerner;
+import dk.martinu.ao.fonteditor.util.CoverageAnalyzer;
+import dk.martinu.ao.fonteditor.util.DuplicateFinder;
+import dk.martinu.ao.fonteditor.util.FontMerger;
+import dk.martinu.ao.fonteditor.util.FontValidator;
+import dk.martinu.ao.fonteditor.util.KerningMatrix;
 import dk.martinu.ao.fonteditor.util.Log;
+import dk.martinu.ao.fonteditor.util.PhaseTimer;
 import dk.martinu.kofi.*;
-import dk.martinu.kofi.codecs.KofiCodec;
 import org.jetbrains.annotations.*;
 
 import javax.swing.*;
+import javax.swing.event.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
@@ -20,9 +36,12 @@ import java.io.IOException;
 import java.nio.file.*;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static dk.martinu.ao.fonteditor.swing.EditorWizard.Option.*;
 import static dk.martinu.ao.fonteditor.swing.GlyphCanvas.PROPERTY_DIRTY;
+import static dk.martinu.ao.fonteditor.swing.GlyphCanvas.PROPERTY_GLYPH;
+import static dk.martinu.ao.fonteditor.swing.GlyphCanvas.PROPERTY_SELECTION;
 import static dk.martinu.ao.fonteditor.swing.Tool.*;
 import static java.awt.BorderLayout.*;
 import static java.awt.Font.MONOSPACED;
@@ -41,14 +60,26 @@ import static java.awt.event.InputEvent.SHIFT_DOWN_MASK;
 // TODO remove isDirty from canvas, use glyph only
 public class EditorFrame extends JFrame implements PropertyChangeListener {
 
+    public static final String ACTION_AUTO_KERN = "ACTION_AUTO_KERN";
+    public static final String ACTION_CLEAR_RECENT_FILES = "ACTION_CLEAR_RECENT_FILES";
     public static final String ACTION_CLOSE_FILE = "ACTION_CLOSE_FILE";
+    public static final String ACTION_COPY = "ACTION_COPY";
+    public static final String ACTION_COMPRESS_GLYPHS = "ACTION_COMPRESS_GLYPHS";
+    public static final String ACTION_CUT = "ACTION_CUT";
     public static final String ACTION_DELETE_GLYPHS = "ACTION_DELETE_GLYPHS";
     public static final String ACTION_EDIT_FONT_PROPERTIES = "ACTION_EDIT_FONT_PROPERTIES";
     public static final String ACTION_EDIT_GLYPH = "ACTION_EDIT_GLYPH";
     public static final String ACTION_EDIT_GLYPH_PROPERTIES = "ACTION_EDIT_GLYPH_PROPERTIES";
     public static final String ACTION_EDIT_HORIZONTAL_OFFSETS = "ACTION_EDIT_HORIZONTAL_OFFSETS";
     public static final String ACTION_EXIT = "ACTION_EXIT";
+    public static final String ACTION_EXPORT_ATLAS = "ACTION_EXPORT_ATLAS";
+    public static final String ACTION_EXPORT_DISTANCE_FIELD = "ACTION_EXPORT_DISTANCE_FIELD";
+    public static final String ACTION_EXPORT_PACKED_FONT = "ACTION_EXPORT_PACKED_FONT";
+    public static final String ACTION_FIND_DUPLICATES = "ACTION_FIND_DUPLICATES";
     public static final String ACTION_IMPORT_GLYPH = "ACTION_IMPORT_GLYPH";
+    public static final String ACTION_IMPORT_GLYPHS = "ACTION_IMPORT_GLYPHS";
+    public static final String ACTION_IMPORT_SPRITE_SHEET = "ACTION_IMPORT_SPRITE_SHEET";
+    public static final String ACTION_MERGE_FONT = "ACTION_MERGE_FONT";
     public static final String ACTION_MOVE_DOWN = "ACTION_MOVE_DOWN";
     public static final String ACTION_MOVE_TO = "ACTION_MOVE_TO";
     public static final String ACTION_MOVE_TO_BOTTOM = "ACTION_MOVE_TO_BOTTOM";
@@ -57,32 +88,53 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
     public static final String ACTION_NEW_FONT = "ACTION_NEW_FONT";
     public static final String ACTION_NEW_GLYPH = "ACTION_NEW_GLYPH";
     public static final String ACTION_OPEN_FILE = "ACTION_OPEN_FILE";
+    public static final String ACTION_PASTE = "ACTION_PASTE";
+    public static final String ACTION_QUANTIZE = "ACTION_QUANTIZE";
+    public static final String ACTION_RASTERIZE_FONT = "ACTION_RASTERIZE_FONT";
+    public static final String ACTION_REDO = "ACTION_REDO";
+    public static final String ACTION_REDO_FONT = "ACTION_REDO_FONT";
     public static final String ACTION_SAVE_FILE = "ACTION_SAVE_FILE";
     public static final String ACTION_SAVE_AS = "ACTION_SAVE_AS";
+    public static final String ACTION_SELECT_ALL = "ACTION_SELECT_ALL";
     public static final String ACTION_SETTINGS = "ACTION_SETTINGS";
+    public static final String ACTION_SHOW_COVERAGE = "ACTION_SHOW_COVERAGE";
+    public static final String ACTION_SMOOTH_ZOOM = "ACTION_SMOOTH_ZOOM";
     public static final String ACTION_TOOL_ERASER = "ACTION_TOOL_ERASER";
+    public static final String ACTION_TOOL_FILL = "ACTION_TOOL_FILL";
     public static final String ACTION_TOOL_MOVE = "ACTION_TOOL_MOVE";
     public static final String ACTION_TOOL_PENCIL = "ACTION_TOOL_PENCIL";
     public static final String ACTION_TOOL_PICKER = "ACTION_TOOL_PICKER";
     public static final String ACTION_TOOL_SELECT = "ACTION_TOOL_SELECT";
     public static final String ACTION_TOOL_ZOOM = "ACTION_TOOL_ZOOM";
+    public static final String ACTION_TRIM_GLYPH = "ACTION_TRIM_GLYPH";
+    public static final String ACTION_TRIM_GLYPHS = "ACTION_TRIM_GLYPHS";
+    public static final String ACTION_UNDO = "ACTION_UNDO";
+    public static final String ACTION_UNDO_FONT = "ACTION_UNDO_FONT";
 
     public static final String CK_ALPHA_BOX = "CK_ALPHA_BOX";
     public static final String CK_ALPHA_SLIDER = "alphaSlider";
     public static final String CK_ALPHA_SPINNER = "alphaSpinner";
     public static final String CK_B_TOOL_ERASER = "buttonToolEraser";
+    public static final String CK_B_TOOL_FILL = "buttonToolFill";
     public static final String CK_B_TOOL_MOVE = "buttonToolMove";
     public static final String CK_B_TOOL_PENCIL = "buttonToolPencil";
     public static final String CK_B_TOOL_PICKER = "buttonToolPicker";
     public static final String CK_B_TOOL_SELECT = "buttonToolSelect";
     public static final String CK_B_TOOL_ZOOM = "buttonToolZoom";
     public static final String CK_CONTENT_PANE = "contentPane";
+    public static final String CK_DIAGNOSTICS = "diagnostics";
+    public static final String CK_FILL_TOLERANCE_SPINNER = "fillToleranceSpinner";
+    public static final String CK_FONT_BOX = "fontBox";
     public static final String CK_GLYPH_LIST = "glyphList";
     public static final String CK_GLYPH_PANE = "glyphPane";
     public static final String CK_M_EDIT = "mEdit";
     public static final String CK_M_FILE = "mFile";
+    public static final String CK_M_RECENT = "mRecent";
     public static final String CK_M_VIEW = "mView";
     public static final String CK_MENU_BAR = "menuBar";
+    public static final String CK_PREVIEW = "preview";
+    public static final String CK_PREVIEW_SPLIT_PANE = "previewSplitPane";
+    public static final String CK_PREVIEW_TEXT = "previewText";
     public static final String CK_SPLIT_PANE = "splitPane";
     public static final String CK_TABBED_PANE = "tabbedPane";
     public static final String CK_TOOL_BAR = "toolBar";
@@ -151,34 +203,34 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
      * The title of the editor frame.
      */
     protected static final String FRAME_TITLE = "FontEditor";
+    /**
+     * The size in pixels of the square that glyph thumbnails in the glyph
+     * list are scaled to fit.
+     */
+    protected static final int THUMBNAIL_SIZE = 16;
+    /**
+     * The maximum number of files in the recent files list.
+     *
+     * @see #recentFiles
+     */
+    protected static final int RECENT_FILES_SIZE = 10;
 
     /**
-     * Reads the editor configuration file and returns a new document
-     * containing all its properties. If the file does not exist, then an empty
-     * document is returned.
+     * Returns the most recent font file in the specified configuration
+     * document, or {@code null} if the document has no recent files. The
+     * document is only read.
      *
-     * @return A new document containing the properties of the configuration
-     * file
+     * @see #loadRecentFiles()
      */
-    @Contract(value = "-> new", pure = true)
-    @NotNull
-    private static Document readConfig() {
-        if (Files.exists(DATATOOL_CONFIG_PATH)) {
-            Document doc;
-            try {
-                doc = KofiCodec.provider().readFile(DATATOOL_CONFIG_PATH);
-            }
-            catch (IOException e) {
-                Log.e("could not read configuration file", e);
-                throw new RuntimeException(e);
-            }
-            Log.i("successfully read configuration file");
-            return doc;
-        }
-        else {
-            Log.i("creating default configuration file");
-            return new Document();
+    @Contract(pure = true)
+    @Nullable
+    private static File getRecentFile(@NotNull Document doc) {
+        File[] file = {null};
+        doc.acceptString("recent", "file0", path -> file[0] = new File(path));
+        if (file[0] == null) {
+            doc.acceptString("editor", "file", path -> file[0] = new File(path));
         }
+        return file[0];
     }
 
     /**
@@ -202,13 +254,13 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
      */
     protected final EditorWizard wizard = new EditorWizard(this);
     /**
-     * Document for persisting the editor configuration.
+     * Store for persisting the editor configuration.
      *
      * @see #loadPreferences()
      * @see #savePreferences()
      */
     @NotNull
-    protected final Document config;
+    protected final ConfigStore config;
     /**
      * Map of components added to the content pane.
      *
@@ -225,6 +277,41 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
      * Button group for tool buttons.
      */
     protected final ButtonGroup toolGroup = new ButtonGroup();
+    /**
+     * The fonts open in the editor.
+     *
+     * @see #showFont(FontWorkspace.Entry)
+     * @see #closeFont()
+     */
+    @NotNull
+    protected final FontWorkspace workspace = new FontWorkspace();
+    /**
+     * The model of the font selector, which contains the entries of the
+     * workspace.
+     *
+     * @see #updateFontBox()
+     */
+    protected final DefaultComboBoxModel<FontWorkspace.Entry> fontBoxModel = new DefaultComboBoxModel<>();
+    /**
+     * {@code true} while the font selector is updated to reflect the
+     * workspace, otherwise {@code false}. Selection events are ignored while
+     * updating.
+     */
+    protected boolean isUpdatingFontBox = false;
+    /**
+     * Font files that were recently opened or saved, most recent first.
+     *
+     * @see #addRecentFile(File)
+     */
+    protected final ArrayList<File> recentFiles = new ArrayList<>(RECENT_FILES_SIZE);
+    /**
+     * The workspace entry whose font is being loaded to be shown, or
+     * {@code null}.
+     *
+     * @see #showFont(FontWorkspace.Entry)
+     */
+    @Nullable
+    protected FontWorkspace.Entry pendingEntry = null;
     /**
      * The current mutable font open in the editor, or {@code null}.
      */
@@ -241,6 +328,13 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
     protected final DefaultListModel<MutableGlyph> glyphListModel = new DefaultListModel<>();
     protected final DefaultBoundedRangeModel alphaSliderModel = new DefaultBoundedRangeModel(255, 0, 0, 255);
     protected final SpinnerNumberModel alphaSpinnerModel = new SpinnerNumberModel(255, 0, 255, 1);
+    /**
+     * The model of the maximum difference in alpha values when filling an
+     * area of similar pixels.
+     *
+     * @see Tool#FILL
+     */
+    protected final SpinnerNumberModel fillToleranceModel = new SpinnerNumberModel(0, 0, 255, 1);
     protected final ArrayList<GlyphTab> tabList = new ArrayList<>();
 
     /**
@@ -254,16 +348,100 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
     protected final int[] rgba = new int[] {
             0, 0, 0, 255
     };
+    /**
+     * Alpha values that were last copied or cut from a canvas, or
+     * {@code null}.
+     *
+     * @see #copySelection()
+     * @see #paste()
+     */
+    @Nullable
+    protected AlphaView clipboard = null;
+    /**
+     * {@code true} if changing the level of zoom on a canvas should be
+     * animated, otherwise {@code false}.
+     *
+     * @see GlyphCanvas#setZoom(int, int, int)
+     */
+    protected boolean isSmoothZoom = true;
+    /**
+     * {@code true} if glyphs that are not open in a tab should be stored
+     * with run-length encoding, otherwise {@code false}.
+     *
+     * @see MutableGlyph#compress()
+     */
+    protected boolean isCompressGlyphs = true;
+    /**
+     * Listener to update open canvases and the undo and redo actions when the
+     * edit queue of the current font changes.
+     */
+    @NotNull
+    protected final EditQueueListener<MutableFont> fontQueueListener = this::fontQueueChanged;
+    /**
+     * Validator of the current font, or {@code null}.
+     *
+     * @see #validateFont(Collection)
+     */
+    @Nullable
+    protected FontValidator validator = null;
+    /**
+     * The diagnostics of the current font.
+     *
+     * @see #diagnosticsChanged(List)
+     */
+    @NotNull
+    protected List<FontValidator.Diagnostic> diagnostics = List.of();
+    /**
+     * The most severe diagnostic of each glyph with problems, used to mark
+     * glyphs in the glyph list.
+     */
+    @NotNull
+    protected final IdentityHashMap<MutableGlyph, FontValidator.Diagnostic> glyphDiagnostics =
+            new IdentityHashMap<>();
 
     /**
      * Creates a new, initially invisible, font editor frame.
      */
     public EditorFrame() {
+        this(new PhaseTimer());
+    }
+
+    /**
+     * Creates a new, initially invisible, font editor frame, and marks each
+     * phase of its construction on the specified timer.
+     *
+     * @param timer the timer to mark phases on
+     * @throws NullPointerException if {@code timer} is {@code null}
+     */
+    public EditorFrame(@NotNull PhaseTimer timer) {
+        Objects.requireNonNull(timer, "timer is null");
         setLocale(Locale.ENGLISH);
-        config = readConfig();
+        // the configuration file is read in the background while the GUI is
+        // created, followed by the most recent font. The workspace is only
+        // used on this thread, after the GUI is created
+        config = new ConfigStore(DATATOOL_CONFIG_PATH);
+        CompletableFuture<File> recentFile = config.getFuture().thenApply(EditorFrame::getRecentFile);
+        CompletableFuture<MutableFont> recentFont = recentFile.thenApplyAsync(
+                file -> file != null ? FontWorkspace.read(file) : null);
+        timer.mark("start reading config");
         createActions();
+        timer.mark("create actions");
         createGUI();
+        timer.mark("create GUI");
+        config.getDocument();
+        File file = recentFile.join();
+        timer.mark("wait for config");
+        loadRecentFiles();
+        FontWorkspace.Entry recentEntry = null;
+        if (file != null && file.isFile()) {
+            recentEntry = workspace.add(file, recentFont);
+        }
         loadPreferences();
+        updateRecentMenu();
+        timer.mark("load preferences");
+        if (recentEntry != null) {
+            showFont(recentEntry);
+        }
     }
 
     /**
@@ -289,13 +467,163 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         showGlyphTab(glyph);
     }
 
+    /**
+     * Adds the specified glyphs to the end of the current font, and to the
+     * glyph list in a single update.
+     *
+     * @param glyphs the glyphs to add
+     * @throws NullPointerException  if {@code glyphs} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see #addGlyph(MutableGlyph)
+     */
+    public void addGlyphs(@NotNull List<MutableGlyph> glyphs) {
+        Objects.requireNonNull(glyphs, "glyphs is null");
+        requireState(mFont != null, "current font is null");
+        if (glyphs.isEmpty()) {
+            return;
+        }
+        mFont.glyphList.addAll(glyphs);
+        glyphListModel.addAll(glyphs);
+        mFont.isDirty = true;
+        getAction(ACTION_SAVE_FILE).setEnabled(true);
+        compressGlyphs(glyphs);
+    }
+
+    /**
+     * Adds the specified file to the top of the recent files list. If the
+     * list is full, then the least recent file is removed.
+     *
+     * @param file the font file
+     * @throws NullPointerException if {@code file} is {@code null}
+     */
+    public void addRecentFile(@NotNull File file) {
+        Objects.requireNonNull(file, "file is null");
+        File absolute = file.getAbsoluteFile();
+        recentFiles.remove(absolute);
+        recentFiles.add(0, absolute);
+        while (recentFiles.size() > RECENT_FILES_SIZE) {
+            recentFiles.remove(recentFiles.size() - 1);
+        }
+        saveRecentFiles();
+        updateRecentMenu();
+    }
+
+    /**
+     * Removes all files from the recent files list.
+     */
+    public void clearRecentFiles() {
+        recentFiles.clear();
+        saveRecentFiles();
+        updateRecentMenu();
+    }
+
+    /**
+     * Closes the current font and removes it from the workspace, asking the
+     * user to save it first if it has unsaved changes. The next font in the
+     * workspace is shown instead, if any.
+     *
+     * @return {@code true} if the font was closed, or {@code false} if the
+     * user cancelled
+     * @throws IllegalStateException if the current font is {@code null}
+     */
+    public boolean closeFont() {
+        requireState(mFont != null, "current font is null");
+
+        // ask user to save current font if dirty
+        if (mFont.isDirty) {
+            Option saveOp = wizard.showConfirmationDialog(
+                    "Unsaved Changes",
+                    "The current font has unsaved changes. Do you wish to "
+                            + "save the current font before proceeding?",
+                    CANCEL,
+                    YES, NO, CANCEL);
+            if (saveOp == YES) {
+                File file = mFont.file != null ? mFont.file : wizard.showSaveFontFileDialog();
+                if (file == null) {
+                    return false;
+                }
+                Font font = mFont.convertToFont();
+                boolean saved = false;
+                while (!saved) {
+                    try {
+                        FontCodec.writeFile(font, file);
+                        saved = true;
+                    }
+                    catch (IOException e) {
+                        Log.e("could not save font", e);
+                        Option retryOp = wizard.showConfirmationDialog(
+                                "Error",
+                                "An error occurred while saving the font. Do you want to try again?",
+                                YES,
+                                YES, NO, CANCEL);
+                        if (retryOp == NO) {
+                            break;
+                        }
+                        if (retryOp == CANCEL) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            else if (saveOp == CANCEL) {
+                return false;
+            }
+        }
+
+        FontWorkspace.Entry entry = workspace.get(mFont);
+        List<FontWorkspace.Entry> entries = workspace.getEntries();
+        int index = entries.indexOf(entry);
+        setFont((MutableFont) null);
+        workspace.remove(entry);
+        if (!entries.isEmpty()) {
+            showFont(entries.get(Math.min(index, entries.size() - 1)));
+        }
+        else {
+            updateFontBox();
+        }
+        return true;
+    }
+
+    /**
+     * Copies the selection of the canvas in the current tab to the editor
+     * clipboard.
+     *
+     * @throws IllegalStateException if the current glyph is {@code null}
+     * @see #paste()
+     */
+    public void copySelection() {
+        requireState(tab != null, "current glyph is null");
+        AlphaView view = tab.canvas.copySelection();
+        if (view != null) {
+            clipboard = view;
+            updateEditActions();
+        }
+    }
+
+    /**
+     * Copies the selection of the canvas in the current tab to the editor
+     * clipboard and clears the selected region of the glyph.
+     *
+     * @throws IllegalStateException if the current glyph is {@code null}
+     * @see #paste()
+     */
+    public void cutSelection() {
+        requireState(tab != null, "current glyph is null");
+        AlphaView view = tab.canvas.cutSelection();
+        if (view != null) {
+            clipboard = view;
+            updateEditActions();
+        }
+    }
+
     /**
      * Deletes the glyphs currently selected in the glyph list from the current
      * font.
      * <p>
      * This method will remove the glyphs from the font's list of glyphs and the
      * editor's glyph list, and clear the canvas if the current glyph is
-     * selected.
+     * selected. The edit queue of the font is cleared, because its edits
+     * refer to glyphs by index.
      *
      * @throws IllegalStateException if no glyphs are selected or the current
      *                               font is {@code null}
@@ -315,6 +643,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         // delete glyphs
         if (option == YES) {
             mFont.glyphList.removeAll(glyphs);
+            mFont.editQueue.clear();
             mFont.isDirty = true;
             glyphs.forEach(glyph -> {
                 glyphListModel.removeElement(glyph);
@@ -346,6 +675,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
 
             if (dirty) {
                 mFont.isDirty = true;
+                ((GlyphPreview) getComponent(CK_PREVIEW)).fontChanged();
                 if (!mFont.name.isBlank()) {
                     setTitle(FRAME_TITLE + " - " + mFont.name);
                 }
@@ -353,7 +683,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                     setTitle(FRAME_TITLE);
                 }
                 getAction(ACTION_SAVE_FILE).setEnabled(true);
-                // TODO update warnings for glyphs that are greater than font height
+                validateFont(List.of());
             }
         }
     }
@@ -361,6 +691,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
     // DOC editGlyphProperties
     public void editGlyphProperties() {
         requireState(tab != null, "current glyph is null");
+        tab.canvas.clearSelection();
         MutableGlyph glyph = tab.canvas.glyph;
         MutableGlyph edit = wizard.showGlyphDialog(glyph);
         if (edit != null && !glyph.equals(edit)) {
@@ -372,13 +703,16 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 int dataWidth = Math.min(glyph.width, edit.width);
                 int dataHeight = Math.min(glyph.height, edit.height);
                 // transfer previous glyph.data into new array
+                byte[] oldData = glyph.getData();
                 byte[] data = new byte[edit.width * edit.height];
                 for (int y = 0; y < dataHeight; y++) {
-                    System.arraycopy(glyph.data, y * glyph.width, data, y * dataWidth, dataWidth);
+                    System.arraycopy(oldData, y * glyph.width, data, y * edit.width, dataWidth);
                 }
-                glyph.width = edit.width;
-                glyph.height = edit.height;
-                glyph.data = data;
+                // record resize so edits of the glyph are undone at the right size
+                ResizeEdit resize = new ResizeEdit(glyph, glyph.width, glyph.height, glyph.offsetY, oldData,
+                        edit.width, edit.height, edit.offsetY, data);
+                resize.redo();
+                glyph.editQueue.add(resize);
                 dirty = true;
             }
 
@@ -401,19 +735,27 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                     tab.canvas.updateImage();
                 }
                 tab.canvas.repaint();
+                ((GlyphPreview) getComponent(CK_PREVIEW)).glyphChanged(glyph);
+                validateFont(List.of(glyph));
 //                tab.canvas.glyph.isDirty = true; // forwards to property listener and marks font as dirty
             }
         }
     }
 
-    // DOC editHorizontalOffsets
-    // TODO editHorizontalOffsets
+    /**
+     * Shows a dialog for editing the horizontal offsets (kerning pairs)
+     * between glyphs in the current font. If a glyph is open, then the
+     * dialog initially shows the pairs with that glyph as the right glyph.
+     *
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see #setHorizontalOffsets(KerningMatrix)
+     */
     public void editHorizontalOffsets() {
         requireState(mFont != null, "current font is null");
-        requireState(tab != null, "current glyph is null");
-        int[] edit = wizard.showHorizontalOffsetsDialog(mFont, tab.canvas.glyph);
-        if (edit != null && !Arrays.equals(tab.canvas.glyph.offsetX, edit)) {
-
+        KerningMatrix matrix = wizard.showHorizontalOffsetsDialog(mFont, tab != null ? tab.canvas.glyph : null);
+        if (matrix != null) {
+            int count = setHorizontalOffsets(matrix);
+            Log.i("edited horizontal offsets of " + count + " glyphs");
         }
     }
 
@@ -459,9 +801,98 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Compares the current font with the specified font on a background
+     * thread, and shows the differences between them when done. If the user
+     * applies the merge, then the merged font is opened as a new, unsaved
+     * font.
+     *
+     * @param other the font to merge with the current font
+     * @throws NullPointerException  if {@code other} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see FontMerger
+     */
+    public void mergeFont(@NotNull MutableFont other) {
+        Objects.requireNonNull(other, "other is null");
+        requireState(mFont != null, "current font is null");
+        MutableFont current = mFont;
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        // the worker reads a copy, glyphs can be edited while it runs
+        MutableFont font = current.copy();
+        getAction(ACTION_MERGE_FONT).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<FontMerger.Result[], Void>() {
+            @Override
+            protected FontMerger.Result[] doInBackground() {
+                long start = System.nanoTime();
+                FontMerger.Result[] results = {
+                        FontMerger.merge(font, other, FontMerger.Preference.FIRST),
+                        FontMerger.merge(font, other, FontMerger.Preference.SECOND)
+                };
+                Log.i("merged " + font.glyphList.size() + " and " + other.glyphList.size() + " glyphs in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+                return results;
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_MERGE_FONT).setEnabled(mFont != null);
+                FontMerger.Result[] results;
+                try {
+                    results = get();
+                }
+                catch (Exception e) {
+                    Log.e("could not merge fonts", e);
+                    wizard.showErrorDialog("Could not merge fonts", e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                if (mFont != current) {
+                    return;
+                }
+                String otherName = other.file != null ? other.file.getName() : other.name;
+                FontMerger.Preference preference = wizard.showMergeDialog(results[0], otherName);
+                if (preference != null) {
+                    MutableFont merged = results[preference.ordinal()].font();
+                    setFont(merged);
+                    if (mFont == merged) {
+                        merged.isDirty = true;
+                        getAction(ACTION_SAVE_FILE).setEnabled(true);
+                    }
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Opens the specified font files in the workspace and shows the first
+     * of them. The other files are not read until their font is shown.
+     *
+     * @param files the font files to open
+     * @throws NullPointerException if {@code files} is {@code null}
+     * @see #showFont(FontWorkspace.Entry)
+     */
+    public void openFonts(@NotNull File[] files) {
+        Objects.requireNonNull(files, "files is null");
+        FontWorkspace.Entry first = null;
+        for (File file : files) {
+            FontWorkspace.Entry entry = workspace.add(file);
+            if (first == null) {
+                first = entry;
+            }
+        }
+        if (first != null) {
+            showFont(first);
+        }
+        else {
+            updateFontBox();
+        }
+    }
+
     /**
      * Moves all selected glyphs in the glyph list to the specified index,
-     * swapping places with the glyphs at that position.
+     * swapping places with the glyphs at that position. The edit queue of
+     * the font is cleared, because its edits refer to glyphs by index.
      *
      * @param index the position in the list to move the selected glyphs to
      * @throws IllegalStateException if the current font is {@code null}
@@ -499,15 +930,19 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
 
         // update indices in offsetX arrays of all glyphs
         for (MutableGlyph glyph : mFont.glyphList) {
-            for (int i = 0; i < glyph.offsetX.length; i += 2) {
-                Integer newIndex = indexMap.get(glyph.offsetX[i]);
+            // copy the array, it can be held by an edit
+            int[] offsetX = glyph.offsetX.clone();
+            for (int i = 0; i < offsetX.length; i += 2) {
+                Integer newIndex = indexMap.get(offsetX[i]);
                 if (newIndex != null) {
-                    glyph.offsetX[i] = newIndex;
+                    offsetX[i] = newIndex;
 //                    glyph.isDirty = true;
                 }
             }
+            glyph.offsetX = offsetX;
         }
 
+        mFont.editQueue.clear();
         mFont.isDirty = true;
         getAction(ACTION_SAVE_FILE).setEnabled(true);
     }
@@ -530,6 +965,513 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Packs the glyphs of the current font into a texture atlas on a
+     * background thread and writes its pages and UV table. The occupancy of
+     * the atlas is reported when done.
+     *
+     * @param export the packer and UV table file to export with
+     * @throws NullPointerException  if {@code export} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see AtlasPacker
+     */
+    public void exportAtlas(@NotNull EditorWizard.AtlasExport export) {
+        Objects.requireNonNull(export, "export is null");
+        requireState(mFont != null, "current font is null");
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        // the worker reads a copy, glyphs can be edited while it runs
+        List<MutableGlyph> glyphs = mFont.copy().glyphList;
+        getAction(ACTION_EXPORT_ATLAS).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<AtlasPacker.Atlas, Void>() {
+            @Override
+            protected AtlasPacker.Atlas doInBackground() throws Exception {
+                AtlasPacker.Atlas atlas = export.packer().pack(glyphs);
+                AtlasPacker.write(atlas, export.file());
+                return atlas;
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_EXPORT_ATLAS).setEnabled(mFont != null);
+                AtlasPacker.Atlas atlas;
+                try {
+                    atlas = get();
+                }
+                catch (Exception e) {
+                    Log.e("could not export texture atlas", e);
+                    wizard.showErrorDialog("Could not export texture atlas", e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                StringBuilder sb = new StringBuilder();
+                sb.append(String.format("Packed %d glyphs into %d pages, %.1f%% occupied.",
+                        atlas.regions().size(), atlas.pages().size(), atlas.getOccupancy() * 100.0d));
+                for (int i = 0; i < atlas.pages().size(); i++) {
+                    AtlasPacker.Page page = atlas.pages().get(i);
+                    sb.append(String.format("\nPage %d: %d x %d, %.1f%% occupied", i, page.width(), page.height(),
+                            atlas.getOccupancy(i) * 100.0d));
+                }
+                Log.i("exported texture atlas to {" + export.file() + "}");
+                wizard.showConfirmationDialog("Texture Atlas Exported", sb.toString(), CLOSE, CLOSE);
+            }
+        }.execute();
+    }
+
+    /**
+     * Converts the current font to a signed distance field font on background
+     * threads and writes it to the specified file. The current font is not
+     * modified.
+     *
+     * @param file   the file to write the distance field font to
+     * @param spread the spread of the distance field in pixels
+     * @throws NullPointerException  if {@code file} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see DistanceFieldGenerator
+     */
+    public void exportDistanceField(@NotNull File file, int spread) {
+        Objects.requireNonNull(file, "file is null");
+        requireState(mFont != null, "current font is null");
+        // the worker reads a copy, glyphs can be edited while it runs
+        MutableFont font = mFont.copy();
+        getAction(ACTION_EXPORT_DISTANCE_FIELD).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                FontCodec.writeFile(DistanceFieldGenerator.generate(font, spread).convertToFont(), file);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_EXPORT_DISTANCE_FIELD).setEnabled(mFont != null);
+                try {
+                    get();
+                    Log.i("exported distance field font to {" + file + "}");
+                }
+                catch (Exception e) {
+                    Log.e("could not export distance field font", e);
+                    wizard.showErrorDialog("Could not export distance field font",
+                            e.getCause() != null ? e.getCause() : e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Writes the current font to a file in the packed format on a background
+     * thread. The size of the glyph data and the written file is reported
+     * when done.
+     *
+     * @param export the options and file to export with
+     * @throws NullPointerException  if {@code export} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see PackedFontCodec
+     */
+    public void exportPackedFont(@NotNull EditorWizard.PackedExport export) {
+        Objects.requireNonNull(export, "export is null");
+        requireState(mFont != null, "current font is null");
+        // the worker reads a copy, glyphs can be edited while it runs
+        MutableFont font = mFont.copy();
+        getAction(ACTION_EXPORT_PACKED_FONT).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                PackedFontCodec.write(font, export.bits(), export.rle(), export.file());
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_EXPORT_PACKED_FONT).setEnabled(mFont != null);
+                try {
+                    get();
+                }
+                catch (Exception e) {
+                    Log.e("could not export packed font", e);
+                    wizard.showErrorDialog("Could not export packed font", e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                long bytes = 0L;
+                for (MutableGlyph glyph : font.glyphList) {
+                    if (!glyph.isWhitespace) {
+                        bytes += (long) glyph.width * glyph.height;
+                    }
+                }
+                Log.i("exported packed font to {" + export.file() + "}");
+                wizard.showConfirmationDialog("Packed Font Exported", "Exported " + bytes + " bytes of glyph data "
+                        + "to a file of " + export.file().length() + " bytes (" + export.bits() + " bits per pixel"
+                        + (export.rle() ? ", run-length encoded" : "") + ").", CLOSE, CLOSE);
+            }
+        }.execute();
+    }
+
+    /**
+     * Finds glyphs with identical images in the current font on a background
+     * thread, and shows the duplicates when done. If compression of closed
+     * glyphs is enabled, then the user can choose to store the compressed
+     * data of duplicates once.
+     *
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see DuplicateFinder
+     */
+    public void findDuplicates() {
+        requireState(mFont != null, "current font is null");
+        MutableFont font = mFont;
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        // the worker reads a copy, glyphs can be edited while it runs
+        List<MutableGlyph> copies = font.copy().glyphList;
+        IdentityHashMap<MutableGlyph, MutableGlyph> glyphMap = new IdentityHashMap<>();
+        for (int i = 0; i < copies.size(); i++) {
+            glyphMap.put(copies.get(i), font.glyphList.get(i));
+        }
+        getAction(ACTION_FIND_DUPLICATES).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<List<List<MutableGlyph>>, Void>() {
+            @Override
+            protected List<List<MutableGlyph>> doInBackground() throws Exception {
+                return DuplicateFinder.find(copies);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_FIND_DUPLICATES).setEnabled(mFont != null);
+                List<List<MutableGlyph>> groups = new ArrayList<>();
+                try {
+                    // map groups of copies back to the glyphs of the font
+                    for (List<MutableGlyph> group : get()) {
+                        groups.add(group.stream().map(glyphMap::get).toList());
+                    }
+                }
+                catch (Exception e) {
+                    Log.e("could not find duplicate glyphs", e);
+                    wizard.showErrorDialog("Could not find duplicate glyphs",
+                            e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                if (groups.isEmpty()) {
+                    wizard.showConfirmationDialog("Duplicate Glyphs", "No duplicate glyphs were found.", CLOSE,
+                            CLOSE);
+                    return;
+                }
+                if (wizard.showDuplicatesDialog(groups, isCompressGlyphs) && mFont == font) {
+                    compressGlyphs(font.glyphList);
+                    int bytes = 0;
+                    for (List<MutableGlyph> group : groups) {
+                        bytes += DuplicateFinder.share(group);
+                    }
+                    Log.i("shared data of duplicate glyphs, " + bytes + " bytes reclaimed");
+                    wizard.showConfirmationDialog("Duplicate Glyphs", "Data of duplicate glyphs is now stored "
+                            + "once, " + bytes + " bytes reclaimed.", CLOSE, CLOSE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Computes horizontal offsets between all pairs of glyphs in the current
+     * font from the images of the glyphs. The pairs are measured on a
+     * background thread, and the computed offsets are added to the edit
+     * queue of the font as a single edit when done. The computed offsets are
+     * discarded if the offsets of the font changed in the meantime.
+     *
+     * @param kerning the options of the computation
+     * @throws NullPointerException  if {@code kerning} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see AutoKerner
+     */
+    public void autoKern(@NotNull EditorWizard.AutoKerning kerning) {
+        Objects.requireNonNull(kerning, "kerning is null");
+        requireState(mFont != null, "current font is null");
+        MutableFont font = mFont;
+        // glyphs are measured as they are when the computation starts
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        List<MutableGlyph> glyphs = new ArrayList<>(font.glyphList);
+        // the worker measures copies, glyphs can be edited while it runs
+        List<MutableGlyph> copies = font.copy().glyphList;
+        // offsets are read here, the worker must not read them while they can change
+        KerningMatrix matrix = KerningMatrix.of(font);
+        int[][] offsetX = new int[glyphs.size()][];
+        for (int i = 0; i < offsetX.length; i++) {
+            offsetX[i] = glyphs.get(i).offsetX.clone();
+        }
+        getAction(ACTION_AUTO_KERN).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<KerningMatrix, Void>() {
+            int count;
+            int spacing;
+
+            @Override
+            protected KerningMatrix doInBackground() {
+                long start = System.nanoTime();
+                int[] gaps = AutoKerner.measure(copies, kerning.threshold());
+                spacing = kerning.spacing() != -1 ? kerning.spacing() : AutoKerner.median(gaps);
+                count = AutoKerner.kern(matrix, gaps, copies.size(), spacing, kerning.maxAdjustment(),
+                        kerning.replace());
+                Log.i("measured " + gaps.length + " glyph pairs in " + (System.nanoTime() - start) / 1_000_000
+                        + " ms");
+                return matrix;
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_AUTO_KERN).setEnabled(mFont != null);
+                KerningMatrix result;
+                try {
+                    result = get();
+                }
+                catch (Exception e) {
+                    Log.e("could not compute kerning", e);
+                    wizard.showErrorDialog("Could not compute kerning", e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                if (mFont != font || !glyphs.equals(font.glyphList)) {
+                    Log.i("glyphs changed during kerning, offsets discarded");
+                    return;
+                }
+                for (int i = 0; i < offsetX.length; i++) {
+                    if (!Arrays.equals(offsetX[i], glyphs.get(i).offsetX)) {
+                        Log.i("offsets changed during kerning, offsets discarded");
+                        wizard.showConfirmationDialog("Auto Kerning", "Horizontal offsets were changed while "
+                                + "kerning was computed. The computed offsets were discarded.", CLOSE, CLOSE);
+                        return;
+                    }
+                }
+                setHorizontalOffsets(result);
+                Log.i("auto kerned " + count + " pairs with " + spacing + " pixel spacing");
+                wizard.showConfirmationDialog("Auto Kerning", "Kerned " + count + " pairs with a spacing of "
+                        + spacing + " pixels.", CLOSE, CLOSE);
+            }
+        }.execute();
+    }
+
+    /**
+     * Imports glyphs from a directory of images, or from the images listed in
+     * a mapping file, and adds them to the current font. Images are decoded
+     * in parallel on background threads, and the glyphs are added in a single
+     * update when all images have been decoded. If another font is shown by
+     * then, the glyphs are still added to the font the import started in.
+     *
+     * @param file the directory or mapping file to import from
+     * @throws NullPointerException  if {@code file} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see GlyphImporter
+     */
+    public void importGlyphs(@NotNull File file) {
+        Objects.requireNonNull(file, "file is null");
+        requireState(mFont != null, "current font is null");
+        MutableFont font = mFont;
+        getAction(ACTION_IMPORT_GLYPHS).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<GlyphImporter.Result, Void>() {
+            @Override
+            protected GlyphImporter.Result doInBackground() throws Exception {
+                List<GlyphImporter.Source> sources = file.isDirectory() ?
+                        GlyphImporter.listDirectory(file) :
+                        GlyphImporter.readMapping(file);
+                return GlyphImporter.importGlyphs(sources);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_IMPORT_GLYPHS).setEnabled(mFont != null);
+                GlyphImporter.Result result;
+                try {
+                    result = get();
+                }
+                catch (Exception e) {
+                    Log.e("could not import glyphs", e);
+                    wizard.showErrorDialog("Could not import glyphs", e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                if (mFont == font) {
+                    addGlyphs(result.glyphs());
+                }
+                else if (workspace.get(font) != null) {
+                    // font is open but not shown, add glyphs to it directly
+                    if (!result.glyphs().isEmpty()) {
+                        font.glyphList.addAll(result.glyphs());
+                        font.isDirty = true;
+                        compressGlyphs(result.glyphs());
+                        updateFontBox();
+                    }
+                }
+                else {
+                    Log.i("font closed during import, discarding " + result.glyphs().size() + " glyphs");
+                    wizard.showErrorDialog("The font was closed before the glyphs were imported", null);
+                    return;
+                }
+                Log.i("imported " + result.glyphs().size() + " glyphs from {" + file + "}");
+                if (!result.failed().isEmpty()) {
+                    wizard.showErrorDialog(result.failed().size() + " of "
+                            + (result.glyphs().size() + result.failed().size())
+                            + " images could not be imported", null);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Rasterizes a new font on background threads and sets it as the current
+     * font when done. The new font is marked as dirty, as it has not been
+     * saved to a file.
+     *
+     * @param rasterizer the rasterizer to create the font with
+     * @throws NullPointerException if {@code rasterizer} is {@code null}
+     * @see FontRasterizer
+     */
+    public void rasterizeFont(@NotNull FontRasterizer rasterizer) {
+        Objects.requireNonNull(rasterizer, "rasterizer is null");
+        getAction(ACTION_RASTERIZE_FONT).setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<MutableFont, Void>() {
+            @Override
+            protected MutableFont doInBackground() throws Exception {
+                return rasterizer.rasterize();
+            }
+
+            @Override
+            protected void done() {
+                setCursor(null);
+                getAction(ACTION_RASTERIZE_FONT).setEnabled(true);
+                MutableFont font;
+                try {
+                    font = get();
+                }
+                catch (Exception e) {
+                    Log.e("could not rasterize font", e);
+                    wizard.showErrorDialog("Could not rasterize font", e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                Log.i("rasterized " + font.glyphList.size() + " glyphs from {" + rasterizer.font + "}");
+                setFont(font);
+                if (mFont == font) {
+                    font.isDirty = true;
+                    getAction(ACTION_SAVE_FILE).setEnabled(true);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Returns {@code true} if glyphs that are not open in a tab are stored
+     * with run-length encoding, otherwise {@code false}.
+     *
+     * @see #setCompressGlyphs(boolean)
+     */
+    @Contract(pure = true)
+    public boolean isCompressGlyphs() {
+        return isCompressGlyphs;
+    }
+
+    /**
+     * Returns {@code true} if changing the level of zoom on a canvas is
+     * animated, otherwise {@code false}.
+     *
+     * @see #setSmoothZoom(boolean)
+     */
+    @Contract(pure = true)
+    public boolean isSmoothZoom() {
+        return isSmoothZoom;
+    }
+
+    /**
+     * Pastes the editor clipboard as a floating selection on the canvas in
+     * the current tab, and changes the current tool to {@code SELECT} so the
+     * selection can be moved.
+     *
+     * @throws IllegalStateException if the current glyph or the clipboard is
+     *                               {@code null}
+     */
+    public void paste() {
+        requireState(tab != null, "current glyph is null");
+        requireState(clipboard != null, "clipboard is null");
+        tab.canvas.paste(clipboard);
+        if (tool != SELECT) {
+            setTool(SELECT);
+        }
+    }
+
+    /**
+     * Redoes the next edit of the glyph in the current tab. Any floating
+     * selection is committed first.
+     *
+     * @throws IllegalStateException  if the current glyph is {@code null}
+     * @throws NoSuchElementException if there is no edit to redo
+     */
+    public void redo() {
+        requireState(tab != null, "current glyph is null");
+        tab.canvas.commitSelection();
+        tab.canvas.glyph.editQueue.redo();
+    }
+
+    /**
+     * Quantizes the alpha values of all glyphs in the current font. The
+     * change of each glyph is added to the edit queue of that glyph.
+     * Selections in all open tabs are committed first.
+     *
+     * @param quantization the bits per pixel and dithering to quantize with
+     * @throws NullPointerException  if {@code quantization} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see AlphaQuantizer
+     */
+    public void quantizeGlyphs(@NotNull EditorWizard.Quantization quantization) {
+        Objects.requireNonNull(quantization, "quantization is null");
+        requireState(mFont != null, "current font is null");
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        Set<MutableGlyph> glyphs = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (MutableGlyph glyph : mFont.glyphList) {
+            byte[] oldData = glyph.getData();
+            if (glyph.isWhitespace || oldData.length != glyph.width * glyph.height) {
+                continue;
+            }
+            byte[] data = AlphaQuantizer.quantize(oldData, glyph.width, glyph.height, quantization.bits(),
+                    quantization.dither());
+            if (!Arrays.equals(data, oldData)) {
+                DataEdit edit = new DataEdit(glyph, 0, 0, glyph.width, glyph.height, oldData.clone(), data);
+                edit.redo();
+                glyph.editQueue.add(edit);
+                glyphs.add(glyph);
+            }
+        }
+        if (glyphs.isEmpty()) {
+            wizard.showConfirmationDialog("Quantize Alpha", "All glyphs are already quantized.", CLOSE, CLOSE);
+            return;
+        }
+        glyphsEdited(glyphs);
+        Log.i("quantized " + glyphs.size() + " glyphs to " + quantization.bits() + " bits per pixel");
+    }
+
+    /**
+     * Redoes the next edit in the edit queue of the current font. Selections
+     * in all open tabs are committed first.
+     *
+     * @throws IllegalStateException  if the current font is {@code null}
+     * @throws NoSuchElementException if there is no edit to redo
+     */
+    public void redoFontEdit() {
+        requireState(mFont != null, "current font is null");
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        mFont.editQueue.redo();
+    }
+
+    /**
+     * Selects the entire glyph in the current tab.
+     *
+     * @throws IllegalStateException if the current glyph is {@code null}
+     */
+    public void selectAll() {
+        requireState(tab != null, "current glyph is null");
+        tab.canvas.selectAll();
+    }
+
     /**
      * Saves to current font to a file. If {@code saveAs} is not {@code null},
      * then the font will be saved to the specified file. Otherwise, if the
@@ -594,7 +1536,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         mFont.isDirty = false;
         mFont.file = file;
         getAction(ACTION_SAVE_FILE).setEnabled(false);
-        config.addString("editor", "file", file.getAbsolutePath());
+        addRecentFile(file);
     }
 
     /**
@@ -619,56 +1561,26 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
     }
 
     /**
-     * Sets the current font.
+     * Sets the current font. The font is added to the workspace if it is not
+     * already open, and the glyphs that were open in tabs when the font was
+     * last shown are opened again. The previous font is kept open in the
+     * workspace; use {@link #closeFont()} to close it.
      * <p>
      * This method will update the editor's glyph list and clear the canvas.
      *
      * @param newFont the new font, or {@code null}
      */
     public void setFont(@Nullable MutableFont newFont) {
+        pendingEntry = null;
         if (this.mFont == newFont) {
             return;
         }
 
-        // ask user to save current font if dirty
-        if (mFont != null && mFont.isDirty) {
-            Option saveOp = wizard.showConfirmationDialog(
-                    "Unsaved Changes",
-                    "The current font has unsaved changes. Do you wish to "
-                            + "save the current font before proceeding?",
-                    CANCEL,
-                    YES, NO, CANCEL);
-            if (saveOp == YES) {
-                File file = mFont.file != null ? mFont.file : wizard.showSaveFontFileDialog();
-                if (file == null) {
-                    return;
-                }
-                Font font = mFont.convertToFont();
-                boolean saved = false;
-                while (!saved) {
-                    try {
-                        FontCodec.writeFile(font, file);
-                        saved = true;
-                    }
-                    catch (IOException e) {
-                        Log.e("could not save font", e);
-                        Option retryOp = wizard.showConfirmationDialog(
-                                "Error",
-                                "An error occurred while saving the font. Do you want to try again?",
-                                YES,
-                                YES, NO, CANCEL);
-                        if (retryOp == NO) {
-                            break;
-                        }
-                        if (retryOp == CANCEL) {
-                            return;
-                        }
-                    }
-                }
-            }
-            else if (saveOp == CANCEL) {
-                return;
-            }
+        // remember open tabs of the previous font
+        FontWorkspace.Entry oldEntry = workspace.get(mFont);
+        if (oldEntry != null) {
+            oldEntry.openGlyphs.clear();
+            tabList.forEach(glyphTab -> oldEntry.openGlyphs.add(glyphTab.canvas.glyph));
         }
 
         // TODO ensure this will forward to selection listener and update move-to actions
@@ -678,17 +1590,25 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
 
         getAction(ACTION_NEW_GLYPH).setEnabled(hasFont);
         getAction(ACTION_IMPORT_GLYPH).setEnabled(hasFont);
+        getAction(ACTION_IMPORT_GLYPHS).setEnabled(hasFont);
+        getAction(ACTION_IMPORT_SPRITE_SHEET).setEnabled(hasFont);
         getAction(ACTION_CLOSE_FILE).setEnabled(hasFont);
+        getAction(ACTION_MERGE_FONT).setEnabled(hasFont);
         getAction(ACTION_SAVE_AS).setEnabled(hasFont);
-        getAction(ACTION_SAVE_FILE).setEnabled(false);
+        getAction(ACTION_EXPORT_ATLAS).setEnabled(hasFont);
+        getAction(ACTION_EXPORT_DISTANCE_FIELD).setEnabled(hasFont);
+        getAction(ACTION_EXPORT_PACKED_FONT).setEnabled(hasFont);
+        getAction(ACTION_SAVE_FILE).setEnabled(hasFont && newFont.isDirty);
 
         getAction(ACTION_EDIT_GLYPH).setEnabled(false);
         getAction(ACTION_DELETE_GLYPHS).setEnabled(false);
-        getAction(ACTION_EDIT_HORIZONTAL_OFFSETS).setEnabled(false);
+        getAction(ACTION_EDIT_HORIZONTAL_OFFSETS).setEnabled(hasFont);
+        getAction(ACTION_AUTO_KERN).setEnabled(hasFont);
         getAction(ACTION_EDIT_GLYPH_PROPERTIES).setEnabled(false);
         getAction(ACTION_EDIT_FONT_PROPERTIES).setEnabled(hasFont);
 
-        tabList.forEach(GlyphTab::close);
+        // copy list, closing a tab removes it from the list
+        new ArrayList<>(tabList).forEach(GlyphTab::close);
         // note: this notifies ChangeListener on tabbedPane to update enabled
         // state on tool actions, do not disable tool actions here
         tabList.clear();
@@ -701,16 +1621,50 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 setTitle(FRAME_TITLE);
             }
             glyphListModel.addAll(newFont.glyphList);
-            // TODO add project to recent list
+            newFont.editQueue.addListener(fontQueueListener);
+            workspace.add(newFont);
             if (newFont.file != null) {
-                config.addString("editor", "file", newFont.file.getAbsolutePath());
+                addRecentFile(newFont.file);
             }
         }
         else {
             setTitle(FRAME_TITLE);
-            config.addString("editor", "file", null);
+        }
+        if (mFont != null) {
+            mFont.editQueue.removeListener(fontQueueListener);
+        }
+        if (validator != null) {
+            validator.close();
+            validator = null;
         }
         this.mFont = newFont;
+        diagnosticsChanged(List.of());
+        if (newFont != null) {
+            validator = new FontValidator(newFont, list -> SwingUtilities.invokeLater(() -> {
+                // ignore diagnostics of previous fonts
+                if (mFont == newFont) {
+                    diagnosticsChanged(list);
+                }
+            }));
+            validator.validate(List.of());
+        }
+        ((GlyphPreview) getComponent(CK_PREVIEW)).setGlyphFont(newFont);
+        if (newFont != null) {
+            compressGlyphs(newFont.glyphList);
+            FontWorkspace.Entry newEntry = workspace.get(newFont);
+            if (newEntry != null) {
+                newEntry.openGlyphs.stream()
+                        .filter(newFont.glyphList::contains)
+                        .toList()
+                        .forEach(this::showGlyphTab);
+            }
+        }
+        updateFontBox();
+        updateEditActions();
+        getAction(ACTION_TRIM_GLYPHS).setEnabled(hasFont);
+        getAction(ACTION_QUANTIZE).setEnabled(hasFont);
+        getAction(ACTION_FIND_DUPLICATES).setEnabled(hasFont);
+        getAction(ACTION_SHOW_COVERAGE).setEnabled(hasFont);
     }
 
     /**
@@ -730,9 +1684,97 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
             firePropertyChange(PROPERTY_FONT_COLOR,
                     new Color(rgba[0], rgba[1], rgba[2], 255),
                     new Color(rgba[0] = rgb[0], rgba[1] = rgb[1], rgba[2] = rgb[2], 255));
+            ((GlyphPreview) getComponent(CK_PREVIEW)).setFontColor(color);
+            getComponent(CK_GLYPH_LIST).repaint();
         }
     }
 
+    /**
+     * Sets whether glyphs that are not open in a tab should be stored with
+     * run-length encoding. Glyphs of the current font are compressed or
+     * decompressed accordingly.
+     *
+     * @param b {@code true} if glyphs should be compressed, otherwise
+     *          {@code false}
+     */
+    @Contract(mutates = "this")
+    public void setCompressGlyphs(boolean b) {
+        isCompressGlyphs = b;
+        if (mFont != null) {
+            if (b) {
+                compressGlyphs(mFont.glyphList);
+            }
+            else {
+                mFont.glyphList.forEach(MutableGlyph::decompress);
+            }
+        }
+    }
+
+    /**
+     * Sets whether changing the level of zoom on a canvas should be animated.
+     *
+     * @param b {@code true} if zoom should be animated, otherwise
+     *          {@code false}
+     */
+    @Contract(mutates = "this")
+    public void setSmoothZoom(boolean b) {
+        isSmoothZoom = b;
+    }
+
+    /**
+     * Shows the coverage of Unicode blocks and supported languages by the
+     * glyphs of the current font.
+     *
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see CoverageAnalyzer
+     */
+    public void showCoverage() {
+        requireState(mFont != null, "current font is null");
+        wizard.showCoverageDialog(CoverageAnalyzer.analyze(mFont.glyphList));
+    }
+
+    /**
+     * Shows the font of the specified workspace entry. If the font is not
+     * loaded, then its file is read on a background thread and the font is
+     * shown when it has been read, unless another font was shown in the
+     * meantime.
+     *
+     * @param entry the entry to show
+     * @throws NullPointerException if {@code entry} is {@code null}
+     * @see #setFont(MutableFont)
+     */
+    public void showFont(@NotNull FontWorkspace.Entry entry) {
+        Objects.requireNonNull(entry, "entry is null");
+        if (entry.isLoaded()) {
+            setFont(entry.getFont());
+            return;
+        }
+        pendingEntry = entry;
+        updateFontBox();
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        workspace.load(entry).whenComplete((font, e) -> SwingUtilities.invokeLater(() -> {
+            setCursor(null);
+            if (e != null) {
+                Log.e("could not read font file", e);
+                wizard.showErrorDialog("Could not read font file", e.getCause() != null ? e.getCause() : e);
+                if (pendingEntry == entry) {
+                    pendingEntry = null;
+                }
+                workspace.remove(entry);
+                updateFontBox();
+                return;
+            }
+            // bind font to its entry even if another font is shown
+            workspace.add(font);
+            if (pendingEntry == entry) {
+                setFont(font);
+            }
+            else {
+                updateFontBox();
+            }
+        }));
+    }
+
     /**
      * Sets the tool to use on the canvas.
      *
@@ -753,6 +1795,8 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                         toolGroup.setSelected(((JToggleButton) getComponent(CK_B_TOOL_PENCIL)).getModel(), true);
                 case ERASER ->
                         toolGroup.setSelected(((JToggleButton) getComponent(CK_B_TOOL_ERASER)).getModel(), true);
+                case FILL ->
+                        toolGroup.setSelected(((JToggleButton) getComponent(CK_B_TOOL_FILL)).getModel(), true);
                 case PICKER ->
                         toolGroup.setSelected(((JToggleButton) getComponent(CK_B_TOOL_PICKER)).getModel(), true);
                 case ZOOM ->
@@ -769,6 +1813,105 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Removes empty borders from the glyph in the current tab. The change is
+     * added to the edit queue of the glyph, and the number of bytes
+     * reclaimed is reported.
+     *
+     * @param horizontal {@code true} if empty columns should also be removed,
+     *                   otherwise {@code false}
+     * @throws IllegalStateException if the current glyph is {@code null}
+     * @see ResizeEdit#trim(MutableGlyph, boolean)
+     */
+    public void trimGlyph(boolean horizontal) {
+        requireState(tab != null, "current glyph is null");
+        tab.canvas.clearSelection();
+        MutableGlyph glyph = tab.canvas.glyph;
+        ResizeEdit edit = ResizeEdit.trim(glyph, horizontal);
+        if (edit == null) {
+            wizard.showConfirmationDialog("Trim Glyph", "The glyph has no empty borders to remove.", CLOSE, CLOSE);
+            return;
+        }
+        glyph.editQueue.add(edit);
+        tab.canvas.glyphChanged();
+        Log.i("trimmed glyph {" + glyph.name + "}, reclaimed " + edit.getBytesReclaimed() + " bytes");
+        wizard.showConfirmationDialog("Trim Glyph", "Reclaimed " + edit.getBytesReclaimed() + " bytes.",
+                CLOSE, CLOSE);
+    }
+
+    /**
+     * Removes empty borders from all glyphs in the current font. The change
+     * of each glyph is added to the edit queue of that glyph, such that it
+     * is undone in order with the other edits of the glyph, and the total
+     * number of bytes reclaimed is reported. Selections in all open tabs are
+     * committed first.
+     *
+     * @param horizontal {@code true} if empty columns should also be removed,
+     *                   otherwise {@code false}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see ResizeEdit#trim(MutableGlyph, boolean)
+     */
+    public void trimGlyphs(boolean horizontal) {
+        requireState(mFont != null, "current font is null");
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        Set<MutableGlyph> glyphs = Collections.newSetFromMap(new IdentityHashMap<>());
+        long reclaimed = 0L;
+        for (MutableGlyph glyph : mFont.glyphList) {
+            ResizeEdit edit = ResizeEdit.trim(glyph, horizontal);
+            if (edit != null) {
+                glyph.editQueue.add(edit);
+                glyphs.add(glyph);
+                reclaimed += edit.getBytesReclaimed();
+            }
+        }
+        if (glyphs.isEmpty()) {
+            wizard.showConfirmationDialog("Trim All Glyphs", "No glyphs have empty borders to remove.", CLOSE,
+                    CLOSE);
+            return;
+        }
+        glyphsEdited(glyphs);
+        Log.i("trimmed " + glyphs.size() + " glyphs, reclaimed " + reclaimed + " bytes");
+        wizard.showConfirmationDialog("Trim All Glyphs", "Trimmed " + glyphs.size() + " of "
+                + mFont.glyphList.size() + " glyphs and reclaimed " + reclaimed + " bytes.", CLOSE, CLOSE);
+    }
+
+    /**
+     * Undoes the last edit of the glyph in the current tab. Any floating
+     * selection is committed first.
+     *
+     * @throws IllegalStateException  if the current glyph is {@code null}
+     * @throws NoSuchElementException if there is no edit to undo
+     */
+    public void undo() {
+        requireState(tab != null, "current glyph is null");
+        tab.canvas.commitSelection();
+        tab.canvas.glyph.editQueue.undo();
+    }
+
+    /**
+     * Undoes the current edit in the edit queue of the current font.
+     * Selections in all open tabs are committed first.
+     *
+     * @throws IllegalStateException  if the current font is {@code null}
+     * @throws NoSuchElementException if there is no edit to undo
+     */
+    public void undoFontEdit() {
+        requireState(mFont != null, "current font is null");
+        tabList.forEach(tab -> tab.canvas.clearSelection());
+        mFont.editQueue.undo();
+    }
+
+    /**
+     * Internal helper method to expose the current fill tolerance used by the
+     * editor. The value is in range 0-255 inclusive.
+     *
+     * @return the fill tolerance
+     * @see Tool#FILL
+     */
+    int getFillTolerance() {
+        return fillToleranceModel.getNumber().intValue();
+    }
+
     /**
      * Internal helper method to expose the current color component values used
      * by the editor. The values are in range 0-255 inclusive and ordered as
@@ -780,6 +1923,22 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         return rgba;
     }
 
+    /**
+     * Compresses the data of the specified glyphs that are not open in a tab,
+     * if compression of closed glyphs is enabled.
+     *
+     * @see #setCompressGlyphs(boolean)
+     */
+    protected void compressGlyphs(@NotNull Collection<MutableGlyph> glyphs) {
+        if (isCompressGlyphs) {
+            for (MutableGlyph glyph : glyphs) {
+                if (getTabIndex(glyph) == -1) {
+                    glyph.compress();
+                }
+            }
+        }
+    }
+
     /**
      * Creates the actions for this editor and puts them in the editor action
      * map.
@@ -794,6 +1953,12 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 KeyEvent.VK_F,
                 event -> Optional.ofNullable(wizard.showFontDialog(null)).ifPresent(this::setFont)
         ));
+        actionMap.put(ACTION_RASTERIZE_FONT, new EditorAction(
+                "New Font From System Font...",
+                true,
+                KeyEvent.VK_R,
+                event -> Optional.ofNullable(wizard.showRasterizeFontDialog()).ifPresent(this::rasterizeFont)
+        ));
         actionMap.put(ACTION_NEW_GLYPH, new EditorAction(
                 "New Glyph...",
                 false,
@@ -808,18 +1973,42 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 KeyStroke.getKeyStroke(KeyEvent.VK_I, CTRL_DOWN_MASK, true),
                 event -> Optional.ofNullable(wizard.showImportGlyphDialog()).ifPresent(this::addGlyph)
         ));
+        actionMap.put(ACTION_IMPORT_GLYPHS, new EditorAction(
+                "Import Glyphs From Directory...",
+                false,
+                KeyEvent.VK_D,
+                event -> Optional.ofNullable(wizard.showImportGlyphsDialog()).ifPresent(this::importGlyphs)
+        ));
+        actionMap.put(ACTION_IMPORT_SPRITE_SHEET, new EditorAction(
+                "Import Sprite Sheet...",
+                false,
+                KeyEvent.VK_P,
+                event -> Optional.ofNullable(wizard.showImportSpriteSheetDialog()).ifPresent(this::addGlyphs)
+        ));
         actionMap.put(ACTION_OPEN_FILE, new EditorAction(
                 "Open File...",
                 true,
                 KeyEvent.VK_O,
                 KeyStroke.getKeyStroke(KeyEvent.VK_O, CTRL_DOWN_MASK, true),
-                event -> Optional.ofNullable(wizard.showOpenFontFileDialog()).ifPresent(this::setFont)
+                event -> Optional.ofNullable(wizard.showOpenFontFilesDialog()).ifPresent(this::openFonts)
+        ));
+        actionMap.put(ACTION_MERGE_FONT, new EditorAction(
+                "Merge Font...",
+                false,
+                KeyEvent.VK_M,
+                event -> Optional.ofNullable(wizard.showOpenFontFileDialog()).ifPresent(this::mergeFont)
+        ));
+        actionMap.put(ACTION_CLEAR_RECENT_FILES, new EditorAction(
+                "Clear Recent Files",
+                false,
+                KeyEvent.VK_L,
+                event -> clearRecentFiles()
         ));
         actionMap.put(ACTION_CLOSE_FILE, new EditorAction(
                 "Close File",
                 false,
                 KeyEvent.VK_C,
-                event -> setFont((MutableFont) null)
+                event -> closeFont()
         ));
         actionMap.put(ACTION_SAVE_FILE, new EditorAction(
                 "Save File",
@@ -835,6 +2024,30 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 KeyStroke.getKeyStroke(KeyEvent.VK_S, CTRL_DOWN_MASK | SHIFT_DOWN_MASK, true),
                 event -> Optional.ofNullable(wizard.showSaveFontFileDialog()).ifPresent(this::saveFont)
         ));
+        actionMap.put(ACTION_EXPORT_ATLAS, new EditorAction(
+                "Export Texture Atlas...",
+                false,
+                KeyEvent.VK_T,
+                event -> Optional.ofNullable(wizard.showExportAtlasDialog()).ifPresent(this::exportAtlas)
+        ));
+        actionMap.put(ACTION_EXPORT_DISTANCE_FIELD, new EditorAction(
+                "Export Distance Field Font...",
+                false,
+                KeyEvent.VK_X,
+                event -> {
+                    Integer spread = wizard.showDistanceFieldDialog();
+                    if (spread != null) {
+                        Optional.ofNullable(wizard.showSaveFontFileDialog())
+                                .ifPresent(file -> exportDistanceField(file, spread));
+                    }
+                }
+        ));
+        actionMap.put(ACTION_EXPORT_PACKED_FONT, new EditorAction(
+                "Export Packed Font...",
+                false,
+                KeyEvent.VK_K,
+                event -> Optional.ofNullable(wizard.showExportPackedFontDialog()).ifPresent(this::exportPackedFont)
+        ));
         actionMap.put(ACTION_SETTINGS, new EditorAction(
                 "Settings",
                 true,
@@ -854,6 +2067,62 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
 
         ////// EDIT MENU ACTIONS //////
 
+        actionMap.put(ACTION_UNDO, new EditorAction(
+                "Undo",
+                false,
+                KeyEvent.VK_U,
+                KeyStroke.getKeyStroke(KeyEvent.VK_Z, CTRL_DOWN_MASK, true),
+                event -> undo()
+        ));
+        actionMap.put(ACTION_REDO, new EditorAction(
+                "Redo",
+                false,
+                KeyEvent.VK_R,
+                KeyStroke.getKeyStroke(KeyEvent.VK_Y, CTRL_DOWN_MASK, true),
+                event -> redo()
+        ));
+        actionMap.put(ACTION_UNDO_FONT, new EditorAction(
+                "Undo Font Edit",
+                false,
+                KeyEvent.VK_N,
+                KeyStroke.getKeyStroke(KeyEvent.VK_Z, CTRL_DOWN_MASK | SHIFT_DOWN_MASK, true),
+                event -> undoFontEdit()
+        ));
+        actionMap.put(ACTION_REDO_FONT, new EditorAction(
+                "Redo Font Edit",
+                false,
+                KeyEvent.VK_O,
+                KeyStroke.getKeyStroke(KeyEvent.VK_Y, CTRL_DOWN_MASK | SHIFT_DOWN_MASK, true),
+                event -> redoFontEdit()
+        ));
+        actionMap.put(ACTION_CUT, new EditorAction(
+                "Cut",
+                false,
+                KeyEvent.VK_T,
+                KeyStroke.getKeyStroke(KeyEvent.VK_X, CTRL_DOWN_MASK, true),
+                event -> cutSelection()
+        ));
+        actionMap.put(ACTION_COPY, new EditorAction(
+                "Copy",
+                false,
+                KeyEvent.VK_C,
+                KeyStroke.getKeyStroke(KeyEvent.VK_C, CTRL_DOWN_MASK, true),
+                event -> copySelection()
+        ));
+        actionMap.put(ACTION_PASTE, new EditorAction(
+                "Paste",
+                false,
+                KeyEvent.VK_P,
+                KeyStroke.getKeyStroke(KeyEvent.VK_V, CTRL_DOWN_MASK, true),
+                event -> paste()
+        ));
+        actionMap.put(ACTION_SELECT_ALL, new EditorAction(
+                "Select All",
+                false,
+                KeyEvent.VK_A,
+                KeyStroke.getKeyStroke(KeyEvent.VK_A, CTRL_DOWN_MASK, true),
+                event -> selectAll()
+        ));
         actionMap.put(ACTION_EDIT_GLYPH, new EditorAction(
                 "Edit Selected Glyph",
                 false,
@@ -876,6 +2145,12 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 KeyEvent.VK_A,
                 event -> editHorizontalOffsets()
         ));
+        actionMap.put(ACTION_AUTO_KERN, new EditorAction(
+                "Auto Kerning...",
+                false,
+                KeyEvent.VK_U,
+                event -> Optional.ofNullable(wizard.showAutoKerningDialog(mFont)).ifPresent(this::autoKern)
+        ));
         actionMap.put(ACTION_EDIT_GLYPH_PROPERTIES, new EditorAction(
                 "Glyph Properties...",
                 false,
@@ -888,10 +2163,52 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 KeyEvent.VK_F,
                 event -> editFontProperties()
         ));
+        actionMap.put(ACTION_TRIM_GLYPH, new EditorAction(
+                "Trim Glyph...",
+                false,
+                KeyEvent.VK_I,
+                event -> Optional.ofNullable(wizard.showTrimDialog("Trim Glyph")).ifPresent(this::trimGlyph)
+        ));
+        actionMap.put(ACTION_TRIM_GLYPHS, new EditorAction(
+                "Trim All Glyphs...",
+                false,
+                KeyEvent.VK_L,
+                event -> Optional.ofNullable(wizard.showTrimDialog("Trim All Glyphs")).ifPresent(this::trimGlyphs)
+        ));
+        actionMap.put(ACTION_FIND_DUPLICATES, new EditorAction(
+                "Find Duplicate Glyphs...",
+                false,
+                KeyEvent.VK_H,
+                event -> findDuplicates()
+        ));
+        actionMap.put(ACTION_QUANTIZE, new EditorAction(
+                "Quantize Alpha...",
+                false,
+                KeyEvent.VK_Q,
+                event -> Optional.ofNullable(wizard.showQuantizeDialog()).ifPresent(this::quantizeGlyphs)
+        ));
 
 
         ////// VIEW MENU ACTIONS //////
 
+        actionMap.put(ACTION_SHOW_COVERAGE, new EditorAction(
+                "Glyph Coverage...",
+                false,
+                KeyEvent.VK_G,
+                event -> showCoverage()
+        ));
+        actionMap.put(ACTION_SMOOTH_ZOOM, new EditorAction(
+                "Smooth Zoom",
+                true,
+                KeyEvent.VK_Z,
+                event -> setSmoothZoom(((AbstractButton) event.getSource()).isSelected())
+        ));
+        actionMap.put(ACTION_COMPRESS_GLYPHS, new EditorAction(
+                "Compress Closed Glyphs",
+                true,
+                KeyEvent.VK_C,
+                event -> setCompressGlyphs(((AbstractButton) event.getSource()).isSelected())
+        ));
 
         ////// TOOLBAR ACTIONS //////
 
@@ -947,6 +2264,11 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 false,
                 event -> setTool(ERASER)
         ));
+        actionMap.put(ACTION_TOOL_FILL, new EditorAction(
+                new ImageIcon("res/images/icon/fill_icon.png"),
+                false,
+                event -> setTool(FILL)
+        ));
         actionMap.put(ACTION_TOOL_PICKER, new EditorAction(
                 new ImageIcon("res/images/icon/picker_icon.png"),
                 false,
@@ -975,7 +2297,16 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
 
         JTabbedPane tabbedPane = new JTabbedPane();
 
+        JSplitPane previewSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT);
+        JPanel previewPanel = new JPanel(new BorderLayout());
+        JTextArea previewText = new JTextArea(GlyphPreview.DEFAULT_TEXT, 3, 0);
+        JScrollPane previewPane = new JScrollPane();
+        GlyphPreview preview = new GlyphPreview();
+
+        JLabel diagnosticsLabel = new JLabel();
+
         JToolBar toolBar = new JToolBar(JToolBar.HORIZONTAL);
+        JComboBox<FontWorkspace.Entry> fontBox = new JComboBox<>(fontBoxModel);
         JButton bMoveToTop = new JButton(getAction(ACTION_MOVE_TO_TOP));
         JButton bMoveUp = new JButton(getAction(ACTION_MOVE_UP));
         JButton bMoveDown = new JButton(getAction(ACTION_MOVE_DOWN));
@@ -985,16 +2316,21 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         JToggleButton bToolSelect = new JToggleButton(getAction(ACTION_TOOL_SELECT));
         JToggleButton bToolPencil = new JToggleButton(getAction(ACTION_TOOL_PENCIL));
         JToggleButton bToolEraser = new JToggleButton(getAction(ACTION_TOOL_ERASER));
+        JToggleButton bToolFill = new JToggleButton(getAction(ACTION_TOOL_FILL));
         JToggleButton bToolPicker = new JToggleButton(getAction(ACTION_TOOL_PICKER));
         JToggleButton bToolZoom = new JToggleButton(getAction(ACTION_TOOL_ZOOM));
         AlphaBox alphaBox = new AlphaBox();
         JSlider alphaSlider = new JSlider(alphaSliderModel);
         JSpinner alphaSpinner = new JSpinner(alphaSpinnerModel);
+        JSpinner fillToleranceSpinner = new JSpinner(fillToleranceModel);
 
         JMenuBar menuBar = new JMenuBar();
         JMenu mFile = new JMenu("File");
+        JMenu mRecent = new JMenu("Open Recent");
         JMenu mEdit = new JMenu("Edit");
         JMenu mView = new JMenu("View");
+        JCheckBoxMenuItem miSmoothZoom = new JCheckBoxMenuItem(getAction(ACTION_SMOOTH_ZOOM));
+        JCheckBoxMenuItem miCompressGlyphs = new JCheckBoxMenuItem(getAction(ACTION_COMPRESS_GLYPHS));
 
 
         ////// INITIALIZATION //////
@@ -1003,12 +2339,56 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         glyphList.setName(CK_GLYPH_LIST);
         glyphList.setFont(new java.awt.Font(MONOSPACED, PLAIN, 14));
         glyphList.setCellRenderer(new DefaultListCellRenderer() {
+            /**
+             * Thumbnail of the glyph that is being rendered, or {@code null}.
+             */
+            @Nullable
+            BufferedImage thumbnail = null;
+            /**
+             * Icon that draws the thumbnail centered in a square of
+             * {@code THUMBNAIL_SIZE} pixels.
+             */
+            final Icon thumbnailIcon = new Icon() {
+                @Override
+                public void paintIcon(Component c, Graphics g, int x, int y) {
+                    if (thumbnail != null) {
+                        g.drawImage(thumbnail, x + (THUMBNAIL_SIZE - thumbnail.getWidth()) / 2,
+                                y + (THUMBNAIL_SIZE - thumbnail.getHeight()) / 2, null);
+                    }
+                }
+
+                @Override
+                public int getIconWidth() {
+                    return THUMBNAIL_SIZE;
+                }
+
+                @Override
+                public int getIconHeight() {
+                    return THUMBNAIL_SIZE;
+                }
+            };
+
             @Override
             public Component getListCellRendererComponent(JList<?> list, Object value, int index,
                     boolean isSelected, boolean cellHasFocus) {
                 MutableGlyph glyph = (MutableGlyph) value;
                 JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
                 label.setText(index + ": " + (glyph.isDirty ? "*" + glyph.name : glyph.name));
+                // thumbnails are rendered once and shared by all fonts in the workspace
+                thumbnail = workspace.imageCache.getThumbnail(glyph, THUMBNAIL_SIZE,
+                        new Color(rgba[0], rgba[1], rgba[2]));
+                label.setIcon(thumbnailIcon);
+                FontValidator.Diagnostic diagnostic = glyphDiagnostics.get(glyph);
+                if (diagnostic != null) {
+                    if (!isSelected) {
+                        label.setForeground(diagnostic.severity() == FontValidator.Severity.ERROR ? Color.RED
+                                : Color.ORANGE.darker());
+                    }
+                    label.setToolTipText(diagnostic.message());
+                }
+                else {
+                    label.setToolTipText(null);
+                }
                 return label;
             }
         });
@@ -1060,19 +2440,85 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
             int index = tabbedPane.getSelectedIndex();
             tab = index != -1 ? tabList.get(index) : null;
             boolean hasTab = tabbedPane.getTabCount() != 0;
-            getAction(ACTION_EDIT_HORIZONTAL_OFFSETS).setEnabled(hasTab);
             getAction(ACTION_EDIT_GLYPH_PROPERTIES).setEnabled(hasTab);
             getAction(ACTION_TOOL_MOVE).setEnabled(hasTab);
             getAction(ACTION_TOOL_SELECT).setEnabled(hasTab);
             getAction(ACTION_TOOL_PENCIL).setEnabled(hasTab);
             getAction(ACTION_TOOL_ERASER).setEnabled(hasTab);
+            getAction(ACTION_TOOL_FILL).setEnabled(hasTab);
             getAction(ACTION_TOOL_PICKER).setEnabled(hasTab);
             getAction(ACTION_TOOL_ZOOM).setEnabled(hasTab);
             if (!hasTab) {
                 setTool(MOVE);
             }
+            updateEditActions();
+        });
+
+        componentMap.put(CK_PREVIEW, preview);
+        preview.setName(CK_PREVIEW);
+        preview.setImageCache(workspace.imageCache);
+        preview.setFontColor(new Color(rgba[0], rgba[1], rgba[2]));
+        preview.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+        preview.addMouseWheelListener(event -> {
+            if (event.isControlDown()) {
+                preview.setScale(preview.getScale() - event.getWheelRotation());
+            }
+            else {
+                previewPane.dispatchEvent(SwingUtilities.convertMouseEvent(preview, event, previewPane));
+            }
+        });
+        // lay out preview and validate again when glyphs are added, removed or moved
+        glyphListModel.addListDataListener(new ListDataListener() {
+            @Override
+            public void contentsChanged(ListDataEvent event) {
+                preview.fontChanged();
+                validateFont(List.of());
+            }
+
+            @Override
+            public void intervalAdded(ListDataEvent event) {
+                preview.fontChanged();
+                validateFont(List.of());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent event) {
+                preview.fontChanged();
+                validateFont(List.of());
+            }
+        });
+
+        componentMap.put(CK_PREVIEW_TEXT, previewText);
+        previewText.setName(CK_PREVIEW_TEXT);
+        previewText.setToolTipText("Preview Text");
+        previewText.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void changedUpdate(DocumentEvent event) {
+                preview.setText(previewText.getText());
+            }
+
+            @Override
+            public void insertUpdate(DocumentEvent event) {
+                preview.setText(previewText.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent event) {
+                preview.setText(previewText.getText());
+            }
         });
 
+        previewPane.setViewportView(preview);
+        previewPanel.add(new JScrollPane(previewText), NORTH);
+        previewPanel.add(previewPane, CENTER);
+
+        componentMap.put(CK_PREVIEW_SPLIT_PANE, previewSplitPane);
+        previewSplitPane.setName(CK_PREVIEW_SPLIT_PANE);
+        previewSplitPane.setTopComponent(tabbedPane);
+        previewSplitPane.setBottomComponent(previewPanel);
+        previewSplitPane.setResizeWeight(1.0d);
+        previewSplitPane.setDividerSize(7);
+
         componentMap.put(CK_B_TOOL_MOVE, bToolMove);
         bToolSelect.setName(CK_B_TOOL_MOVE);
 
@@ -1085,6 +2531,9 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         componentMap.put(CK_B_TOOL_ERASER, bToolEraser);
         bToolEraser.setName(CK_B_TOOL_ERASER);
 
+        componentMap.put(CK_B_TOOL_FILL, bToolFill);
+        bToolFill.setName(CK_B_TOOL_FILL);
+
         componentMap.put(CK_B_TOOL_PICKER, bToolPicker);
         bToolPicker.setName(CK_B_TOOL_PICKER);
 
@@ -1095,6 +2544,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         toolGroup.add(bToolSelect);
         toolGroup.add(bToolPencil);
         toolGroup.add(bToolEraser);
+        toolGroup.add(bToolFill);
         toolGroup.add(bToolPicker);
         toolGroup.add(bToolZoom);
 
@@ -1120,6 +2570,11 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         componentMap.put(CK_ALPHA_SPINNER, alphaSpinner);
         alphaSpinner.setName(CK_ALPHA_SPINNER);
         alphaSpinner.setMaximumSize(alphaSpinner.getPreferredSize());
+        componentMap.put(CK_FILL_TOLERANCE_SPINNER, fillToleranceSpinner);
+        fillToleranceSpinner.setName(CK_FILL_TOLERANCE_SPINNER);
+        fillToleranceSpinner.setToolTipText("Fill Tolerance");
+        fillToleranceSpinner.setMaximumSize(fillToleranceSpinner.getPreferredSize());
+
         alphaSpinnerModel.addChangeListener(event -> {
             int value = alphaSpinnerModel.getNumber().intValue();
             if (value != alphaSliderModel.getValue()) {
@@ -1132,13 +2587,15 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         componentMap.put(CK_SPLIT_PANE, splitPane);
         splitPane.setName(CK_SPLIT_PANE);
         splitPane.setLeftComponent(glyphPane);
-        splitPane.setRightComponent(tabbedPane);
+        splitPane.setRightComponent(previewSplitPane);
         splitPane.setDividerSize(7);
 
         componentMap.put(CK_TOOL_BAR, contentPane);
         toolBar.setName(CK_TOOL_BAR);
         toolBar.setFloatable(false);
 //        toolBar.setOpaque(false);
+        toolBar.add(fontBox);
+        toolBar.addSeparator();
         toolBar.add(bMoveToTop);
         toolBar.add(bMoveUp);
         toolBar.add(bMoveDown);
@@ -1150,6 +2607,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         toolBar.add(bToolSelect);
         toolBar.add(bToolPencil);
         toolBar.add(bToolEraser);
+        toolBar.add(bToolFill);
         toolBar.add(bToolPicker);
         toolBar.add(bToolZoom);
         toolBar.addSeparator();
@@ -1159,44 +2617,122 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         toolBar.add(Box.createHorizontalStrut(2));
         toolBar.add(alphaSpinner);
         toolBar.addSeparator();
+        toolBar.add(fillToleranceSpinner);
+        toolBar.addSeparator();
+
+        componentMap.put(CK_FONT_BOX, fontBox);
+        fontBox.setName(CK_FONT_BOX);
+        fontBox.setToolTipText("Open Fonts");
+        fontBox.setEnabled(false);
+        fontBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof FontWorkspace.Entry entry) {
+                    label.setText(entry.isLoaded() ? entry.getName() : entry.getName() + " (not loaded)");
+                }
+                return label;
+            }
+        });
+        fontBox.addActionListener(event -> {
+            if (!isUpdatingFontBox && fontBox.getSelectedItem() instanceof FontWorkspace.Entry entry
+                    && (entry.getFont() == null || entry.getFont() != mFont)) {
+                showFont(entry);
+            }
+        });
+        fontBox.setMaximumSize(new Dimension(200, fontBox.getPreferredSize().height));
+        // the save action is enabled when the current font has unsaved changes
+        getAction(ACTION_SAVE_FILE).addPropertyChangeListener(event -> fontBox.repaint());
+
+        componentMap.put(CK_DIAGNOSTICS, diagnosticsLabel);
+        diagnosticsLabel.setName(CK_DIAGNOSTICS);
+        diagnosticsLabel.setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+        diagnosticsLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        diagnosticsLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                if (SwingUtilities.isLeftMouseButton(event) && !diagnostics.isEmpty()) {
+                    MutableGlyph glyph = wizard.showDiagnosticsDialog(diagnostics);
+                    if (glyph != null && mFont != null && mFont.glyphList.contains(glyph)) {
+                        showGlyphTab(glyph);
+                    }
+                }
+            }
+        });
 
         componentMap.put(CK_CONTENT_PANE, contentPane);
         contentPane.setName(CK_CONTENT_PANE);
         contentPane.add(splitPane, CENTER);
         contentPane.add(toolBar, NORTH);
+        contentPane.add(diagnosticsLabel, SOUTH);
         setContentPane(contentPane);
 
 
         ////// MENUS //////
 
+        componentMap.put(CK_M_RECENT, mRecent);
+        mRecent.setName(CK_M_RECENT);
+
         componentMap.put(CK_M_FILE, mFile);
         mFile.setName(CK_M_FILE);
         mFile.setMnemonic(KeyEvent.VK_F);
         mFile.add(getAction(ACTION_NEW_FONT));
+        mFile.add(getAction(ACTION_RASTERIZE_FONT));
         mFile.add(getAction(ACTION_NEW_GLYPH));
         mFile.add(getAction(ACTION_IMPORT_GLYPH));
+        mFile.add(getAction(ACTION_IMPORT_GLYPHS));
+        mFile.add(getAction(ACTION_IMPORT_SPRITE_SHEET));
         mFile.addSeparator();
         mFile.add(getAction(ACTION_OPEN_FILE));
+        mFile.add(mRecent);
         mFile.add(getAction(ACTION_CLOSE_FILE));
+        mFile.add(getAction(ACTION_MERGE_FONT));
         mFile.addSeparator();
         mFile.add(getAction(ACTION_SAVE_FILE));
         mFile.add(getAction(ACTION_SAVE_AS));
+        mFile.add(getAction(ACTION_EXPORT_ATLAS));
+        mFile.add(getAction(ACTION_EXPORT_DISTANCE_FIELD));
+        mFile.add(getAction(ACTION_EXPORT_PACKED_FONT));
         mFile.addSeparator();
         mFile.add(getAction(ACTION_EXIT));
 
         componentMap.put(CK_M_EDIT, mEdit);
         mEdit.setName(CK_M_EDIT);
         mEdit.setMnemonic(KeyEvent.VK_E);
+        mEdit.add(getAction(ACTION_UNDO));
+        mEdit.add(getAction(ACTION_REDO));
+        mEdit.add(getAction(ACTION_UNDO_FONT));
+        mEdit.add(getAction(ACTION_REDO_FONT));
+        mEdit.addSeparator();
+        mEdit.add(getAction(ACTION_CUT));
+        mEdit.add(getAction(ACTION_COPY));
+        mEdit.add(getAction(ACTION_PASTE));
+        mEdit.add(getAction(ACTION_SELECT_ALL));
+        mEdit.addSeparator();
         mEdit.add(getAction(ACTION_EDIT_GLYPH));
 //        mEdit.add(getAction(ACTION_DELETE_GLYPH));
         mEdit.add(getAction(ACTION_DELETE_GLYPHS));
         mEdit.addSeparator();
         mEdit.add(getAction(ACTION_EDIT_HORIZONTAL_OFFSETS));
+        mEdit.add(getAction(ACTION_AUTO_KERN));
         mEdit.add(getAction(ACTION_EDIT_GLYPH_PROPERTIES));
         mEdit.add(getAction(ACTION_EDIT_FONT_PROPERTIES));
+        mEdit.addSeparator();
+        mEdit.add(getAction(ACTION_TRIM_GLYPH));
+        mEdit.add(getAction(ACTION_TRIM_GLYPHS));
+        mEdit.add(getAction(ACTION_QUANTIZE));
+        mEdit.add(getAction(ACTION_FIND_DUPLICATES));
 
         componentMap.put(CK_M_VIEW, mView);
         mView.setName(CK_M_VIEW);
+        mView.setMnemonic(KeyEvent.VK_V);
+        miSmoothZoom.setSelected(isSmoothZoom);
+        mView.add(getAction(ACTION_SHOW_COVERAGE));
+        mView.addSeparator();
+        mView.add(miSmoothZoom);
+        miCompressGlyphs.setSelected(isCompressGlyphs);
+        mView.add(miCompressGlyphs);
 
         componentMap.put(CK_MENU_BAR, menuBar);
         menuBar.setName(CK_MENU_BAR);
@@ -1224,28 +2760,29 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                     return;
                 }
 
-                if (mFont != null && mFont.isDirty) {
-                    Option saveOption = wizard.showConfirmationDialog(
-                            "Confirm Save",
-                            "Do you want to save the file before closing?",
-                            YES,
-                            YES, NO, CANCEL);
-                    if (saveOption == CANCEL) {
-                        return;
-                    }
-                    else if (saveOption == YES) {
-                        saveFont(null);
+                // ask to save each dirty font in the workspace
+                for (FontWorkspace.Entry entry : new ArrayList<>(workspace.getEntries())) {
+                    MutableFont font = entry.getFont();
+                    if (font != null && font.isDirty) {
+                        setFont(font);
+                        Option saveOption = wizard.showConfirmationDialog(
+                                "Confirm Save",
+                                "Do you want to save " + entry.getName().substring(1) + " before closing?",
+                                YES,
+                                YES, NO, CANCEL);
+                        if (saveOption == CANCEL) {
+                            return;
+                        }
+                        else if (saveOption == YES) {
+                            saveFont(null);
+                        }
                     }
                 }
 
                 savePreferences();
                 dispose();
-                try {
-                    DocumentIO.writeFile(DATATOOL_CONFIG_PATH, config);
-                }
-                catch (Exception e) {
-                    Log.e("could not save editor configuration", e);
-                }
+                // written on a background thread after the frame is disposed
+                config.close();
             }
         });
 
@@ -1260,6 +2797,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
             actionMap.put(ACTION_TOOL_SELECT, getAction(ACTION_TOOL_SELECT));
             actionMap.put(ACTION_TOOL_PENCIL, getAction(ACTION_TOOL_PENCIL));
             actionMap.put(ACTION_TOOL_ERASER, getAction(ACTION_TOOL_ERASER));
+            actionMap.put(ACTION_TOOL_FILL, getAction(ACTION_TOOL_FILL));
             actionMap.put(ACTION_TOOL_PICKER, getAction(ACTION_TOOL_PICKER));
             actionMap.put(ACTION_TOOL_ZOOM, getAction(ACTION_TOOL_ZOOM));
 
@@ -1268,6 +2806,7 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
             inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, 0), ACTION_TOOL_SELECT);
             inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_P, 0), ACTION_TOOL_PENCIL);
             inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_E, 0), ACTION_TOOL_ERASER);
+            inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F, 0), ACTION_TOOL_FILL);
             inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_K, 0), ACTION_TOOL_PICKER);
             inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, 0), ACTION_TOOL_ZOOM);
         }
@@ -1290,6 +2829,234 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         return -1;
     }
 
+    /**
+     * Called on the event dispatch thread when the diagnostics of the current
+     * font change. Updates the status bar and the marked glyphs in the glyph
+     * list.
+     *
+     * @param list the new diagnostics
+     * @see FontValidator
+     */
+    protected void diagnosticsChanged(@NotNull List<FontValidator.Diagnostic> list) {
+        Objects.requireNonNull(list, "list is null");
+        diagnostics = list;
+        glyphDiagnostics.clear();
+        int errors = 0;
+        for (FontValidator.Diagnostic diagnostic : list) {
+            if (diagnostic.severity() == FontValidator.Severity.ERROR) {
+                errors++;
+                glyphDiagnostics.merge(diagnostic.glyph(), diagnostic, (d0, d1) ->
+                        d0.severity() == FontValidator.Severity.ERROR ? d0 : d1);
+            }
+            else {
+                glyphDiagnostics.putIfAbsent(diagnostic.glyph(), diagnostic);
+            }
+        }
+        int warnings = list.size() - errors;
+        JLabel label = getComponent(CK_DIAGNOSTICS);
+        if (list.isEmpty()) {
+            label.setText(mFont != null ? "No problems" : " ");
+            label.setForeground(null);
+            label.setToolTipText(null);
+        }
+        else {
+            label.setText(errors + (errors == 1 ? " error, " : " errors, ") + warnings
+                    + (warnings == 1 ? " warning" : " warnings"));
+            label.setForeground(errors > 0 ? Color.RED : Color.ORANGE.darker());
+            label.setToolTipText("Click to show problems");
+        }
+        getComponent(CK_GLYPH_LIST).repaint();
+    }
+
+    /**
+     * Updates the editor after the specified edit of the current font was
+     * done, undone or redone. Canvases of changed glyphs are updated and the
+     * font is marked as dirty.
+     */
+    protected void fontEdited(@NotNull FontEdit edit) {
+        requireState(mFont != null, "current font is null");
+        Set<MutableGlyph> glyphs = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Edit<MutableGlyph> e : edit.edits) {
+            glyphs.add(e.parent());
+        }
+        glyphsEdited(glyphs);
+    }
+
+    /**
+     * Updates the editor after the specified glyphs of the current font were
+     * changed by edits outside their canvases. Canvases of changed glyphs are
+     * updated and the font is marked as dirty.
+     */
+    protected void glyphsEdited(@NotNull Set<MutableGlyph> glyphs) {
+        requireState(mFont != null, "current font is null");
+        for (GlyphTab tab : tabList) {
+            if (glyphs.contains(tab.canvas.glyph)) {
+                tab.canvas.glyphChanged();
+            }
+        }
+        // edits of closed glyphs decompress their data
+        compressGlyphs(glyphs);
+        GlyphPreview preview = getComponent(CK_PREVIEW);
+        glyphs.forEach(preview::glyphChanged);
+        validateFont(glyphs);
+        getComponent(CK_GLYPH_LIST).repaint();
+        mFont.isDirty = true;
+        getAction(ACTION_SAVE_FILE).setEnabled(true);
+        updateEditActions();
+    }
+
+    /**
+     * Called when the edit queue of the current font changes.
+     *
+     * @see #fontQueueListener
+     */
+    protected void fontQueueChanged(@NotNull EditEvent<MutableFont> event) {
+        if (event.type() == EditEvent.Type.UNDO || event.type() == EditEvent.Type.REDO) {
+            if (event.edit() instanceof FontEdit edit) {
+                fontEdited(edit);
+            }
+        }
+        else {
+            updateEditActions();
+        }
+    }
+
+    /**
+     * Updates the enabled state of the undo, redo and clipboard actions to
+     * reflect the edit queue and selection of the glyph in the current tab.
+     */
+    protected void updateEditActions() {
+        getAction(ACTION_UNDO).setEnabled(tab != null && tab.canvas.glyph.editQueue.canUndo());
+        getAction(ACTION_REDO).setEnabled(tab != null && tab.canvas.glyph.editQueue.canRedo());
+        getAction(ACTION_CUT).setEnabled(tab != null && tab.canvas.hasSelection());
+        getAction(ACTION_COPY).setEnabled(tab != null && tab.canvas.hasSelection());
+        getAction(ACTION_PASTE).setEnabled(tab != null && clipboard != null);
+        getAction(ACTION_SELECT_ALL).setEnabled(tab != null);
+        getAction(ACTION_UNDO_FONT).setEnabled(mFont != null && mFont.editQueue.canUndo());
+        getAction(ACTION_REDO_FONT).setEnabled(mFont != null && mFont.editQueue.canRedo());
+        getAction(ACTION_TRIM_GLYPH).setEnabled(tab != null);
+    }
+
+    /**
+     * Updates the font selector to reflect the entries of the workspace and
+     * the font that is shown.
+     */
+    protected void updateFontBox() {
+        isUpdatingFontBox = true;
+        try {
+            fontBoxModel.removeAllElements();
+            fontBoxModel.addAll(workspace.getEntries());
+            fontBoxModel.setSelectedItem(pendingEntry != null ? pendingEntry : workspace.get(mFont));
+        }
+        finally {
+            isUpdatingFontBox = false;
+        }
+        getComponent(CK_FONT_BOX).setEnabled(fontBoxModel.getSize() > 1);
+    }
+
+    /**
+     * Updates the recent files menu to reflect the recent files list.
+     */
+    protected void updateRecentMenu() {
+        JMenu mRecent = getComponent(CK_M_RECENT);
+        mRecent.removeAll();
+        for (int i = 0; i < recentFiles.size(); i++) {
+            File file = recentFiles.get(i);
+            JMenuItem item = new JMenuItem((i + 1) + " " + file.getName());
+            if (i < 9) {
+                item.setMnemonic(KeyEvent.VK_1 + i);
+            }
+            item.setToolTipText(file.getPath());
+            item.addActionListener(event -> {
+                if (file.isFile()) {
+                    openFonts(new File[] {file});
+                }
+                else {
+                    recentFiles.remove(file);
+                    saveRecentFiles();
+                    updateRecentMenu();
+                    wizard.showErrorDialog("The file " + file + " no longer exists.", null);
+                }
+            });
+            mRecent.add(item);
+        }
+        if (!recentFiles.isEmpty()) {
+            mRecent.addSeparator();
+        }
+        mRecent.add(getAction(ACTION_CLEAR_RECENT_FILES));
+        getAction(ACTION_CLEAR_RECENT_FILES).setEnabled(!recentFiles.isEmpty());
+        mRecent.setEnabled(!recentFiles.isEmpty());
+    }
+
+    /**
+     * Schedules validation of the current font on a background thread. Does
+     * nothing if there is no current font.
+     *
+     * @param changed the glyphs that have changed since the last validation
+     * @see FontValidator#validate(Collection)
+     */
+    protected void validateFont(@NotNull Collection<MutableGlyph> changed) {
+        if (validator != null) {
+            validator.validate(changed);
+        }
+    }
+
+    /**
+     * Sets the horizontal offsets of all glyphs in the current font to the
+     * pairs in the specified matrix. The changed offsets are added to the
+     * edit queue of the font as a single edit. Selections in all open tabs
+     * are committed first.
+     *
+     * @param matrix the new horizontal offsets
+     * @return the number of glyphs whose offsets changed
+     * @throws NullPointerException  if {@code matrix} is {@code null}
+     * @throws IllegalStateException if the current font is {@code null}
+     * @see KerningMatrix#toOffsetX(int)
+     */
+    protected int setHorizontalOffsets(@NotNull KerningMatrix matrix) {
+        Objects.requireNonNull(matrix, "matrix is null");
+        requireState(mFont != null, "current font is null");
+        int[][] offsetX = matrix.toOffsetX(mFont.glyphList.size());
+        ArrayList<Edit<MutableGlyph>> edits = new ArrayList<>();
+        for (int i = 0; i < offsetX.length; i++) {
+            MutableGlyph glyph = mFont.glyphList.get(i);
+            if (!Arrays.equals(glyph.offsetX, offsetX[i])) {
+                ValueEdit<MutableGlyph, int[]> edit = new ValueEdit<>(glyph, glyph.offsetX, offsetX[i],
+                        (g, offsets) -> g.offsetX = offsets);
+                edit.redo();
+                edits.add(edit);
+            }
+        }
+        if (!edits.isEmpty()) {
+            tabList.forEach(tab -> tab.canvas.clearSelection());
+            FontEdit edit = new FontEdit(mFont, edits);
+            mFont.editQueue.add(edit);
+            fontEdited(edit);
+        }
+        return edits.size();
+    }
+
+    /**
+     * Loads the recent files list from the editor configuration document.
+     * The single file stored by earlier versions is added to the list if
+     * the document has no recent files.
+     *
+     * @see #saveRecentFiles()
+     */
+    protected void loadRecentFiles() {
+        recentFiles.clear();
+        for (int i = 0; i < RECENT_FILES_SIZE; i++) {
+            config.acceptString("recent", "file" + i, path -> recentFiles.add(new File(path)));
+        }
+        config.acceptString("editor", "file", path -> {
+            if (recentFiles.isEmpty()) {
+                recentFiles.add(new File(path));
+            }
+            config.removeProperty("editor", "file");
+        });
+        Log.i("loaded " + recentFiles.size() + " recent files");
+    }
+
     /**
      * Loads preferences and state from the editor configuration document.
      * Preferences and state which are not contained in the document will use
@@ -1324,6 +3091,15 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
             wizard.setDirectory(dir);
             Log.i("wizard directory set to " + dir);
         });
+
+        config.acceptString("editor", "previewText", text -> {
+            ((JTextArea) getComponent(CK_PREVIEW_TEXT)).setText(text.replace("\\n", "\n"));
+            Log.i("preview text set");
+        });
+        config.acceptInt("editor", "previewDividerLocation", location -> {
+            ((JSplitPane) getComponent(CK_PREVIEW_SPLIT_PANE)).setDividerLocation(location);
+            Log.i("preview divider location set to " + location);
+        });
     }
 
     /**
@@ -1354,6 +3130,12 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         config.addInt("editor", "dividerLocation",
                 ((JSplitPane) getComponent(CK_SPLIT_PANE)).getDividerLocation());
 
+        // preview text and divider location
+        config.addString("editor", "previewText",
+                ((JTextArea) getComponent(CK_PREVIEW_TEXT)).getText().replace("\n", "\\n"));
+        config.addInt("editor", "previewDividerLocation",
+                ((JSplitPane) getComponent(CK_PREVIEW_SPLIT_PANE)).getDividerLocation());
+
         // wizard file chooser directory
         String dir = wizard.getDirectory();
         if (dir != null) {
@@ -1364,6 +3146,22 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Stores the recent files list in the editor configuration document.
+     *
+     * @see #loadRecentFiles()
+     */
+    protected void saveRecentFiles() {
+        for (int i = 0; i < RECENT_FILES_SIZE; i++) {
+            if (i < recentFiles.size()) {
+                config.addString("recent", "file" + i, recentFiles.get(i).getPath());
+            }
+            else {
+                config.removeProperty("recent", "file" + i);
+            }
+        }
+    }
+
     /**
      * Shows a canvas for the specified glyph in the tabbed pane. If a canvas
      * for the glyph already exists, the tab owning that canvas is selected.
@@ -1404,6 +3202,16 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
         final JLabel titleLabel;
         @NotNull
         final JButton bClose;
+        /**
+         * Listener to update the undo and redo actions when the glyph edit
+         * queue changes.
+         */
+        @NotNull
+        final EditQueueListener<MutableGlyph> queueListener = event -> {
+            if (tab == this) {
+                updateEditActions();
+            }
+        };
 
         GlyphTab(@NotNull MutableGlyph glyph) {
             super(new BorderLayout());
@@ -1413,7 +3221,10 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
             // notify editor and tab when canvas becomes dirty
             canvas.addPropertyChangeListener(PROPERTY_DIRTY, EditorFrame.this);
             canvas.addPropertyChangeListener(PROPERTY_DIRTY, this);
+            canvas.addPropertyChangeListener(PROPERTY_SELECTION, this);
+            canvas.addPropertyChangeListener(PROPERTY_GLYPH, this);
             canvas.setTool(tool);
+            glyph.editQueue.addListener(queueListener);
 
             titleLabel = new JLabel(glyph.isDirty ? "*" + glyph.name : glyph.name);
             bClose = new JButton(new ImageIcon("res/image/icon/close.png"));
@@ -1442,17 +3253,33 @@ public class EditorFrame extends JFrame implements PropertyChangeListener {
                 boolean isDirty = (boolean) event.getNewValue();
                 titleLabel.setText(isDirty ? "*" + canvas.glyph.name : canvas.glyph.name);
             }
+            else if (event.getPropertyName().equals(PROPERTY_SELECTION) && tab == this) {
+                updateEditActions();
+            }
+            else if (event.getPropertyName().equals(PROPERTY_GLYPH)) {
+                ((GlyphPreview) EditorFrame.this.getComponent(CK_PREVIEW)).glyphChanged(canvas.glyph);
+                EditorFrame.this.getComponent(CK_GLYPH_LIST).repaint();
+                validateFont(List.of(canvas.glyph));
+            }
         }
 
         void close() {
+            canvas.clearSelection();
             int tabIndex = getTabIndex(canvas.glyph);
             tabList.remove(tabIndex);
             JTabbedPane tabbedPane = EditorFrame.this.getComponent(CK_TABBED_PANE);
             tabbedPane.remove(canvas);
             canvas.removePropertyChangeListener(PROPERTY_DIRTY, EditorFrame.this);
             canvas.removePropertyChangeListener(PROPERTY_DIRTY, this);
+            canvas.removePropertyChangeListener(PROPERTY_SELECTION, this);
+            canvas.removePropertyChangeListener(PROPERTY_GLYPH, this);
             EditorFrame.this.removePropertyChangeListener(PROPERTY_TOOL_COLOR, canvas);
             EditorFrame.this.removePropertyChangeListener(PROPERTY_TOOL, canvas);
+            canvas.glyph.editQueue.removeListener(queueListener);
+            canvas.glyph.editQueue.removeListener(canvas);
+            if (isCompressGlyphs) {
+                canvas.glyph.compress();
+            }
         }
     }
 }
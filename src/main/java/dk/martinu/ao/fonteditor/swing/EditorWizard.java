@@ -4,39 +4,70 @@ import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.*;
 
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
-import javax.swing.event.TableModelEvent;
-import javax.swing.event.TableModelListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileFilter;
-import javax.swing.table.TableModel;
+import javax.swing.table.AbstractTableModel;
 
 import dk.martinu.ao.client.text.Font;
 import dk.martinu.ao.client.text.FontCodec;
 import dk.martinu.ao.fonteditor.*;
+import dk.martinu.ao.fonteditor.io.AtlasPacker;
+import dk.martinu.ao.fonteditor.io.DistanceFieldGenerator;
+import dk.martinu.ao.fonteditor.io.FontRasterizer;
+import dk.martinu.ao.fonteditor.io.PackedFontCodec;
+import dk.martinu.ao.fonteditor.io.SpriteSheetSlicer;
+import dk.martinu.ao.fonteditor.util.AlphaQuantizer;
+import dk.martinu.ao.fonteditor.util.AutoKerner;
+import dk.martinu.ao.fonteditor.util.CoverageAnalyzer;
+import dk.martinu.ao.fonteditor.util.DuplicateFinder;
+import dk.martinu.ao.fonteditor.util.FontMerger;
+import dk.martinu.ao.fonteditor.util.FontValidator;
+import dk.martinu.ao.fonteditor.util.KerningMatrix;
 import dk.martinu.ao.fonteditor.util.Log;
 import dk.martinu.ao.fonteditor.util.Value;
 
 import static dk.martinu.ao.fonteditor.swing.EditorWizard.Option.APPLY;
+import static dk.martinu.ao.fonteditor.swing.EditorWizard.Option.CONTINUE;
 import static dk.martinu.ao.fonteditor.swing.EditorWizard.Option.FINISH;
 import static java.awt.BorderLayout.CENTER;
 import static java.awt.BorderLayout.NORTH;
-import static javax.swing.event.TableModelEvent.ALL_COLUMNS;
-import static javax.swing.event.TableModelEvent.INSERT;
+import static java.awt.BorderLayout.SOUTH;
 
 // DOC
 public class EditorWizard {
 
     @NotNull
     public final EditorFrame editor;
-    protected final JFileChooser fileChooser = new JFileChooser();
+    /**
+     * The file chooser of all file dialogs, or {@code null} if no file
+     * dialog has been shown yet. Creating a file chooser is slow, so it is
+     * deferred until it is needed.
+     *
+     * @see #getFileChooser()
+     */
+    @Nullable
+    private JFileChooser fileChooser = null;
+    /**
+     * The directory to show in the file chooser when it is created, or
+     * {@code null}.
+     *
+     * @see #setDirectory(String)
+     */
+    @Nullable
+    private File directory = null;
 
     public EditorWizard(@NotNull final EditorFrame editor) {
         this.editor = Objects.requireNonNull(editor, "editor is null");
@@ -44,21 +75,37 @@ public class EditorWizard {
 
     @Nullable
     public String getDirectory() {
-        final File dir = fileChooser.getCurrentDirectory();
+        final File dir = fileChooser != null ? fileChooser.getCurrentDirectory() : directory;
         if (dir != null)
             return dir.getAbsolutePath();
         else
             return null;
     }
 
+    /**
+     * Returns the file chooser of all file dialogs, creating it when this
+     * method is first called.
+     */
+    @NotNull
+    protected JFileChooser getFileChooser() {
+        if (fileChooser == null) {
+            final long start = System.nanoTime();
+            fileChooser = new JFileChooser(directory);
+            Log.i("created file chooser in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        return fileChooser;
+    }
+
     public void setDirectory(@Nullable final String pathname) {
         if (pathname != null) {
             final File file = new File(pathname);
             if (file.exists())
-                fileChooser.setCurrentDirectory(file);
+                directory = file;
         }
         else
-            fileChooser.setCurrentDirectory(null);
+            directory = null;
+        if (fileChooser != null)
+            fileChooser.setCurrentDirectory(directory);
     }
 
     public Option showConfirmationDialog(@NotNull final String title, @NotNull final String message,
@@ -71,6 +118,67 @@ public class EditorWizard {
         return builder.show();
     }
 
+    /**
+     * Shows a dialog for entering the spread of a distance field font export.
+     *
+     * @return the spread in pixels, or {@code null} if the dialog was
+     * cancelled
+     * @see DistanceFieldGenerator
+     */
+    @Nullable
+    public Integer showDistanceFieldDialog() {
+        final Value<Integer> spreadValue = new Value<>();
+
+        final DialogBuilder builder = new DialogBuilder(editor, "Export Distance Field Font");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel spreadLabel = new JLabel("Spread (pixels):");
+        final JTextField spreadText = new JTextField(String.valueOf(DistanceFieldGenerator.DEFAULT_SPREAD));
+
+        spreadLabel.setLabelFor(spreadText);
+        spreadText.setToolTipText("Distance covered by the field on each side of the outline");
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(spreadLabel, con);
+            content.add(spreadText, con);
+        }
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(FINISH)
+                .addOption(Option.CANCEL)
+                .setDefaultFocus(spreadText)
+                .setOptionHandler(op -> {
+                    if (op == FINISH) {
+                        try {
+                            final int spread = Integer.parseInt(spreadText.getText());
+                            if (spread < 1)
+                                throw new NumberFormatException();
+                            spreadValue.set(spread);
+                        }
+                        catch (NumberFormatException e) {
+                            editor.getToolkit().beep();
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .show();
+
+        if (option == FINISH)
+            return spreadValue.get();
+        else
+            return null;
+    }
+
     public void showErrorDialog(@NotNull final String message, @Nullable Throwable throwable) throws
             NullPointerException {
         Objects.requireNonNull(message, "message is null");
@@ -225,161 +333,1078 @@ public class EditorWizard {
             content.add(Box.createVerticalStrut(10), con);
             content.add(whitespace, con);
             content.add(Box.createVerticalStrut(10), con);
-            content.add(offsetLabel, con);
-            content.add(offsetText, con);
+            content.add(offsetLabel, con);
+            content.add(offsetText, con);
+        }
+
+        final Supplier<Boolean> validator = () -> {
+            final String sValue = valueText.getText();
+            final String width = widthText.getText();
+            final String height = heightText.getText();
+            final String offset = offsetText.getText();
+            if (width.isBlank() || height.isBlank()
+                    || offset.isBlank() || sValue.isBlank())
+                return false;
+            try {
+                final int value;
+                if (sValue.length() == 1)
+                    value = sValue.charAt(0);
+                else if (sValue.toLowerCase(Locale.ROOT).startsWith("0x"))
+                    value = Integer.parseInt(sValue.substring(2));
+                else
+                    return false;
+                if (value < Character.MIN_VALUE || value > Character.MAX_VALUE)
+                    return false;
+                if (Integer.parseInt(width) <= 0 || Integer.parseInt(height) < 0 || Integer.parseInt(offset) < 0)
+                    return false;
+            }
+            catch (NumberFormatException e) {
+                return false;
+            }
+            return true;
+        };
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(mGlyph != null ? APPLY : FINISH)
+                .addOption(Option.CANCEL)
+                .setDefaultFocus(valueText)
+                .setOptionHandler(op -> {
+                    if (op == APPLY || op == FINISH) {
+                        if (validator.get()) {
+                            final int width = Integer.parseInt(widthText.getText());
+                            final int height = Integer.parseInt(heightText.getText());
+                            final int offsetY = Integer.parseInt(offsetText.getText());
+                            final boolean isWhitespace = whitespace.isSelected();
+                            final String sValue = valueText.getText();
+                            final char value;
+                            if (sValue.length() == 1)
+                                value = sValue.charAt(0);
+                            else // if (chars.toLowerCase(Locale.ROOT).startsWith("0x"))
+                                value = (char) Integer.parseInt(sValue.substring(2));
+                            glyphValue.set(new MutableGlyph(value, width, height, isWhitespace, offsetY));
+                        }
+                        else {
+                            editor.getToolkit().beep();
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .show();
+
+        if (option == APPLY || option == FINISH)
+            return glyphValue.get();
+        else
+            return null;
+    }
+
+    /**
+     * Shows a dialog for selecting the options of automatic kerning of the
+     * specified font.
+     *
+     * @param font the font to kern
+     * @return the selected options, or {@code null} if the dialog was
+     * cancelled
+     * @see AutoKerner
+     */
+    @Nullable
+    public AutoKerning showAutoKerningDialog(@NotNull final MutableFont font) {
+        Objects.requireNonNull(font, "font is null");
+        final DialogBuilder builder = new DialogBuilder(editor, "Auto Kerning");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel thresholdLabel = new JLabel("Alpha Threshold:");
+        final JSpinner thresholdSpinner = new JSpinner(new SpinnerNumberModel(128, 1, 255, 1));
+
+        final JCheckBox medianSpacing = new JCheckBox("Median Spacing Of All Pairs", true);
+        final JLabel spacingLabel = new JLabel("Spacing:");
+        final JSpinner spacingSpinner = new JSpinner(new SpinnerNumberModel(1, 0, Math.max(1, font.height), 1));
+
+        final JLabel adjustmentLabel = new JLabel("Maximum Adjustment:");
+        final JSpinner adjustmentSpinner = new JSpinner(new SpinnerNumberModel(Math.max(1, font.height / 4), 1,
+                Math.max(1, font.height), 1));
+
+        final JCheckBox replace = new JCheckBox("Replace Existing Pairs");
+
+        thresholdLabel.setLabelFor(thresholdSpinner);
+        spacingLabel.setLabelFor(spacingSpinner);
+        adjustmentLabel.setLabelFor(adjustmentSpinner);
+        spacingSpinner.setEnabled(false);
+        medianSpacing.addItemListener(event -> spacingSpinner.setEnabled(!medianSpacing.isSelected()));
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(thresholdLabel, con);
+            content.add(thresholdSpinner, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(medianSpacing, con);
+            content.add(spacingLabel, con);
+            content.add(spacingSpinner, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(adjustmentLabel, con);
+            content.add(adjustmentSpinner, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(replace, con);
+        }
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(APPLY)
+                .addOption(Option.CANCEL)
+                .show();
+
+        if (option == APPLY)
+            return new AutoKerning((Integer) thresholdSpinner.getValue(),
+                    medianSpacing.isSelected() ? -1 : (Integer) spacingSpinner.getValue(),
+                    (Integer) adjustmentSpinner.getValue(), replace.isSelected());
+        else
+            return null;
+    }
+
+    /**
+     * Shows a dialog for editing the horizontal offsets (kerning pairs)
+     * between all glyphs in the specified font. Pairs can be filtered by
+     * their left and right glyph, and selected pairs are previewed with the
+     * edited offsets. If {@code glyph} is not {@code null}, then pairs are
+     * initially filtered with {@code glyph} as the right glyph.
+     *
+     * @param font  the font to edit
+     * @param glyph the initial right glyph, or {@code null}
+     * @return the edited offsets, or {@code null} if the dialog was cancelled
+     * @see KerningMatrix#toOffsetX(int)
+     */
+    @Nullable
+    public KerningMatrix showHorizontalOffsetsDialog(@NotNull final MutableFont font,
+            @Nullable final MutableGlyph glyph) {
+        Objects.requireNonNull(font, "font is null");
+
+        final KerningMatrix matrix = KerningMatrix.of(font);
+        final OffsetsTableModel tableModel = new OffsetsTableModel(font, matrix);
+
+        final DialogBuilder builder = new DialogBuilder(editor, "Edit Horizontal Offsets");
+        final JPanel content = new JPanel(new BorderLayout(0, 5), builder.dialog.isDoubleBuffered());
+
+        final JPanel pairPanel = new JPanel(new FlowLayout(FlowLayout.LEADING));
+        final JLabel leftLabel = new JLabel("Left:");
+        final JTextField leftField = new JTextField(3);
+        final JLabel rightLabel = new JLabel("Right:");
+        final JTextField rightField = new JTextField(glyph != null ? String.valueOf(glyph.value) : "", 3);
+        final JLabel offsetLabel = new JLabel("Offset:");
+        final JSpinner offsetSpinner = new JSpinner(new SpinnerNumberModel(0, -font.height * 4,
+                font.height * 4, 1));
+        final JButton bSet = new JButton("Set");
+        final JButton bRemove = new JButton("Remove");
+        final JLabel countLabel = new JLabel();
+
+        final JScrollPane tablePane = new JScrollPane();
+        final JTable table = new JTable(tableModel);
+
+        final JScrollPane previewPane = new JScrollPane();
+        final GlyphPreview preview = new GlyphPreview();
+
+        // index of the glyph of each character, first glyph wins
+        final HashMap<Character, Integer> indexMap = new HashMap<>();
+        for (int i = 0; i < font.glyphList.size(); i++)
+            indexMap.putIfAbsent(font.glyphList.get(i).value, i);
+        // returns -1 for any glyph, -2 for no glyph
+        final Function<JTextField, Integer> fieldIndex = field -> {
+            final String text = field.getText();
+            if (text.isEmpty())
+                return -1;
+            return indexMap.getOrDefault(text.charAt(0), -2);
+        };
+        final Runnable updateFilter = () -> {
+            tableModel.setFilter(fieldIndex.apply(leftField), fieldIndex.apply(rightField));
+            countLabel.setText(tableModel.getRowCount() + " of " + matrix.size() + " pairs");
+        };
+        final Runnable updatePreview = () -> {
+            final StringBuilder sb = new StringBuilder();
+            final int[] rows = table.getSelectedRows();
+            for (int i = 0; i < rows.length && i < 32; i++) {
+                final long key = tableModel.getKey(rows[i]);
+                if (KerningMatrix.left(key) < font.glyphList.size()
+                        && KerningMatrix.right(key) < font.glyphList.size()) {
+                    sb.append(i % 8 == 0 ? (i > 0 ? "\n" : "") : " ");
+                    sb.append(font.glyphList.get(KerningMatrix.left(key)).value);
+                    sb.append(font.glyphList.get(KerningMatrix.right(key)).value);
+                }
+            }
+            preview.setText(sb.toString());
+        };
+
+        final DocumentListener filterListener = new DocumentListener() {
+            @Override
+            public void changedUpdate(final DocumentEvent event) {
+                updateFilter.run();
+            }
+
+            @Override
+            public void insertUpdate(final DocumentEvent event) {
+                updateFilter.run();
+            }
+
+            @Override
+            public void removeUpdate(final DocumentEvent event) {
+                updateFilter.run();
+            }
+        };
+        leftLabel.setLabelFor(leftField);
+        leftField.getDocument().addDocumentListener(filterListener);
+        rightLabel.setLabelFor(rightField);
+        rightField.getDocument().addDocumentListener(filterListener);
+        offsetLabel.setLabelFor(offsetSpinner);
+
+        bSet.setToolTipText("Set the offset of the pair of the left and right glyph");
+        bSet.addActionListener(event -> {
+            final int left = fieldIndex.apply(leftField);
+            final int right = fieldIndex.apply(rightField);
+            if (left < 0 || right < 0) {
+                showErrorDialog("Enter the character of a glyph in both the left and right field.", null);
+                return;
+            }
+            final int row = tableModel.put(left, right, (Integer) offsetSpinner.getValue());
+            countLabel.setText(tableModel.getRowCount() + " of " + matrix.size() + " pairs");
+            if (row != -1) {
+                table.setRowSelectionInterval(row, row);
+                table.scrollRectToVisible(table.getCellRect(row, 0, true));
+            }
+            updatePreview.run();
+            preview.kerningChanged();
+        });
+
+        bRemove.addActionListener(event -> {
+            tableModel.remove(table.getSelectedRows());
+            countLabel.setText(tableModel.getRowCount() + " of " + matrix.size() + " pairs");
+        });
+
+        pairPanel.add(leftLabel);
+        pairPanel.add(leftField);
+        pairPanel.add(rightLabel);
+        pairPanel.add(rightField);
+        pairPanel.add(offsetLabel);
+        pairPanel.add(offsetSpinner);
+        pairPanel.add(bSet);
+        pairPanel.add(bRemove);
+        pairPanel.add(countLabel);
+
+        table.setFillsViewportHeight(true);
+        table.getSelectionModel().addListSelectionListener(event -> {
+            if (!event.getValueIsAdjusting()) {
+                final int row = table.getSelectedRow();
+                bRemove.setEnabled(row != -1);
+                if (row != -1)
+                    offsetSpinner.setValue(tableModel.getValueAt(row, 2));
+                updatePreview.run();
+            }
+        });
+        tableModel.addTableModelListener(event -> preview.kerningChanged());
+        tablePane.setViewportView(table);
+        tablePane.setPreferredSize(new Dimension(420, 240));
+        tablePane.setBorder(BorderFactory.createTitledBorder("Pairs"));
+
+        preview.setImageCache(editor.workspace.imageCache);
+        preview.setGlyphFont(font);
+        preview.setKerning(matrix);
+        preview.setScale(Math.max(GlyphPreview.MIN_SCALE, Math.min(4, 64 / Math.max(1, font.height))));
+        preview.setFontColor(new Color(editor.getRGBA()[0], editor.getRGBA()[1], editor.getRGBA()[2]));
+        preview.setText("");
+        previewPane.setViewportView(preview);
+        previewPane.setPreferredSize(new Dimension(420, 120));
+        previewPane.setBorder(BorderFactory.createTitledBorder("Preview"));
+
+        bRemove.setEnabled(false);
+        updateFilter.run();
+
+        content.add(pairPanel, NORTH);
+        content.add(tablePane, CENTER);
+        content.add(previewPane, SOUTH);
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(APPLY)
+                .addOption(Option.CANCEL)
+                .setDefaultFocus(leftField)
+                .show();
+
+        if (option == APPLY)
+            return matrix;
+        else
+            return null;
+    }
+
+    @Nullable
+    public MutableGlyph showImportGlyphDialog() {
+        getFileChooser().setDialogTitle("Open Image File");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(false);
+
+        final FileFilter imageFileFilter = new FileSuffixFilter("Image files", ImageIO.getReaderFileSuffixes());
+        getFileChooser().addChoosableFileFilter(imageFileFilter);
+        getFileChooser().setFileFilter(imageFileFilter);
+
+        if (getFileChooser().showOpenDialog(editor) != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        final File file = getFileChooser().getSelectedFile();
+        try {
+            final BufferedImage image = ImageIO.read(file);
+            return new MutableGlyph(image);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            Log.e("could not read image file", e);
+            return null;
+        }
+    }
+
+    /**
+     * Shows a file chooser dialog for selecting a directory of glyph images,
+     * or a file that maps image files to characters, to import glyphs from.
+     *
+     * @return the selected directory or mapping file, or {@code null}
+     * @see dk.martinu.ao.fonteditor.io.GlyphImporter
+     */
+    @Nullable
+    public File showImportGlyphsDialog() {
+        getFileChooser().setDialogTitle("Import Glyphs From Directory or Mapping File");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        getFileChooser().setMultiSelectionEnabled(false);
+
+        final int option = getFileChooser().showOpenDialog(editor);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        if (option != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        return getFileChooser().getSelectedFile();
+    }
+
+    /**
+     * Shows a file chooser dialog for selecting a sprite sheet image, followed
+     * by a dialog for describing the cells of the sheet, either as a grid or
+     * with a metadata file. The sheet is then sliced into glyphs.
+     *
+     * @return a list of the sliced glyphs, or {@code null} if the dialog was
+     * cancelled or the sheet could not be sliced
+     * @see SpriteSheetSlicer
+     */
+    @Nullable
+    public List<MutableGlyph> showImportSpriteSheetDialog() {
+        getFileChooser().setDialogTitle("Open Sprite Sheet Image");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(false);
+
+        final FileFilter imageFileFilter = new FileSuffixFilter("Image files", ImageIO.getReaderFileSuffixes());
+        getFileChooser().addChoosableFileFilter(imageFileFilter);
+        getFileChooser().setFileFilter(imageFileFilter);
+
+        if (getFileChooser().showOpenDialog(editor) != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        final File file = getFileChooser().getSelectedFile();
+        final BufferedImage sheet;
+        try {
+            sheet = ImageIO.read(file);
+            if (sheet == null)
+                throw new IOException("unsupported image format");
+        }
+        catch (IOException e) {
+            Log.e("could not read image file", e);
+            showErrorDialog("Could not read sprite sheet", e);
+            return null;
+        }
+
+        final Value<List<MutableGlyph>> glyphsValue = new Value<>();
+
+        final DialogBuilder builder = new DialogBuilder(editor, "Import Sprite Sheet");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel cellWidthLabel = new JLabel("Cell Width:");
+        final JTextField cellWidthText = new JTextField();
+
+        final JLabel cellHeightLabel = new JLabel("Cell Height:");
+        final JTextField cellHeightText = new JTextField();
+
+        final JLabel baselineLabel = new JLabel("Baseline:");
+        final JTextField baselineText = new JTextField();
+
+        final JLabel charsLabel = new JLabel("Characters:");
+        final JTextField charsText = new JTextField();
+
+        final JLabel metadataLabel = new JLabel("Metadata File (replaces grid):");
+        final JTextField metadataText = new JTextField();
+
+        final JCheckBox trim = new JCheckBox("Trim Empty Borders", true);
+
+        cellWidthLabel.setLabelFor(cellWidthText);
+
+        cellHeightLabel.setLabelFor(cellHeightText);
+
+        baselineLabel.setLabelFor(baselineText);
+
+        charsLabel.setLabelFor(charsText);
+
+        metadataLabel.setLabelFor(metadataText);
+
+        // use metadata file next to sheet if it exists
+        {
+            final String name = file.getName();
+            final int index = name.lastIndexOf('.');
+            final File metadata = new File(file.getParentFile(), (index != -1 ? name.substring(0, index) : name) + ".txt");
+            if (metadata.isFile())
+                metadataText.setText(metadata.getPath());
+        }
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(cellWidthLabel, con);
+            content.add(cellWidthText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(cellHeightLabel, con);
+            content.add(cellHeightText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(baselineLabel, con);
+            content.add(baselineText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(charsLabel, con);
+            content.add(charsText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(metadataLabel, con);
+            content.add(metadataText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(trim, con);
+        }
+
+        final Supplier<Boolean> validator = () -> {
+            if (!metadataText.getText().isBlank())
+                return new File(metadataText.getText().strip()).isFile();
+            final String cellWidth = cellWidthText.getText();
+            final String cellHeight = cellHeightText.getText();
+            final String baseline = baselineText.getText();
+            if (cellWidth.isBlank() || cellHeight.isBlank() || baseline.isBlank() || charsText.getText().isEmpty())
+                return false;
+            try {
+                if (Integer.parseInt(cellWidth) < 1 || Integer.parseInt(cellHeight) < 1
+                        || Integer.parseInt(baseline) < 0)
+                    return false;
+            }
+            catch (NumberFormatException e) {
+                return false;
+            }
+            return true;
+        };
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(FINISH)
+                .addOption(Option.CANCEL)
+                .setDefaultFocus(cellWidthText)
+                .setOptionHandler(op -> {
+                    if (op == FINISH) {
+                        if (validator.get()) {
+                            final List<SpriteSheetSlicer.Cell> cells;
+                            if (!metadataText.getText().isBlank()) {
+                                try {
+                                    cells = SpriteSheetSlicer.readMetadata(new File(metadataText.getText().strip()));
+                                }
+                                catch (IOException e) {
+                                    Log.e("could not read sprite sheet metadata", e);
+                                    showErrorDialog("Could not read metadata file", e);
+                                    return false;
+                                }
+                            }
+                            else
+                                cells = SpriteSheetSlicer.gridCells(sheet.getWidth(), sheet.getHeight(),
+                                        Integer.parseInt(cellWidthText.getText()),
+                                        Integer.parseInt(cellHeightText.getText()),
+                                        charsText.getText(),
+                                        Integer.parseInt(baselineText.getText()));
+                            try {
+                                glyphsValue.set(SpriteSheetSlicer.slice(sheet, cells, trim.isSelected()));
+                            }
+                            catch (IndexOutOfBoundsException e) {
+                                Log.e("sprite sheet cell is out of bounds", e);
+                                showErrorDialog("A cell is outside the sprite sheet", e);
+                                return false;
+                            }
+                        }
+                        else {
+                            editor.getToolkit().beep();
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .show();
+
+        if (option == FINISH)
+            return glyphsValue.get();
+        else
+            return null;
+    }
+
+    /**
+     * Shows a dialog for selecting the page size and padding of a texture
+     * atlas export, followed by a file chooser dialog for selecting the UV
+     * table file to write.
+     *
+     * @return the packer and file to export with, or {@code null} if either
+     * dialog was cancelled
+     * @see AtlasPacker
+     */
+    @Nullable
+    public AtlasExport showExportAtlasDialog() {
+        final Value<AtlasPacker> packerValue = new Value<>();
+
+        final DialogBuilder builder = new DialogBuilder(editor, "Export Texture Atlas");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel pageSizeLabel = new JLabel("Maximum Page Size:");
+        final JComboBox<Integer> pageSizeBox = new JComboBox<>(new Integer[] {256, 512, 1024, 2048, 4096});
+
+        final JLabel paddingLabel = new JLabel("Padding:");
+        final JTextField paddingText = new JTextField(String.valueOf(AtlasPacker.DEFAULT_PADDING));
+
+        pageSizeLabel.setLabelFor(pageSizeBox);
+        pageSizeBox.setSelectedItem(AtlasPacker.DEFAULT_PAGE_SIZE);
+
+        paddingLabel.setLabelFor(paddingText);
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(pageSizeLabel, con);
+            content.add(pageSizeBox, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(paddingLabel, con);
+            content.add(paddingText, con);
+        }
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(CONTINUE)
+                .addOption(Option.CANCEL)
+                .setDefaultFocus(paddingText)
+                .setOptionHandler(op -> {
+                    if (op == CONTINUE) {
+                        try {
+                            final int padding = Integer.parseInt(paddingText.getText());
+                            if (padding < 0)
+                                throw new NumberFormatException();
+                            packerValue.set(new AtlasPacker((Integer) pageSizeBox.getSelectedItem(), padding));
+                        }
+                        catch (NumberFormatException e) {
+                            editor.getToolkit().beep();
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .show();
+
+        if (option != CONTINUE)
+            return null;
+
+        getFileChooser().setDialogTitle("Save Texture Atlas");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(false);
+
+        final FileFilter uvFileFilter = new FileSuffixFilter("Texture atlas UV table (*.uv)", "uv");
+        getFileChooser().addChoosableFileFilter(uvFileFilter);
+        getFileChooser().setFileFilter(uvFileFilter);
+
+        if (getFileChooser().showSaveDialog(editor) != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        File file = getFileChooser().getSelectedFile();
+        if (!file.getName().contains("."))
+            file = new File(file.getPath() + ".uv");
+        return new AtlasExport(packerValue.get(), file);
+    }
+
+    /**
+     * Shows a dialog with the specified coverage report, including the
+     * missing characters of all supported languages.
+     *
+     * @param report the coverage report to show
+     * @see CoverageAnalyzer
+     */
+    public void showCoverageDialog(@NotNull final CoverageAnalyzer.Report report) {
+        Objects.requireNonNull(report, "report is null");
+        final DialogBuilder builder = new DialogBuilder(editor, "Glyph Coverage");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JTextArea reportArea = new JTextArea(report.format(CoverageAnalyzer.getLocales()), 20, 70);
+        final JScrollPane reportPane = new JScrollPane(reportArea);
+
+        reportArea.setEditable(false);
+        reportArea.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, java.awt.Font.PLAIN, 12));
+        reportArea.setCaretPosition(0);
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.BOTH;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 1.0d;
+
+            content.add(reportPane, con);
+        }
+
+        builder.setContent(content)
+                .addOption(Option.CLOSE)
+                .show();
+    }
+
+    /**
+     * Shows a dialog with the summary and conflicts of merging the current
+     * font with another font, and for selecting which font conflicting
+     * glyphs are taken from.
+     *
+     * @param result    the result of the merge
+     * @param otherName the name of the other font
+     * @return the selected preference, or {@code null} if the dialog was
+     * cancelled
+     * @see FontMerger
+     */
+    @Nullable
+    public FontMerger.Preference showMergeDialog(@NotNull final FontMerger.Result result,
+            @NotNull final String otherName) {
+        Objects.requireNonNull(result, "result is null");
+        Objects.requireNonNull(otherName, "otherName is null");
+        final DialogBuilder builder = new DialogBuilder(editor, "Merge Font");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel messageLabel = new JLabel("Merging the current font (first) with " + otherName
+                + " (second). The merged font is opened as a new font.");
+        final JTextArea resultArea = new JTextArea(result.format(), Math.min(result.conflicts().size() + 4, 16), 50);
+        final JScrollPane resultPane = new JScrollPane(resultArea);
+
+        final JLabel preferLabel = new JLabel("Resolve Conflicts With:");
+        final JRadioButton preferFirst = new JRadioButton("Current Font", true);
+        final JRadioButton preferSecond = new JRadioButton(otherName);
+        final ButtonGroup group = new ButtonGroup();
+
+        resultArea.setEditable(false);
+        resultArea.setCaretPosition(0);
+        group.add(preferFirst);
+        group.add(preferSecond);
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(messageLabel, con);
+            content.add(Box.createVerticalStrut(10), con);
+            con.fill = GridBagConstraints.BOTH;
+            con.weighty = 1.0d;
+            content.add(resultPane, con);
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.weighty = 0.0d;
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(preferLabel, con);
+            content.add(preferFirst, con);
+            content.add(preferSecond, con);
+        }
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(APPLY)
+                .addOption(Option.CANCEL)
+                .show();
+
+        if (option == APPLY)
+            return preferSecond.isSelected() ? FontMerger.Preference.SECOND : FontMerger.Preference.FIRST;
+        else
+            return null;
+    }
+
+    /**
+     * Shows a dialog listing the specified diagnostics of a font. The user
+     * can double-click a diagnostic to show its glyph.
+     *
+     * @param diagnostics the diagnostics to list
+     * @return the glyph of the diagnostic that was double-clicked, or
+     * {@code null}
+     * @see FontValidator
+     */
+    @Nullable
+    public MutableGlyph showDiagnosticsDialog(@NotNull final List<FontValidator.Diagnostic> diagnostics) {
+        Objects.requireNonNull(diagnostics, "diagnostics is null");
+        final Value<MutableGlyph> glyphValue = new Value<>();
+
+        final DialogBuilder builder = new DialogBuilder(editor, "Problems");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel messageLabel = new JLabel("Double-click a problem to show its glyph.");
+        final JList<FontValidator.Diagnostic> list = new JList<>(diagnostics.toArray(new FontValidator.Diagnostic[0]));
+        final JScrollPane listPane = new JScrollPane(list);
+
+        list.setVisibleRowCount(Math.min(diagnostics.size(), 12));
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(final JList<?> list, final Object value, final int index,
+                    final boolean isSelected, final boolean cellHasFocus) {
+                final FontValidator.Diagnostic diagnostic = (FontValidator.Diagnostic) value;
+                return super.getListCellRendererComponent(list, diagnostic.severity() + " " + diagnostic.glyph().name
+                        + ": " + diagnostic.message(), index, isSelected, cellHasFocus);
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(final MouseEvent event) {
+                final FontValidator.Diagnostic diagnostic = list.getSelectedValue();
+                if (SwingUtilities.isLeftMouseButton(event) && event.getClickCount() == 2 && diagnostic != null) {
+                    glyphValue.set(diagnostic.glyph());
+                    builder.dialog.dispose();
+                }
+            }
+        });
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(messageLabel, con);
+            content.add(Box.createVerticalStrut(10), con);
+            con.fill = GridBagConstraints.BOTH;
+            con.weighty = 1.0d;
+            content.add(listPane, con);
+        }
+
+        builder.setContent(content)
+                .addOption(Option.CLOSE)
+                .show();
+
+        return glyphValue.get();
+    }
+
+    /**
+     * Shows a dialog listing the specified groups of duplicate glyphs. If
+     * {@code canShare} is {@code true}, then the user can choose to store the
+     * data of duplicate glyphs once.
+     *
+     * @param groups   the groups of identical glyphs
+     * @param canShare {@code true} if the data of duplicates can be shared,
+     *                 otherwise {@code false}
+     * @return {@code true} if the data of duplicates should be shared,
+     * otherwise {@code false}
+     * @see DuplicateFinder
+     */
+    public boolean showDuplicatesDialog(@NotNull final List<List<MutableGlyph>> groups, final boolean canShare) {
+        Objects.requireNonNull(groups, "groups is null");
+        final DialogBuilder builder = new DialogBuilder(editor, "Duplicate Glyphs");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        int count = 0;
+        final StringBuilder sb = new StringBuilder();
+        for (List<MutableGlyph> group : groups) {
+            count += group.size();
+            for (int i = 0; i < group.size(); i++) {
+                if (i > 0)
+                    sb.append(", ");
+                sb.append(group.get(i).name);
+            }
+            sb.append('\n');
+        }
+
+        final JLabel messageLabel = new JLabel(count + " glyphs in " + groups.size() + " groups have identical "
+                + "images.");
+        final JTextArea groupsArea = new JTextArea(sb.toString(), Math.min(groups.size(), 10), 30);
+        final JScrollPane groupsPane = new JScrollPane(groupsArea);
+        final JLabel shareLabel = new JLabel("Apply to store the compressed data of duplicates once.");
+
+        groupsArea.setEditable(false);
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(messageLabel, con);
+            content.add(Box.createVerticalStrut(10), con);
+            con.fill = GridBagConstraints.BOTH;
+            con.weighty = 1.0d;
+            content.add(groupsPane, con);
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.weighty = 0.0d;
+            if (canShare) {
+                content.add(Box.createVerticalStrut(10), con);
+                content.add(shareLabel, con);
+            }
+        }
+
+        builder.setContent(content);
+        if (canShare)
+            builder.addOption(APPLY);
+        final Option option = builder
+                .addOption(Option.CLOSE)
+                .show();
+
+        return option == APPLY;
+    }
+
+    /**
+     * Shows a dialog for selecting the number of bits per pixel and encoding
+     * of a packed font export, followed by a file chooser dialog for
+     * selecting the file to write.
+     *
+     * @return the options and file to export with, or {@code null} if either
+     * dialog was cancelled
+     * @see PackedFontCodec
+     */
+    @Nullable
+    public PackedExport showExportPackedFontDialog() {
+        final DialogBuilder builder = new DialogBuilder(editor, "Export Packed Font");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel bitsLabel = new JLabel("Bits Per Pixel:");
+        final JComboBox<Integer> bitsBox = new JComboBox<>(new Integer[] {1, 2, 4, 8});
+
+        final JCheckBox rle = new JCheckBox("Run-Length Encoding", true);
+
+        bitsLabel.setLabelFor(bitsBox);
+        bitsBox.setSelectedItem(4);
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(bitsLabel, con);
+            content.add(bitsBox, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(rle, con);
+        }
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(CONTINUE)
+                .addOption(Option.CANCEL)
+                .show();
+
+        if (option != CONTINUE)
+            return null;
+
+        getFileChooser().setDialogTitle("Save Packed Font File");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(false);
+
+        final FileFilter packedFileFilter = new FileSuffixFilter("Packed font (*.pfont)", "pfont");
+        getFileChooser().addChoosableFileFilter(packedFileFilter);
+        getFileChooser().setFileFilter(packedFileFilter);
+
+        if (getFileChooser().showSaveDialog(editor) != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        File file = getFileChooser().getSelectedFile();
+        if (!file.getName().contains("."))
+            file = new File(file.getPath() + ".pfont");
+        return new PackedExport((Integer) bitsBox.getSelectedItem(), rle.isSelected(), file);
+    }
+
+    /**
+     * Shows a dialog for selecting the number of bits per pixel to quantize
+     * alpha values to, and whether ordered dithering should be applied.
+     *
+     * @return the selected quantization, or {@code null} if the dialog was
+     * cancelled
+     * @see AlphaQuantizer
+     */
+    @Nullable
+    public Quantization showQuantizeDialog() {
+        final DialogBuilder builder = new DialogBuilder(editor, "Quantize Alpha");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel bitsLabel = new JLabel("Bits Per Pixel:");
+        final JComboBox<Integer> bitsBox = new JComboBox<>(new Integer[] {1, 2, 4});
+
+        final JCheckBox dither = new JCheckBox("Ordered Dithering");
+
+        bitsLabel.setLabelFor(bitsBox);
+        bitsBox.setSelectedItem(4);
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(bitsLabel, con);
+            content.add(bitsBox, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(dither, con);
         }
 
-        final Supplier<Boolean> validator = () -> {
-            final String sValue = valueText.getText();
-            final String width = widthText.getText();
-            final String height = heightText.getText();
-            final String offset = offsetText.getText();
-            if (width.isBlank() || height.isBlank()
-                    || offset.isBlank() || sValue.isBlank())
-                return false;
-            try {
-                final int value;
-                if (sValue.length() == 1)
-                    value = sValue.charAt(0);
-                else if (sValue.toLowerCase(Locale.ROOT).startsWith("0x"))
-                    value = Integer.parseInt(sValue.substring(2));
-                else
-                    return false;
-                if (value < Character.MIN_VALUE || value > Character.MAX_VALUE)
-                    return false;
-                if (Integer.parseInt(width) <= 0 || Integer.parseInt(height) < 0 || Integer.parseInt(offset) < 0)
-                    return false;
-            }
-            catch (NumberFormatException e) {
-                return false;
-            }
-            return true;
-        };
-
         final Option option = builder
                 .setContent(content)
-                .addOption(mGlyph != null ? APPLY : FINISH)
+                .addOption(APPLY)
                 .addOption(Option.CANCEL)
-                .setDefaultFocus(valueText)
-                .setOptionHandler(op -> {
-                    if (op == APPLY || op == FINISH) {
-                        if (validator.get()) {
-                            final int width = Integer.parseInt(widthText.getText());
-                            final int height = Integer.parseInt(heightText.getText());
-                            final int offsetY = Integer.parseInt(offsetText.getText());
-                            final boolean isWhitespace = whitespace.isSelected();
-                            final String sValue = valueText.getText();
-                            final char value;
-                            if (sValue.length() == 1)
-                                value = sValue.charAt(0);
-                            else // if (chars.toLowerCase(Locale.ROOT).startsWith("0x"))
-                                value = (char) Integer.parseInt(sValue.substring(2));
-                            glyphValue.set(new MutableGlyph(value, width, height, isWhitespace, offsetY));
-                        }
-                        else {
-                            editor.getToolkit().beep();
-                            return false;
-                        }
-                    }
-                    return true;
-                })
                 .show();
 
-        if (option == APPLY || option == FINISH)
-            return glyphValue.get();
+        if (option == APPLY)
+            return new Quantization((Integer) bitsBox.getSelectedItem(), dither.isSelected());
         else
             return null;
     }
 
-    public int[] showHorizontalOffsetsDialog(@NotNull final MutableFont font, @NotNull final MutableGlyph glyph) {
-        Objects.requireNonNull(font, "font is null");
-        Objects.requireNonNull(glyph, "glyph is null");
+    /**
+     * Shows a dialog for selecting a font installed on the system, its style
+     * and size, and the ranges of characters to rasterize into a new font.
+     *
+     * @return a rasterizer for the selected font and characters, or
+     * {@code null} if the dialog was cancelled
+     * @see FontRasterizer
+     */
+    @Nullable
+    public FontRasterizer showRasterizeFontDialog() {
+        final Value<FontRasterizer> rasterizerValue = new Value<>();
 
-        final Value<int[]> arrayValue = new Value<>();
-        final OffsetsTableModel tableModel = new OffsetsTableModel(glyph);
+        final DialogBuilder builder = new DialogBuilder(editor, "Rasterize System Font");
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
 
-        final DialogBuilder builder = new DialogBuilder(editor, "Edit Horizontal Offsets");
-        final JPanel content = new JPanel(null, builder.dialog.isDoubleBuffered());
+        final JLabel familyLabel = new JLabel("Font Family:");
+        final JComboBox<String> familyBox = new JComboBox<>(
+                GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames());
 
-        final JPanel offsetPanel = new JPanel(new BorderLayout());
-        final JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEADING));
-        final JButton bAdd = new JButton("Add");
-        final JButton bRemove = new JButton("Remove");
-        final JScrollPane tablePane = new JScrollPane();
-        final JTable table = new JTable(tableModel);
+        final JLabel styleLabel = new JLabel("Style:");
+        final JComboBox<String> styleBox = new JComboBox<>(new String[] {"Plain", "Bold", "Italic", "Bold Italic"});
 
-        final JComponent preview = new JPanel(); // TODO implement preview component
+        final JLabel sizeLabel = new JLabel("Size:");
+        final JTextField sizeText = new JTextField("16");
 
-        bAdd.addActionListener(event -> {
-            // TODO show add dialog
-        });
+        final JLabel rangesLabel = new JLabel("Character Ranges:");
+        final JTextField rangesText = new JTextField("0020-007E, 00A0-00FF");
 
-        bRemove.addActionListener(event -> {
-            // TODO remove selected offsets
-        });
+        final JCheckBox antialias = new JCheckBox("Antialiasing", true);
+        final JCheckBox kerning = new JCheckBox("Horizontal Offsets From Kerning", true);
 
-        buttonPanel.add(bAdd);
-        buttonPanel.add(bRemove);
+        familyLabel.setLabelFor(familyBox);
+        familyBox.setSelectedItem(java.awt.Font.DIALOG);
 
-        tablePane.setViewportView(table);
+        styleLabel.setLabelFor(styleBox);
 
-        offsetPanel.setBorder(BorderFactory.createTitledBorder("Offsets"));
-        offsetPanel.add(buttonPanel, NORTH);
-        offsetPanel.add(tablePane, CENTER);
+        sizeLabel.setLabelFor(sizeText);
 
-        preview.setBorder(BorderFactory.createTitledBorder("Preview"));
+        rangesLabel.setLabelFor(rangesText);
+        rangesText.setToolTipText("Hexadecimal code points separated by commas, e.g. 0020-007E, 0370-03FF");
 
-        content.setLayout(new BoxLayout(content, BoxLayout.Y_AXIS));
-        content.add(offsetPanel);
-        content.add(preview);
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
 
+            content.add(familyLabel, con);
+            content.add(familyBox, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(styleLabel, con);
+            content.add(styleBox, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(sizeLabel, con);
+            content.add(sizeText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(rangesLabel, con);
+            content.add(rangesText, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(antialias, con);
+            content.add(kerning, con);
+        }
 
         final Option option = builder
                 .setContent(content)
-                .addOption(APPLY)
+                .addOption(FINISH)
                 .addOption(Option.CANCEL)
-                .setDefaultFocus(bAdd)
+                .setDefaultFocus(sizeText)
                 .setOptionHandler(op -> {
-                    if (op == APPLY) {
-                        // TODO update arrayValue
+                    if (op == FINISH) {
+                        final float size;
+                        final String chars;
+                        try {
+                            size = Float.parseFloat(sizeText.getText());
+                            chars = FontRasterizer.parseRanges(rangesText.getText());
+                        }
+                        catch (IllegalArgumentException e) {
+                            editor.getToolkit().beep();
+                            return false;
+                        }
+                        if (!(size >= 1.0f) || chars.isEmpty() || familyBox.getSelectedItem() == null) {
+                            editor.getToolkit().beep();
+                            return false;
+                        }
+                        // style index matches PLAIN, BOLD, ITALIC and BOLD | ITALIC
+                        final java.awt.Font font = new java.awt.Font((String) familyBox.getSelectedItem(),
+                                styleBox.getSelectedIndex(), 1).deriveFont(size);
+                        rasterizerValue.set(new FontRasterizer(font, chars, antialias.isSelected(),
+                                kerning.isSelected()));
                     }
                     return true;
                 })
                 .show();
 
-        if (option == APPLY)
-            return arrayValue.get();
+        if (option == FINISH)
+            return rasterizerValue.get();
         else
             return null;
     }
 
-    @Nullable
-    public MutableGlyph showImportGlyphDialog() {
-        fileChooser.setDialogTitle("Open Image File");
-        fileChooser.resetChoosableFileFilters();
-        fileChooser.setAcceptAllFileFilterUsed(true);
-        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-        fileChooser.setMultiSelectionEnabled(false);
-
-        final FileFilter imageFileFilter = new FileSuffixFilter("Image files", ImageIO.getReaderFileSuffixes());
-        fileChooser.addChoosableFileFilter(imageFileFilter);
-        fileChooser.setFileFilter(imageFileFilter);
-
-        if (fileChooser.showOpenDialog(editor) != JFileChooser.APPROVE_OPTION)
-            return null;
-
-        final File file = fileChooser.getSelectedFile();
-        try {
-            final BufferedImage image = ImageIO.read(file);
-            return new MutableGlyph(image);
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-            Log.e("could not read image file", e);
-            return null;
-        }
-    }
-
     public Integer showMoveIndexDialog(final int maxIndex) {
         final Value<Integer> indexValue = new Value<>();
 
@@ -448,20 +1473,20 @@ public class EditorWizard {
 
     @Nullable
     public MutableFont showOpenFontFileDialog() {
-        fileChooser.setDialogTitle("Open Font File");
-        fileChooser.resetChoosableFileFilters();
-        fileChooser.setAcceptAllFileFilterUsed(true);
-        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-        fileChooser.setMultiSelectionEnabled(false);
+        getFileChooser().setDialogTitle("Open Font File");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(false);
 
         final FileFilter fontFileFilter = new FileSuffixFilter("Abaddon Online font (*.font)", "font");
-        fileChooser.addChoosableFileFilter(fontFileFilter);
-        fileChooser.setFileFilter(fontFileFilter);
+        getFileChooser().addChoosableFileFilter(fontFileFilter);
+        getFileChooser().setFileFilter(fontFileFilter);
 
-        if (fileChooser.showOpenDialog(editor) != JFileChooser.APPROVE_OPTION)
+        if (getFileChooser().showOpenDialog(editor) != JFileChooser.APPROVE_OPTION)
             return null;
 
-        final File file = fileChooser.getSelectedFile();
+        final File file = getFileChooser().getSelectedFile();
         try {
             final Font font = FontCodec.readFile(file);
             return new MutableFont(font, file);
@@ -473,20 +1498,45 @@ public class EditorWizard {
         }
     }
 
+    /**
+     * Shows a file chooser dialog for selecting one or more font files to
+     * open. The files are not read.
+     *
+     * @return the selected files, or {@code null} if the dialog was cancelled
+     */
+    @Nullable
+    public File[] showOpenFontFilesDialog() {
+        getFileChooser().setDialogTitle("Open Font Files");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(true);
+
+        final FileFilter fontFileFilter = new FileSuffixFilter("Abaddon Online font (*.font)", "font");
+        getFileChooser().addChoosableFileFilter(fontFileFilter);
+        getFileChooser().setFileFilter(fontFileFilter);
+
+        if (getFileChooser().showOpenDialog(editor) != JFileChooser.APPROVE_OPTION)
+            return null;
+
+        final File[] files = getFileChooser().getSelectedFiles();
+        return files.length != 0 ? files : null;
+    }
+
     @Nullable
     public File showSaveFontFileDialog() {
-        fileChooser.setDialogTitle("Save Font File");
-        fileChooser.resetChoosableFileFilters();
-        fileChooser.setAcceptAllFileFilterUsed(true);
-        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-        fileChooser.setMultiSelectionEnabled(false);
+        getFileChooser().setDialogTitle("Save Font File");
+        getFileChooser().resetChoosableFileFilters();
+        getFileChooser().setAcceptAllFileFilterUsed(true);
+        getFileChooser().setFileSelectionMode(JFileChooser.FILES_ONLY);
+        getFileChooser().setMultiSelectionEnabled(false);
 
         final FileFilter fontFileFilter = new FileSuffixFilter("Abaddon Online font (*.font)", "font");
-        fileChooser.addChoosableFileFilter(fontFileFilter);
-        fileChooser.setFileFilter(fontFileFilter);
+        getFileChooser().addChoosableFileFilter(fontFileFilter);
+        getFileChooser().setFileFilter(fontFileFilter);
 
-        if (fileChooser.showSaveDialog(editor) == JFileChooser.APPROVE_OPTION)
-            return fileChooser.getSelectedFile();
+        if (getFileChooser().showSaveDialog(editor) == JFileChooser.APPROVE_OPTION)
+            return getFileChooser().getSelectedFile();
         else
             return null;
     }
@@ -495,6 +1545,49 @@ public class EditorWizard {
     public void showSettingsDialog() {
     }
 
+    /**
+     * Shows a dialog for confirming that empty borders should be removed
+     * from one or more glyphs.
+     *
+     * @param title the dialog title
+     * @return {@code true} if empty columns should also be removed,
+     * {@code false} if only empty rows should be removed, or {@code null} if
+     * the dialog was cancelled
+     */
+    @Nullable
+    public Boolean showTrimDialog(@NotNull final String title) {
+        final DialogBuilder builder = new DialogBuilder(editor, title);
+        final JPanel content = new JPanel(new GridBagLayout(), builder.dialog.isDoubleBuffered());
+
+        final JLabel messageLabel = new JLabel("Remove empty rows along the top and bottom of glyphs.");
+        final JCheckBox horizontal = new JCheckBox("Also remove empty columns (changes glyph spacing)");
+
+        // content layout
+        {
+            final GridBagConstraints con = new GridBagConstraints();
+            con.anchor = GridBagConstraints.LINE_START;
+            con.fill = GridBagConstraints.HORIZONTAL;
+            con.gridx = 0;
+            con.weightx = 1.0d;
+            con.weighty = 0.0d;
+
+            content.add(messageLabel, con);
+            content.add(Box.createVerticalStrut(10), con);
+            content.add(horizontal, con);
+        }
+
+        final Option option = builder
+                .setContent(content)
+                .addOption(APPLY)
+                .addOption(Option.CANCEL)
+                .show();
+
+        if (option == APPLY)
+            return horizontal.isSelected();
+        else
+            return null;
+    }
+
     public enum Option {
 
         CLOSE("Close"),
@@ -723,99 +1816,296 @@ public class EditorWizard {
         }
     }
 
-    public static class OffsetsTableModel implements TableModel {
-
-        protected final ArrayList<Integer> offsets;
-        protected final ArrayList<TableModelListener> listeners = new ArrayList<>(1);
-
-        public OffsetsTableModel(@NotNull final MutableGlyph glyph) {
-            Objects.requireNonNull(glyph, "glyph is null");
-            offsets = new ArrayList<>(glyph.offsetX.length);
-            for (int i = 0; i < glyph.offsetX.length; i++)
-                offsets.add(glyph.offsetX[i]);
-        }
-
-        @Contract(mutates = "this")
-        public void addOffset(final int id, final int offset) {
-            // get row and insert
-            final int row = offsets.size() / 2;
-            offsets.add(id);
-            offsets.add(offset);
-            // notify listeners
-            final TableModelEvent event = new TableModelEvent(this, row, row, ALL_COLUMNS, INSERT);
-            for (final TableModelListener listener : listeners)
-                listener.tableChanged(event);
-        }
-
-        @Contract(mutates = "this, param1")
-        public void removeOffsets(final int... rows) {
-            Objects.requireNonNull(rows, "rows varargs is null");
-            Arrays.sort(rows);
+    /**
+     * Table model of the pairs in a kerning matrix, with columns for the
+     * left glyph, right glyph and offset of each pair. Rows are stored as
+     * the primitive keys of the pairs in ascending order, and offsets are
+     * read from and written to the matrix directly. Only the rows that
+     * change are updated when pairs are edited, added or removed.
+     *
+     * @author Adam Martinu
+     * @see KerningMatrix
+     * @since 1.0
+     */
+    public static class OffsetsTableModel extends AbstractTableModel {
 
-        }
+        /**
+         * The glyphs of the font, used to name the glyphs of each pair.
+         */
+        @NotNull
+        protected final List<MutableGlyph> glyphs;
+        /**
+         * The kerning matrix of the model.
+         */
+        @NotNull
+        protected final KerningMatrix matrix;
+        /**
+         * Keys of the pairs that match the filter, in ascending order.
+         */
+        @NotNull
+        protected long[] rows = new long[0];
+        /**
+         * The number of rows in {@link #rows}.
+         */
+        protected int rowCount = 0;
+        /**
+         * Index of the left glyph that pairs must match, or {@code -1} to
+         * match any glyph.
+         */
+        protected int leftFilter = -1;
+        /**
+         * Index of the right glyph that pairs must match, or {@code -1} to
+         * match any glyph.
+         */
+        protected int rightFilter = -1;
 
-        @Contract(mutates = "this")
-        @Override
-        public void addTableModelListener(@Nullable final TableModelListener l) {
-            if (l != null)
-                listeners.add(l);
+        /**
+         * Constructs a new table model of all pairs in the specified matrix.
+         *
+         * @param font   the font of the matrix
+         * @param matrix the kerning matrix
+         * @throws NullPointerException if {@code font} or {@code matrix} is
+         *                              {@code null}
+         */
+        public OffsetsTableModel(@NotNull final MutableFont font, @NotNull final KerningMatrix matrix) {
+            glyphs = Objects.requireNonNull(font, "font is null").glyphList;
+            this.matrix = Objects.requireNonNull(matrix, "matrix is null");
+            updateRows();
         }
 
+        /**
+         * Returns the class of the values in the specified column.
+         */
         @Contract(pure = true)
         @NotNull
         @Override
-        public Class<Integer> getColumnClass(final int index) {
-            return Integer.class;
+        public Class<?> getColumnClass(final int index) {
+            return index == 2 ? Integer.class : String.class;
         }
 
+        /**
+         * Returns {@code 3}.
+         */
         @Contract(pure = true)
         @Override
         public int getColumnCount() {
-            return 2;
+            return 3;
         }
 
+        /**
+         * Returns the name of the specified column.
+         */
         @Contract(pure = true)
         @NotNull
         @Nls
         @Override
-        public String getColumnName(@MagicConstant(intValues = {0, 1}) final int index) {
-            if (index == 0)
-                return "ID";
-            else if (index == 1)
-                return "Horizontal Offset";
-            else
-                throw new IllegalArgumentException("invalid index {" + index + "}");
+        public String getColumnName(@MagicConstant(intValues = {0, 1, 2}) final int index) {
+            return switch (index) {
+                case 0 -> "Left";
+                case 1 -> "Right";
+                case 2 -> "Offset";
+                default -> throw new IllegalArgumentException("invalid index {" + index + "}");
+            };
+        }
+
+        /**
+         * Returns the key of the pair in the specified row.
+         *
+         * @see KerningMatrix#key(int, int)
+         */
+        @Contract(pure = true)
+        public long getKey(final int row) {
+            Objects.checkIndex(row, rowCount);
+            return rows[row];
         }
 
+        /**
+         * Returns the number of pairs that match the filter.
+         */
         @Contract(pure = true)
         @Override
         public int getRowCount() {
-            return offsets.size() / 2;
+            return rowCount;
         }
 
+        /**
+         * Returns the name of the left or right glyph, or the offset of the
+         * pair in the specified row.
+         */
         @Contract(pure = true)
         @Override
         public Object getValueAt(final int rowIndex, final int columnIndex) {
-            return offsets.get(rowIndex * 2 + columnIndex);
+            final long key = getKey(rowIndex);
+            return switch (columnIndex) {
+                case 0 -> getName(KerningMatrix.left(key));
+                case 1 -> getName(KerningMatrix.right(key));
+                default -> matrix.get(key);
+            };
         }
 
+        /**
+         * Returns {@code true} if {@code columnIndex} is the offset column,
+         * otherwise {@code false}.
+         */
         @Contract(pure = true)
         @Override
         public boolean isCellEditable(final int rowIndex, final int columnIndex) {
-            return true;
+            return columnIndex == 2;
         }
 
+        /**
+         * Sets the offset of the specified pair, adding the pair to the
+         * matrix if needed, and returns the row of the pair.
+         *
+         * @param left   index of the left glyph
+         * @param right  index of the right glyph
+         * @param offset the horizontal offset
+         * @return the row of the pair, or {@code -1} if the pair does not
+         * match the filter
+         */
         @Contract(mutates = "this")
-        @Override
-        public void removeTableModelListener(@Nullable final TableModelListener l) {
-            if (l != null)
-                listeners.remove(l);
+        public int put(final int left, final int right, final int offset) {
+            final long key = KerningMatrix.key(left, right);
+            matrix.put(left, right, offset);
+            if (!matches(key))
+                return -1;
+            int row = Arrays.binarySearch(rows, 0, rowCount, key);
+            if (row >= 0)
+                fireTableCellUpdated(row, 2);
+            else {
+                row = -row - 1;
+                if (rowCount == rows.length)
+                    rows = Arrays.copyOf(rows, Math.max(16, rowCount * 2));
+                System.arraycopy(rows, row, rows, row + 1, rowCount - row);
+                rows[row] = key;
+                rowCount++;
+                fireTableRowsInserted(row, row);
+            }
+            return row;
+        }
+
+        /**
+         * Removes the pairs in the specified rows from the matrix.
+         *
+         * @param rows the rows to remove
+         * @throws NullPointerException if {@code rows} is {@code null}
+         */
+        @Contract(mutates = "this, param1")
+        public void remove(final int... rows) {
+            Objects.requireNonNull(rows, "rows varargs is null");
+            Arrays.sort(rows);
+            // remove from last to first, so row indices remain valid
+            for (int i = rows.length - 1; i >= 0; i--) {
+                final int row = rows[i];
+                final long key = getKey(row);
+                matrix.remove(KerningMatrix.left(key), KerningMatrix.right(key));
+                System.arraycopy(this.rows, row + 1, this.rows, row, rowCount - row - 1);
+                rowCount--;
+                fireTableRowsDeleted(row, row);
+            }
+        }
+
+        /**
+         * Sets the glyphs that pairs must match to be shown in the table.
+         * Use {@code -1} to match any glyph, or any other negative value to
+         * match no glyphs.
+         *
+         * @param left  index of the left glyph
+         * @param right index of the right glyph
+         */
+        @Contract(mutates = "this")
+        public void setFilter(final int left, final int right) {
+            if (left != leftFilter || right != rightFilter) {
+                leftFilter = left;
+                rightFilter = right;
+                updateRows();
+                fireTableDataChanged();
+            }
         }
 
+        /**
+         * Sets the offset of the pair in the specified row.
+         */
         @Contract(mutates = "this")
         @Override
         public void setValueAt(final Object aValue, final int rowIndex, final int columnIndex) {
-            // TODO update value in offsets
+            if (columnIndex == 2 && aValue instanceof Integer offset) {
+                final long key = getKey(rowIndex);
+                matrix.put(KerningMatrix.left(key), KerningMatrix.right(key), offset);
+                fireTableCellUpdated(rowIndex, columnIndex);
+            }
+        }
+
+        /**
+         * Returns the name of the glyph at the specified index.
+         */
+        @Contract(pure = true)
+        @NotNull
+        protected String getName(final int index) {
+            return index < glyphs.size() ? glyphs.get(index).name : "#" + index;
+        }
+
+        /**
+         * Returns {@code true} if the specified pair matches the filter,
+         * otherwise {@code false}.
+         */
+        @Contract(pure = true)
+        protected boolean matches(final long key) {
+            return (leftFilter == -1 || KerningMatrix.left(key) == leftFilter)
+                    && (rightFilter == -1 || KerningMatrix.right(key) == rightFilter);
+        }
+
+        /**
+         * Updates the rows to the pairs that match the filter.
+         */
+        @Contract(mutates = "this")
+        protected void updateRows() {
+            final long[] keys = matrix.keys();
+            rowCount = 0;
+            for (long key : keys)
+                if (matches(key))
+                    keys[rowCount++] = key;
+            rows = keys;
         }
     }
+
+    /**
+     * Options of automatic kerning.
+     *
+     * @param threshold     the minimum alpha value of visible pixels
+     * @param spacing       the target gap between glyphs, or {@code -1} to use
+     *                      the median gap of all pairs
+     * @param maxAdjustment the maximum absolute offset of pairs
+     * @param replace       {@code true} if existing pairs should be replaced
+     * @see #showAutoKerningDialog(MutableFont)
+     */
+    public record AutoKerning(int threshold, int spacing, int maxAdjustment, boolean replace) { }
+
+    /**
+     * Options of a texture atlas export.
+     *
+     * @param packer the packer to pack glyphs with
+     * @param file   the UV table file to write
+     * @see #showExportAtlasDialog()
+     */
+    public record AtlasExport(@NotNull AtlasPacker packer, @NotNull File file) { }
+
+    /**
+     * Options of a packed font export.
+     *
+     * @param bits the number of bits per pixel
+     * @param rle  {@code true} if glyph data should be run-length encoded
+     * @param file the file to write
+     * @see #showExportPackedFontDialog()
+     */
+    public record PackedExport(int bits, boolean rle, @NotNull File file) { }
+
+    /**
+     * Options of an alpha quantization.
+     *
+     * @param bits   the number of bits per pixel
+     * @param dither {@code true} if ordered dithering should be applied
+     * @see #showQuantizeDialog()
+     */
+    public record Quantization(int bits, boolean dither) { }
 }
@@ -0,0 +1,319 @@
+package dk.martinu.ao.fonteditor.swing;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import dk.martinu.ao.client.text.FontCodec;
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.Log;
+
+/**
+ * A set of fonts that are open in the editor at the same time. Fonts that
+ * are added by file are not read until they are first loaded, and are then
+ * kept in memory until they are removed, so switching between open fonts
+ * does not read their files again. Rendered glyph images of all fonts are
+ * kept in a single shared cache.
+ * <p>
+ * The workspace must only be accessed on the event dispatch thread, except
+ * for reading font files, which is done on background threads.
+ * {@link #read(File)} can be called on any thread.
+ *
+ * @author Adam Martinu
+ * @see Entry
+ * @see GlyphImageCache
+ * @since 1.0
+ */
+public class FontWorkspace {
+
+    /**
+     * Reads the specified font file and returns a new font with the absolute
+     * file as its file. Unlike other methods of the workspace, this method
+     * can be called on any thread.
+     *
+     * @param file the font file
+     * @return a new font
+     * @throws NullPointerException  if {@code file} is {@code null}
+     * @throws IllegalStateException if the file could not be read
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static MutableFont read(@NotNull final File file) {
+        Objects.requireNonNull(file, "file is null");
+        final File absolute = file.getAbsoluteFile();
+        final long start = System.nanoTime();
+        try {
+            final MutableFont font = new MutableFont(FontCodec.readFile(absolute), absolute);
+            Log.i("loaded {" + absolute + "} in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return font;
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("could not read font file {" + absolute + "}", e);
+        }
+    }
+
+    /**
+     * The entries of the workspace, in the order they were added.
+     */
+    protected final ArrayList<Entry> entries = new ArrayList<>();
+    /**
+     * Cache of rendered glyph images of all fonts in the workspace.
+     */
+    @NotNull
+    public final GlyphImageCache imageCache = new GlyphImageCache();
+    /**
+     * Executor of the background threads that read font files.
+     */
+    @NotNull
+    protected final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "font-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Adds an entry for the specified font file to the workspace, without
+     * reading the file. If the workspace already contains an entry for the
+     * file, then that entry is returned instead.
+     *
+     * @param file the font file
+     * @return the entry of the file
+     * @throws NullPointerException if {@code file} is {@code null}
+     * @see #load(Entry)
+     */
+    @NotNull
+    public Entry add(@NotNull final File file) {
+        Objects.requireNonNull(file, "file is null");
+        final File absolute = file.getAbsoluteFile();
+        for (Entry entry : entries) {
+            if (absolute.equals(entry.file)) {
+                return entry;
+            }
+        }
+        final Entry entry = new Entry(absolute, null);
+        entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Adds an entry for the specified font file to the workspace, whose font
+     * is being read by the specified future, such as a font that was read
+     * with {@link #read(File)} before the workspace could be used. If the
+     * workspace already contains an entry for the file, then that entry is
+     * returned instead, and the future is only used if the entry is neither
+     * loaded nor being loaded.
+     *
+     * @param file    the font file
+     * @param loading future of the font of {@code file}
+     * @return the entry of the file
+     * @throws NullPointerException if {@code file} or {@code loading} is
+     *                              {@code null}
+     * @see #load(Entry)
+     */
+    @NotNull
+    public Entry add(@NotNull final File file, @NotNull final CompletableFuture<MutableFont> loading) {
+        Objects.requireNonNull(loading, "loading is null");
+        final Entry entry = add(file);
+        if (entry.font == null && entry.loading == null) {
+            entry.loading = loading;
+        }
+        return entry;
+    }
+
+    /**
+     * Adds an entry for the specified font to the workspace. If the
+     * workspace already contains the font, or an entry for the file of the
+     * font that is not loaded, then that entry is returned instead.
+     *
+     * @param font the font
+     * @return the entry of the font
+     * @throws NullPointerException if {@code font} is {@code null}
+     */
+    @NotNull
+    public Entry add(@NotNull final MutableFont font) {
+        Objects.requireNonNull(font, "font is null");
+        final File absolute = font.file != null ? font.file.getAbsoluteFile() : null;
+        for (Entry entry : entries) {
+            if (entry.font == font) {
+                return entry;
+            }
+            if (entry.font == null && absolute != null && absolute.equals(entry.file)) {
+                entry.setFont(font);
+                return entry;
+            }
+        }
+        final Entry entry = new Entry(absolute, font);
+        entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Returns the entry of the specified font, or {@code null} if the
+     * workspace does not contain the font.
+     *
+     * @param font the font
+     * @return the entry of {@code font}, or {@code null}
+     */
+    @Contract(pure = true)
+    @Nullable
+    public Entry get(@Nullable final MutableFont font) {
+        if (font != null) {
+            for (Entry entry : entries) {
+                if (entry.font == font) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an unmodifiable view of the entries of the workspace.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the font of the specified entry, reading its file on a
+     * background thread if the font is not loaded. The file is only read
+     * once, even if this method is called again before it has been read.
+     * The returned future is completed on the background thread.
+     *
+     * @param entry the entry to load
+     * @return a future of the font of {@code entry}
+     * @throws NullPointerException if {@code entry} is {@code null}
+     */
+    @NotNull
+    public CompletableFuture<MutableFont> load(@NotNull final Entry entry) {
+        Objects.requireNonNull(entry, "entry is null");
+        if (entry.font != null) {
+            return CompletableFuture.completedFuture(entry.font);
+        }
+        if (entry.loading == null) {
+            final File file = Objects.requireNonNull(entry.file, "file is null");
+            entry.loading = CompletableFuture.supplyAsync(() -> read(file), executor);
+        }
+        return entry.loading;
+    }
+
+    /**
+     * Removes the specified entry from the workspace, and discards the
+     * cached images of its glyphs.
+     *
+     * @param entry the entry to remove
+     * @return {@code true} if the entry was removed, otherwise {@code false}
+     */
+    public boolean remove(@Nullable final Entry entry) {
+        if (entry == null || !entries.remove(entry)) {
+            return false;
+        }
+        if (entry.font != null) {
+            imageCache.removeAll(entry.font.glyphList);
+        }
+        entry.openGlyphs.clear();
+        return true;
+    }
+
+    /**
+     * A font in the workspace, which is either loaded or only known by its
+     * file.
+     *
+     * @author Adam Martinu
+     * @since 1.0
+     */
+    public static class Entry {
+
+        /**
+         * The absolute file of the font, or {@code null} if the font has not
+         * been saved.
+         */
+        @Nullable
+        protected File file;
+        /**
+         * The font, or {@code null} if it is not loaded.
+         */
+        @Nullable
+        protected MutableFont font;
+        /**
+         * Future of the font while its file is being read, or {@code null}.
+         */
+        @Nullable
+        protected CompletableFuture<MutableFont> loading = null;
+        /**
+         * The glyphs that were open in tabs when the font was last shown in
+         * the editor, in tab order.
+         */
+        @NotNull
+        public final ArrayList<MutableGlyph> openGlyphs = new ArrayList<>();
+
+        /**
+         * Constructs a new entry of the specified file and font.
+         */
+        protected Entry(@Nullable final File file, @Nullable final MutableFont font) {
+            this.file = file;
+            this.font = font;
+        }
+
+        /**
+         * Returns the font of this entry, or {@code null} if it is not loaded.
+         */
+        @Contract(pure = true)
+        @Nullable
+        public MutableFont getFont() {
+            return font;
+        }
+
+        /**
+         * Returns the name of this entry, which is the name of the file if
+         * the font has a file, or the name of the font. A {@code '*'} is
+         * prepended if the font has unsaved changes.
+         */
+        @Contract(pure = true)
+        @NotNull
+        public String getName() {
+            final File f = font != null && font.file != null ? font.file : file;
+            final String name = f != null ? f.getName() : font != null && !font.name.isBlank() ? font.name
+                    : "Untitled";
+            return font != null && font.isDirty ? "*" + name : name;
+        }
+
+        /**
+         * Returns {@code true} if the font of this entry is loaded, otherwise
+         * {@code false}.
+         */
+        @Contract(pure = true)
+        public boolean isLoaded() {
+            return font != null;
+        }
+
+        /**
+         * Sets the font of this entry when it has been loaded.
+         */
+        protected void setFont(@NotNull final MutableFont font) {
+            this.font = font;
+            loading = null;
+        }
+
+        /**
+         * Returns the name of this entry.
+         *
+         * @see #getName()
+         */
+        @Contract(pure = true)
+        @NotNull
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package dk.martinu.ao.fonteditor.swing;
 
 import dk.martinu.ao.fonteditor.MutableGlyph;
-import dk.martinu.ao.fonteditor.edit.ValueEdit;
+import dk.martinu.ao.fonteditor.edit.*;
+import dk.martinu.ao.fonteditor.util.AlphaView;
+import dk.martinu.ao.fonteditor.util.FloodFill;
 import dk.martinu.ao.fonteditor.util.ImageUtil;
 import org.jetbrains.annotations.*;
 
 import javax.swing.JComponent;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.Border;
 import java.awt.*;
 import java.awt.event.*;
@@ -34,7 +37,7 @@ import static java.awt.RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
 // TODO canvas bounds and scaled image bounds are computed many times, could be
 //  stored in reusable variable, and updated when canvas is resized, image is
 //  dragged or zoomed
-public class GlyphCanvas extends JComponent implements PropertyChangeListener {
+public class GlyphCanvas extends JComponent implements PropertyChangeListener, EditQueueListener<MutableGlyph> {
 
     /**
      * Key constant for the {@code isDirty} state of the canvas.
@@ -42,6 +45,21 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
      * @see #setDirty(boolean)
      */
     public static final String PROPERTY_DIRTY = "dk.martinu.ao.fonteditor.swing.GlyphCanvas.DIRTY";
+    /**
+     * Key constant for changes to the rendered glyph. Listeners registered to
+     * the property will receive the glyph as the new value each time a
+     * region of the glyph is rendered, for example while drawing on the
+     * canvas.
+     */
+    public static final String PROPERTY_GLYPH = "dk.martinu.ao.fonteditor.swing.GlyphCanvas.GLYPH";
+    /**
+     * Key constant for the selection state of the canvas. Listeners
+     * registered to the property will receive a {@code Boolean} value that is
+     * {@code true} if the canvas has a selection.
+     *
+     * @see #hasSelection()
+     */
+    public static final String PROPERTY_SELECTION = "dk.martinu.ao.fonteditor.swing.GlyphCanvas.SELECTION";
     /**
      * The maximum zoom value.
      *
@@ -73,6 +91,22 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
      * components will be set to this constant.
      */
     private static final int[] BLANK_PIXEL = new int[] {0, 0, 0, 0};
+    /**
+     * The delay in milliseconds between processing coalesced drag events,
+     * roughly equal to the duration of a single frame at 60 Hz.
+     */
+    private static final int FRAME_DELAY = 16;
+    /**
+     * The duration in nanoseconds of a smooth zoom animation.
+     *
+     * @see EditorFrame#isSmoothZoom()
+     */
+    private static final long ZOOM_DURATION = 120_000_000L;
+    /**
+     * Dashed stroke used to paint the outline of the selection.
+     */
+    private static final BasicStroke SELECTION_STROKE = new BasicStroke(1.0f, BasicStroke.CAP_BUTT,
+            BasicStroke.JOIN_MITER, 10.0f, new float[] {4.0f, 4.0f}, 0.0f);
 
     /**
      * The glyph this data represents.
@@ -131,11 +165,74 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
      * value when drawn on the canvas (for example x1, x2, x3, ...).
      */
     private int zoom = 1;
+    /**
+     * Timer for animating smooth zoom. While the timer is running, the glyph
+     * image is drawn with an interpolated scale and position between the
+     * previous and current level of zoom.
+     *
+     * @see #setZoom(int, int, int)
+     */
+    private final Timer zoomTimer = new Timer(FRAME_DELAY, event -> animateZoom());
+    /**
+     * The time in nanoseconds when the current zoom animation started.
+     */
+    private long zoomStartTime = 0L;
+    /**
+     * The progress of the current zoom animation, eased and in range 0-1
+     * inclusive.
+     */
+    private double zoomProgress = 1.0d;
+    /**
+     * The scale of the glyph image when the current zoom animation started.
+     */
+    private double zoomFromScale = 1.0d;
+    /**
+     * The horizontal position of the scaled glyph image when the current zoom
+     * animation started.
+     */
+    private double zoomFromX = 0.0d;
+    /**
+     * The vertical position of the scaled glyph image when the current zoom
+     * animation started.
+     */
+    private double zoomFromY = 0.0d;
     /**
      * {@code true} if the glyph has been modified and saving should be
      * enabled, otherwise {@code false}.
      */
     private boolean isDirty = false;
+    /**
+     * The bounds of the selection in pixel coordinates, or {@code null} if
+     * nothing is selected. If the selection is floating, then the bounds can
+     * be partially outside the image.
+     *
+     * @see #selectAll()
+     */
+    @Nullable
+    private Rectangle selection = null;
+    /**
+     * The alpha values of the floating selection, or {@code null} if the
+     * selection is not floating. A floating selection is not part of the
+     * glyph data until it is committed, and can be moved without changing
+     * the glyph.
+     *
+     * @see #commitSelection()
+     */
+    @Nullable
+    private AlphaView floating = null;
+    /**
+     * Copy of the glyph data from before the selection started floating, or
+     * {@code null} if the selection is not floating.
+     */
+    @Nullable
+    private byte[] floatingBase = null;
+    /**
+     * Bounds of the region that was cleared when the selection started
+     * floating, or {@code null} if nothing was cleared (the floating
+     * selection was pasted).
+     */
+    @Nullable
+    private Rectangle floatingSource = null;
 
     /**
      * Constructs a new glyph canvas.
@@ -143,6 +240,8 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
     public GlyphCanvas(@NotNull EditorFrame editor, @NotNull MutableGlyph glyph) {
         this.editor = Objects.requireNonNull(editor, "editor is null");
         this.glyph = Objects.requireNonNull(glyph, "glyph is null");
+        // canvas reads and writes glyph data directly
+        glyph.decompress();
 //        isDirty = glyph.isDirty;
         image = new BufferedImage(glyph.width, glyph.height, BufferedImage.TYPE_INT_ARGB);
         backdrop = ImageUtil.getBackdropImage(glyph.width, glyph.height);
@@ -156,6 +255,8 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         // notify canvas when tool or color changes in editor
         editor.addPropertyChangeListener(PROPERTY_TOOL_COLOR, this);
         editor.addPropertyChangeListener(PROPERTY_TOOL, this);
+        // notify canvas when edits are undone or redone
+        glyph.editQueue.addListener(this);
     }
 
     /**
@@ -168,6 +269,123 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         repaint();
     }
 
+    /**
+     * Removes the selection from the canvas. A floating selection is
+     * committed to the glyph data first.
+     *
+     * @see #commitSelection()
+     */
+    @Contract(mutates = "this")
+    public void clearSelection() {
+        commitSelection();
+        setSelection(null);
+    }
+
+    /**
+     * Writes the floating selection, if any, to the glyph data at its current
+     * position and adds a single edit to the glyph edit queue that covers the
+     * source and destination regions of the selection. The selection bounds
+     * are retained, but the selection is no longer floating.
+     */
+    @Contract(mutates = "this")
+    public void commitSelection() {
+        if (floating == null || selection == null || floatingBase == null) {
+            return;
+        }
+        floating.copyTo(glyph.data, glyph.width, glyph.height, selection.x, selection.y);
+        endFloating(selection.intersection(new Rectangle(glyph.width, glyph.height)));
+    }
+
+    /**
+     * Returns a view of the alpha values of the current selection, or
+     * {@code null} if nothing is selected. The returned view is not affected
+     * by later changes to the glyph.
+     */
+    @Contract(pure = true)
+    @Nullable
+    public AlphaView copySelection() {
+        if (selection == null) {
+            return null;
+        }
+        // floating views are never altered and can be shared
+        if (floating != null) {
+            return floating;
+        }
+        return AlphaView.of(glyph.data, glyph.width, selection.x, selection.y, selection.width,
+                selection.height).copy();
+    }
+
+    /**
+     * Returns a view of the alpha values of the current selection and clears
+     * the selected region, or returns {@code null} if nothing is selected.
+     * Clearing the region is added to the glyph edit queue as a single edit.
+     *
+     * @see #copySelection()
+     */
+    @Contract(mutates = "this")
+    @Nullable
+    public AlphaView cutSelection() {
+        AlphaView view = copySelection();
+        if (view != null && selection != null) {
+            if (floating == null) {
+                floatingBase = Arrays.copyOf(glyph.data, glyph.data.length);
+                floatingSource = new Rectangle(selection);
+                clearRegion(selection);
+            }
+            else {
+                // floating values are only in the image, render the glyph data beneath them
+                Rectangle bounds = selection.intersection(new Rectangle(glyph.width, glyph.height));
+                if (!bounds.isEmpty()) {
+                    renderGlyphToImage(bounds.x, bounds.y, bounds.width, bounds.height);
+                }
+            }
+            // record the cleared source region without the floating values
+            endFloating(new Rectangle());
+            setSelection(null);
+        }
+        return view;
+    }
+
+    /**
+     * Returns {@code true} if the canvas has a selection, otherwise
+     * {@code false}.
+     */
+    @Contract(pure = true)
+    public boolean hasSelection() {
+        return selection != null;
+    }
+
+    /**
+     * Pastes the specified alpha values as a floating selection at the top
+     * left corner of the glyph. Any current floating selection is committed
+     * first. The view is not copied, and must not be altered while the
+     * selection is floating.
+     *
+     * @param view the alpha values to paste
+     * @throws NullPointerException if {@code view} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public void paste(@NotNull AlphaView view) {
+        Objects.requireNonNull(view, "view is null");
+        commitSelection();
+        floating = view;
+        floatingBase = Arrays.copyOf(glyph.data, glyph.data.length);
+        floatingSource = null;
+        setSelection(new Rectangle(0, 0, view.width(), view.height()));
+        renderFloatingToImage();
+        repaint();
+    }
+
+    /**
+     * Selects the entire glyph. Any current floating selection is committed
+     * first.
+     */
+    @Contract(mutates = "this")
+    public void selectAll() {
+        commitSelection();
+        setSelection(new Rectangle(glyph.width, glyph.height));
+    }
+
     /**
      * Returns the border color, or {@code null} if the border is disabled.
      */
@@ -221,8 +439,15 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         // scaled glyph image bounds
         int scaledX = (x - hWidth) * zoom + hWidth;
         int scaledY = (y - hHeight) * zoom + hHeight;
-        int scaledWidth = image.getWidth() * zoom;
-        int scaledHeight = image.getHeight() * zoom;
+        double scale = zoom;
+        // interpolate bounds while zoom is animating
+        if (zoomTimer.isRunning()) {
+            scaledX = (int) Math.round(zoomFromX + (scaledX - zoomFromX) * zoomProgress);
+            scaledY = (int) Math.round(zoomFromY + (scaledY - zoomFromY) * zoomProgress);
+            scale = zoomFromScale + (zoom - zoomFromScale) * zoomProgress;
+        }
+        int scaledWidth = (int) Math.round(image.getWidth() * scale);
+        int scaledHeight = (int) Math.round(image.getHeight() * scale);
         // create graphics copy
         Graphics2D g2 = (Graphics2D) g.create();
         // intersect clip with image bounds
@@ -243,9 +468,39 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
             g2.setRenderingHint(KEY_INTERPOLATION, VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
             g2.drawImage(image, scaledX, scaledY, scaledWidth, scaledHeight, null);
         }
+        // draw selection outline
+        if (selection != null) {
+            int selX = scaledX + (int) Math.round(selection.x * scale);
+            int selY = scaledY + (int) Math.round(selection.y * scale);
+            int selWidth = (int) Math.round(selection.width * scale) - 1;
+            int selHeight = (int) Math.round(selection.height * scale) - 1;
+            g2.setColor(Color.WHITE);
+            g2.drawRect(selX, selY, selWidth, selHeight);
+            g2.setColor(Color.BLACK);
+            g2.setStroke(SELECTION_STROKE);
+            g2.drawRect(selX, selY, selWidth, selHeight);
+        }
         g2.dispose();
     }
 
+    /**
+     * Renders the region of the glyph that was changed when an edit is undone
+     * or redone, and repaints the canvas.
+     */
+    @Override
+    public void queueChanged(@NotNull EditEvent<MutableGlyph> event) {
+        if (event.type() == EditEvent.Type.UNDO || event.type() == EditEvent.Type.REDO) {
+            if (event.edit() instanceof DataEdit edit) {
+                renderGlyphToImage(edit.x, edit.y, edit.width, edit.height);
+                repaint();
+                setDirty(true);
+            }
+            else {
+                glyphChanged();
+            }
+        }
+    }
+
     // DOC propertyChange
     @Override
     public void propertyChange(@NotNull PropertyChangeEvent event) {
@@ -305,6 +560,7 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
 
     /**
      * Sets the current tool for editing. The default value is {@code MOVE}.
+     * Any floating selection is committed.
      *
      * @param tool the new tool
      * @throws NullPointerException if {@code tool} is {@code null}
@@ -312,8 +568,9 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
     @Contract(mutates = "this")
     public void setTool(@NotNull Tool tool) {
         this.tool = Objects.requireNonNull(tool, "tool is null");
-        setCursor(tool.cursor);
+        setCursor(tool.getCursor());
         handler.reset();
+        commitSelection();
     }
 
     /**
@@ -328,20 +585,65 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
     }
 
     /**
-     * Sets the level of zoom when viewing the glyph image. The default value
-     * is {@code MIN_ZOOM}. The zoom value cannot be set to a value lower than
-     * {@code MIN_ZOOM} or greater than {@code MAX_ZOOM}.
+     * Sets the level of zoom when viewing the glyph image, keeping the center
+     * of the canvas fixed. The default value is {@code MIN_ZOOM}. The zoom
+     * value cannot be set to a value lower than {@code MIN_ZOOM} or greater
+     * than {@code MAX_ZOOM}.
      *
      * @param zoom level of zoom
+     * @see #setZoom(int, int, int)
      * @see #zoomIn()
      * @see #zoomOut()
      */
     @Contract(mutates = "this")
     public void setZoom(int zoom) {
+        setZoom(zoom, getWidth() / 2, getHeight() / 2);
+    }
+
+    /**
+     * Sets the level of zoom when viewing the glyph image, and moves the
+     * image such that the point on the image beneath the specified anchor
+     * coordinates remains in the same position on the canvas. If smooth zoom
+     * is enabled in the editor, then the change is animated. The zoom value
+     * cannot be set to a value lower than {@code MIN_ZOOM} or greater than
+     * {@code MAX_ZOOM}.
+     *
+     * @param zoom    level of zoom
+     * @param anchorX horizontal coordinate of the anchor on the canvas
+     * @param anchorY vertical coordinate of the anchor on the canvas
+     * @see EditorFrame#isSmoothZoom()
+     */
+    @Contract(mutates = "this")
+    public void setZoom(int zoom, int anchorX, int anchorY) {
         if (zoom > MAX_ZOOM) { zoom = MAX_ZOOM; }
         else if (zoom < MIN_ZOOM) { zoom = MIN_ZOOM; }
         if (zoom == this.zoom) { return; }
+        int hWidth = getWidth() / 2;
+        int hHeight = getHeight() / 2;
+        // scale and bounds of the image as it is currently drawn
+        double scale = this.zoom;
+        double scaledX = (x - hWidth) * this.zoom + hWidth;
+        double scaledY = (y - hHeight) * this.zoom + hHeight;
+        if (zoomTimer.isRunning()) {
+            scaledX = zoomFromX + (scaledX - zoomFromX) * zoomProgress;
+            scaledY = zoomFromY + (scaledY - zoomFromY) * zoomProgress;
+            scale = zoomFromScale + (this.zoom - zoomFromScale) * zoomProgress;
+        }
+        // point on image beneath anchor, in unscaled image coordinates
+        double imageX = (anchorX - scaledX) / scale;
+        double imageY = (anchorY - scaledY) / scale;
+        // new image position, such that the anchor point remains fixed
+        x = (int) Math.round((anchorX - imageX * zoom - hWidth) / zoom) + hWidth;
+        y = (int) Math.round((anchorY - imageY * zoom - hHeight) / zoom) + hHeight;
         this.zoom = zoom;
+        if (editor.isSmoothZoom() && isShowing()) {
+            zoomFromX = scaledX;
+            zoomFromY = scaledY;
+            zoomFromScale = scale;
+            zoomProgress = 0.0d;
+            zoomStartTime = System.nanoTime();
+            zoomTimer.start();
+        }
         repaint();
     }
 
@@ -365,6 +667,25 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         setZoom(zoom - 1);
     }
 
+    /**
+     * Updates the canvas after the size or data of the glyph has been changed
+     * outside the canvas, for example by an edit of the entire font. Any
+     * selection is discarded without being committed, callers must commit the
+     * selection before changing the glyph.
+     */
+    void glyphChanged() {
+        floating = null;
+        floatingBase = null;
+        floatingSource = null;
+        setSelection(null);
+        if (image.getWidth() != glyph.width || image.getHeight() != glyph.height) {
+            updateImage();
+        }
+        renderGlyphToImage();
+        repaint();
+        setDirty(true);
+    }
+
     /**
      * Updates the canvas image and backdrop. Call this method if the glyph
      * size has changed.
@@ -392,23 +713,151 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
      * repainted.
      */
     private void renderGlyphToImage() {
+        renderGlyphToImage(0, 0, glyph.width, glyph.height);
+    }
+
+    /**
+     * Renders the specified region of the glyph to the canvas image using the
+     * current {@link #rgba color}. The region is clipped to the image bounds.
+     * This method notifies any property change listeners bound to
+     * {@code PROPERTY_GLYPH}.
+     * <p>
+     * <b>NOTE:</b> calling this method will not schedule the canvas to be
+     * repainted.
+     *
+     * @param x      horizontal coordinate of the region
+     * @param y      vertical coordinate of the region
+     * @param width  width of the region
+     * @param height height of the region
+     * @see #renderGlyphToImage()
+     */
+    private void renderGlyphToImage(int x, int y, int width, int height) {
         WritableRaster raster = image.getRaster();
+        int maxX = Math.min(x + width, glyph.width);
+        int maxY = Math.min(y + height, glyph.height);
         if (!glyph.isWhitespace) {
             int[] rgba = Arrays.copyOf(this.rgba, 4);
-            for (int y = 0; y < glyph.height; y++) {
-                for (int x = 0; x < glyph.width; x++) {
-                    rgba[3] = glyph.data[x + y * glyph.width];
-                    raster.setPixel(x, y, rgba);
+            for (int py = y; py < maxY; py++) {
+                for (int px = x; px < maxX; px++) {
+                    rgba[3] = glyph.data[px + py * glyph.width];
+                    raster.setPixel(px, py, rgba);
                 }
             }
         }
         else {
-            for (int y = 0; y < glyph.height; y++) {
-                for (int x = 0; x < glyph.width; x++) {
-                    raster.setPixel(x, y, BLANK_PIXEL);
+            for (int py = y; py < maxY; py++) {
+                for (int px = x; px < maxX; px++) {
+                    raster.setPixel(px, py, BLANK_PIXEL);
                 }
             }
         }
+        firePropertyChange(PROPERTY_GLYPH, null, glyph);
+    }
+
+    /**
+     * Advances the current zoom animation and repaints the canvas. The
+     * animation is stopped when it has completed.
+     */
+    private void animateZoom() {
+        double t = Math.min(1.0d, (System.nanoTime() - zoomStartTime) / (double) ZOOM_DURATION);
+        // ease out
+        zoomProgress = 1.0d - (1.0d - t) * (1.0d - t);
+        if (t >= 1.0d) {
+            zoomTimer.stop();
+        }
+        repaint();
+    }
+
+    /**
+     * Sets all alpha values in the specified region of the glyph data to
+     * {@code 0} and renders the region to the canvas image.
+     *
+     * @param region the region to clear
+     */
+    private void clearRegion(@NotNull Rectangle region) {
+        for (int row = region.y; row < region.y + region.height; row++) {
+            int from = region.x + row * glyph.width;
+            Arrays.fill(glyph.data, from, from + region.width, (byte) 0);
+        }
+        renderGlyphToImage(region.x, region.y, region.width, region.height);
+    }
+
+    /**
+     * Adds a single edit to the glyph edit queue that covers the specified
+     * region and the source region of the floating selection, and discards
+     * the floating selection. The glyph data must already contain the new
+     * values of both regions.
+     *
+     * @param bounds the changed region, which can be empty
+     */
+    private void endFloating(@NotNull Rectangle bounds) {
+        if (floatingBase == null) {
+            return;
+        }
+        if (floatingSource != null) {
+            bounds = bounds.isEmpty() ? floatingSource : bounds.union(floatingSource);
+        }
+        if (!bounds.isEmpty()) {
+            glyph.editQueue.add(DataEdit.create(glyph, floatingBase, bounds.x, bounds.y, bounds.width,
+                    bounds.height));
+            renderGlyphToImage(bounds.x, bounds.y, bounds.width, bounds.height);
+            markDirty();
+        }
+        floating = null;
+        floatingBase = null;
+        floatingSource = null;
+        repaint();
+    }
+
+    /**
+     * Sets the dirty state of the glyph and canvas to {@code true}.
+     */
+    private void markDirty() {
+        glyph.isDirty = true;
+        if (!isDirty) {
+            setDirty(true);
+        }
+    }
+
+    /**
+     * Renders the floating selection, if any, to the canvas image at the
+     * position of the selection. Values outside the image are skipped.
+     * <p>
+     * <b>NOTE:</b> calling this method will not schedule the canvas to be
+     * repainted.
+     */
+    private void renderFloatingToImage() {
+        if (floating == null || selection == null || glyph.isWhitespace) {
+            return;
+        }
+        WritableRaster raster = image.getRaster();
+        int[] rgba = Arrays.copyOf(this.rgba, 4);
+        int x0 = Math.max(0, -selection.x);
+        int y0 = Math.max(0, -selection.y);
+        int x1 = Math.min(floating.width(), glyph.width - selection.x);
+        int y1 = Math.min(floating.height(), glyph.height - selection.y);
+        for (int py = y0; py < y1; py++) {
+            for (int px = x0; px < x1; px++) {
+                rgba[3] = floating.get(px, py);
+                raster.setPixel(selection.x + px, selection.y + py, rgba);
+            }
+        }
+    }
+
+    /**
+     * Sets the selection bounds and repaints the canvas. This method notifies
+     * any property change listeners bound to {@code PROPERTY_SELECTION} if
+     * the method call resulted in a new selection state.
+     *
+     * @param bounds the new selection bounds, or {@code null}
+     */
+    private void setSelection(@Nullable Rectangle bounds) {
+        boolean hadSelection = selection != null;
+        selection = bounds;
+        repaint();
+        if (hadSelection != (bounds != null)) {
+            firePropertyChange(PROPERTY_SELECTION, hadSelection, bounds != null);
+        }
     }
 
     /**
@@ -425,11 +874,8 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
     /**
      * Event listener that handles move, zoom and edit events.
      */
-    // TODO implement selection
-    // TODO pencil/eraser leaves gaps if mouse is moving too fast
     private final class EventHandler implements MouseListener, MouseMotionListener, MouseWheelListener {
 
-        private static final int UPSCALE_FACTOR = 256;
         /**
          * The horizontal position of the glyph image before dragging.
          */
@@ -450,37 +896,178 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
          * @see #getPixel(int, int, int[])
          */
         private final int[] pixelBuffer = new int[2];
+        /**
+         * Private reusable buffer for storing the pixel coordinates of a
+         * rasterized line segment. The buffer is only replaced if a line
+         * segment is too long to fit.
+         *
+         * @see #getLinePixels(int, int, int, int)
+         */
+        private int[] lineBuffer = new int[128];
+        /**
+         * The horizontal pixel coordinate of the last stroke position. The
+         * coordinate is not clipped, and can be outside the image bounds.
+         */
+        private int strokeX = 0;
+        /**
+         * The vertical pixel coordinate of the last stroke position. The
+         * coordinate is not clipped, and can be outside the image bounds.
+         */
+        private int strokeY = 0;
+        /**
+         * Buffer of mouse coordinates from drag events that have not yet been
+         * processed. The coordinates of point {@code i} are stored at indices
+         * {@code 2i} and {@code 2i + 1}.
+         *
+         * @see #flush()
+         */
+        private int[] pendingPoints = new int[64];
+        /**
+         * The number of points stored in {@link #pendingPoints}.
+         */
+        private int pendingCount = 0;
+        /**
+         * The lowest horizontal coordinate of pixels that have changed since
+         * the canvas was last repainted. If no pixels have changed, then this
+         * value is greater than {@link #changedMaxX}.
+         *
+         * @see #repaintChanges()
+         */
+        private int changedMinX = Integer.MAX_VALUE;
+        /**
+         * The lowest vertical coordinate of pixels that have changed since
+         * the canvas was last repainted.
+         */
+        private int changedMinY = Integer.MAX_VALUE;
+        /**
+         * The highest horizontal coordinate of pixels that have changed since
+         * the canvas was last repainted.
+         */
+        private int changedMaxX = Integer.MIN_VALUE;
+        /**
+         * The highest vertical coordinate of pixels that have changed since
+         * the canvas was last repainted.
+         */
+        private int changedMaxY = Integer.MIN_VALUE;
+        /**
+         * Copy of the glyph data from before the current stroke began, or
+         * {@code null} if no stroke is in progress.
+         *
+         * @see #endStroke()
+         */
+        @Nullable
+        private byte[] strokeData = null;
+        /**
+         * The lowest horizontal coordinate of pixels changed by the current
+         * stroke.
+         */
+        private int strokeMinX = Integer.MAX_VALUE;
+        /**
+         * The lowest vertical coordinate of pixels changed by the current
+         * stroke.
+         */
+        private int strokeMinY = Integer.MAX_VALUE;
+        /**
+         * The highest horizontal coordinate of pixels changed by the current
+         * stroke.
+         */
+        private int strokeMaxX = Integer.MIN_VALUE;
+        /**
+         * The highest vertical coordinate of pixels changed by the current
+         * stroke.
+         */
+        private int strokeMaxY = Integer.MIN_VALUE;
+        /**
+         * Reusable flood fill for the {@code FILL} tool.
+         */
+        private final FloodFill floodFill = new FloodFill();
+        /**
+         * {@code true} if the selection is being moved, {@code false} if a
+         * new selection is being created.
+         */
+        private boolean isMovingSelection = false;
+        /**
+         * {@code true} if the mouse has been dragged since a new selection
+         * was started.
+         */
+        private boolean hasSelectionChanged = false;
+        /**
+         * Horizontal pixel coordinate where the selection drag started.
+         */
+        private int selectStartX = 0;
+        /**
+         * Vertical pixel coordinate where the selection drag started.
+         */
+        private int selectStartY = 0;
+        /**
+         * Horizontal position of the selection before it was moved.
+         */
+        private int selectOriginX = 0;
+        /**
+         * Vertical position of the selection before it was moved.
+         */
+        private int selectOriginY = 0;
+        /**
+         * Timer to process coalesced drag events once per frame.
+         *
+         * @see #FRAME_DELAY
+         */
+        private final Timer frameTimer = new Timer(FRAME_DELAY, event -> flush());
 
         /**
-         * Zooms in or out when using the zoom tool.
+         * Constructs a new event handler.
+         */
+        EventHandler() {
+            frameTimer.setRepeats(false);
+        }
+
+        /**
+         * Zooms in or out when using the zoom tool. The pixel beneath the
+         * cursor remains in the same position.
          */
         @Override
         public void mouseClicked(@NotNull MouseEvent event) {
-            // TODO translate image after zoom so pixel beneath cursor remains in same position
             if (tool == Tool.ZOOM) {
                 if (SwingUtilities.isLeftMouseButton(event)) {
-                    zoomIn();
+                    setZoom(zoom + 1, event.getX(), event.getY());
                 }
                 else if (SwingUtilities.isRightMouseButton(event)) {
-                    zoomOut();
+                    setZoom(zoom - 1, event.getX(), event.getY());
                 }
             }
         }
 
         /**
-         * Drags the glyph image across the canvas or changes the image,
-         * depending on the currently selected tool.
+         * Stores the mouse coordinates of the event to be processed on the
+         * next frame. Drag events that arrive between frames are coalesced,
+         * such that the canvas is changed and repainted at most once per
+         * frame.
+         *
+         * @see #flush()
          */
+        @Contract(mutates = "this")
         @Override
         public void mouseDragged(@NotNull MouseEvent event) {
             if (startEvent == null) {
                 return;
             }
             switch (tool) {
-                case MOVE -> moveCanvas(event.getX(), event.getY());
-                case PENCIL -> paintPixel(event.getX(), event.getY());
-                case ERASER -> erasePixel(event.getX(), event.getY());
-                case PICKER -> copyPixel(event.getX(), event.getY());
+                // only the last point is needed for these tools
+                case MOVE, PICKER, SELECT -> pendingCount = 0;
+                case PENCIL, ERASER -> {
+                    if (pendingPoints.length < pendingCount * 2 + 2) {
+                        pendingPoints = Arrays.copyOf(pendingPoints, pendingPoints.length * 2);
+                    }
+                }
+                default -> {
+                    return;
+                }
+            }
+            pendingPoints[pendingCount * 2] = event.getX();
+            pendingPoints[pendingCount * 2 + 1] = event.getY();
+            pendingCount++;
+            if (!frameTimer.isRunning()) {
+                frameTimer.start();
             }
         }
 
@@ -511,40 +1098,62 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         @Contract(mutates = "this")
         @Override
         public void mousePressed(@NotNull MouseEvent event) {
+            // finish zoom animation so events map to the displayed pixels
+            if (zoomTimer.isRunning()) {
+                zoomTimer.stop();
+                repaint();
+            }
             startX = x;
             startY = y;
             startEvent = event;
+            strokeX = getPixelX(event.getX());
+            strokeY = getPixelY(event.getY());
             // perform initial action for tool, if any
             switch (tool) {
-                case PENCIL -> paintPixel(event.getX(), event.getY());
-                case ERASER -> erasePixel(event.getX(), event.getY());
+                case PENCIL -> {
+                    beginStroke();
+                    strokeTo(event.getX(), event.getY(), rgba);
+                }
+                case ERASER -> {
+                    beginStroke();
+                    strokeTo(event.getX(), event.getY(), BLANK_PIXEL);
+                }
+                case FILL -> fill(event.getX(), event.getY());
                 case PICKER -> copyPixel(event.getX(), event.getY());
+                case SELECT -> beginSelection(event.getX(), event.getY());
             }
+            repaintChanges();
         }
 
         /**
-         * Resets dragging state.
+         * Processes any pending drag events and resets dragging state.
          */
         @Contract(mutates = "this")
         @Override
         public void mouseReleased(@NotNull MouseEvent event) {
+            flush();
+            endStroke();
+            // clicking without dragging removes the selection
+            if (tool == Tool.SELECT && !isMovingSelection && !hasSelectionChanged) {
+                setSelection(null);
+            }
             startEvent = null;
         }
 
         /**
-         * Zooms in or out.
+         * Zooms in or out. The pixel beneath the cursor remains in the same
+         * position.
          */
         @Override
         public void mouseWheelMoved(@NotNull MouseWheelEvent event) {
-            // TODO translate image after zoom so pixel beneath cursor remains in same position
             int rotation = event.getWheelRotation();
             // scroll up
             if (rotation < 0) {
-                zoomIn();
+                setZoom(zoom + 1, event.getX(), event.getY());
             }
             // scroll down
             else if (rotation > 0) {
-                zoomOut();
+                setZoom(zoom - 1, event.getX(), event.getY());
             }
         }
 
@@ -567,229 +1176,63 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         }
 
         /**
-         * Erases a single pixel at the position beneath the specified mouse
-         * coordinates on the current image.
+         * Rasterizes a line segment between two pixel coordinates into
+         * {@link #lineBuffer} and returns the number of pixels that were
+         * stored. Only pixels inside the image bounds are stored, such that
+         * the line segment is clipped to the glyph. The coordinates of the
+         * pixel at index {@code i} are stored at {@code 2i} and
+         * {@code 2i + 1}.
+         * <p>
+         * The line is rasterized with Bresenham's line algorithm, and every
+         * pixel between the two coordinates is included, i.e. there are no
+         * gaps in the line segment regardless of its length or slope.
          *
-         * @param mouseX x coordinate of the mouse
-         * @param mouseY y coordinate of the mouse
+         * @param x0 the first horizontal pixel coordinate
+         * @param y0 the first vertical pixel coordinate
+         * @param x1 the second horizontal pixel coordinate
+         * @param y1 the second vertical pixel coordinate
+         * @return the number of pixels stored in the line buffer
          */
-        private void erasePixel(int mouseX, int mouseY) {
-            int[] pixel = getPixel(mouseX, mouseY, pixelBuffer);
-            if (pixel[0] != -1) {
-                WritableRaster raster = image.getRaster();
-                raster.setPixel(pixel[0], pixel[1], new int[4]);
-                repaint();
-                glyph.isDirty = true;
-                if (!isDirty) {
-                    setDirty(true);
-                }
+        @Contract(mutates = "this")
+        private int getLinePixels(int x0, int y0, int x1, int y1) {
+            final int width = glyph.width;
+            final int height = glyph.height;
+            // line segment is entirely outside image bounds
+            if ((x0 < 0 && x1 < 0) || (x0 >= width && x1 >= width)
+                    || (y0 < 0 && y1 < 0) || (y0 >= height && y1 >= height)) {
+                return 0;
             }
-        }
-
-        // DOC getDiagonalPixels
-        // TODO implement getDiagonalPixels
-        @Contract(pure = true)
-        private int[] getDiagonalPixels(int x0, int y0, int x1, int y1) {
-            // half canvas size
-            int hWidth = getWidth() / 2;
-            int hHeight = getHeight() / 2;
-            // scaled glyph image bounds
-            int minX = (x - hWidth) * zoom + hWidth;
-            int scaledY = (y - hHeight) * zoom + hHeight;
-            int scaledWidth = image.getWidth() * zoom;
-            int scaledHeight = image.getHeight() * zoom;
-            int maxX = minX + scaledWidth - 1;
-            // initial Point-in-Rect checks
-            boolean x0inBounds = x0 >= minX && x0 <= maxX;
-            boolean y0inBounds = y0 >= scaledY && y0 < scaledY + scaledHeight;
-            boolean x1inBounds = x1 >= minX && x1 <= maxX;
-            boolean y1inBounds = y1 >= scaledY && y1 < scaledY + scaledHeight;
-
-            // linear function constants
-            double slope = (double) (y1 - y0) / (double) (x1 - x0);
-            double intercept = y0 - slope * x0;
-
-            // check if first point is in image bounds
-            if (x0inBounds && y0inBounds) {
-                // adjust x1 and y1 to be inside image bounds
-                if (!x1inBounds) {
-                    if (x1 < minX) { x1 = minX; }
-                    else { x1 = maxX; }
-                    x1inBounds = true;
-                    // TEST use ceil or floor on y?
-                    y1 = (int) (slope * x1 + intercept);
-                    y1inBounds = y1 >= scaledY && y1 < scaledY + scaledHeight;
-                }
-                if (!y1inBounds) {
-                    if (y1 < scaledY) { y1 = scaledY; }
-                    else { y1 = scaledY + scaledHeight - 1; }
-                    // TEST use ceil or floor on x?
-                    x1 = (int) ((y1 - intercept) / slope);
-                    x1inBounds = x1 >= minX && x1 <= maxX;
-                }
+            int dx = Math.abs(x1 - x0);
+            int dy = -Math.abs(y1 - y0);
+            int sx = x0 < x1 ? 1 : -1;
+            int sy = y0 < y1 ? 1 : -1;
+            // ensure buffer can hold all pixels of the line segment
+            int len = (Math.max(dx, -dy) + 1) * 2;
+            if (lineBuffer.length < len) {
+                lineBuffer = new int[Math.max(len, lineBuffer.length * 2)];
             }
-            // check if second point is in image bounds
-            else if (x1inBounds && y1inBounds) {
-                // adjust x0 and y0 to be inside image bounds
-                if (!x0inBounds) {
-                    if (x0 < minX) { x0 = minX; }
-                    else { x0 = maxX; }
-                    x0inBounds = true;
-                    // TEST use ceil or floor on y?
-                    y0 = (int) (slope * x0 + intercept);
-                    y0inBounds = y0 >= scaledY && y0 < scaledY + scaledHeight;
+            int[] buffer = lineBuffer;
+            int n = 0;
+            int err = dx + dy;
+            while (true) {
+                if (x0 >= 0 && x0 < width && y0 >= 0 && y0 < height) {
+                    buffer[n++] = x0;
+                    buffer[n++] = y0;
                 }
-                if (!y0inBounds) {
-                    if (y0 < scaledY) { y0 = scaledY; }
-                    else { y0 = scaledY + scaledHeight - 1; }
-                    // TEST use ceil or floor on x?
-                    x0 = (int) ((y0 - intercept) / slope);
-                    x0inBounds = x0 >= minX && x0 <= maxX;
+                if (x0 == x1 && y0 == y1) {
+                    break;
                 }
-            }
-            // determine if line segment intersects image bounds
-            else {
-                // TODO determine if line segment intersects image bounds
-            }
-
-            if (x0inBounds && y0inBounds && x1inBounds && y1inBounds) {
-                // ensure line segment goes from left to right
-                if (x1 < x0) {
-                    int temp = x0;
-                    x0 = x1;
-                    x1 = temp;
-                    temp = y0;
-                    y0 = y1;
-                    y1 = temp;
+                int e2 = err * 2;
+                if (e2 >= dy) {
+                    err += dy;
+                    x0 += sx;
                 }
-                // adjust max x
-                maxX = Math.min(maxX, x1);
-
-                // TODO need to check if a (slope) is an integer,
-                //  resulting in pixel-perfect lines
-
-                // upscale all values to improve precision when determining if
-                // the line segment passes through a pixel
-//                minX *= UPSCALE_FACTOR;
-//                scaledY *= UPSCALE_FACTOR;
-//                scaledWidth *= UPSCALE_FACTOR;
-//                scaledHeight *= UPSCALE_FACTOR;
-                x0 *= UPSCALE_FACTOR;
-                y0 *= UPSCALE_FACTOR;
-                x1 *= UPSCALE_FACTOR;
-                y1 *= UPSCALE_FACTOR;
-                // used to check if the line segment passes through the border
-                // between neighboring pixels
-//                 int pxs = zoom * UPSCALE_FACTOR;
-//                 int pxs_2 = pxs / 2;
-
-                // TODO fill and return pixels array
-                // line segment is ascending
-                if (slope > 0) {
-                    if (slope < 1) {
-                        /*
-                        Delta between x values when the line segment crosses
-                        the vertical pixel border.
-                        yn = y0 + pixelSize/2.
-                        xn = (yn - intercept) / slope
-                        dx = xn - x0
-                         */
-                        // TODO maybe dx needs to be incremented by half a pixel (like yn)
-                        double dx = (y0 + (zoom * UPSCALE_FACTOR / 2d) - intercept * UPSCALE_FACTOR) / slope - x0;
-                        // starting x value as a floating point to retain
-                        // partial x value increments
-                        double xf = x0;
-                        // starting pixel x value for row
-                        int px0;
-                        // last pixel x value for row
-                        int px1 = x0;
-                        // starting pixel y value (row)
-                        int py = y0;
-
-                        while (py <= y1) {
-                            // advance x value by delta
-                            xf += dx;
-                            // previous last pixel is new first pixel
-                            px0 = px1;
-                            // get new last pixel
-                            px1 = Math.min((int) Math.floor((xf) / UPSCALE_FACTOR), maxX);
-                            for (int i = px0; i <= px1; i++) {
-
-                            }
-                            py++;
-                        }
-                    }
-                    else {
-
-                    }
-                }
-                // line segment is descending
-                else {
-
-                }
-            }
-
-            // line segment does not intersect or is outside image bounds
-            return null;
-        }
-
-        /**
-         * Returns an array that contains the pixel coordinates for a
-         * horizontal line segment with the specified mouse coordinates if it
-         * intersects with the image bounds. Otherwise, {@code null} is
-         * returned. The array length is a multiple of 3 (not 2) to make space
-         * for storing the color components of each pixel.
-         *
-         * @param mouseY the vertical mouse coordinate
-         * @param x0     the first horizontal mouse coordinate
-         * @param x1     the second horizontal mouse coordinate
-         * @return an array containing the pixel coordinates, or {@code null}
-         */
-        @Contract(pure = true)
-        private int[] getHorizontalPixels(int mouseY, int x0, int x1) {
-            // half canvas size
-            int hWidth = getWidth() / 2;
-            int hHeight = getHeight() / 2;
-            // scaled glyph image bounds
-            int scaledX = (x - hWidth) * zoom + hWidth;
-            int scaledY = (y - hHeight) * zoom + hHeight;
-            int scaledWidth = image.getWidth() * zoom;
-            int scaledHeight = image.getHeight() * zoom;
-            // ensure line segment is within vertical bounds
-            if (mouseY >= scaledY && mouseY < scaledY + scaledHeight) {
-                // ensure line segment goes from left to right
-                if (x1 < x0) {
-                    int temp = x0;
-                    x0 = x1;
-                    x1 = temp;
-                }
-                // ensure line segment is within horizontal bounds
-                if (x1 >= scaledX && x0 < scaledX + scaledWidth) {
-                    // adjust x0 and x1 to be inside image bounds
-                    if (x0 < scaledX) { x0 = scaledX; }
-                    if (x1 >= scaledX + scaledWidth) {
-                        x1 = scaledX + scaledWidth - 1;
-                    }
-                    // ensure line segment spans more than a single pixel
-                    int p0 = x0 / zoom;
-                    int p1 = x1 / zoom;
-                    if (p0 == p1) { return null; }
-                    // array length is multiplied with 3 because it will be
-                    // reused later to include the pixels' color components
-                    int len = (p1 - p0) * 3;
-                    // fill and return pixel coordinates
-                    int[] pixels = new int[len];
-                    int y = (mouseY - scaledY) / zoom;
-                    for (int i = 0, x = (x0 - scaledX) / zoom + 1; i < len; i += 3, x++) {
-                        pixels[i] = x;
-                        pixels[i + 1] = y;
-                    }
-                    return pixels;
+                if (e2 <= dx) {
+                    err += dx;
+                    y0 += sy;
                 }
             }
-
-            // line segment is outside image bounds
-            return null;
+            return n / 2;
         }
 
         /**
@@ -825,87 +1268,6 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
             return pixel;
         }
 
-        /**
-         * Returns an array that contains the pixel coordinates for a line
-         * segment with the specified mouse coordinates if it intersects with
-         * the image bounds. Otherwise, {@code null} is returned. The array
-         * length is a multiple of 3 (not 2) to make space for storing the
-         * color components of each pixel.
-         *
-         * @param x0 the first horizontal mouse coordinate
-         * @param x1 the second horizontal mouse coordinate
-         * @param y0 the first vertical mouse coordinate
-         * @param y1 the second vertical mouse coordinate
-         * @return an array containing the pixel coordinates, or {@code null}
-         */
-        @Contract(pure = true)
-        private int[] getPixels(int x0, int y0, int x1, int y1) {
-            if (x0 == x1) { return getVerticalPixels(x0, y0, y1); }
-            else if (y0 == y1) { return getHorizontalPixels(y0, x0, x1); }
-            else { return getDiagonalPixels(x0, y0, x1, y1); }
-        }
-
-        /**
-         * Returns an array that contains the pixel coordinates for a vertical
-         * line segment with the specified mouse coordinates if it intersects
-         * with the image bounds. Otherwise, {@code null} is returned. The
-         * array length is a multiple of 3 (not 2) to make space for storing
-         * the color components of each pixel.
-         *
-         * @param mouseX the horizontal mouse coordinate
-         * @param y0     the first vertical mouse coordinate
-         * @param y1     the second vertical mouse coordinate
-         * @return an array containing the pixel coordinates, or {@code null}
-         */
-        @Contract(pure = true)
-        private int[] getVerticalPixels(int mouseX, int y0, int y1) {
-            // half canvas size
-            int hWidth = getWidth() / 2;
-            int hHeight = getHeight() / 2;
-            // scaled glyph image bounds
-            int scaledX = (x - hWidth) * zoom + hWidth;
-            int scaledY = (y - hHeight) * zoom + hHeight;
-            int scaledWidth = image.getWidth() * zoom;
-            int scaledHeight = image.getHeight() * zoom;
-            // ensure line segment is within horizontal bounds
-            if (mouseX >= scaledX && mouseX < scaledX + scaledWidth) {
-                // ensure line segment goes from top to bottom (vertical axis is inverted)
-                if (y1 < y0) {
-                    int temp = y0;
-                    y0 = y1;
-                    y1 = temp;
-                }
-                // ensure line segment is within vertical bounds
-                if (y1 >= scaledY && y0 < scaledY + scaledHeight) {
-                    // adjust y0 and y1 to be inside image bounds
-                    if (y0 < scaledY) {
-                        y0 = scaledY;
-                    }
-                    if (y1 >= scaledY + scaledHeight) {
-                        y1 = scaledY + scaledHeight - 1;
-                    }
-                    // ensure line segment spans more than a single pixel
-                    int p0 = y0 / zoom;
-                    int p1 = y1 / zoom;
-                    if (p0 == p1) {
-                        return null;
-                    }
-                    // array length is multiplied with 3 because it will be
-                    // reused later to include the pixels' color components
-                    int[] pixels = new int[(p1 - p0) * 3];
-                    // fill and return pixel coordinates
-                    int x = (mouseX - scaledX) / zoom;
-                    for (int i = 0, y = (y0 - scaledY) / zoom + 1; i < pixels.length; i += 3, y++) {
-                        pixels[i] = x;
-                        pixels[i + 1] = y;
-                    }
-                    return pixels;
-                }
-            }
-            // line segment is outside image bounds
-            return null;
-        }
-
         private void moveCanvas(int eventX, int eventY) {
             assert startEvent != null;
             // determine move delta
@@ -966,32 +1328,299 @@ public class GlyphCanvas extends JComponent implements PropertyChangeListener {
         }
 
         /**
-         * Paints a single pixel at the position beneath the specified mouse
-         * coordinates on the current image using the current color of the
-         * canvas.
+         * Prepares to move the selection if the pixel beneath the specified
+         * mouse coordinates is selected, otherwise prepares to create a new
+         * selection. If a new selection is created, then any current floating
+         * selection is committed.
          *
          * @param mouseX x coordinate of the mouse
          * @param mouseY y coordinate of the mouse
          */
-        private void paintPixel(int mouseX, int mouseY) {
-            int[] pixel = getPixel(mouseX, mouseY, pixelBuffer);
-            if (pixel[0] != -1) {
-                // FIX
-//                 int oldColor
-                WritableRaster raster = image.getRaster();
-                raster.setPixel(pixel[0], pixel[1], rgba);
+        @Contract(mutates = "this")
+        private void beginSelection(int mouseX, int mouseY) {
+            int px = getPixelX(mouseX);
+            int py = getPixelY(mouseY);
+            hasSelectionChanged = false;
+            if (selection != null && selection.contains(px, py)) {
+                isMovingSelection = true;
+                selectStartX = px;
+                selectStartY = py;
+                selectOriginX = selection.x;
+                selectOriginY = selection.y;
+                // lift selected pixels from glyph data
+                if (floating == null) {
+                    floatingBase = Arrays.copyOf(glyph.data, glyph.data.length);
+                    floatingSource = selection.intersection(new Rectangle(glyph.width, glyph.height));
+                    floating = AlphaView.of(glyph.data, glyph.width, floatingSource.x, floatingSource.y,
+                            floatingSource.width, floatingSource.height).copy();
+                    selection.setBounds(floatingSource);
+                    clearRegion(floatingSource);
+                    renderFloatingToImage();
+                }
+            }
+            else {
+                isMovingSelection = false;
+                commitSelection();
+                selectStartX = Math.max(0, Math.min(px, glyph.width - 1));
+                selectStartY = Math.max(0, Math.min(py, glyph.height - 1));
+            }
+        }
+
+        /**
+         * Begins a new stroke by storing a copy of the current glyph data. The
+         * stroke is added to the glyph edit queue as a single edit when it
+         * ends.
+         *
+         * @see #endStroke()
+         */
+        @Contract(mutates = "this")
+        private void beginStroke() {
+            strokeData = Arrays.copyOf(glyph.data, glyph.data.length);
+            strokeMinX = Integer.MAX_VALUE;
+            strokeMinY = Integer.MAX_VALUE;
+            strokeMaxX = Integer.MIN_VALUE;
+            strokeMaxY = Integer.MIN_VALUE;
+        }
+
+        /**
+         * Ends the current stroke, if any, and adds an edit of the pixels it
+         * changed to the glyph edit queue. This method notifies any property
+         * change listeners bound to {@code PROPERTY_GLYPH} if the stroke
+         * changed any pixels.
+         *
+         * @see #beginStroke()
+         */
+        @Contract(mutates = "this")
+        private void endStroke() {
+            if (strokeData != null && strokeMinX <= strokeMaxX) {
+                glyph.editQueue.add(DataEdit.create(glyph, strokeData, strokeMinX, strokeMinY,
+                        strokeMaxX - strokeMinX + 1, strokeMaxY - strokeMinY + 1));
+                firePropertyChange(PROPERTY_GLYPH, null, glyph);
+            }
+            strokeData = null;
+        }
+
+        /**
+         * Fills the area of similar pixels connected to the pixel beneath the
+         * specified mouse coordinates with the current color, using the fill
+         * tolerance of the editor. The fill is added to the glyph edit queue
+         * as a single edit.
+         *
+         * @param mouseX x coordinate of the mouse
+         * @param mouseY y coordinate of the mouse
+         * @see FloodFill
+         */
+        private void fill(int mouseX, int mouseY) {
+            int px = getPixelX(mouseX);
+            int py = getPixelY(mouseY);
+            if (px < 0 || px >= glyph.width || py < 0 || py >= glyph.height) {
+                return;
+            }
+            floodFill.compute(glyph.data, glyph.width, glyph.height, px, py, editor.getFillTolerance());
+            int fx = floodFill.getX();
+            int fy = floodFill.getY();
+            int fWidth = floodFill.getWidth();
+            int fHeight = floodFill.getHeight();
+            byte[] oldValues = DataEdit.copyRegion(glyph.data, glyph.width, fx, fy, fWidth, fHeight);
+            floodFill.apply(glyph.data, glyph.width, rgba[3]);
+            byte[] newValues = DataEdit.copyRegion(glyph.data, glyph.width, fx, fy, fWidth, fHeight);
+            if (!Arrays.equals(oldValues, newValues)) {
+                glyph.editQueue.add(new DataEdit(glyph, fx, fy, fWidth, fHeight, oldValues, newValues));
+                renderGlyphToImage(fx, fy, fWidth, fHeight);
+                if (fx < changedMinX) { changedMinX = fx; }
+                if (fy < changedMinY) { changedMinY = fy; }
+                if (fx + fWidth - 1 > changedMaxX) { changedMaxX = fx + fWidth - 1; }
+                if (fy + fHeight - 1 > changedMaxY) { changedMaxY = fy + fHeight - 1; }
+                glyph.isDirty = true;
+                if (!isDirty) {
+                    setDirty(true);
+                }
+            }
+        }
+
+        /**
+         * Processes all pending drag events as a single operation and
+         * repaints the canvas once. Pencil and eraser strokes are drawn
+         * through every pending point, while the move and picker tools only
+         * use the last point. If a stroke changed any pixels, then any
+         * property change listeners bound to {@code PROPERTY_GLYPH} are
+         * notified once.
+         */
+        @Contract(mutates = "this")
+        private void flush() {
+            frameTimer.stop();
+            if (pendingCount == 0 || startEvent == null) {
+                pendingCount = 0;
+                return;
+            }
+            int[] points = pendingPoints;
+            int lastX = points[pendingCount * 2 - 2];
+            int lastY = points[pendingCount * 2 - 1];
+            switch (tool) {
+                case MOVE -> moveCanvas(lastX, lastY);
+                case PICKER -> copyPixel(lastX, lastY);
+                case SELECT -> dragSelection(lastX, lastY);
+                case PENCIL, ERASER -> {
+                    int[] color = tool == Tool.PENCIL ? rgba : BLANK_PIXEL;
+                    for (int i = 0, len = pendingCount * 2; i < len; i += 2) {
+                        strokeTo(points[i], points[i + 1], color);
+                    }
+                    boolean changed = changedMinX <= changedMaxX;
+                    repaintChanges();
+                    if (changed) {
+                        firePropertyChange(PROPERTY_GLYPH, null, glyph);
+                    }
+                }
+            }
+            pendingCount = 0;
+        }
+
+        /**
+         * Moves the floating selection, or changes the bounds of the new
+         * selection, according to the pixel beneath the specified mouse
+         * coordinates. Moving the selection does not allocate any memory.
+         *
+         * @param mouseX x coordinate of the mouse
+         * @param mouseY y coordinate of the mouse
+         */
+        private void dragSelection(int mouseX, int mouseY) {
+            int px = getPixelX(mouseX);
+            int py = getPixelY(mouseY);
+            if (isMovingSelection) {
+                if (selection == null || floating == null) {
+                    return;
+                }
+                int newX = selectOriginX + px - selectStartX;
+                int newY = selectOriginY + py - selectStartY;
+                if (newX == selection.x && newY == selection.y) {
+                    return;
+                }
+                // render glyph data beneath old and new position
+                int minX = Math.max(0, Math.min(selection.x, newX));
+                int minY = Math.max(0, Math.min(selection.y, newY));
+                int maxX = Math.min(glyph.width, Math.max(selection.x, newX) + selection.width);
+                int maxY = Math.min(glyph.height, Math.max(selection.y, newY) + selection.height);
+                selection.setLocation(newX, newY);
+                if (minX < maxX && minY < maxY) {
+                    renderGlyphToImage(minX, minY, maxX - minX, maxY - minY);
+                }
+                renderFloatingToImage();
                 repaint();
-//                glyph.isDirty = true;
-//                if (!isDirty)
-//                    setDirty(true);
             }
+            else {
+                px = Math.max(0, Math.min(px, glyph.width - 1));
+                py = Math.max(0, Math.min(py, glyph.height - 1));
+                hasSelectionChanged = true;
+                setSelection(new Rectangle(
+                        Math.min(px, selectStartX),
+                        Math.min(py, selectStartY),
+                        Math.abs(px - selectStartX) + 1,
+                        Math.abs(py - selectStartY) + 1));
+            }
+        }
+
+        /**
+         * Returns the horizontal pixel coordinate on the image beneath the
+         * specified horizontal mouse coordinate. The returned value is not
+         * clipped to the image bounds.
+         *
+         * @param mouseX x coordinate of the mouse
+         * @return the horizontal pixel coordinate
+         */
+        @Contract(pure = true)
+        private int getPixelX(int mouseX) {
+            int hWidth = getWidth() / 2;
+            int scaledX = (x - hWidth) * zoom + hWidth;
+            return Math.floorDiv(mouseX - scaledX, zoom);
+        }
+
+        /**
+         * Returns the vertical pixel coordinate on the image beneath the
+         * specified vertical mouse coordinate. The returned value is not
+         * clipped to the image bounds.
+         *
+         * @param mouseY y coordinate of the mouse
+         * @return the vertical pixel coordinate
+         */
+        @Contract(pure = true)
+        private int getPixelY(int mouseY) {
+            int hHeight = getHeight() / 2;
+            int scaledY = (y - hHeight) * zoom + hHeight;
+            return Math.floorDiv(mouseY - scaledY, zoom);
+        }
+
+        /**
+         * Sets the color of all pixels on a line segment from the last stroke
+         * position to the pixel beneath the specified mouse coordinates, and
+         * updates the glyph data accordingly. The pixel beneath the mouse
+         * becomes the new stroke position.
+         *
+         * @param mouseX x coordinate of the mouse
+         * @param mouseY y coordinate of the mouse
+         * @param color  the color components to set
+         */
+        private void strokeTo(int mouseX, int mouseY, @NotNull int[] color) {
+            int px = getPixelX(mouseX);
+            int py = getPixelY(mouseY);
+            int n = getLinePixels(strokeX, strokeY, px, py);
+            strokeX = px;
+            strokeY = py;
+            if (n != 0) {
+                WritableRaster raster = image.getRaster();
+                int[] buffer = lineBuffer;
+                byte alpha = (byte) color[3];
+                for (int i = 0, len = n * 2; i < len; i += 2) {
+                    int px0 = buffer[i];
+                    int py0 = buffer[i + 1];
+                    raster.setPixel(px0, py0, color);
+                    glyph.data[px0 + py0 * glyph.width] = alpha;
+                    if (px0 < changedMinX) { changedMinX = px0; }
+                    if (px0 > changedMaxX) { changedMaxX = px0; }
+                    if (py0 < changedMinY) { changedMinY = py0; }
+                    if (py0 > changedMaxY) { changedMaxY = py0; }
+                    if (px0 < strokeMinX) { strokeMinX = px0; }
+                    if (px0 > strokeMaxX) { strokeMaxX = px0; }
+                    if (py0 < strokeMinY) { strokeMinY = py0; }
+                    if (py0 > strokeMaxY) { strokeMaxY = py0; }
+                }
+                glyph.isDirty = true;
+                if (!isDirty) {
+                    setDirty(true);
+                }
+            }
+        }
+
+        /**
+         * Repaints the area of the canvas that contains the pixels which have
+         * changed since the last call to this method, if any.
+         */
+        @Contract(mutates = "this")
+        private void repaintChanges() {
+            if (changedMinX > changedMaxX) {
+                return;
+            }
+            int hWidth = getWidth() / 2;
+            int hHeight = getHeight() / 2;
+            int scaledX = (x - hWidth) * zoom + hWidth;
+            int scaledY = (y - hHeight) * zoom + hHeight;
+            repaint(scaledX + changedMinX * zoom,
+                    scaledY + changedMinY * zoom,
+                    (changedMaxX - changedMinX + 1) * zoom,
+                    (changedMaxY - changedMinY + 1) * zoom);
+            changedMinX = Integer.MAX_VALUE;
+            changedMinY = Integer.MAX_VALUE;
+            changedMaxX = Integer.MIN_VALUE;
+            changedMaxY = Integer.MIN_VALUE;
         }
 
         /**
-         * Resets event state.
+         * Resets event state and discards any pending drag events.
          */
         @Contract(mutates = "this")
         private void reset() {
+            frameTimer.stop();
+            pendingCount = 0;
+            endStroke();
             startEvent = null;
         }
     }
@@ -0,0 +1,184 @@
+package dk.martinu.ao.fonteditor.swing;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Cache of rendered glyph images and thumbnails, shared by all components
+ * that draw glyphs of the fonts in a workspace. Images are keyed by glyph
+ * instance and rendered lazily in the requested color, so switching between
+ * open fonts does not render their glyphs again. Images must be invalidated
+ * when a glyph changes, and removed when its font is closed.
+ * <p>
+ * The cache must only be accessed on the event dispatch thread.
+ *
+ * @author Adam Martinu
+ * @see FontWorkspace
+ * @since 1.0
+ */
+public class GlyphImageCache {
+
+    /**
+     * Rendered images of glyphs at their actual size.
+     */
+    protected final IdentityHashMap<MutableGlyph, Rendered> images = new IdentityHashMap<>();
+    /**
+     * Rendered thumbnails of glyphs, scaled down to fit a square.
+     */
+    protected final IdentityHashMap<MutableGlyph, Rendered> thumbnails = new IdentityHashMap<>();
+
+    /**
+     * Removes all images from the cache.
+     */
+    @Contract(mutates = "this")
+    public void clear() {
+        images.clear();
+        thumbnails.clear();
+    }
+
+    /**
+     * Returns the image of the specified glyph rendered in the specified
+     * color, rendering it if needed, or {@code null} if the glyph is
+     * whitespace or empty.
+     *
+     * @param glyph the glyph to render
+     * @param color the color to render the glyph with
+     * @return the rendered image, or {@code null}
+     * @throws NullPointerException if {@code glyph} or {@code color} is
+     *                              {@code null}
+     */
+    @Nullable
+    public BufferedImage getImage(@NotNull final MutableGlyph glyph, @NotNull final Color color) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        Objects.requireNonNull(color, "color is null");
+        if (glyph.isWhitespace || glyph.width <= 0 || glyph.height <= 0) {
+            return null;
+        }
+        final Rendered rendered = images.get(glyph);
+        if (rendered != null && rendered.isValid(glyph.width, glyph.height, color)) {
+            return rendered.image;
+        }
+        final byte[] data = glyph.getData();
+        if (data.length != glyph.width * glyph.height) {
+            return null;
+        }
+        final int rgb = color.getRGB() & 0xFFFFFF;
+        final int[] pixels = new int[data.length];
+        for (int i = 0; i < data.length; i++) {
+            pixels[i] = (data[i] & 0xFF) << 24 | rgb;
+        }
+        final BufferedImage image = new BufferedImage(glyph.width, glyph.height, BufferedImage.TYPE_INT_ARGB);
+        image.getRaster().setDataElements(0, 0, glyph.width, glyph.height, pixels);
+        images.put(glyph, new Rendered(image, rgb));
+        return image;
+    }
+
+    /**
+     * Returns a thumbnail of the specified glyph rendered in the specified
+     * color, that fits in a square of {@code size} pixels, or {@code null} if
+     * the glyph is whitespace or empty. Glyphs that already fit are not
+     * scaled.
+     *
+     * @param glyph the glyph to render
+     * @param size  the size of the square in pixels
+     * @param color the color to render the glyph with
+     * @return the rendered thumbnail, or {@code null}
+     * @throws NullPointerException if {@code glyph} or {@code color} is
+     *                              {@code null}
+     */
+    @Nullable
+    public BufferedImage getThumbnail(@NotNull final MutableGlyph glyph, final int size,
+            @NotNull final Color color) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        Objects.requireNonNull(color, "color is null");
+        if (glyph.isWhitespace || glyph.width <= 0 || glyph.height <= 0 || size <= 0) {
+            return null;
+        }
+        final double scale = Math.min(1.0d, (double) size / Math.max(glyph.width, glyph.height));
+        final int width = Math.max(1, (int) Math.round(glyph.width * scale));
+        final int height = Math.max(1, (int) Math.round(glyph.height * scale));
+        final Rendered rendered = thumbnails.get(glyph);
+        if (rendered != null && rendered.isValid(width, height, color)) {
+            return rendered.image;
+        }
+        final BufferedImage image = getImage(glyph, color);
+        if (image == null) {
+            return null;
+        }
+        final BufferedImage thumbnail;
+        if (scale == 1.0d) {
+            thumbnail = image;
+        }
+        else {
+            thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D g = thumbnail.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+            g.dispose();
+        }
+        thumbnails.put(glyph, new Rendered(thumbnail, color.getRGB() & 0xFFFFFF));
+        return thumbnail;
+    }
+
+    /**
+     * Discards the cached images of the specified glyph. Call this method
+     * when the glyph is changed.
+     *
+     * @param glyph the glyph that was changed
+     */
+    @Contract(mutates = "this")
+    public void invalidate(@NotNull final MutableGlyph glyph) {
+        images.remove(glyph);
+        thumbnails.remove(glyph);
+    }
+
+    /**
+     * Discards the cached images of all the specified glyphs. Call this
+     * method when the font of the glyphs is closed.
+     *
+     * @param glyphs the glyphs to remove
+     * @throws NullPointerException if {@code glyphs} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public void removeAll(@NotNull final Collection<MutableGlyph> glyphs) {
+        Objects.requireNonNull(glyphs, "glyphs is null");
+        for (MutableGlyph glyph : glyphs) {
+            invalidate(glyph);
+        }
+    }
+
+    /**
+     * Returns the number of glyphs with a cached image.
+     */
+    @Contract(pure = true)
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * A rendered image and the color it was rendered with.
+     *
+     * @param image the rendered image
+     * @param rgb   the RGB components of the color
+     */
+    protected record Rendered(@NotNull BufferedImage image, int rgb) {
+
+        /**
+         * Returns {@code true} if the image has the specified size and was
+         * rendered with the specified color, otherwise {@code false}.
+         */
+        @Contract(pure = true)
+        public boolean isValid(final int width, final int height, @NotNull final Color color) {
+            return image.getWidth() == width && image.getHeight() == height && rgb == (color.getRGB() & 0xFFFFFF);
+        }
+    }
+}
@@ -1,14 +1,599 @@
 package dk.martinu.ao.fonteditor.swing;
 
-import java.awt.Graphics;
+import org.jetbrains.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
 
 import javax.swing.JComponent;
 
-// DOC
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+import dk.martinu.ao.fonteditor.util.KerningMatrix;
+
+/**
+ * Component that paints a text with the glyphs of a font, such that changes
+ * to glyphs can be previewed in context. Glyphs are positioned by their
+ * width, vertical offset and horizontal offsets to preceding glyphs, and
+ * each line of text is {@code font.height} pixels tall. Characters without a
+ * glyph are painted as an outlined box.
+ * <p>
+ * Rendered glyph images, and the layout and rendered image of each line are
+ * cached. When a glyph is changed, only its image and the lines that contain
+ * it are updated, so the preview can be repainted while a glyph is being
+ * drawn.
+ *
+ * @author Adam Martinu
+ * @see #glyphChanged(MutableGlyph)
+ * @see #fontChanged()
+ * @since 1.0
+ */
 public class GlyphPreview extends JComponent {
 
+    /**
+     * The default text to preview.
+     */
+    public static final String DEFAULT_TEXT = "The quick brown fox jumps over the lazy dog.\n"
+            + "THE QUICK BROWN FOX JUMPS OVER THE LAZY DOG!\n0123456789";
+    /**
+     * The maximum scale value.
+     *
+     * @see #setScale(int)
+     */
+    public static final int MAX_SCALE = 8;
+    /**
+     * The minimum scale value.
+     *
+     * @see #setScale(int)
+     */
+    public static final int MIN_SCALE = 1;
+
+    /**
+     * Cache of rendered glyph images, which can be shared with other
+     * components.
+     *
+     * @see #setImageCache(GlyphImageCache)
+     */
+    @NotNull
+    protected GlyphImageCache imageCache = new GlyphImageCache();
+    /**
+     * The font to preview, or {@code null}.
+     *
+     * @see #setGlyphFont(MutableFont)
+     */
+    @Nullable
+    protected MutableFont font = null;
+    /**
+     * The color to render glyphs with.
+     *
+     * @see #setFontColor(Color)
+     */
+    @NotNull
+    protected Color fontColor = Color.BLACK;
+    /**
+     * The text to preview.
+     *
+     * @see #setText(String)
+     */
+    @NotNull
+    protected String text = DEFAULT_TEXT;
+    /**
+     * The number of screen pixels per glyph pixel.
+     *
+     * @see #setScale(int)
+     */
+    protected int scale = 2;
+    /**
+     * Map of character values to the index of their glyph in the font, or
+     * {@code null} if the map must be rebuilt.
+     */
+    @Nullable
+    protected HashMap<Character, Integer> indexMap = null;
+    /**
+     * Map of glyphs to their index in the font, or {@code null} if the map
+     * must be rebuilt.
+     */
+    @Nullable
+    protected IdentityHashMap<MutableGlyph, Integer> glyphMap = null;
+    /**
+     * The lines of the text, or {@code null} if the text must be split into
+     * lines again.
+     */
+    @Nullable
+    protected Line[] lines = null;
+    /**
+     * Horizontal offsets to use instead of the offsets of glyphs, or
+     * {@code null}.
+     *
+     * @see #setKerning(KerningMatrix)
+     */
+    @Nullable
+    protected KerningMatrix kerning = null;
+
+    /**
+     * Constructs a new preview with no font.
+     */
+    public GlyphPreview() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+    }
+
+    /**
+     * Discards all cached images and layouts, and repaints the preview. Call
+     * this method when glyphs are added, removed or reordered in the font.
+     */
+    @Contract(mutates = "this")
+    public void fontChanged() {
+        indexMap = null;
+        glyphMap = null;
+        lines = null;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Returns the size of the laid out text at the current scale.
+     */
+    @Contract(pure = true)
+    @NotNull
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        final Insets insets = getInsets();
+        int width = 0;
+        int height = 0;
+        if (font != null) {
+            for (Line line : getLines()) {
+                width = Math.max(width, layout(line).width);
+            }
+            height = getLines().length * font.height;
+        }
+        return new Dimension(width * scale + insets.left + insets.right,
+                height * scale + insets.top + insets.bottom);
+    }
+
+    /**
+     * Returns the scale of the preview.
+     *
+     * @see #setScale(int)
+     */
+    @Contract(pure = true)
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the text of the preview.
+     *
+     * @see #setText(String)
+     */
+    @Contract(pure = true)
+    @NotNull
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Updates the preview after the specified glyph was changed. The image of
+     * the glyph is rendered again, and lines that contain the glyph are laid
+     * out again before the preview is repainted. If the character value of
+     * the glyph was changed, then all cached layouts are discarded.
+     *
+     * @param glyph the glyph that was changed
+     * @throws NullPointerException if {@code glyph} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public void glyphChanged(@NotNull final MutableGlyph glyph) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        if (font == null) {
+            return;
+        }
+        imageCache.invalidate(glyph);
+        final Integer index = getGlyphMap().get(glyph);
+        if (index == null) {
+            return;
+        }
+        if (!index.equals(getIndexMap().get(glyph.value))) {
+            fontChanged();
+            return;
+        }
+        boolean relayout = false;
+        for (Line line : getLines()) {
+            if (line.indices != null && line.contains(index)) {
+                line.indices = null;
+                line.image = null;
+                relayout = true;
+            }
+        }
+        if (relayout) {
+            revalidate();
+        }
+        repaint();
+    }
+
+    /**
+     * Lays out all lines again and repaints the preview. Call this method
+     * when the offsets of the kerning matrix are changed.
+     *
+     * @see #setKerning(KerningMatrix)
+     */
+    @Contract(mutates = "this")
+    public void kerningChanged() {
+        if (lines != null) {
+            for (Line line : lines) {
+                line.indices = null;
+                line.image = null;
+            }
+        }
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Sets the color to render glyphs with.
+     *
+     * @param fontColor the new font color
+     * @throws NullPointerException if {@code fontColor} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public void setFontColor(@NotNull final Color fontColor) {
+        Objects.requireNonNull(fontColor, "fontColor is null");
+        if (!fontColor.equals(this.fontColor)) {
+            this.fontColor = fontColor;
+            if (lines != null) {
+                for (Line line : lines) {
+                    line.image = null;
+                }
+            }
+            repaint();
+        }
+    }
+
+    /**
+     * Sets the font to preview, or {@code null} to clear the preview.
+     *
+     * @param font the new font, or {@code null}
+     */
+    @Contract(mutates = "this")
+    public void setGlyphFont(@Nullable final MutableFont font) {
+        if (this.font != font) {
+            this.font = font;
+            fontChanged();
+        }
+    }
+
+    /**
+     * Sets the cache to get rendered glyph images from. Glyph images are
+     * rendered in the font color of this preview, and the cache is not
+     * cleared when the font changes.
+     *
+     * @param imageCache the new image cache
+     * @throws NullPointerException if {@code imageCache} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public void setImageCache(@NotNull final GlyphImageCache imageCache) {
+        this.imageCache = Objects.requireNonNull(imageCache, "imageCache is null");
+        fontChanged();
+    }
+
+    /**
+     * Sets the matrix of horizontal offsets to use instead of the offsets of
+     * glyphs, or {@code null} to use the offsets of glyphs. This allows
+     * changes to offsets to be previewed before they are applied to the font.
+     *
+     * @param kerning the kerning matrix, or {@code null}
+     * @see #kerningChanged()
+     */
+    @Contract(mutates = "this")
+    public void setKerning(@Nullable final KerningMatrix kerning) {
+        if (this.kerning != kerning) {
+            this.kerning = kerning;
+            kerningChanged();
+        }
+    }
+
+    /**
+     * Sets the number of screen pixels per glyph pixel. The scale is clamped
+     * to the range {@code MIN_SCALE}-{@code MAX_SCALE}.
+     *
+     * @param scale the new scale
+     */
+    @Contract(mutates = "this")
+    public void setScale(final int scale) {
+        final int newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+        if (newScale != this.scale) {
+            this.scale = newScale;
+            revalidate();
+            repaint();
+        }
+    }
+
+    /**
+     * Sets the text to preview. Lines are separated by {@code '\n'}.
+     *
+     * @param text the new text
+     * @throws NullPointerException if {@code text} is {@code null}
+     */
+    @Contract(mutates = "this")
+    public void setText(@NotNull final String text) {
+        Objects.requireNonNull(text, "text is null");
+        if (!text.equals(this.text)) {
+            this.text = text;
+            lines = null;
+            revalidate();
+            repaint();
+        }
+    }
+
+    /**
+     * Paints the lines of text that intersect the clip bounds.
+     */
     @Override
-    protected void paintComponent(final Graphics g) {
-        super.paintComponent(g);
+    protected void paintComponent(@NotNull final Graphics g) {
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        if (font == null || font.height <= 0) {
+            return;
+        }
+        final Insets insets = getInsets();
+        final Rectangle clip = g.getClipBounds() != null ? g.getClipBounds() :
+                new Rectangle(0, 0, getWidth(), getHeight());
+        final int lineHeight = font.height * scale;
+        final Line[] lines = getLines();
+        // include lines above and below the clip, glyphs may extend outside their line
+        final int first = Math.max(0, (clip.y - insets.top) / lineHeight - 1);
+        final int last = Math.min(lines.length - 1, (clip.y + clip.height - insets.top) / lineHeight + 1);
+        for (int l = first; l <= last; l++) {
+            final BufferedImage image = getLineImage(lines[l]);
+            if (image != null) {
+                g.drawImage(image, insets.left, insets.top + l * lineHeight + lines[l].top * scale,
+                        image.getWidth() * scale, image.getHeight() * scale, null);
+            }
+        }
+    }
+
+    /**
+     * Returns the rendered image of the specified glyph, or {@code null} if
+     * the glyph is whitespace or empty.
+     */
+    @Nullable
+    private BufferedImage getImage(@NotNull final MutableGlyph glyph) {
+        return imageCache.getImage(glyph, fontColor);
+    }
+
+    /**
+     * Returns the rendered image of the specified line, laying out and
+     * rendering the line if needed, or {@code null} if the line is empty.
+     */
+    @Nullable
+    private BufferedImage getLineImage(@NotNull final Line line) {
+        if (font == null) {
+            return null;
+        }
+        layout(line);
+        if (line.image == null && line.width > 0 && line.bottom > line.top) {
+            final int[] indices = Objects.requireNonNull(line.indices);
+            final BufferedImage image = new BufferedImage(line.width, line.bottom - line.top,
+                    BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D g = image.createGraphics();
+            g.setColor(new Color(fontColor.getRed(), fontColor.getGreen(), fontColor.getBlue(), 96));
+            for (int i = 0; i < indices.length; i++) {
+                final int x = line.positions[i];
+                if (indices[i] == -1) {
+                    g.drawRect(x + 1, 1 - line.top, missingWidth() - 3, font.height - 3);
+                }
+                else {
+                    final MutableGlyph glyph = font.glyphList.get(indices[i]);
+                    final BufferedImage glyphImage = getImage(glyph);
+                    if (glyphImage != null) {
+                        g.drawImage(glyphImage, x, glyph.offsetY - line.top, null);
+                    }
+                }
+            }
+            g.dispose();
+            line.image = image;
+        }
+        return line.image;
+    }
+
+    /**
+     * Returns the map of glyphs to their index in the font.
+     */
+    @NotNull
+    private IdentityHashMap<MutableGlyph, Integer> getGlyphMap() {
+        if (glyphMap == null) {
+            updateMaps();
+        }
+        return Objects.requireNonNull(glyphMap);
+    }
+
+    /**
+     * Returns the map of character values to glyph indices.
+     */
+    @NotNull
+    private HashMap<Character, Integer> getIndexMap() {
+        if (indexMap == null) {
+            updateMaps();
+        }
+        return Objects.requireNonNull(indexMap);
+    }
+
+    /**
+     * Returns the lines of the text, splitting the text if needed. Lines are
+     * not laid out.
+     */
+    @NotNull
+    private Line[] getLines() {
+        if (lines == null) {
+            final String[] split = text.split("\n", -1);
+            lines = new Line[split.length];
+            for (int i = 0; i < split.length; i++) {
+                lines[i] = new Line(split[i]);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the horizontal offset between the specified glyph at index
+     * {@code index} and the preceding glyph at index {@code preceding}, or
+     * {@code 0} if the glyph has no offset to the preceding glyph.
+     */
+    @Contract(pure = true)
+    private int getOffset(@NotNull final MutableGlyph glyph, final int index, final int preceding) {
+        if (kerning != null) {
+            return kerning.get(preceding, index);
+        }
+        final int[] offsetX = glyph.offsetX;
+        for (int i = 0; i + 1 < offsetX.length; i += 2) {
+            if (offsetX[i] == preceding) {
+                return offsetX[i + 1];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Lays out the specified line if it is not already laid out, and returns
+     * it.
+     */
+    @NotNull
+    private Line layout(@NotNull final Line line) {
+        if (line.indices != null || font == null) {
+            return line;
+        }
+        final HashMap<Character, Integer> indexMap = getIndexMap();
+        final List<MutableGlyph> glyphs = font.glyphList;
+        final int length = line.text.length();
+        final int[] indices = new int[length];
+        final int[] positions = new int[length];
+        int x = 0;
+        int preceding = -1;
+        int top = 0;
+        int bottom = font.height;
+        for (int i = 0; i < length; i++) {
+            final Integer index = indexMap.get(line.text.charAt(i));
+            if (index == null) {
+                indices[i] = -1;
+                positions[i] = x;
+                x += missingWidth();
+                preceding = -1;
+            }
+            else {
+                final MutableGlyph glyph = glyphs.get(index);
+                if (preceding != -1) {
+                    x += getOffset(glyph, index, preceding);
+                }
+                indices[i] = index;
+                positions[i] = x;
+                top = Math.min(top, glyph.offsetY);
+                bottom = Math.max(bottom, glyph.offsetY + glyph.height);
+                x += glyph.width;
+                preceding = index;
+            }
+        }
+        line.positions = positions;
+        line.width = Math.max(x, 0);
+        line.top = top;
+        line.bottom = bottom;
+        line.image = null;
+        line.indices = indices;
+        return line;
+    }
+
+    /**
+     * Returns the width of the box painted for characters without a glyph.
+     */
+    @Contract(pure = true)
+    private int missingWidth() {
+        return font != null ? Math.max(3, font.height / 2) : 0;
+    }
+
+    /**
+     * Rebuilds the maps of character values and glyphs to glyph indices. If
+     * the font contains more than one glyph for a character, then the first
+     * glyph is used.
+     */
+    private void updateMaps() {
+        indexMap = new HashMap<>();
+        glyphMap = new IdentityHashMap<>();
+        if (font != null) {
+            final List<MutableGlyph> glyphs = font.glyphList;
+            for (int i = 0; i < glyphs.size(); i++) {
+                indexMap.putIfAbsent(glyphs.get(i).value, i);
+                glyphMap.putIfAbsent(glyphs.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * A single line of text and its layout.
+     */
+    protected static class Line {
+
+        /**
+         * The text of the line.
+         */
+        @NotNull
+        final String text;
+        /**
+         * Index of the glyph of each character, or {@code -1} if the font
+         * has no glyph for the character. The line must be laid out if this
+         * field is {@code null}.
+         */
+        @Nullable
+        int[] indices = null;
+        /**
+         * Horizontal position of each character in glyph pixels.
+         */
+        int[] positions = null;
+        /**
+         * Width of the line in glyph pixels.
+         */
+        int width = 0;
+        /**
+         * Top of the highest glyph in the line, relative to the top of the
+         * line. Negative if a glyph extends above the line.
+         */
+        int top = 0;
+        /**
+         * Bottom of the lowest glyph in the line, relative to the top of the
+         * line.
+         */
+        int bottom = 0;
+        /**
+         * Rendered image of the line, or {@code null} if the line must be
+         * rendered again.
+         */
+        @Nullable
+        BufferedImage image = null;
+
+        /**
+         * Constructs a new line that is not laid out.
+         */
+        Line(@NotNull final String text) {
+            this.text = text;
+        }
+
+        /**
+         * Returns {@code true} if the line contains the glyph at the
+         * specified index, otherwise {@code false}. The line must be laid
+         * out.
+         */
+        @Contract(pure = true)
+        boolean contains(final int index) {
+            for (int i : Objects.requireNonNull(indices)) {
+                if (i == index) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
@@ -17,6 +17,10 @@ public enum Tool {
      * Eraser for removing pixels.
      */
     ERASER("res/images/cursor/eraser_cursor.png", 4, 10),
+    /**
+     * Bucket for filling an area of similar pixels.
+     */
+    FILL("res/images/cursor/fill_cursor.png", 13, 13),
     /**
      * Move tool for moving the glyph image. This is the default tool.
      */
@@ -39,16 +43,35 @@ public enum Tool {
     ZOOM("res/images/cursor/zoom_cursor.png", 5, 5);
 
     /**
-     * The cursor of the tool.
+     * File path of the cursor image, or {@code null}.
+     */
+    @Nullable
+    private final String path;
+    /**
+     * Horizontal offset of the cursor hotspot.
+     */
+    private final int x;
+    /**
+     * Vertical offset of the cursor hotspot.
+     */
+    private final int y;
+    /**
+     * The cursor of the tool, or {@code null} if it is not loaded or could
+     * not be created.
      *
-     * @see JComponent#setCursor(Cursor)
+     * @see #getCursor()
      */
     @Nullable
-    public final Cursor cursor;
+    private Cursor cursor = null;
+    /**
+     * {@code true} if the cursor has been loaded, otherwise {@code false}.
+     */
+    private boolean isCursorLoaded = false;
 
     /**
      * Constructs a tool with a cursor image at the specified path, and
-     * using the specified coordinates as the hotspot for the cursor.
+     * using the specified coordinates as the hotspot for the cursor. The
+     * cursor image is not read until the cursor is first requested.
      *
      * @param path file path of the cursor image, or {@code null}
      * @param x    horizontal offset of the hotspot
@@ -56,16 +79,30 @@ public enum Tool {
      * @see Toolkit#createCustomCursor(Image, Point, String)
      */
     Tool(@Nullable String path, int x, int y) {
-        BufferedImage img = null;
-        if (path != null) {
-            img = ImageUtil.createCursorImage(new File(path));
-        }
+        this.path = path;
+        this.x = x;
+        this.y = y;
+    }
 
-        if (img != null) {
-            cursor = Toolkit.getDefaultToolkit().createCustomCursor(img, new Point(x, y), name());
-        }
-        else {
-            cursor = null;
+    /**
+     * Returns the cursor of the tool, or {@code null} if the cursor image
+     * could not be read. The cursor image is read when this method is first
+     * called.
+     *
+     * @see JComponent#setCursor(Cursor)
+     */
+    @Nullable
+    public synchronized Cursor getCursor() {
+        if (!isCursorLoaded) {
+            isCursorLoaded = true;
+            BufferedImage img = null;
+            if (path != null) {
+                img = ImageUtil.createCursorImage(new File(path));
+            }
+            if (img != null) {
+                cursor = Toolkit.getDefaultToolkit().createCustomCursor(img, new Point(x, y), name());
+            }
         }
+        return cursor;
     }
 }
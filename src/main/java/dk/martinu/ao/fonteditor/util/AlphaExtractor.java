@@ -0,0 +1,283 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.*;
+import java.util.Objects;
+
+import static java.awt.image.BufferedImage.*;
+
+/**
+ * Utility class for extracting glyph data (alpha values) from images of any
+ * type. Images with an alpha channel use the alpha of each pixel directly.
+ * Opaque images are treated as dark glyphs drawn on a white background; the
+ * alpha of each pixel is its average distance from white, such that black
+ * pixels are fully opaque and white pixels are fully transparent.
+ * <p>
+ * The common image types are read directly from the underlying
+ * {@link DataBuffer} without copying any samples into intermediate arrays.
+ * Remaining types, including {@code TYPE_CUSTOM}, are converted one pixel at
+ * a time through the image color model.
+ *
+ * @author Adam Martinu
+ * @since 1.0
+ */
+public class AlphaExtractor {
+
+    /**
+     * Returns the alpha values of all pixels in the specified image.
+     *
+     * @param image the image to read from
+     * @return a new array of alpha values
+     * @throws NullPointerException if {@code image} is {@code null}
+     * @see #extract(BufferedImage, int, int, int, int)
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static byte[] extract(@NotNull final BufferedImage image) {
+        Objects.requireNonNull(image, "image is null");
+        return extract(image, 0, 0, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Returns the alpha values of the pixels in the specified region of an
+     * image. The values are stored row by row, such that the value of the
+     * pixel at {@code (x + i, y + j)} is stored at index
+     * {@code i + j * width}.
+     *
+     * @param image  the image to read from
+     * @param x      horizontal coordinate of the region
+     * @param y      vertical coordinate of the region
+     * @param width  width of the region
+     * @param height height of the region
+     * @return a new array of alpha values
+     * @throws NullPointerException      if {@code image} is {@code null}
+     * @throws IndexOutOfBoundsException if the region is outside the image
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static byte[] extract(@NotNull final BufferedImage image, final int x, final int y, final int width,
+            final int height) {
+        Objects.requireNonNull(image, "image is null");
+        Objects.checkFromIndexSize(x, width, image.getWidth());
+        Objects.checkFromIndexSize(y, height, image.getHeight());
+        final byte[] data = new byte[width * height];
+        final WritableRaster raster = image.getRaster();
+        final SampleModel sm = raster.getSampleModel();
+        final DataBuffer db = raster.getDataBuffer();
+        switch (image.getType()) {
+            case TYPE_INT_ARGB, TYPE_INT_ARGB_PRE ->
+                    extractPackedAlpha(data, raster, (SinglePixelPackedSampleModel) sm, (DataBufferInt) db,
+                            x, y, width, height);
+            case TYPE_INT_RGB, TYPE_INT_BGR ->
+                    extractPackedRGB(data, raster, (SinglePixelPackedSampleModel) sm, (DataBufferInt) db,
+                            x, y, width, height);
+            case TYPE_4BYTE_ABGR, TYPE_4BYTE_ABGR_PRE ->
+                    extractComponentAlpha(data, raster, (ComponentSampleModel) sm, (DataBufferByte) db,
+                            x, y, width, height);
+            case TYPE_3BYTE_BGR ->
+                    extractComponentRGB(data, raster, (ComponentSampleModel) sm, (DataBufferByte) db,
+                            x, y, width, height);
+            case TYPE_BYTE_GRAY ->
+                    extractByteGray(data, raster, (ComponentSampleModel) sm, (DataBufferByte) db,
+                            x, y, width, height);
+            case TYPE_USHORT_GRAY ->
+                    extractUShortGray(data, raster, (ComponentSampleModel) sm, (DataBufferUShort) db,
+                            x, y, width, height);
+            case TYPE_BYTE_INDEXED ->
+                    extractIndexed(data, raster, (ComponentSampleModel) sm, (DataBufferByte) db,
+                            (IndexColorModel) image.getColorModel(), x, y, width, height);
+            default -> extractColorModel(data, raster, image.getColorModel(), x, y, width, height);
+        }
+        return data;
+    }
+
+    /**
+     * Returns the alpha value of an opaque pixel, computed as the average
+     * distance from white to the pixel color.
+     *
+     * @param sum the sum of the red, green and blue components of the pixel,
+     *            each in range 0-255 inclusive
+     */
+    @Contract(pure = true)
+    private static byte darkness(final int sum) {
+        return (byte) ((765 - sum) / 3);
+    }
+
+    /**
+     * Reads the alpha values of a region of an image with 8-bit components
+     * and an alpha channel, such as {@code TYPE_4BYTE_ABGR}.
+     */
+    private static void extractComponentAlpha(final byte[] data, final Raster raster, final ComponentSampleModel sm,
+            final DataBufferByte db, final int x, final int y, final int width, final int height) {
+        final byte[] buffer = db.getData();
+        final int pixelStride = sm.getPixelStride();
+        final int scanlineStride = sm.getScanlineStride();
+        final int alphaOffset = sm.getBandOffsets()[sm.getNumBands() - 1];
+        final int origin = db.getOffset() + alphaOffset
+                + (x - raster.getSampleModelTranslateX()) * pixelStride
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width * pixelStride; index < end;
+                    index += pixelStride) {
+                data[i++] = buffer[index];
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of an opaque image with 8-bit color
+     * components, such as {@code TYPE_3BYTE_BGR}.
+     */
+    private static void extractComponentRGB(final byte[] data, final Raster raster, final ComponentSampleModel sm,
+            final DataBufferByte db, final int x, final int y, final int width, final int height) {
+        final byte[] buffer = db.getData();
+        final int pixelStride = sm.getPixelStride();
+        final int scanlineStride = sm.getScanlineStride();
+        final int[] bandOffsets = sm.getBandOffsets();
+        final int b0 = bandOffsets[0];
+        final int b1 = bandOffsets[1];
+        final int b2 = bandOffsets[2];
+        final int origin = db.getOffset()
+                + (x - raster.getSampleModelTranslateX()) * pixelStride
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width * pixelStride; index < end;
+                    index += pixelStride) {
+                data[i++] = darkness((buffer[index + b0] & 0xFF) + (buffer[index + b1] & 0xFF)
+                        + (buffer[index + b2] & 0xFF));
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of a grayscale image with 8-bit
+     * samples.
+     */
+    private static void extractByteGray(final byte[] data, final Raster raster, final ComponentSampleModel sm,
+            final DataBufferByte db, final int x, final int y, final int width, final int height) {
+        final byte[] buffer = db.getData();
+        final int pixelStride = sm.getPixelStride();
+        final int scanlineStride = sm.getScanlineStride();
+        final int origin = db.getOffset() + sm.getBandOffsets()[0]
+                + (x - raster.getSampleModelTranslateX()) * pixelStride
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width * pixelStride; index < end;
+                    index += pixelStride) {
+                data[i++] = (byte) (255 - (buffer[index] & 0xFF));
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of an image through its color
+     * model. This is used for image types that do not have a specialized
+     * implementation.
+     */
+    private static void extractColorModel(final byte[] data, final Raster raster, final ColorModel cm, final int x,
+            final int y, final int width, final int height) {
+        final boolean hasAlpha = cm.hasAlpha();
+        // pixel buffer reused for each call to getDataElements
+        Object pixel = null;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                pixel = raster.getDataElements(x + col, y + row, pixel);
+                final int argb = cm.getRGB(pixel);
+                data[i++] = hasAlpha ? (byte) (argb >>> 24) :
+                        darkness((argb >> 16 & 0xFF) + (argb >> 8 & 0xFF) + (argb & 0xFF));
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of an image with 8-bit indices into
+     * a color palette. The alpha value of each palette entry is computed
+     * once.
+     */
+    private static void extractIndexed(final byte[] data, final Raster raster, final ComponentSampleModel sm,
+            final DataBufferByte db, final IndexColorModel cm, final int x, final int y, final int width,
+            final int height) {
+        // alpha value of each palette entry
+        final byte[] palette = new byte[256];
+        final boolean hasAlpha = cm.hasAlpha();
+        for (int k = 0; k < cm.getMapSize(); k++) {
+            final int argb = cm.getRGB(k);
+            palette[k] = hasAlpha ? (byte) (argb >>> 24) :
+                    darkness((argb >> 16 & 0xFF) + (argb >> 8 & 0xFF) + (argb & 0xFF));
+        }
+        final byte[] buffer = db.getData();
+        final int pixelStride = sm.getPixelStride();
+        final int scanlineStride = sm.getScanlineStride();
+        final int origin = db.getOffset() + sm.getBandOffsets()[0]
+                + (x - raster.getSampleModelTranslateX()) * pixelStride
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width * pixelStride; index < end;
+                    index += pixelStride) {
+                data[i++] = palette[buffer[index] & 0xFF];
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of an image with pixels packed into
+     * integers as {@code 0xAARRGGBB}.
+     */
+    private static void extractPackedAlpha(final byte[] data, final Raster raster,
+            final SinglePixelPackedSampleModel sm, final DataBufferInt db, final int x, final int y,
+            final int width, final int height) {
+        final int[] buffer = db.getData();
+        final int scanlineStride = sm.getScanlineStride();
+        final int origin = db.getOffset()
+                + (x - raster.getSampleModelTranslateX())
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width; index < end; index++) {
+                data[i++] = (byte) (buffer[index] >>> 24);
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of an opaque image with pixels
+     * packed into integers, such as {@code TYPE_INT_RGB}. The order of the
+     * color components does not matter.
+     */
+    private static void extractPackedRGB(final byte[] data, final Raster raster,
+            final SinglePixelPackedSampleModel sm, final DataBufferInt db, final int x, final int y,
+            final int width, final int height) {
+        final int[] buffer = db.getData();
+        final int scanlineStride = sm.getScanlineStride();
+        final int origin = db.getOffset()
+                + (x - raster.getSampleModelTranslateX())
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width; index < end; index++) {
+                final int pixel = buffer[index];
+                data[i++] = darkness((pixel >> 16 & 0xFF) + (pixel >> 8 & 0xFF) + (pixel & 0xFF));
+            }
+        }
+    }
+
+    /**
+     * Reads the alpha values of a region of a grayscale image with 16-bit
+     * samples.
+     */
+    private static void extractUShortGray(final byte[] data, final Raster raster, final ComponentSampleModel sm,
+            final DataBufferUShort db, final int x, final int y, final int width, final int height) {
+        final short[] buffer = db.getData();
+        final int pixelStride = sm.getPixelStride();
+        final int scanlineStride = sm.getScanlineStride();
+        final int origin = db.getOffset() + sm.getBandOffsets()[0]
+                + (x - raster.getSampleModelTranslateX()) * pixelStride
+                + (y - raster.getSampleModelTranslateY()) * scanlineStride;
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int index = origin + row * scanlineStride, end = index + width * pixelStride; index < end;
+                    index += pixelStride) {
+                data[i++] = (byte) (255 - ((buffer[index] & 0xFFFF) >>> 8));
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Utility class for reducing alpha values to fewer bits per pixel, and for
+ * packing reduced values into compact arrays. Values can be reduced to 1, 2
+ * or 4 bits per pixel, which gives 2, 4 or 16 levels of alpha evenly spread
+ * over the range 0-255, for example {@code 0, 85, 170, 255} for 2 bits.
+ * <p>
+ * Quantized values are stored as 8-bit values snapped to the nearest level,
+ * so quantized glyphs can still be edited and saved in the font file format.
+ * Use {@link #pack(byte[], int)} to store the levels in a packed array of
+ * {@code bits} bits per value.
+ *
+ * @author Adam Martinu
+ * @see #quantize(byte[], int, int, int, boolean)
+ * @since 1.0
+ */
+public class AlphaQuantizer {
+
+    /**
+     * 4x4 Bayer matrix used for ordered dithering, with values in range 0-15
+     * inclusive.
+     */
+    private static final int[] BAYER = {
+            0, 8, 2, 10,
+            12, 4, 14, 6,
+            3, 11, 1, 9,
+            15, 7, 13, 5
+    };
+
+    /**
+     * Returns the alpha values of the specified levels, in range 0-255
+     * inclusive.
+     *
+     * @param levels the levels to convert
+     * @param bits   the number of bits per level, 1, 2 or 4
+     * @return a new array of alpha values
+     * @throws NullPointerException     if {@code levels} is {@code null}
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2 or 4
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    @NotNull
+    public static byte[] fromLevels(@NotNull final byte[] levels, final int bits) {
+        Objects.requireNonNull(levels, "levels is null");
+        final int max = maxLevel(bits);
+        final byte[] data = new byte[levels.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ((levels[i] & 0xFF) * 255 / max);
+        }
+        return data;
+    }
+
+    /**
+     * Returns {@code true} if all the specified alpha values are on a level
+     * of the specified number of bits, otherwise {@code false}.
+     *
+     * @param data the alpha values
+     * @param bits the number of bits per level, 1, 2 or 4
+     * @throws NullPointerException     if {@code data} is {@code null}
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2 or 4
+     */
+    @Contract(pure = true)
+    public static boolean isQuantized(@NotNull final byte[] data, final int bits) {
+        Objects.requireNonNull(data, "data is null");
+        final int step = 255 / maxLevel(bits);
+        for (byte b : data) {
+            if ((b & 0xFF) % step != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs the specified levels into a new array with {@code bits} bits per
+     * level. Levels are packed from the most significant bit of each byte,
+     * and the last byte is padded with zeros if needed.
+     *
+     * @param levels the levels to pack, each in range
+     *               {@code 0 - (2^bits - 1)}
+     * @param bits   the number of bits per level, 1, 2 or 4
+     * @return a new array of packed levels
+     * @throws NullPointerException     if {@code levels} is {@code null}
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2 or 4
+     * @see #unpack(byte[], int, int)
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    @NotNull
+    public static byte[] pack(@NotNull final byte[] levels, final int bits) {
+        Objects.requireNonNull(levels, "levels is null");
+        final int mask = maxLevel(bits);
+        final int perByte = 8 / bits;
+        final byte[] packed = new byte[(levels.length + perByte - 1) / perByte];
+        for (int i = 0; i < levels.length; i++) {
+            final int shift = 8 - bits - (i % perByte) * bits;
+            packed[i / perByte] |= (byte) ((levels[i] & mask) << shift);
+        }
+        return packed;
+    }
+
+    /**
+     * Quantizes the specified alpha values to {@code bits} bits per pixel and
+     * returns the snapped 8-bit alpha values. If {@code dither} is
+     * {@code true}, then values are rounded up or down according to a 4x4
+     * ordered (Bayer) dither pattern, which preserves the average coverage
+     * of larger areas. Otherwise, values are rounded to the nearest level.
+     *
+     * @param data   the alpha values
+     * @param width  the width of the pixel grid in {@code data}
+     * @param height the height of the pixel grid in {@code data}
+     * @param bits   the number of bits per pixel, 1, 2 or 4
+     * @param dither {@code true} if ordered dithering should be applied,
+     *               otherwise {@code false}
+     * @return a new array of quantized alpha values
+     * @throws NullPointerException     if {@code data} is {@code null}
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2 or 4, or
+     *                                  the length of {@code data} is not
+     *                                  {@code width * height}
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static byte[] quantize(@NotNull final byte[] data, final int width, final int height, final int bits,
+            final boolean dither) {
+        final byte[] levels = toLevels(data, width, height, bits, dither);
+        final int max = maxLevel(bits);
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = (byte) (levels[i] * 255 / max);
+        }
+        return levels;
+    }
+
+    /**
+     * Quantizes the specified alpha values to {@code bits} bits per pixel and
+     * returns the levels, each in range {@code 0 - (2^bits - 1)}.
+     *
+     * @param data   the alpha values
+     * @param width  the width of the pixel grid in {@code data}
+     * @param height the height of the pixel grid in {@code data}
+     * @param bits   the number of bits per pixel, 1, 2 or 4
+     * @param dither {@code true} if ordered dithering should be applied,
+     *               otherwise {@code false}
+     * @return a new array of levels
+     * @throws NullPointerException     if {@code data} is {@code null}
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2 or 4, or
+     *                                  the length of {@code data} is not
+     *                                  {@code width * height}
+     * @see #quantize(byte[], int, int, int, boolean)
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static byte[] toLevels(@NotNull final byte[] data, final int width, final int height, final int bits,
+            final boolean dither) {
+        Objects.requireNonNull(data, "data is null");
+        final int max = maxLevel(bits);
+        if (width < 0 || height < 0 || data.length != width * height) {
+            throw new IllegalArgumentException("data length does not match size");
+        }
+        final byte[] levels = new byte[data.length];
+        for (int y = 0, i = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i++) {
+                // position between levels in units of 1/255
+                final int t = (data[i] & 0xFF) * max;
+                final int level = t / 255;
+                final int rem = t % 255;
+                final int threshold = dither ? (BAYER[(x & 3) + (y & 3) * 4] * 2 + 1) * 255 / 32 : 127;
+                levels[i] = (byte) (rem > threshold ? level + 1 : level);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Unpacks {@code length} levels from the specified packed array.
+     *
+     * @param packed the packed levels
+     * @param length the number of levels to unpack
+     * @param bits   the number of bits per level, 1, 2 or 4
+     * @return a new array of levels
+     * @throws NullPointerException      if {@code packed} is {@code null}
+     * @throws IllegalArgumentException  if {@code bits} is not 1, 2 or 4
+     * @throws IndexOutOfBoundsException if {@code packed} is too short
+     * @see #pack(byte[], int)
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    @NotNull
+    public static byte[] unpack(@NotNull final byte[] packed, final int length, final int bits) {
+        Objects.requireNonNull(packed, "packed is null");
+        final int mask = maxLevel(bits);
+        final int perByte = 8 / bits;
+        Objects.checkFromIndexSize(0, (length + perByte - 1) / perByte, packed.length);
+        final byte[] levels = new byte[length];
+        for (int i = 0; i < length; i++) {
+            final int shift = 8 - bits - (i % perByte) * bits;
+            levels[i] = (byte) ((packed[i / perByte] >> shift) & mask);
+        }
+        return levels;
+    }
+
+    /**
+     * Returns the highest level of the specified number of bits.
+     *
+     * @throws IllegalArgumentException if {@code bits} is not 1, 2 or 4
+     */
+    @Contract(pure = true)
+    private static int maxLevel(final int bits) {
+        if (bits != 1 && bits != 2 && bits != 4) {
+            throw new IllegalArgumentException("bits is not 1, 2 or 4 {" + bits + "}");
+        }
+        return (1 << bits) - 1;
+    }
+}
@@ -0,0 +1,187 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Rectangle;
+import java.util.Objects;
+
+/**
+ * A read-only view of a rectangular region of alpha values stored in a byte
+ * array. The value at {@code (x, y)} in the view is stored at index
+ * {@code offset + x + y * stride} in the buffer. Creating a view does not copy
+ * any values, which allows regions of glyph data to be passed around and
+ * moved without allocating new arrays.
+ * <p>
+ * <b>NOTE:</b> the buffer of a view is shared and must not be altered while
+ * the view is in use. Use {@link #copy()} to create a view with its own
+ * buffer if the source array is going to change.
+ *
+ * @param buffer the array of alpha values
+ * @param offset the index of the first value in the view
+ * @param stride the distance between rows in the buffer
+ * @param width  the width of the view
+ * @param height the height of the view
+ * @author Adam Martinu
+ * @since 1.0
+ */
+public record AlphaView(@NotNull byte[] buffer, int offset, int stride, int width, int height) {
+
+    /**
+     * Returns a new view of the specified region of an array of alpha
+     * values. The array is not copied.
+     *
+     * @param data   the array of alpha values
+     * @param stride the width of the pixel grid in {@code data}
+     * @param x      horizontal coordinate of the region
+     * @param y      vertical coordinate of the region
+     * @param width  width of the region
+     * @param height height of the region
+     * @return a new view
+     * @throws NullPointerException      if {@code data} is {@code null}
+     * @throws IndexOutOfBoundsException if the region is outside the array
+     */
+    @Contract(value = "_, _, _, _, _, _ -> new", pure = true)
+    @NotNull
+    public static AlphaView of(@NotNull final byte[] data, final int stride, final int x, final int y,
+            final int width, final int height) {
+        return new AlphaView(data, x + y * stride, stride, width, height);
+    }
+
+    /**
+     * Constructs a new view.
+     *
+     * @throws NullPointerException      if {@code buffer} is {@code null}
+     * @throws IllegalArgumentException  if {@code width} or {@code height} is
+     *                                   negative, or {@code stride} is less
+     *                                   than {@code width}
+     * @throws IndexOutOfBoundsException if the view is outside the buffer
+     */
+    public AlphaView {
+        Objects.requireNonNull(buffer, "buffer is null");
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("negative view size");
+        }
+        if (stride < width) {
+            throw new IllegalArgumentException("stride is less than width");
+        }
+        if (width != 0 && height != 0) {
+            Objects.checkFromIndexSize(offset, (height - 1) * stride + width, buffer.length);
+        }
+    }
+
+    /**
+     * Returns a new view with its own compact buffer, containing a copy of
+     * the values in this view.
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public AlphaView copy() {
+        final byte[] data = new byte[width * height];
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(buffer, offset + row * stride, data, row * width, width);
+        }
+        return new AlphaView(data, 0, width, width, height);
+    }
+
+    /**
+     * Copies the values of this view into the specified array of alpha
+     * values, at the specified position. Values that fall outside the
+     * destination pixel grid are skipped.
+     *
+     * @param dst       the destination array
+     * @param dstWidth  the width of the destination pixel grid
+     * @param dstHeight the height of the destination pixel grid
+     * @param x         horizontal coordinate in the destination to copy to
+     * @param y         vertical coordinate in the destination to copy to
+     * @throws NullPointerException if {@code dst} is {@code null}
+     */
+    @Contract(mutates = "param1")
+    public void copyTo(@NotNull final byte[] dst, final int dstWidth, final int dstHeight, final int x,
+            final int y) {
+        Objects.requireNonNull(dst, "dst is null");
+        final int x0 = Math.max(0, -x);
+        final int y0 = Math.max(0, -y);
+        final int x1 = Math.min(width, dstWidth - x);
+        final int y1 = Math.min(height, dstHeight - y);
+        if (x0 >= x1) {
+            return;
+        }
+        for (int row = y0; row < y1; row++) {
+            System.arraycopy(buffer, offset + x0 + row * stride, dst, x + x0 + (y + row) * dstWidth, x1 - x0);
+        }
+    }
+
+    /**
+     * Returns the bounds of the content in this view, that is the smallest
+     * rectangle that contains all values which are not {@code 0}. If all
+     * values are {@code 0}, then an empty rectangle at {@code (0, 0)} is
+     * returned.
+     *
+     * @return the bounds of the content
+     * @see #region(int, int, int, int)
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public Rectangle getContentBounds() {
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < height; y++) {
+            final int row = offset + y * stride;
+            // find first and last value in row that is not 0
+            int left = 0;
+            while (left < width && buffer[row + left] == 0) {
+                left++;
+            }
+            if (left == width) {
+                continue;
+            }
+            int right = width - 1;
+            while (buffer[row + right] == 0) {
+                right--;
+            }
+            if (left < minX) { minX = left; }
+            if (right > maxX) { maxX = right; }
+            if (y < minY) { minY = y; }
+            maxY = y;
+        }
+        if (maxY == -1) {
+            return new Rectangle();
+        }
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    /**
+     * Returns the alpha value at the specified position in this view, in
+     * range 0-255 inclusive.
+     *
+     * @param x horizontal coordinate in the view
+     * @param y vertical coordinate in the view
+     * @return the alpha value
+     */
+    @Contract(pure = true)
+    public int get(final int x, final int y) {
+        return buffer[offset + x + y * stride] & 0xFF;
+    }
+
+    /**
+     * Returns a new view of the specified region of this view. The buffer is
+     * not copied.
+     *
+     * @param x      horizontal coordinate of the region in this view
+     * @param y      vertical coordinate of the region in this view
+     * @param width  width of the region
+     * @param height height of the region
+     * @return a new view
+     * @throws IndexOutOfBoundsException if the region is outside this view
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    @NotNull
+    public AlphaView region(final int x, final int y, final int width, final int height) {
+        Objects.checkFromIndexSize(x, width, this.width);
+        Objects.checkFromIndexSize(y, height, this.height);
+        return new AlphaView(buffer, offset + x + y * stride, stride, width, height);
+    }
+}
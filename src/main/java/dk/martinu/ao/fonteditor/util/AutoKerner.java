@@ -0,0 +1,293 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Utility class for computing horizontal offsets between pairs of glyphs
+ * from their images. The left and right edge of each glyph is measured once
+ * as a column profile, which is the number of empty pixels between the edge
+ * of the glyph and the first visible pixel in each row. The gap between two
+ * glyphs is then the smallest sum of the right profile of the left glyph and
+ * the left profile of the right glyph, over the rows where both glyphs have
+ * visible pixels.
+ * <p>
+ * Pairs are offset such that their gap equals a target spacing, which
+ * defaults to the median gap of all pairs, so only pairs that are spaced
+ * unusually tight or loose are kerned. Gaps of all pairs are measured in
+ * parallel with a fork/join pool.
+ *
+ * @author Adam Martinu
+ * @see #measure(List, int)
+ * @see #kern(KerningMatrix, int[], int, int, int, boolean)
+ * @since 1.0
+ */
+public class AutoKerner {
+
+    /**
+     * Gap of pairs that have no rows where both glyphs have visible pixels.
+     */
+    public static final int NO_GAP = Integer.MIN_VALUE;
+    /**
+     * Profile value of rows without visible pixels.
+     */
+    private static final int EMPTY_ROW = -1;
+    /**
+     * The number of left glyphs that are measured by a single task before it
+     * is split into subtasks.
+     */
+    private static final int SPLIT_THRESHOLD = 8;
+
+    /**
+     * Sets the offsets of pairs in the specified matrix, such that the gap
+     * of each pair is equal to {@code spacing}. Pairs whose offset would be
+     * {@code 0} are not set, and offsets are limited to the range
+     * {@code [-maxAdjustment, maxAdjustment]}.
+     *
+     * @param matrix        the matrix to set offsets in
+     * @param gaps          the gaps of all pairs, as returned by
+     *                      {@link #measure(List, int)}
+     * @param glyphCount    the number of glyphs that were measured
+     * @param spacing       the target gap between glyphs in pixels
+     * @param maxAdjustment the maximum absolute offset in pixels
+     * @param replace       {@code true} if existing pairs in {@code matrix}
+     *                      should be replaced, otherwise {@code false}
+     * @return the number of pairs that were set
+     * @throws NullPointerException     if {@code matrix} or {@code gaps} is
+     *                                  {@code null}
+     * @throws IllegalArgumentException if the length of {@code gaps} is not
+     *                                  {@code glyphCount * glyphCount}
+     */
+    @Contract(mutates = "param1")
+    public static int kern(@NotNull final KerningMatrix matrix, @NotNull final int[] gaps, final int glyphCount,
+            final int spacing, final int maxAdjustment, final boolean replace) {
+        Objects.requireNonNull(matrix, "matrix is null");
+        Objects.requireNonNull(gaps, "gaps is null");
+        if (gaps.length != glyphCount * glyphCount) {
+            throw new IllegalArgumentException("gaps length does not match glyph count");
+        }
+        int count = 0;
+        for (int left = 0; left < glyphCount; left++) {
+            for (int right = 0; right < glyphCount; right++) {
+                final int gap = gaps[left * glyphCount + right];
+                if (gap == NO_GAP) {
+                    continue;
+                }
+                final int offset = Math.max(-maxAdjustment, Math.min(maxAdjustment, spacing - gap));
+                if (offset != 0 && (replace || !matrix.contains(left, right))) {
+                    matrix.put(left, right, offset);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the gaps between all pairs of the specified glyphs in pixels,
+     * when drawn without horizontal offsets. The gap of the pair of the glyph
+     * at index {@code left} followed by the glyph at index {@code right} is
+     * stored at index {@code left * glyphs.size() + right}, or
+     * {@link #NO_GAP} if the glyphs have no visible pixels in the same rows.
+     * <p>
+     * This method blocks until all pairs have been measured and must not be
+     * called on the event dispatch thread.
+     *
+     * @param glyphs    the glyphs to measure
+     * @param threshold the minimum alpha value of visible pixels, in range
+     *                  1-255 inclusive
+     * @return a new array of gaps
+     * @throws NullPointerException     if {@code glyphs} is {@code null}
+     * @throws IllegalArgumentException if {@code threshold} is out of range
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    @NotNull
+    public static int[] measure(@NotNull final List<MutableGlyph> glyphs, final int threshold) {
+        Objects.requireNonNull(glyphs, "glyphs is null");
+        if (threshold < 1 || threshold > 255) {
+            throw new IllegalArgumentException("threshold is out of range {" + threshold + "}");
+        }
+        final MutableGlyph[] array = glyphs.toArray(new MutableGlyph[0]);
+        final Profile[] profiles = new Profile[array.length];
+        for (int i = 0; i < array.length; i++) {
+            profiles[i] = new Profile(array[i], threshold);
+        }
+        final int[] gaps = new int[array.length * array.length];
+        final ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pool.invoke(new MeasureTask(profiles, gaps, 0, profiles.length));
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        return gaps;
+    }
+
+    /**
+     * Returns the median of the specified gaps, ignoring pairs without a
+     * gap, or {@code 0} if no pairs have a gap.
+     *
+     * @param gaps the gaps of all pairs
+     * @return the median gap
+     * @throws NullPointerException if {@code gaps} is {@code null}
+     * @see #measure(List, int)
+     */
+    @Contract(pure = true)
+    public static int median(@NotNull final int[] gaps) {
+        Objects.requireNonNull(gaps, "gaps is null");
+        final int[] sorted = gaps.clone();
+        Arrays.sort(sorted);
+        // NO_GAP values are sorted first
+        int start = 0;
+        while (start < sorted.length && sorted[start] == NO_GAP) {
+            start++;
+        }
+        return start < sorted.length ? sorted[start + (sorted.length - start) / 2] : 0;
+    }
+
+    /**
+     * Returns the gap between the specified profiles, or {@link #NO_GAP} if
+     * they have no visible pixels in the same rows.
+     */
+    @Contract(pure = true)
+    private static int gap(@NotNull final Profile left, @NotNull final Profile right) {
+        final int top = Math.max(left.top, right.top);
+        final int bottom = Math.min(left.top + left.right.length, right.top + right.left.length);
+        int gap = NO_GAP;
+        for (int y = top; y < bottom; y++) {
+            final int l = left.right[y - left.top];
+            final int r = right.left[y - right.top];
+            if (l != EMPTY_ROW && r != EMPTY_ROW && (gap == NO_GAP || l + r < gap)) {
+                gap = l + r;
+            }
+        }
+        return gap;
+    }
+
+    /**
+     * Column profiles of the left and right edge of a glyph.
+     *
+     * @author Adam Martinu
+     * @since 1.0
+     */
+    protected static class Profile {
+
+        /**
+         * Vertical offset of the first row of the profiles.
+         */
+        public final int top;
+        /**
+         * The number of empty pixels before the first visible pixel in each
+         * row, or {@code -1} if the row is empty.
+         */
+        @NotNull
+        public final int[] left;
+        /**
+         * The number of empty pixels after the last visible pixel in each
+         * row, or {@code -1} if the row is empty.
+         */
+        @NotNull
+        public final int[] right;
+
+        /**
+         * Constructs new profiles of the specified glyph. Whitespace glyphs
+         * have no visible pixels.
+         *
+         * @param glyph     the glyph to measure
+         * @param threshold the minimum alpha value of visible pixels
+         */
+        public Profile(@NotNull final MutableGlyph glyph, final int threshold) {
+            top = glyph.offsetY;
+            final int height = glyph.isWhitespace ? 0 : glyph.height;
+            left = new int[height];
+            right = new int[height];
+            final byte[] data = height > 0 ? glyph.getData() : new byte[0];
+            for (int y = 0; y < height; y++) {
+                final int row = y * glyph.width;
+                int first = 0;
+                while (first < glyph.width && (data[row + first] & 0xFF) < threshold) {
+                    first++;
+                }
+                if (first == glyph.width) {
+                    left[y] = EMPTY_ROW;
+                    right[y] = EMPTY_ROW;
+                    continue;
+                }
+                int last = glyph.width - 1;
+                while ((data[row + last] & 0xFF) < threshold) {
+                    last--;
+                }
+                left[y] = first;
+                right[y] = glyph.width - 1 - last;
+            }
+        }
+    }
+
+    /**
+     * Task that measures the gaps of all pairs with a left glyph in a range
+     * of indices, splitting the range into subtasks if it is large.
+     *
+     * @author Adam Martinu
+     * @since 1.0
+     */
+    protected static class MeasureTask extends RecursiveAction {
+
+        /**
+         * The profiles of all glyphs.
+         */
+        @NotNull
+        protected final Profile[] profiles;
+        /**
+         * The array to store gaps in.
+         */
+        @NotNull
+        protected final int[] gaps;
+        /**
+         * First index of the range, inclusive.
+         */
+        protected final int from;
+        /**
+         * Last index of the range, exclusive.
+         */
+        protected final int to;
+
+        /**
+         * Constructs a new task of the specified range.
+         */
+        public MeasureTask(@NotNull final Profile[] profiles, @NotNull final int[] gaps, final int from,
+                final int to) {
+            this.profiles = profiles;
+            this.gaps = gaps;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Measures the gaps of the range, or splits it in two subtasks.
+         */
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new MeasureTask(profiles, gaps, from, middle),
+                        new MeasureTask(profiles, gaps, middle, to));
+            }
+            else {
+                for (int left = from; left < to; left++) {
+                    final int row = left * profiles.length;
+                    for (int right = 0; right < profiles.length; right++) {
+                        gaps[row + right] = gap(profiles[left], profiles[right]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Utility class for analyzing which Unicode blocks and languages are covered
+ * by the glyphs of a font. The character values of the glyphs are collected
+ * in a bit set of code points, and each block is measured by the number of
+ * its printable characters that have a glyph. Control, surrogate, private use
+ * and unassigned code points are not counted.
+ * <p>
+ * The block of each code point is computed once when the class is first
+ * used, so analyzing a font only takes time proportional to the number of
+ * glyphs.
+ *
+ * @author Adam Martinu
+ * @see #analyze(Collection)
+ * @since 1.0
+ */
+public class CoverageAnalyzer {
+
+    /**
+     * Characters that all languages require, the ASCII digits and
+     * punctuation.
+     */
+    private static final String COMMON = " !\"#$%&'()*+,-./0123456789:;<=>?@[\\]^_`{|}~";
+    /**
+     * Lowercase letters of each supported language, by language code.
+     * Uppercase letters are derived from the lowercase letters.
+     */
+    private static final Map<String, String> LETTERS = Map.ofEntries(
+            Map.entry("cs", "abcdefghijklmnopqrstuvwxyzáčďéěíňóřšťúůýž"),
+            Map.entry("da", "abcdefghijklmnopqrstuvwxyzæøå"),
+            Map.entry("de", "abcdefghijklmnopqrstuvwxyzäöüß"),
+            Map.entry("el", "αβγδεζηθικλμνξοπρστυφχψωάέήίόύώςϊϋ"),
+            Map.entry("en", "abcdefghijklmnopqrstuvwxyz"),
+            Map.entry("es", "abcdefghijklmnopqrstuvwxyzáéíñóúü¡¿"),
+            Map.entry("fi", "abcdefghijklmnopqrstuvwxyzåäö"),
+            Map.entry("fr", "abcdefghijklmnopqrstuvwxyzàâæçéèêëîïôœùûüÿ«»"),
+            Map.entry("it", "abcdefghijklmnopqrstuvwxyzàèéìíîòóùú"),
+            Map.entry("nb", "abcdefghijklmnopqrstuvwxyzæøå"),
+            Map.entry("nl", "abcdefghijklmnopqrstuvwxyzéëï"),
+            Map.entry("pl", "abcdefghijklmnopqrstuvwxyząćęłńóśźż"),
+            Map.entry("pt", "abcdefghijklmnopqrstuvwxyzáâãàçéêíóôõú"),
+            Map.entry("ru", "абвгдеёжзийклмнопрстуфхцчшщъыьэюя«»"),
+            Map.entry("sv", "abcdefghijklmnopqrstuvwxyzåäö"),
+            Map.entry("tr", "abcdefghijklmnopqrstuvwxyzçğıİöşü"));
+
+    /**
+     * Returns a new report of the coverage of the specified glyphs.
+     *
+     * @param glyphs the glyphs to analyze
+     * @return a new coverage report
+     * @throws NullPointerException if {@code glyphs} is {@code null}
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static Report analyze(@NotNull final Collection<MutableGlyph> glyphs) {
+        Objects.requireNonNull(glyphs, "glyphs is null");
+        final BitSet chars = new BitSet(Character.MAX_VALUE + 1);
+        for (MutableGlyph glyph : glyphs) {
+            chars.set(glyph.value);
+        }
+        return new Report(chars);
+    }
+
+    /**
+     * Returns the characters that the specified locale requires, or
+     * {@code null} if the language of the locale is not supported.
+     *
+     * @param locale the locale
+     * @return the required characters in ascending order, or {@code null}
+     * @throws NullPointerException if {@code locale} is {@code null}
+     * @see #getLocales()
+     */
+    @Contract(pure = true)
+    @Nullable
+    public static String getCharacters(@NotNull final Locale locale) {
+        Objects.requireNonNull(locale, "locale is null");
+        String language = locale.getLanguage();
+        // Norwegian is listed as Bokmål
+        if (language.equals("no")) {
+            language = "nb";
+        }
+        final String letters = LETTERS.get(language);
+        if (letters == null) {
+            return null;
+        }
+        final BitSet chars = new BitSet();
+        COMMON.chars().forEach(chars::set);
+        letters.chars().forEach(c -> {
+            chars.set(c);
+            chars.set(Character.toUpperCase(c));
+        });
+        final StringBuilder sb = new StringBuilder(chars.cardinality());
+        chars.stream().forEach(c -> sb.append((char) c));
+        return sb.toString();
+    }
+
+    /**
+     * Returns the locales of the supported languages, sorted by language
+     * code.
+     *
+     * @see #getCharacters(Locale)
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public static List<Locale> getLocales() {
+        final ArrayList<Locale> locales = new ArrayList<>(LETTERS.size());
+        new TreeSet<>(LETTERS.keySet()).forEach(language -> locales.add(Locale.forLanguageTag(language)));
+        return locales;
+    }
+
+    /**
+     * Coverage of a single Unicode block.
+     *
+     * @param block   the Unicode block
+     * @param start   the first code point of the block, inclusive
+     * @param end     the last code point of the block, inclusive
+     * @param covered the number of printable characters in the block that
+     *                have a glyph
+     * @param total   the number of printable characters in the block
+     */
+    public record BlockCoverage(@NotNull Character.UnicodeBlock block, int start, int end, int covered,
+            int total) {
+
+        /**
+         * Returns the percentage of printable characters in the block that
+         * have a glyph.
+         */
+        @Contract(pure = true)
+        public double getPercentage() {
+            return total != 0 ? covered * 100.0d / total : 0.0d;
+        }
+    }
+
+    /**
+     * Report of the Unicode blocks and languages covered by a set of
+     * characters.
+     *
+     * @author Adam Martinu
+     * @since 1.0
+     */
+    public static class Report {
+
+        /**
+         * The characters that have a glyph.
+         */
+        @NotNull
+        protected final BitSet chars;
+        /**
+         * Coverage of all blocks with at least one covered character, in
+         * ascending order.
+         */
+        @NotNull
+        protected final List<BlockCoverage> blocks;
+
+        /**
+         * Constructs a new report of the specified characters. The bit set
+         * is not copied.
+         *
+         * @param chars the characters that have a glyph
+         */
+        public Report(@NotNull final BitSet chars) {
+            this.chars = Objects.requireNonNull(chars, "chars is null");
+            final int[] covered = new int[Blocks.STARTS.length];
+            for (int c = chars.nextSetBit(0); c >= 0 && c <= Character.MAX_VALUE; c = chars.nextSetBit(c + 1)) {
+                final int block = Blocks.INDICES[c];
+                if (block != -1 && Blocks.PRINTABLE.get(c)) {
+                    covered[block]++;
+                }
+            }
+            final ArrayList<BlockCoverage> list = new ArrayList<>();
+            for (int i = 0; i < covered.length; i++) {
+                if (covered[i] > 0) {
+                    list.add(new BlockCoverage(Blocks.BLOCKS[i], Blocks.STARTS[i], Blocks.ENDS[i], covered[i],
+                            Blocks.TOTALS[i]));
+                }
+            }
+            blocks = Collections.unmodifiableList(list);
+        }
+
+        /**
+         * Returns the number of characters that have a glyph.
+         */
+        @Contract(pure = true)
+        public int getCharacterCount() {
+            return chars.cardinality();
+        }
+
+        /**
+         * Returns an unmodifiable list of the coverage of all blocks with at
+         * least one covered character, in ascending order.
+         */
+        @Contract(pure = true)
+        @NotNull
+        public List<BlockCoverage> getBlocks() {
+            return blocks;
+        }
+
+        /**
+         * Returns the characters that the specified locale requires and do
+         * not have a glyph, or {@code null} if the language of the locale is
+         * not supported.
+         *
+         * @param locale the locale
+         * @return the missing characters in ascending order, or {@code null}
+         * @throws NullPointerException if {@code locale} is {@code null}
+         * @see CoverageAnalyzer#getCharacters(Locale)
+         */
+        @Contract(pure = true)
+        @Nullable
+        public String getMissing(@NotNull final Locale locale) {
+            final String required = getCharacters(locale);
+            if (required == null) {
+                return null;
+            }
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < required.length(); i++) {
+                if (!chars.get(required.charAt(i))) {
+                    sb.append(required.charAt(i));
+                }
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Returns a text report of the block coverage, and of the missing
+         * characters of the specified locales.
+         *
+         * @param locales the locales to report missing characters of
+         * @return the text report
+         * @throws NullPointerException if {@code locales} is {@code null}
+         */
+        @Contract(pure = true)
+        @NotNull
+        public String format(@NotNull final Collection<Locale> locales) {
+            Objects.requireNonNull(locales, "locales is null");
+            final StringBuilder sb = new StringBuilder();
+            sb.append(getCharacterCount()).append(" characters in ").append(blocks.size()).append(" blocks\n");
+            for (BlockCoverage coverage : blocks) {
+                sb.append(String.format(Locale.ROOT, "%04X-%04X %-40s %5d / %5d %6.1f%%%n", coverage.start(),
+                        coverage.end(), coverage.block(), coverage.covered(), coverage.total(),
+                        coverage.getPercentage()));
+            }
+            for (Locale locale : locales) {
+                final String missing = getMissing(locale);
+                sb.append('\n').append(locale.getDisplayLanguage(Locale.ENGLISH)).append(" (")
+                        .append(locale.toLanguageTag()).append("): ");
+                if (missing == null) {
+                    sb.append("unsupported language");
+                }
+                else if (missing.isEmpty()) {
+                    sb.append("complete");
+                }
+                else {
+                    sb.append(missing.length()).append(" missing: ").append(missing);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Lazily initialized tables of the Unicode blocks of the Basic
+     * Multilingual Plane.
+     *
+     * @author Adam Martinu
+     * @since 1.0
+     */
+    private static class Blocks {
+
+        /**
+         * Index of the block of each character, or {@code -1}.
+         */
+        static final short[] INDICES = new short[Character.MAX_VALUE + 1];
+        /**
+         * Characters that are counted in the coverage of blocks.
+         */
+        static final BitSet PRINTABLE = new BitSet(Character.MAX_VALUE + 1);
+        /**
+         * The blocks, in ascending order.
+         */
+        static final Character.UnicodeBlock[] BLOCKS;
+        /**
+         * First character of each block.
+         */
+        static final int[] STARTS;
+        /**
+         * Last character of each block.
+         */
+        static final int[] ENDS;
+        /**
+         * The number of printable characters in each block.
+         */
+        static final int[] TOTALS;
+
+        static {
+            final ArrayList<Character.UnicodeBlock> blocks = new ArrayList<>();
+            final ArrayList<Integer> starts = new ArrayList<>();
+            Character.UnicodeBlock current = null;
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                final Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+                if (block != current) {
+                    current = block;
+                    if (block != null) {
+                        blocks.add(block);
+                        starts.add(c);
+                    }
+                }
+                INDICES[c] = (short) (block != null ? blocks.size() - 1 : -1);
+                final int type = Character.getType(c);
+                if (type != Character.UNASSIGNED && type != Character.CONTROL && type != Character.SURROGATE
+                        && type != Character.PRIVATE_USE) {
+                    PRINTABLE.set(c);
+                }
+            }
+            BLOCKS = blocks.toArray(new Character.UnicodeBlock[0]);
+            STARTS = new int[BLOCKS.length];
+            ENDS = new int[BLOCKS.length];
+            TOTALS = new int[BLOCKS.length];
+            for (int i = 0; i < BLOCKS.length; i++) {
+                STARTS[i] = starts.get(i);
+            }
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                final int i = INDICES[c];
+                if (i != -1) {
+                    ENDS[i] = c;
+                    if (PRINTABLE.get(c)) {
+                        TOTALS[i]++;
+                    }
+                }
+            }
+        }
+    }
+}
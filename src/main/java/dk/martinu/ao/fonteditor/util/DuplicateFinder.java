@@ -0,0 +1,228 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.concurrent.*;
+
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Utility class for finding glyphs with identical images, for example glyphs
+ * of different characters that were imported from the same bitmap. Glyphs
+ * are identical if they have the same size, whitespace flag and data; the
+ * character value, offsets and name of glyphs are not compared.
+ * <p>
+ * Each glyph is hashed once with a fast non-cryptographic 64-bit hash, and
+ * only glyphs with equal hashes are compared, so finding duplicates in a
+ * font takes linear time instead of comparing every pair of glyphs.
+ *
+ * @author Adam Martinu
+ * @see #find(List)
+ * @since 1.0
+ */
+public class DuplicateFinder {
+
+    /**
+     * View of byte arrays as little-endian {@code long} values, used to hash
+     * 8 bytes at a time.
+     */
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    /**
+     * First multiplier of the hash function.
+     */
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    /**
+     * Second multiplier of the hash function.
+     */
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    /**
+     * Returns the groups of identical glyphs in the specified list. Each
+     * group contains at least two glyphs in the order they appear in
+     * {@code glyphs}, and groups are ordered by their first glyph. Glyphs
+     * are hashed in parallel, using at most one thread for each available
+     * processor.
+     * <p>
+     * This method blocks until all glyphs have been hashed and must not be
+     * called on the event dispatch thread.
+     *
+     * @param glyphs the glyphs to search
+     * @return a new list of duplicate groups, which is empty if there are no
+     * duplicates
+     * @throws NullPointerException if {@code glyphs} is {@code null}
+     * @throws InterruptedException if the current thread was interrupted
+     *                              while waiting for glyphs to be hashed
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static List<List<MutableGlyph>> find(@NotNull final List<MutableGlyph> glyphs) throws
+            InterruptedException {
+        Objects.requireNonNull(glyphs, "glyphs is null");
+        final MutableGlyph[] array = glyphs.toArray(new MutableGlyph[0]);
+        if (array.length < 2) {
+            return new ArrayList<>(0);
+        }
+        final long[] hashes = new long[array.length];
+        final int threads = Math.min(array.length, Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final ArrayList<Callable<Void>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int start = t;
+                tasks.add(() -> {
+                    for (int i = start; i < array.length; i += threads) {
+                        hashes[i] = hash(array[i]);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("could not hash glyphs", e.getCause());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        // indices of glyphs with equal hashes, in glyph order
+        final LinkedHashMap<Long, List<Integer>> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < array.length; i++) {
+            buckets.computeIfAbsent(hashes[i], h -> new ArrayList<>(2)).add(i);
+        }
+        final ArrayList<List<MutableGlyph>> groups = new ArrayList<>();
+        for (List<Integer> bucket : buckets.values()) {
+            if (bucket.size() < 2) {
+                continue;
+            }
+            // split bucket into groups of identical glyphs, in case of collisions
+            final ArrayList<MutableGlyph> remaining = new ArrayList<>(bucket.size());
+            for (int i : bucket) {
+                remaining.add(array[i]);
+            }
+            while (remaining.size() > 1) {
+                final MutableGlyph first = remaining.remove(0);
+                final byte[] data = first.getData();
+                final ArrayList<MutableGlyph> group = new ArrayList<>(remaining.size() + 1);
+                group.add(first);
+                for (Iterator<MutableGlyph> iterator = remaining.iterator(); iterator.hasNext(); ) {
+                    final MutableGlyph glyph = iterator.next();
+                    if (glyph.width == first.width && glyph.height == first.height
+                            && glyph.isWhitespace == first.isWhitespace && Arrays.equals(glyph.getData(), data)) {
+                        group.add(glyph);
+                        iterator.remove();
+                    }
+                }
+                if (group.size() > 1) {
+                    groups.add(group);
+                }
+            }
+        }
+        // buckets are ordered by their first glyph, but split groups are not
+        final IdentityHashMap<MutableGlyph, Integer> indices = new IdentityHashMap<>(array.length);
+        for (int i = 0; i < array.length; i++) {
+            indices.putIfAbsent(array[i], i);
+        }
+        groups.sort(Comparator.comparingInt(group -> indices.get(group.get(0))));
+        return groups;
+    }
+
+    /**
+     * Returns a 64-bit hash of the size, whitespace flag and data of the
+     * specified glyph. Identical glyphs have equal hashes.
+     *
+     * @param glyph the glyph to hash
+     * @return the hash of {@code glyph}
+     * @throws NullPointerException if {@code glyph} is {@code null}
+     */
+    @Contract(pure = true)
+    public static long hash(@NotNull final MutableGlyph glyph) {
+        Objects.requireNonNull(glyph, "glyph is null");
+        final long seed = ((long) glyph.width << 32 | glyph.height & 0xFFFFFFFFL)
+                ^ (glyph.isWhitespace ? PRIME_2 : 0L);
+        return hash(glyph.getData(), seed);
+    }
+
+    /**
+     * Returns a 64-bit hash of the specified data.
+     *
+     * @param data the data to hash
+     * @param seed the initial value of the hash
+     * @return the hash of {@code data}
+     * @throws NullPointerException if {@code data} is {@code null}
+     */
+    @Contract(pure = true)
+    public static long hash(@NotNull final byte[] data, final long seed) {
+        Objects.requireNonNull(data, "data is null");
+        long h = seed ^ data.length * PRIME_1;
+        int i = 0;
+        for (; i + 8 <= data.length; i += 8) {
+            h = mix(h, (long) LONGS.get(data, i));
+        }
+        if (i < data.length) {
+            long tail = 0L;
+            for (int shift = 0; i < data.length; i++, shift += 8) {
+                tail |= (data[i] & 0xFFL) << shift;
+            }
+            h = mix(h, tail);
+        }
+        // final avalanche of all bits
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Shares the compressed data of the first compressed glyph in the
+     * specified group with the other compressed glyphs in the group, such
+     * that the data is only stored once. The glyphs must be identical, as
+     * returned by {@link #find(List)}. Glyphs that are not compressed are
+     * skipped.
+     *
+     * @param group the identical glyphs
+     * @return the number of bytes that are no longer stored
+     * @throws NullPointerException if {@code group} is {@code null}
+     * @see MutableGlyph#shareData(MutableGlyph)
+     */
+    @Contract(mutates = "param1")
+    public static int share(@NotNull final List<MutableGlyph> group) {
+        Objects.requireNonNull(group, "group is null");
+        MutableGlyph source = null;
+        int bytes = 0;
+        for (MutableGlyph glyph : group) {
+            if (source == null) {
+                if (glyph.isCompressed()) {
+                    source = glyph;
+                }
+            }
+            else if (glyph.shareData(source)) {
+                bytes += glyph.getDataSize();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Mixes the specified 8 bytes of data into a hash.
+     */
+    @Contract(pure = true)
+    private static long mix(final long h, final long value) {
+        long k = value * PRIME_2;
+        k = Long.rotateLeft(k, 31);
+        k *= PRIME_1;
+        return Long.rotateLeft(h ^ k, 27) * PRIME_1 + 0x52DCE729L;
+    }
+}
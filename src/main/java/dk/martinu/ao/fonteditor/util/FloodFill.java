@@ -0,0 +1,247 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Scanline flood fill implementation that operates directly on an array of
+ * alpha values. The fill is computed in two steps; first the area to fill is
+ * found with {@link #compute(byte[], int, int, int, int, int)}, which stores
+ * the filled pixels in a bit mask, and then the area can be filled with
+ * {@link #apply(byte[], int, int)}. This allows the caller to inspect the
+ * bounds of the area before any values are changed, for example to record
+ * the previous values.
+ * <p>
+ * The implementation does not use recursion and does not box any values;
+ * pending spans are stored on an explicit stack of primitive integers, which
+ * is reused between fills. Instances are not threadsafe.
+ *
+ * @author Adam Martinu
+ * @since 1.0
+ */
+public class FloodFill {
+
+    /**
+     * Returns {@code true} if the pixel at the specified index has not been
+     * filled and its alpha value is within {@code [low, high]}.
+     */
+    @Contract(pure = true)
+    private static boolean isFillable(byte[] data, long[] mask, int i, int low, int high) {
+        if ((mask[i >>> 6] & 1L << i) != 0L) {
+            return false;
+        }
+        final int alpha = data[i] & 0xFF;
+        return alpha >= low && alpha <= high;
+    }
+
+    /**
+     * Bit mask of filled pixels, where the bit at index {@code x + y * width}
+     * is set if the pixel at {@code (x, y)} is filled. The mask is reused
+     * between fills if it is large enough.
+     */
+    @NotNull
+    private long[] mask = new long[0];
+    /**
+     * Stack of pixel coordinates to fill from. The coordinates of a pixel
+     * are stored in two consecutive elements.
+     */
+    @NotNull
+    private int[] stack = new int[256];
+    /**
+     * The width of the last computed fill.
+     */
+    private int width = 0;
+    /**
+     * The number of filled pixels.
+     */
+    private int count = 0;
+    /**
+     * The lowest horizontal coordinate of a filled pixel.
+     */
+    private int minX = 0;
+    /**
+     * The lowest vertical coordinate of a filled pixel.
+     */
+    private int minY = 0;
+    /**
+     * The highest horizontal coordinate of a filled pixel.
+     */
+    private int maxX = -1;
+    /**
+     * The highest vertical coordinate of a filled pixel.
+     */
+    private int maxY = -1;
+
+    /**
+     * Sets all filled pixels of the last computed fill to the specified alpha
+     * value. Only pixels inside the fill bounds are visited.
+     *
+     * @param data  the array of alpha values to change
+     * @param width the width of the pixel grid
+     * @param alpha the new alpha value
+     * @throws IllegalStateException if {@code width} is not equal to the
+     *                               width of the last computed fill
+     */
+    @Contract(mutates = "param1")
+    public void apply(@NotNull byte[] data, int width, int alpha) {
+        Objects.requireNonNull(data, "data is null");
+        if (width != this.width) {
+            throw new IllegalStateException("width does not match computed fill");
+        }
+        byte value = (byte) alpha;
+        for (int y = minY; y <= maxY; y++) {
+            for (int i = minX + y * width, end = maxX + y * width; i <= end; i++) {
+                if ((mask[i >>> 6] & 1L << i) != 0L) {
+                    data[i] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the area to fill when filling from the pixel at the specified
+     * coordinates. A pixel is part of the area if it is connected
+     * horizontally or vertically to the starting pixel through other pixels
+     * in the area, and the difference between its alpha value and the alpha
+     * value of the starting pixel is less than or equal to
+     * {@code tolerance}.
+     *
+     * @param data      the array of alpha values
+     * @param width     the width of the pixel grid
+     * @param height    the height of the pixel grid
+     * @param x         the horizontal coordinate to fill from
+     * @param y         the vertical coordinate to fill from
+     * @param tolerance the maximum difference in alpha values, in range
+     *                  0-255 inclusive
+     * @return the number of pixels in the area
+     * @throws NullPointerException      if {@code data} is {@code null}
+     * @throws IndexOutOfBoundsException if {@code x} or {@code y} is outside
+     *                                   the pixel grid
+     */
+    @Contract(mutates = "this")
+    public int compute(@NotNull byte[] data, int width, int height, int x, int y, int tolerance) {
+        Objects.requireNonNull(data, "data is null");
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+
+        final int words = (width * height + 63) >>> 6;
+        if (mask.length < words) {
+            mask = new long[words];
+        }
+        else {
+            Arrays.fill(mask, 0, words, 0L);
+        }
+        final long[] mask = this.mask;
+        this.width = width;
+        count = 0;
+        minX = x;
+        minY = y;
+        maxX = x;
+        maxY = y;
+
+        // filled pixels must have an alpha value in range [low, high]
+        final int target = data[x + y * width] & 0xFF;
+        final int low = target - tolerance;
+        final int high = target + tolerance;
+
+        int size = 0;
+        stack[size++] = x;
+        stack[size++] = y;
+        while (size != 0) {
+            final int py = stack[--size];
+            final int px = stack[--size];
+            final int row = py * width;
+            int i = px + row;
+            if ((mask[i >>> 6] & 1L << i) != 0L) {
+                continue;
+            }
+            // find span edges
+            int left = px;
+            while (left > 0 && isFillable(data, mask, row + left - 1, low, high)) {
+                left--;
+            }
+            int right = px;
+            while (right < width - 1 && isFillable(data, mask, row + right + 1, low, high)) {
+                right++;
+            }
+            // mark span as filled
+            for (i = row + left; i <= row + right; i++) {
+                mask[i >>> 6] |= 1L << i;
+            }
+            count += right - left + 1;
+            if (left < minX) { minX = left; }
+            if (right > maxX) { maxX = right; }
+            if (py < minY) { minY = py; }
+            if (py > maxY) { maxY = py; }
+            // push first pixel of each fillable span in adjacent rows
+            for (int ny = py - 1; ny <= py + 1; ny += 2) {
+                if (ny < 0 || ny >= height) {
+                    continue;
+                }
+                final int nRow = ny * width;
+                boolean inSpan = false;
+                for (int nx = left; nx <= right; nx++) {
+                    if (isFillable(data, mask, nRow + nx, low, high)) {
+                        if (!inSpan) {
+                            if (size + 2 > stack.length) {
+                                stack = Arrays.copyOf(stack, stack.length * 2);
+                            }
+                            stack[size++] = nx;
+                            stack[size++] = ny;
+                            inSpan = true;
+                        }
+                    }
+                    else {
+                        inSpan = false;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of pixels in the last computed fill.
+     */
+    @Contract(pure = true)
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the height of the bounds of the last computed fill.
+     */
+    @Contract(pure = true)
+    public int getHeight() {
+        return maxY - minY + 1;
+    }
+
+    /**
+     * Returns the width of the bounds of the last computed fill.
+     */
+    @Contract(pure = true)
+    public int getWidth() {
+        return maxX - minX + 1;
+    }
+
+    /**
+     * Returns the horizontal coordinate of the bounds of the last computed
+     * fill.
+     */
+    @Contract(pure = true)
+    public int getX() {
+        return minX;
+    }
+
+    /**
+     * Returns the vertical coordinate of the bounds of the last computed
+     * fill.
+     */
+    @Contract(pure = true)
+    public int getY() {
+        return minY;
+    }
+}
@@ -0,0 +1,295 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Utility class for comparing two versions of a font and merging them into
+ * a new font. Glyphs are aligned by their character value, and each pair of
+ * aligned glyphs is compared by metrics (size, vertical offset and
+ * whitespace flag), horizontal offsets and data. Horizontal offsets are
+ * compared by the character values of the preceding glyphs, so they are
+ * equal even if the glyphs are ordered differently in the two fonts. Data
+ * is compared by hash first, and only data with equal hashes is compared
+ * byte for byte; the range of bytes that differ is reported for data with
+ * different hashes.
+ * <p>
+ * The merged font contains the glyphs of the first font in order, followed
+ * by the glyphs that only exist in the second font. Glyphs that differ are
+ * reported as conflicts and resolved by taking the glyph from the preferred
+ * font. If a font has more than one glyph with the same character value,
+ * then only the first is merged.
+ *
+ * @author Adam Martinu
+ * @see #merge(MutableFont, MutableFont, Preference)
+ * @since 1.0
+ */
+public class FontMerger {
+
+    /**
+     * Index of characters without a glyph in the index tables.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Compares the specified fonts and returns a new merged font with the
+     * conflicts between them. The glyphs of the merged font are copies, and
+     * the fonts are not modified.
+     *
+     * @param first      the first font
+     * @param second     the second font
+     * @param preference the font to take glyphs from if they conflict. The
+     *                   name and line height of the merged font are also
+     *                   taken from this font
+     * @return the result of the merge
+     * @throws NullPointerException if {@code first}, {@code second} or
+     *                              {@code preference} is {@code null}
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    @NotNull
+    public static Result merge(@NotNull final MutableFont first, @NotNull final MutableFont second,
+            @NotNull final Preference preference) {
+        Objects.requireNonNull(first, "first is null");
+        Objects.requireNonNull(second, "second is null");
+        Objects.requireNonNull(preference, "preference is null");
+        final List<MutableGlyph> glyphs1 = first.glyphList;
+        final List<MutableGlyph> glyphs2 = second.glyphList;
+        final int[] index1 = indexTable(glyphs1);
+        final int[] index2 = indexTable(glyphs2);
+        final MutableFont preferred = preference == Preference.FIRST ? first : second;
+
+        // glyphs of the merged font and the font each glyph is taken from
+        final ArrayList<MutableGlyph> sources = new ArrayList<>(glyphs1.size() + glyphs2.size());
+        final ArrayList<Conflict> conflicts = new ArrayList<>();
+        int identical = 0;
+        int firstOnly = 0;
+        int duplicates = 0;
+        for (int i = 0; i < glyphs1.size(); i++) {
+            final MutableGlyph glyph1 = glyphs1.get(i);
+            if (index1[glyph1.value] != i) {
+                duplicates++;
+                continue;
+            }
+            final int j = index2[glyph1.value];
+            if (j == NONE) {
+                sources.add(glyph1);
+                firstOnly++;
+                continue;
+            }
+            final MutableGlyph glyph2 = glyphs2.get(j);
+            final Conflict conflict = compare(glyph1, glyphs1, glyph2, glyphs2);
+            if (conflict == null) {
+                identical++;
+                sources.add(glyph1);
+            }
+            else {
+                conflicts.add(conflict);
+                sources.add(preference == Preference.FIRST ? glyph1 : glyph2);
+            }
+        }
+        int secondOnly = 0;
+        for (int j = 0; j < glyphs2.size(); j++) {
+            final MutableGlyph glyph2 = glyphs2.get(j);
+            if (index2[glyph2.value] != j) {
+                duplicates++;
+            }
+            else if (index1[glyph2.value] == NONE) {
+                sources.add(glyph2);
+                secondOnly++;
+            }
+        }
+
+        // copy glyphs with horizontal offsets remapped to the merged indices
+        final MutableFont font = new MutableFont(preferred.name, preferred.height);
+        final int[] mergedIndex = indexTable(sources);
+        for (MutableGlyph source : sources) {
+            final List<MutableGlyph> sourceGlyphs = index1[source.value] != NONE
+                    && glyphs1.get(index1[source.value]) == source ? glyphs1 : glyphs2;
+            final int[] offsetX = source.offsetX;
+            final int[] remapped = new int[offsetX.length & ~1];
+            int n = 0;
+            for (int k = 0; k + 1 < offsetX.length; k += 2) {
+                if (offsetX[k] >= 0 && offsetX[k] < sourceGlyphs.size()) {
+                    final int index = mergedIndex[sourceGlyphs.get(offsetX[k]).value];
+                    if (index != NONE) {
+                        remapped[n++] = index;
+                        remapped[n++] = offsetX[k + 1];
+                    }
+                }
+            }
+            font.glyphList.add(new MutableGlyph(source.value, source.width, source.height, source.isWhitespace,
+                    source.offsetY, Arrays.copyOf(remapped, n), source.getData().clone()));
+        }
+        return new Result(font, Collections.unmodifiableList(conflicts), identical, firstOnly, secondOnly,
+                duplicates, first.height != second.height);
+    }
+
+    /**
+     * Returns the conflict between the specified glyphs, or {@code null} if
+     * they are identical.
+     */
+    @Contract(pure = true)
+    private static Conflict compare(@NotNull final MutableGlyph glyph1, @NotNull final List<MutableGlyph> glyphs1,
+            @NotNull final MutableGlyph glyph2, @NotNull final List<MutableGlyph> glyphs2) {
+        final boolean metrics = glyph1.width != glyph2.width || glyph1.height != glyph2.height
+                || glyph1.offsetY != glyph2.offsetY || glyph1.isWhitespace != glyph2.isWhitespace;
+        final boolean offsets = !Arrays.equals(offsetKeys(glyph1, glyphs1), offsetKeys(glyph2, glyphs2));
+
+        final byte[] data1 = glyph1.getData();
+        final byte[] data2 = glyph2.getData();
+        int dataStart = -1;
+        int dataEnd = -1;
+        // hash first, data with equal hashes is most likely equal
+        if (DuplicateFinder.hash(data1, 0L) != DuplicateFinder.hash(data2, 0L) || !Arrays.equals(data1, data2)) {
+            dataStart = Arrays.mismatch(data1, data2);
+            dataEnd = Math.max(data1.length, data2.length);
+            if (data1.length == data2.length) {
+                while (data1[dataEnd - 1] == data2[dataEnd - 1]) {
+                    dataEnd--;
+                }
+            }
+        }
+        if (!metrics && !offsets && dataStart == -1) {
+            return null;
+        }
+        return new Conflict(glyph1.value, glyph1, glyph2, metrics, offsets, dataStart, dataEnd);
+    }
+
+    /**
+     * Returns a table of the index of the first glyph of each character
+     * value, or {@link #NONE}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    private static int[] indexTable(@NotNull final List<MutableGlyph> glyphs) {
+        final int[] table = new int[Character.MAX_VALUE + 1];
+        Arrays.fill(table, NONE);
+        for (int i = 0; i < glyphs.size(); i++) {
+            if (table[glyphs.get(i).value] == NONE) {
+                table[glyphs.get(i).value] = i;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the horizontal offsets of the specified glyph as sorted keys of
+     * the character value of the preceding glyph and the offset. Pairs with
+     * an invalid glyph index are ignored.
+     */
+    @Contract(pure = true)
+    @NotNull
+    private static long[] offsetKeys(@NotNull final MutableGlyph glyph, @NotNull final List<MutableGlyph> glyphs) {
+        final int[] offsetX = glyph.offsetX;
+        final long[] keys = new long[offsetX.length / 2];
+        int n = 0;
+        for (int i = 0; i + 1 < offsetX.length; i += 2) {
+            if (offsetX[i] >= 0 && offsetX[i] < glyphs.size()) {
+                keys[n++] = (long) glyphs.get(offsetX[i]).value << 32 | offsetX[i + 1] & 0xFFFFFFFFL;
+            }
+        }
+        final long[] sorted = Arrays.copyOf(keys, n);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * The font to take glyphs from when they conflict.
+     */
+    public enum Preference {
+        /**
+         * Take conflicting glyphs from the first font.
+         */
+        FIRST,
+        /**
+         * Take conflicting glyphs from the second font.
+         */
+        SECOND
+    }
+
+    /**
+     * Differences between two glyphs with the same character value.
+     *
+     * @param value     the character value of the glyphs
+     * @param first     the glyph in the first font
+     * @param second    the glyph in the second font
+     * @param metrics   {@code true} if the size, vertical offset or
+     *                  whitespace flag of the glyphs differ
+     * @param offsets   {@code true} if the horizontal offsets of the glyphs
+     *                  differ
+     * @param dataStart index of the first byte of data that differs, or
+     *                  {@code -1} if the data is equal
+     * @param dataEnd   index after the last byte of data that differs, or
+     *                  {@code -1} if the data is equal
+     */
+    public record Conflict(char value, @NotNull MutableGlyph first, @NotNull MutableGlyph second, boolean metrics,
+            boolean offsets, int dataStart, int dataEnd) {
+
+        /**
+         * Returns a description of the differences, for example
+         * {@code "metrics, data bytes 12-40"}.
+         */
+        @Contract(pure = true)
+        @NotNull
+        public String describe() {
+            final StringJoiner joiner = new StringJoiner(", ");
+            if (metrics) {
+                joiner.add("metrics");
+            }
+            if (offsets) {
+                joiner.add("horizontal offsets");
+            }
+            if (dataStart != -1) {
+                joiner.add("data bytes " + dataStart + "-" + dataEnd);
+            }
+            return joiner.toString();
+        }
+    }
+
+    /**
+     * The result of a merge.
+     *
+     * @param font         the merged font
+     * @param conflicts    the glyphs that differ between the fonts
+     * @param identical    the number of glyphs that are identical in both
+     *                     fonts
+     * @param firstOnly    the number of glyphs that only exist in the first
+     *                     font
+     * @param secondOnly   the number of glyphs that only exist in the second
+     *                     font
+     * @param duplicates   the number of glyphs that were not merged because
+     *                     their font has another glyph with the same
+     *                     character value
+     * @param heightDiffers {@code true} if the fonts have different line
+     *                      heights
+     */
+    public record Result(@NotNull MutableFont font, @NotNull List<Conflict> conflicts, int identical,
+            int firstOnly, int secondOnly, int duplicates, boolean heightDiffers) {
+
+        /**
+         * Returns a text summary of the merge and its conflicts.
+         */
+        @Contract(pure = true)
+        @NotNull
+        public String format() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append(identical).append(" identical, ").append(conflicts.size()).append(" conflicting, ")
+                    .append(firstOnly).append(" only in first, ").append(secondOnly).append(" only in second\n");
+            if (duplicates > 0) {
+                sb.append(duplicates).append(" glyphs with duplicate values were skipped\n");
+            }
+            if (heightDiffers) {
+                sb.append("the fonts have different line heights\n");
+            }
+            for (Conflict conflict : conflicts) {
+                sb.append('\n').append(conflict.first().name).append(": ").append(conflict.describe());
+            }
+            return sb.toString();
+        }
+    }
+}
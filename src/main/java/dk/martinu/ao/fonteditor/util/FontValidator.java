@@ -0,0 +1,324 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Validates a font on a background thread and reports problems as
+ * diagnostics. The following rules are checked:
+ * <ul>
+ *     <li>glyphs must be within the line height of the font</li>
+ *     <li>glyphs must have unique character values</li>
+ *     <li>horizontal offsets must be pairs of a valid glyph index and an
+ *     offset</li>
+ *     <li>the data length of glyphs must be {@code width * height}</li>
+ * </ul>
+ * Validation is incremental: the properties of each glyph are checked once
+ * and cached, and are only checked again when the glyph is passed to
+ * {@link #validate(Collection)}. Rules that compare glyphs with the font or
+ * with other glyphs are checked with the cached properties in linear time.
+ * Requests to validate the font while a validation is pending are merged
+ * into a single validation.
+ *
+ * @author Adam Martinu
+ * @see Diagnostic
+ * @since 1.0
+ */
+public class FontValidator {
+
+    /**
+     * The font to validate.
+     */
+    @NotNull
+    protected final MutableFont font;
+    /**
+     * Listener that is notified of new diagnostics on the validation thread.
+     */
+    @NotNull
+    protected final Consumer<List<Diagnostic>> listener;
+    /**
+     * Executor of the validation thread.
+     */
+    @NotNull
+    protected final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "font-validator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Glyphs that have changed since the last validation.
+     */
+    @NotNull
+    private final Set<MutableGlyph> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Glyphs of the font when validation was last requested.
+     */
+    @NotNull
+    private MutableGlyph[] glyphs = new MutableGlyph[0];
+    /**
+     * Line height of the font when validation was last requested.
+     */
+    private int height = 0;
+    /**
+     * {@code true} if a validation is scheduled and has not started,
+     * otherwise {@code false}.
+     */
+    private boolean scheduled = false;
+    /**
+     * Cached properties of each validated glyph. Only accessed on the
+     * validation thread.
+     */
+    @NotNull
+    private IdentityHashMap<MutableGlyph, Summary> cache = new IdentityHashMap<>();
+    /**
+     * Number of glyphs with each character value. Only accessed on the
+     * validation thread, and all zeros between validations.
+     */
+    @NotNull
+    private final int[] valueCounts = new int[Character.MAX_VALUE + 1];
+    /**
+     * The diagnostics of the last validation.
+     */
+    @NotNull
+    private volatile List<Diagnostic> diagnostics = List.of();
+
+    /**
+     * Constructs a new validator of the specified font. The font is not
+     * validated until {@link #validate(Collection)} is called.
+     *
+     * @param font     the font to validate
+     * @param listener the listener to notify when the diagnostics of the font
+     *                 change. The listener is notified on the validation
+     *                 thread
+     * @throws NullPointerException if {@code font} or {@code listener} is
+     *                              {@code null}
+     */
+    public FontValidator(@NotNull final MutableFont font, @NotNull final Consumer<List<Diagnostic>> listener) {
+        this.font = Objects.requireNonNull(font, "font is null");
+        this.listener = Objects.requireNonNull(listener, "listener is null");
+    }
+
+    /**
+     * Stops validation of the font. Pending validations are discarded.
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns an unmodifiable list of the diagnostics of the last
+     * validation.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Schedules a validation of the font on the validation thread. The
+     * properties of the specified glyphs are checked again, and glyphs that
+     * were added to the font since the last validation are checked for the
+     * first time.
+     * <p>
+     * This method must be called on the thread that edits the font, as the
+     * glyph list and line height of the font are copied before returning.
+     *
+     * @param changed the glyphs that have changed
+     * @throws NullPointerException if {@code changed} is {@code null}
+     */
+    public synchronized void validate(@NotNull final Collection<MutableGlyph> changed) {
+        Objects.requireNonNull(changed, "changed is null");
+        glyphs = font.glyphList.toArray(new MutableGlyph[0]);
+        height = font.height;
+        pending.addAll(changed);
+        if (!scheduled && !executor.isShutdown()) {
+            scheduled = true;
+            executor.execute(this::run);
+        }
+    }
+
+    /**
+     * Validates the font with the glyphs and line height of the last
+     * request, and notifies the listener if the diagnostics changed.
+     */
+    private void run() {
+        final MutableGlyph[] glyphs;
+        final int height;
+        final Set<MutableGlyph> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        synchronized (this) {
+            scheduled = false;
+            glyphs = this.glyphs;
+            height = this.height;
+            changed.addAll(pending);
+            pending.clear();
+        }
+
+        // check properties of new and changed glyphs only
+        final IdentityHashMap<MutableGlyph, Summary> next = new IdentityHashMap<>(glyphs.length);
+        final Summary[] summaries = new Summary[glyphs.length];
+        for (int i = 0; i < glyphs.length; i++) {
+            Summary summary = changed.contains(glyphs[i]) ? null : cache.get(glyphs[i]);
+            if (summary == null) {
+                summary = new Summary(glyphs[i]);
+            }
+            next.put(glyphs[i], summary);
+            summaries[i] = summary;
+        }
+        cache = next;
+
+        for (Summary summary : summaries) {
+            valueCounts[summary.value]++;
+        }
+        final ArrayList<Diagnostic> list = new ArrayList<>();
+        for (int i = 0; i < glyphs.length; i++) {
+            final Summary summary = summaries[i];
+            list.addAll(summary.diagnostics);
+            if (summary.bottom - summary.top > height) {
+                list.add(new Diagnostic(Severity.WARNING, glyphs[i], "glyph is taller than the line height ("
+                        + height + ")"));
+            }
+            else if (summary.top < 0 || summary.bottom > height) {
+                list.add(new Diagnostic(Severity.WARNING, glyphs[i], "glyph extends outside the line height ("
+                        + height + ")"));
+            }
+            if (valueCounts[summary.value] > 1) {
+                list.add(new Diagnostic(Severity.ERROR, glyphs[i], "duplicate character value '" + summary.value
+                        + "' (" + valueCounts[summary.value] + " glyphs)"));
+            }
+            if (summary.maxIndex >= glyphs.length) {
+                list.add(new Diagnostic(Severity.ERROR, glyphs[i], "horizontal offset refers to missing glyph "
+                        + "index " + summary.maxIndex));
+            }
+        }
+        for (Summary summary : summaries) {
+            valueCounts[summary.value] = 0;
+        }
+
+        final List<Diagnostic> result = Collections.unmodifiableList(list);
+        if (!result.equals(diagnostics)) {
+            diagnostics = result;
+            listener.accept(result);
+        }
+    }
+
+    /**
+     * Severity of a diagnostic.
+     */
+    public enum Severity {
+        /**
+         * The font can be saved, but may not be displayed as intended.
+         */
+        WARNING,
+        /**
+         * The font is invalid and may not be displayed or read correctly.
+         */
+        ERROR
+    }
+
+    /**
+     * A problem with a glyph in a font.
+     *
+     * @param severity the severity of the problem
+     * @param glyph    the glyph with the problem
+     * @param message  description of the problem
+     */
+    public record Diagnostic(@NotNull Severity severity, @NotNull MutableGlyph glyph, @NotNull String message) {
+
+        /**
+         * Returns {@code true} if {@code obj} is a diagnostic of the same
+         * glyph instance with an equal severity and message, otherwise
+         * {@code false}.
+         */
+        @Contract(value = "null -> false", pure = true)
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            return obj instanceof Diagnostic diagnostic && severity == diagnostic.severity
+                    && glyph == diagnostic.glyph && message.equals(diagnostic.message);
+        }
+
+        /**
+         * Returns a hash code of the severity, glyph instance and message of
+         * this diagnostic.
+         */
+        @Contract(pure = true)
+        @Override
+        public int hashCode() {
+            return Objects.hash(severity, System.identityHashCode(glyph), message);
+        }
+    }
+
+    /**
+     * Cached properties of a glyph, and the diagnostics of the rules that
+     * only depend on the glyph itself.
+     *
+     * @author Adam Martinu
+     * @since 1.0
+     */
+    protected static class Summary {
+
+        /**
+         * The character value of the glyph.
+         */
+        public final char value;
+        /**
+         * The top of the glyph relative to the top of the line.
+         */
+        public final int top;
+        /**
+         * The bottom of the glyph relative to the top of the line.
+         */
+        public final int bottom;
+        /**
+         * The largest glyph index in the horizontal offsets of the glyph, or
+         * {@code -1}.
+         */
+        public final int maxIndex;
+        /**
+         * Diagnostics of the glyph itself.
+         */
+        @NotNull
+        public final List<Diagnostic> diagnostics;
+
+        /**
+         * Checks the properties of the specified glyph.
+         */
+        public Summary(@NotNull final MutableGlyph glyph) {
+            value = glyph.value;
+            top = glyph.offsetY;
+            bottom = glyph.offsetY + glyph.height;
+            final ArrayList<Diagnostic> list = new ArrayList<>(0);
+            final int[] offsetX = glyph.offsetX;
+            int max = -1;
+            if (offsetX.length % 2 != 0) {
+                list.add(new Diagnostic(Severity.ERROR, glyph, "horizontal offsets have an odd length ("
+                        + offsetX.length + ")"));
+            }
+            for (int i = 0; i + 1 < offsetX.length; i += 2) {
+                if (offsetX[i] < 0) {
+                    list.add(new Diagnostic(Severity.ERROR, glyph, "horizontal offset refers to negative glyph "
+                            + "index " + offsetX[i]));
+                }
+                max = Math.max(max, offsetX[i]);
+            }
+            maxIndex = max;
+            // compressed data is always decoded to width * height
+            if (!glyph.isCompressed() && glyph.getDataSize() != glyph.width * glyph.height) {
+                list.add(new Diagnostic(Severity.ERROR, glyph, "data length (" + glyph.getDataSize()
+                        + ") does not match glyph size (" + glyph.width + "x" + glyph.height + ")"));
+            }
+            diagnostics = list;
+        }
+    }
+}
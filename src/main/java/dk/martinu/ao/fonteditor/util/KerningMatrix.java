@@ -0,0 +1,350 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import dk.martinu.ao.fonteditor.MutableFont;
+import dk.martinu.ao.fonteditor.MutableGlyph;
+
+/**
+ * Sparse matrix of horizontal offsets between pairs of glyphs, indexed by
+ * the position of each glyph in the glyph list of a font. The offset of a
+ * pair is added to the position of the right glyph when it is drawn after
+ * the left glyph, and corresponds to the {@code [left, offset]} pairs in the
+ * {@code offsetX} array of the right glyph.
+ * <p>
+ * Pairs are stored in an open addressing hash table of primitive
+ * {@code long} keys and {@code int} offsets, so lookups and changes take
+ * constant time without boxing, regardless of the number of pairs.
+ *
+ * @author Adam Martinu
+ * @see #of(MutableFont)
+ * @see #toOffsetX(int)
+ * @since 1.0
+ */
+public class KerningMatrix {
+
+    /**
+     * Key of empty slots in the hash table. Keys of pairs are never negative.
+     */
+    private static final long EMPTY = -1L;
+
+    /**
+     * Returns the key of the pair with the specified glyph indices. Keys are
+     * ordered by left index first and then by right index.
+     *
+     * @param left  index of the left glyph
+     * @param right index of the right glyph
+     * @return the key of the pair
+     * @throws IllegalArgumentException if {@code left} or {@code right} is
+     *                                  negative
+     */
+    @Contract(pure = true)
+    public static long key(final int left, final int right) {
+        if (left < 0 || right < 0) {
+            throw new IllegalArgumentException("glyph index is negative");
+        }
+        return (long) left << 32 | right;
+    }
+
+    /**
+     * Returns the index of the left glyph of the specified key.
+     */
+    @Contract(pure = true)
+    public static int left(final long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Returns a new matrix with the horizontal offsets of all glyphs in the
+     * specified font. Pairs with a negative glyph index are ignored.
+     *
+     * @param font the font to read offsets from
+     * @return a new matrix
+     * @throws NullPointerException if {@code font} is {@code null}
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static KerningMatrix of(@NotNull final MutableFont font) {
+        Objects.requireNonNull(font, "font is null");
+        final List<MutableGlyph> glyphs = font.glyphList;
+        int count = 0;
+        for (MutableGlyph glyph : glyphs) {
+            count += glyph.offsetX.length / 2;
+        }
+        final KerningMatrix matrix = new KerningMatrix(count);
+        for (int right = 0; right < glyphs.size(); right++) {
+            final int[] offsetX = glyphs.get(right).offsetX;
+            for (int i = 0; i + 1 < offsetX.length; i += 2) {
+                if (offsetX[i] >= 0) {
+                    matrix.put(offsetX[i], right, offsetX[i + 1]);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the index of the right glyph of the specified key.
+     */
+    @Contract(pure = true)
+    public static int right(final long key) {
+        return (int) key;
+    }
+
+    /**
+     * Returns the slot of the specified key in a table of the specified
+     * mask.
+     */
+    @Contract(pure = true)
+    private static int hash(final long key, final int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h & mask;
+    }
+
+    /**
+     * Keys of the pairs in the hash table, or {@code EMPTY}.
+     */
+    private long[] keys;
+    /**
+     * Offsets of the pairs in the hash table.
+     */
+    private int[] offsets;
+    /**
+     * The number of pairs in the matrix.
+     */
+    private int size = 0;
+
+    /**
+     * Constructs a new empty matrix.
+     */
+    public KerningMatrix() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new empty matrix with room for the specified number of
+     * pairs before the hash table is resized.
+     *
+     * @param expectedSize the expected number of pairs
+     */
+    public KerningMatrix(final int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2 && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        offsets = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Returns {@code true} if the matrix contains the specified pair,
+     * otherwise {@code false}.
+     *
+     * @param left  index of the left glyph
+     * @param right index of the right glyph
+     */
+    @Contract(pure = true)
+    public boolean contains(final int left, final int right) {
+        return left >= 0 && right >= 0 && find(key(left, right)) != -1;
+    }
+
+    /**
+     * Returns the offset of the specified pair, or {@code 0} if the matrix
+     * does not contain the pair.
+     *
+     * @param left  index of the left glyph
+     * @param right index of the right glyph
+     */
+    @Contract(pure = true)
+    public int get(final int left, final int right) {
+        return left >= 0 && right >= 0 ? get(key(left, right)) : 0;
+    }
+
+    /**
+     * Returns the offset of the pair with the specified key, or {@code 0} if
+     * the matrix does not contain the pair.
+     *
+     * @param key the key of the pair
+     * @see #key(int, int)
+     */
+    @Contract(pure = true)
+    public int get(final long key) {
+        final int slot = find(key);
+        return slot != -1 ? offsets[slot] : 0;
+    }
+
+    /**
+     * Returns a new array of the keys of all pairs in the matrix, in
+     * ascending order.
+     *
+     * @see #key(int, int)
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public long[] keys() {
+        final long[] array = new long[size];
+        int n = 0;
+        for (long key : keys) {
+            if (key != EMPTY) {
+                array[n++] = key;
+            }
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Sets the offset of the specified pair, adding the pair if the matrix
+     * does not contain it.
+     *
+     * @param left   index of the left glyph
+     * @param right  index of the right glyph
+     * @param offset the horizontal offset
+     * @return {@code true} if the pair was added, {@code false} if the offset
+     * of an existing pair was replaced
+     * @throws IllegalArgumentException if {@code left} or {@code right} is
+     *                                  negative
+     */
+    @Contract(mutates = "this")
+    public boolean put(final int left, final int right, final int offset) {
+        final long key = key(left, right);
+        final int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                offsets[slot] = offset;
+                return false;
+            }
+            slot = slot + 1 & mask;
+        }
+        keys[slot] = key;
+        offsets[slot] = offset;
+        if (++size * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified pair from the matrix.
+     *
+     * @param left  index of the left glyph
+     * @param right index of the right glyph
+     * @return {@code true} if the pair was removed, otherwise {@code false}
+     */
+    @Contract(mutates = "this")
+    public boolean remove(final int left, final int right) {
+        if (left < 0 || right < 0) {
+            return false;
+        }
+        int slot = find(key(left, right));
+        if (slot == -1) {
+            return false;
+        }
+        // shift following keys of the same cluster back into the hole
+        final int mask = keys.length - 1;
+        int next = slot + 1 & mask;
+        while (keys[next] != EMPTY) {
+            final int home = hash(keys[next], mask);
+            // move key if its home slot is not between the hole and next
+            if ((next - home & mask) >= (next - slot & mask)) {
+                keys[slot] = keys[next];
+                offsets[slot] = offsets[next];
+                slot = next;
+            }
+            next = next + 1 & mask;
+        }
+        keys[slot] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of pairs in the matrix.
+     */
+    @Contract(pure = true)
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the horizontal offsets of each glyph in a font of
+     * {@code glyphCount} glyphs, in the format of
+     * {@link MutableGlyph#offsetX}. Pairs are ordered by the index of the
+     * left glyph, and pairs with a right glyph index outside the font are
+     * not included.
+     *
+     * @param glyphCount the number of glyphs in the font
+     * @return a new array of horizontal offsets for each glyph
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public int[][] toOffsetX(final int glyphCount) {
+        final long[] sorted = keys();
+        final int[] counts = new int[glyphCount];
+        for (long key : sorted) {
+            if (right(key) < glyphCount) {
+                counts[right(key)]++;
+            }
+        }
+        final int[][] offsetX = new int[glyphCount][];
+        for (int i = 0; i < glyphCount; i++) {
+            offsetX[i] = new int[counts[i] * 2];
+            counts[i] = 0;
+        }
+        for (long key : sorted) {
+            final int right = right(key);
+            if (right < glyphCount) {
+                offsetX[right][counts[right]++] = left(key);
+                offsetX[right][counts[right]++] = get(key);
+            }
+        }
+        return offsetX;
+    }
+
+    /**
+     * Returns the slot of the specified key, or {@code -1} if the matrix does
+     * not contain the key.
+     */
+    @Contract(pure = true)
+    private int find(final long key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves all pairs into a new hash table of the specified capacity.
+     */
+    private void resize(final int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldOffsets = offsets;
+        keys = new long[capacity];
+        offsets = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = slot + 1 & mask;
+                }
+                keys[slot] = oldKeys[i];
+                offsets[slot] = oldOffsets[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Measures the time spent in consecutive phases of a task, such as starting
+ * the editor. Each call to {@link #mark(String)} ends a phase that began at
+ * the previous mark, and {@link #format()} returns a report of all phases.
+ * <p>
+ * If the timer is created with {@link #sinceProcessStart()}, then the first
+ * phase begins when the process was started, and includes the time spent
+ * starting the JVM and loading classes before the timer was created.
+ * <p>
+ * This implementation is threadsafe, but phases are only meaningful if they
+ * are marked in order.
+ *
+ * @author Adam Martinu
+ * @since 1.0
+ */
+public class PhaseTimer {
+
+    /**
+     * Returns a new timer whose first phase begins when the current process
+     * was started. If the start time of the process is not available, then
+     * the first phase begins when the timer is created.
+     *
+     * @return a new timer
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull
+    public static PhaseTimer sinceProcessStart() {
+        final long now = System.nanoTime();
+        final long elapsed = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toNanos())
+                .orElse(0L);
+        return new PhaseTimer(now - Math.max(0L, elapsed));
+    }
+
+    /**
+     * The names of the phases that have ended, in order.
+     */
+    @NotNull
+    protected final ArrayList<String> phases = new ArrayList<>();
+    /**
+     * The duration of each phase in nanoseconds.
+     */
+    @NotNull
+    protected final ArrayList<Long> durations = new ArrayList<>();
+    /**
+     * The time in nanoseconds when the first phase began.
+     *
+     * @see System#nanoTime()
+     */
+    protected final long origin;
+    /**
+     * The time in nanoseconds when the current phase began.
+     */
+    protected long last;
+
+    /**
+     * Constructs a new timer whose first phase begins now.
+     */
+    public PhaseTimer() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Constructs a new timer whose first phase begins at the specified time.
+     *
+     * @param origin the time in nanoseconds when the first phase began
+     * @see System#nanoTime()
+     */
+    protected PhaseTimer(final long origin) {
+        this.origin = origin;
+        last = origin;
+    }
+
+    /**
+     * Returns a report of the duration of each phase and the total time in
+     * milliseconds, one phase per line.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public synchronized String format() {
+        final StringBuilder sb = new StringBuilder();
+        int width = 5;
+        for (String phase : phases) {
+            width = Math.max(width, phase.length());
+        }
+        for (int i = 0; i < phases.size(); i++) {
+            sb.append(String.format(Locale.ROOT, "%-" + width + "s %8.1f ms%n", phases.get(i),
+                    durations.get(i) / 1_000_000.0d));
+        }
+        sb.append(String.format(Locale.ROOT, "%-" + width + "s %8.1f ms", "total", (last - origin) / 1_000_000.0d));
+        return sb.toString();
+    }
+
+    /**
+     * Ends the current phase and begins a new phase.
+     *
+     * @param phase the name of the phase that ended
+     * @return the duration of the phase in nanoseconds
+     * @throws NullPointerException if {@code phase} is {@code null}
+     */
+    public synchronized long mark(@NotNull final String phase) {
+        Objects.requireNonNull(phase, "phase is null");
+        final long now = System.nanoTime();
+        final long duration = now - last;
+        phases.add(phase);
+        durations.add(duration);
+        last = now;
+        return duration;
+    }
+}
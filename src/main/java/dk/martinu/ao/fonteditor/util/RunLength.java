@@ -0,0 +1,112 @@
+package dk.martinu.ao.fonteditor.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Utility class for run-length encoding of alpha values, using the PackBits
+ * scheme. Encoded data is a sequence of packets, each starting with a header
+ * byte {@code n}:
+ * <ul>
+ *     <li>{@code 0 <= n <= 127}: the next {@code n + 1} bytes are copied
+ *     literally.</li>
+ *     <li>{@code -127 <= n <= -1}: the next byte is repeated
+ *     {@code 1 - n} times.</li>
+ *     <li>{@code n == -128}: no operation.</li>
+ * </ul>
+ * Glyph data consists mostly of long runs of {@code 0} and {@code 255}, which
+ * are stored as two bytes per 128 pixels, while antialiased edges are stored
+ * as literals with one byte of overhead per 128 pixels.
+ *
+ * @author Adam Martinu
+ * @see #encode(byte[])
+ * @see #decode(byte[], int)
+ * @since 1.0
+ */
+public class RunLength {
+
+    /**
+     * Decodes the specified run-length encoded data into a new array of the
+     * specified length.
+     *
+     * @param encoded the encoded data
+     * @param length  the number of decoded values
+     * @return a new array of decoded values
+     * @throws NullPointerException     if {@code encoded} is {@code null}
+     * @throws IllegalArgumentException if the encoded data is malformed or
+     *                                  does not decode to exactly
+     *                                  {@code length} values
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    @NotNull
+    public static byte[] decode(@NotNull final byte[] encoded, final int length) {
+        Objects.requireNonNull(encoded, "encoded is null");
+        final byte[] data = new byte[length];
+        int i = 0;
+        int j = 0;
+        try {
+            while (i < encoded.length) {
+                final int n = encoded[i++];
+                if (n >= 0) {
+                    System.arraycopy(encoded, i, data, j, n + 1);
+                    i += n + 1;
+                    j += n + 1;
+                }
+                else if (n != -128) {
+                    Arrays.fill(data, j, j + 1 - n, encoded[i++]);
+                    j += 1 - n;
+                }
+            }
+        }
+        catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("malformed run-length encoded data", e);
+        }
+        if (j != length) {
+            throw new IllegalArgumentException("decoded length " + j + " does not match " + length);
+        }
+        return data;
+    }
+
+    /**
+     * Returns the run-length encoding of the specified values.
+     *
+     * @param data the values to encode
+     * @return a new array of encoded data
+     * @throws NullPointerException if {@code data} is {@code null}
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull
+    public static byte[] encode(@NotNull final byte[] data) {
+        Objects.requireNonNull(data, "data is null");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 16);
+        int i = 0;
+        while (i < data.length) {
+            // length of run starting at i
+            int run = 1;
+            while (i + run < data.length && run < 128 && data[i + run] == data[i]) {
+                run++;
+            }
+            if (run > 1) {
+                out.write(1 - run);
+                out.write(data[i]);
+                i += run;
+            }
+            else {
+                // literal until the next run of at least 2 values
+                int end = i + 1;
+                while (end < data.length && end - i < 128
+                        && (end + 1 >= data.length || data[end] != data[end + 1])) {
+                    end++;
+                }
+                out.write(end - i - 1);
+                out.write(data, i, end - i);
+                i = end;
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -9,4 +9,5 @@ module FontEditor.main {
     exports dk.martinu.ao.fonteditor.util;
     exports dk.martinu.ao.fonteditor.swing;
     exports dk.martinu.ao.fonteditor.edit;
+    exports dk.martinu.ao.fonteditor.io;
 }
\ No newline at end of file